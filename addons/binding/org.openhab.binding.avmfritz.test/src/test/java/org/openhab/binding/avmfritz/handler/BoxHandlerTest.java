@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.avmfritz.handler;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+import static org.openhab.binding.avmfritz.BindingConstants.THING_AIN;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.openhab.binding.avmfritz.internal.ahamodel.DeviceModel;
+import org.openhab.binding.avmfritz.internal.ahamodel.PowerMeterModel;
+import org.openhab.binding.avmfritz.internal.ahamodel.SwitchModel;
+
+/**
+ * Tests which devices of a poll the {@link BoxHandler} passes to the handlers of the devices.
+ *
+ * @author agent - Initial contribution
+ */
+public class BoxHandlerTest {
+
+    private static final int NUMBER_OF_DEVICES = 25;
+
+    @Mock
+    private Bridge bridge;
+
+    private BoxHandler boxHandler;
+    private final List<DeviceHandler> deviceHandlers = new ArrayList<>();
+    private final List<Thing> things = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        boxHandler = new BoxHandler(bridge);
+        for (int i = 0; i < NUMBER_OF_DEVICES; i++) {
+            things.add(createThing(i));
+            deviceHandlers.add(createDeviceHandler(things.get(i)));
+            boxHandler.childHandlerInitialized(deviceHandlers.get(i), things.get(i));
+        }
+    }
+
+    @Test
+    public void firstPollUpdatesEveryDevice() {
+        poll(-1);
+
+        for (DeviceHandler deviceHandler : deviceHandlers) {
+            verify(deviceHandler).onDeviceUpdated(any(DeviceModel.class));
+        }
+    }
+
+    @Test
+    public void unchangedDevicesAreNotUpdatedAgain() {
+        poll(-1);
+        poll(-1);
+
+        for (DeviceHandler deviceHandler : deviceHandlers) {
+            verify(deviceHandler, times(1)).onDeviceUpdated(any(DeviceModel.class));
+        }
+    }
+
+    @Test
+    public void onlyTheChangedDeviceIsUpdatedAgain() {
+        poll(-1);
+        poll(7);
+
+        for (int i = 0; i < NUMBER_OF_DEVICES; i++) {
+            verify(deviceHandlers.get(i), times(i == 7 ? 2 : 1)).onDeviceUpdated(any(DeviceModel.class));
+        }
+    }
+
+    @Test
+    public void newHandlerIsUpdatedByTheNextPoll() {
+        poll(-1);
+        DeviceHandler newHandler = createDeviceHandler(things.get(3));
+        boxHandler.childHandlerInitialized(newHandler, things.get(3));
+        poll(-1);
+
+        verify(newHandler).onDeviceUpdated(any(DeviceModel.class));
+        verify(deviceHandlers.get(3), times(1)).onDeviceUpdated(any(DeviceModel.class));
+    }
+
+    @Test
+    public void disposedHandlerIsNotUpdated() {
+        poll(-1);
+        boxHandler.childHandlerDisposed(deviceHandlers.get(5), things.get(5));
+        poll(5);
+
+        verify(deviceHandlers.get(5), times(1)).onDeviceUpdated(any(DeviceModel.class));
+    }
+
+    /**
+     * Passes the device models of one poll to the {@link BoxHandler}, new instances like the ones of a parsed
+     * response.
+     *
+     * @param changedDevice index of the device with a changed power value, -1 for none
+     */
+    private void poll(int changedDevice) {
+        for (int i = 0; i < NUMBER_OF_DEVICES; i++) {
+            boxHandler.addDeviceList(createDevice(i, i == changedDevice ? 1230 : 45670));
+        }
+    }
+
+    private static String getAin(int index) {
+        return String.format("08761 00001%02d", index);
+    }
+
+    private static Thing createThing(int index) {
+        Thing thing = mock(Thing.class);
+        when(thing.getConfiguration())
+                .thenReturn(new Configuration(Collections.<String, Object> singletonMap(THING_AIN, getAin(index))));
+        return thing;
+    }
+
+    private static DeviceHandler createDeviceHandler(Thing thing) {
+        DeviceHandler deviceHandler = mock(DeviceHandler.class);
+        when(deviceHandler.getThing()).thenReturn(thing);
+        return deviceHandler;
+    }
+
+    private static DeviceModel createDevice(int index, int power) {
+        DeviceModel device = new DeviceModel();
+        device.setIdentifier(getAin(index));
+        device.setDeviceId(String.valueOf(16 + index));
+        device.setBitmask(2944);
+        device.setFirmwareVersion("03.83");
+        device.setManufacturer("AVM");
+        device.setProductName("FRITZ!DECT 200");
+        device.setPresent(1);
+        device.setName("FRITZ!DECT 200 #" + index);
+        SwitchModel switchModel = new SwitchModel();
+        switchModel.setState(SwitchModel.ON);
+        switchModel.setMode(SwitchModel.MODE_FRITZ_AUTO);
+        switchModel.setLock(BigDecimal.ZERO);
+        device.setSwitch(switchModel);
+        PowerMeterModel powermeter = new PowerMeterModel();
+        powermeter.setPower(BigDecimal.valueOf(power));
+        powermeter.setEnergy(BigDecimal.valueOf(2087));
+        device.setPowermeter(powermeter);
+        return device;
+    }
+}
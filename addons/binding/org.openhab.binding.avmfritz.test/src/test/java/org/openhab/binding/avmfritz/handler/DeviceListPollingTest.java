@@ -0,0 +1,220 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.avmfritz.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.avmfritz.config.AvmFritzConfiguration;
+import org.openhab.binding.avmfritz.internal.ahamodel.DeviceModel;
+import org.openhab.binding.avmfritz.internal.hardware.FritzahaWebInterface;
+
+/**
+ * Tests the requests a {@link DeviceListPolling} sends to a FRITZ!Box. A local HTTP stand-in of a FRITZ!Box with 25
+ * FRITZ!DECT 200 counts the requests.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceListPollingTest {
+
+    private static final int NUMBER_OF_DEVICES = 25;
+    private static final String SID = "4ac4f4d6fd2a2b5f";
+
+    private FritzBoxStandIn box;
+    private RecordingHandler handler;
+
+    @Before
+    public void setUp() throws IOException {
+        box = new FritzBoxStandIn();
+
+        AvmFritzConfiguration config = new AvmFritzConfiguration();
+        config.setProtocol("http");
+        config.setIpAddress("localhost");
+        config.setPort(box.getPort());
+        config.setPassword("secret");
+        config.setSyncTimeout(2000);
+        config.setAsyncTimeout(10000);
+        config.setPollingInterval(15);
+
+        handler = new RecordingHandler();
+        handler.webInterface = new FritzahaWebInterface(config, handler);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        box.close();
+    }
+
+    @Test
+    public void pollRequestsTheDeviceListOnceForAllDevices() throws InterruptedException {
+        assertThat(handler.webInterface.isAuthenticated(), is(true));
+        box.requests.clear();
+
+        new DeviceListPolling(handler).run();
+
+        assertThat(handler.polls.tryAcquire(10, TimeUnit.SECONDS), is(true));
+        assertThat(box.requests.size(), is(1));
+        assertThat(box.requests.get(0),
+                is("/webservices/homeautoswitch.lua?switchcmd=getdevicelistinfos&sid=" + SID));
+        assertThat(handler.devices.size(), is(NUMBER_OF_DEVICES));
+    }
+
+    @Test
+    public void pollsReuseTheSession() throws InterruptedException {
+        box.requests.clear();
+        DeviceListPolling polling = new DeviceListPolling(handler);
+
+        for (int i = 0; i < 3; i++) {
+            polling.run();
+            assertThat(handler.polls.tryAcquire(10, TimeUnit.SECONDS), is(true));
+        }
+
+        assertThat(box.requests.size(), is(3));
+        for (String request : box.requests) {
+            assertThat(request, startsWith("/webservices/homeautoswitch.lua?"));
+        }
+        assertThat(handler.devices.size(), is(3 * NUMBER_OF_DEVICES));
+    }
+
+    /**
+     * Records the device models passed by the polls. A poll is complete when the bridge is set online.
+     */
+    private static class RecordingHandler implements IFritzHandler {
+
+        private final List<DeviceModel> devices = Collections.synchronizedList(new ArrayList<DeviceModel>());
+        private final Semaphore polls = new Semaphore(0);
+        private FritzahaWebInterface webInterface;
+
+        @Override
+        public void setStatusInfo(ThingStatus status, ThingStatusDetail statusDetail, String description) {
+            if (status == ThingStatus.ONLINE && "FRITZ!Box online".equals(description)) {
+                polls.release();
+            }
+        }
+
+        @Override
+        public void addDeviceList(DeviceModel model) {
+            devices.add(model);
+        }
+
+        @Override
+        public FritzahaWebInterface getWebInterface() {
+            return webInterface;
+        }
+    }
+
+    /**
+     * Answers the login and the <b>getdevicelistinfos</b> requests of a FRITZ!Box over HTTP/1.1 connections, which
+     * are kept open for further requests.
+     */
+    private static class FritzBoxStandIn implements Runnable {
+
+        private final ServerSocket serverSocket;
+        private final List<String> requests = Collections.synchronizedList(new ArrayList<String>());
+
+        FritzBoxStandIn() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread thread = new Thread(this, "FRITZ!Box stand-in");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            serve(socket);
+                        }
+                    }, "FRITZ!Box stand-in connection");
+                    thread.setDaemon(true);
+                    thread.start();
+                } catch (IOException e) {
+                    // the stand-in has been closed
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (Socket connection = socket) {
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(connection.getInputStream(), StandardCharsets.ISO_8859_1));
+                OutputStream out = connection.getOutputStream();
+                String requestLine;
+                while ((requestLine = in.readLine()) != null) {
+                    String header;
+                    while ((header = in.readLine()) != null && !header.isEmpty()) {
+                        // the headers are not needed
+                    }
+                    String path = requestLine.split(" ")[1];
+                    requests.add(path);
+
+                    byte[] body = respond(path).getBytes(StandardCharsets.UTF_8);
+                    out.write(("HTTP/1.1 200 OK\r\nContent-Type: text/xml; charset=utf-8\r\nContent-Length: "
+                            + body.length + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                    out.write(body);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // the client has closed the connection
+            }
+        }
+
+        private String respond(String path) {
+            if (path.startsWith("/login_sid.lua")) {
+                return "<?xml version=\"1.0\" encoding=\"utf-8\"?><SessionInfo><SID>" + SID
+                        + "</SID><Challenge>1234567z</Challenge><BlockTime>0</BlockTime><Rights><Name>HomeAuto</Name>"
+                        + "<Access>2</Access><Name>App</Name><Access>2</Access></Rights></SessionInfo>";
+            } else if (path.contains("switchcmd=getdevicelistinfos")) {
+                StringBuilder devicelist = new StringBuilder("<devicelist version=\"1\">");
+                for (int i = 0; i < NUMBER_OF_DEVICES; i++) {
+                    devicelist.append(String.format("<device identifier=\"08761 00001%02d\" id=\"%d\" "
+                            + "functionbitmask=\"2944\" fwversion=\"03.83\" manufacturer=\"AVM\" "
+                            + "productname=\"FRITZ!DECT 200\"><present>1</present><name>FRITZ!DECT 200 #%d</name>"
+                            + "<switch><state>1</state><mode>auto</mode><lock>0</lock><devicelock>0</devicelock>"
+                            + "</switch><powermeter><power>45670</power><energy>2087</energy></powermeter>"
+                            + "<temperature><celsius>225</celsius><offset>0</offset></temperature></device>", i,
+                            16 + i, i));
+                }
+                return devicelist.append("</devicelist>").toString();
+            }
+            return "";
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.avmfritz.util;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.junit.Test;
+import org.openhab.binding.avmfritz.internal.ahamodel.DeviceModel;
+import org.openhab.binding.avmfritz.internal.ahamodel.DevicelistModel;
+import org.openhab.binding.avmfritz.internal.ahamodel.HeatingModel;
+
+/**
+ * Tests the {@link DevicelistParser} with the answer of a FRITZ!Box 7490 (FRITZ!OS 6.90) to
+ * <b>getdevicelistinfos</b>.
+ *
+ * @author agent - Initial contribution
+ */
+public class DevicelistParserTest {
+
+    @Test
+    public void parseDevices() throws Exception {
+        DevicelistModel model = DevicelistParser.parse(readDevicelist());
+
+        assertThat(model.getXmlApiVersion(), is("1"));
+        // the group is not a device
+        assertThat(model.getDevicelist().size(), is(4));
+    }
+
+    @Test
+    public void parseSwitchableOutlet() throws Exception {
+        DeviceModel device = DevicelistParser.parse(readDevicelist()).getDevicelist().get(0);
+
+        assertThat(device.getIdentifier(), is("087610000434"));
+        assertThat(device.getDeviceId(), is("17"));
+        assertThat(device.getProductName(), is("FRITZ!DECT 200"));
+        assertThat(device.getFirmwareVersion(), is("03.83"));
+        assertThat(device.getManufacturer(), is("AVM"));
+        assertThat(device.getName(), is("Kaffeemaschine"));
+        assertThat(device.getPresent(), is(1));
+        assertThat(device.isSwitchableOutlet(), is(true));
+        assertThat(device.isPowermeter(), is(true));
+        assertThat(device.isTempSensor(), is(true));
+        assertThat(device.isHeatingThermostat(), is(false));
+        assertThat(device.getSwitch().getState(), is(BigDecimal.ONE));
+        assertThat(device.getSwitch().getLock(), is(BigDecimal.ZERO));
+        assertThat(device.getPowermeter().getPower(), is(new BigDecimal("45.670")));
+        assertThat(device.getPowermeter().getEnergy(), is(new BigDecimal("2.087")));
+        assertThat(device.getTemperature().getCelsius(), is(new BigDecimal("25.5")));
+        assertThat(device.getHkr(), is(nullValue()));
+    }
+
+    @Test
+    public void parseDeviceWhichIsNotPresent() throws Exception {
+        DeviceModel device = DevicelistParser.parse(readDevicelist()).getDevicelist().get(1);
+
+        assertThat(device.getIdentifier(), is("087610000438"));
+        assertThat(device.getPresent(), is(0));
+        assertThat(device.getSwitch().getState(), is(nullValue()));
+        assertThat(device.getPowermeter().getPower(), is(BigDecimal.ZERO));
+        assertThat(device.getTemperature().getCelsius(), is(BigDecimal.ZERO));
+    }
+
+    @Test
+    public void parseRepeater() throws Exception {
+        DeviceModel device = DevicelistParser.parse(readDevicelist()).getDevicelist().get(2);
+
+        assertThat(device.getProductName(), is("FRITZ!DECT Repeater 100"));
+        assertThat(device.isDectRepeater(), is(true));
+        assertThat(device.isSwitchableOutlet(), is(false));
+        assertThat(device.getSwitch(), is(nullValue()));
+        assertThat(device.getTemperature().getCelsius(), is(new BigDecimal("23.0")));
+    }
+
+    @Test
+    public void parseHeatingThermostat() throws Exception {
+        DeviceModel device = DevicelistParser.parse(readDevicelist()).getDevicelist().get(3);
+
+        assertThat(device.getIdentifier(), is("119590171328"));
+        assertThat(device.isHeatingThermostat(), is(true));
+        assertThat(device.getTemperature().getOffset(), is(new BigDecimal("-1.0")));
+
+        HeatingModel heating = device.getHkr();
+        assertThat(heating.getTist(), is(new BigDecimal("41")));
+        assertThat(heating.getTsoll(), is(new BigDecimal("44")));
+        assertThat(heating.getAbsenk(), is(new BigDecimal("32")));
+        assertThat(heating.getKomfort(), is(new BigDecimal("44")));
+        assertThat(heating.getErrorcode(), is("0"));
+        assertThat(heating.getBatterylow(), is(BigDecimal.ZERO));
+        assertThat(heating.getNextchange().getEndperiod(), is(1508443200));
+        assertThat(heating.getNextchange().getTchange(), is(new BigDecimal("32")));
+    }
+
+    @Test
+    public void parseTheSameResponseTwiceGivesEqualModels() throws Exception {
+        String xml = readDevicelist();
+
+        DevicelistModel first = DevicelistParser.parse(xml);
+        DevicelistModel second = DevicelistParser.parse(xml);
+
+        for (int i = 0; i < first.getDevicelist().size(); i++) {
+            assertThat(second.getDevicelist().get(i), is(first.getDevicelist().get(i)));
+            assertThat(second.getDevicelist().get(i).hashCode(), is(first.getDevicelist().get(i).hashCode()));
+        }
+    }
+
+    @Test
+    public void parseChangedValueGivesDifferentModel() throws Exception {
+        String xml = readDevicelist();
+
+        DeviceModel first = DevicelistParser.parse(xml).getDevicelist().get(0);
+        DeviceModel second = DevicelistParser.parse(xml.replace("<power>45670</power>", "<power>1230</power>"))
+                .getDevicelist().get(0);
+
+        assertThat(second, is(not(first)));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void parseOtherDocumentFails() throws Exception {
+        DevicelistParser.parse("<?xml version=\"1.0\" encoding=\"utf-8\"?><SessionInfo><SID>0</SID></SessionInfo>");
+    }
+
+    private String readDevicelist() throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("input/devicelist.xml")) {
+            ByteArrayOutputStream xml = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                xml.write(buffer, 0, read);
+            }
+            return new String(xml.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -10,19 +10,12 @@ package org.openhab.binding.avmfritz.handler;
 
 import static org.openhab.binding.avmfritz.BindingConstants.*;
 
-import java.math.BigDecimal;
-import java.util.Calendar;
-import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
-import org.eclipse.smarthome.core.library.types.DateTimeType;
-import org.eclipse.smarthome.core.library.types.DecimalType;
-import org.eclipse.smarthome.core.library.types.OnOffType;
-import org.eclipse.smarthome.core.library.types.OpenClosedType;
-import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.thing.Bridge;
-import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
@@ -31,15 +24,12 @@ import org.eclipse.smarthome.core.thing.ThingStatusInfo;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
-import org.eclipse.smarthome.core.types.State;
-import org.eclipse.smarthome.core.types.UnDefType;
 import org.openhab.binding.avmfritz.BindingConstants;
 import org.openhab.binding.avmfritz.config.AvmFritzConfiguration;
 import org.openhab.binding.avmfritz.internal.ahamodel.DeviceModel;
-import org.openhab.binding.avmfritz.internal.ahamodel.HeatingModel;
-import org.openhab.binding.avmfritz.internal.ahamodel.SwitchModel;
 import org.openhab.binding.avmfritz.internal.hardware.FritzahaWebInterface;
 import org.openhab.binding.avmfritz.internal.hardware.callbacks.FritzAhaUpdateXmlCallback;
 import org.slf4j.Logger;
@@ -73,6 +63,14 @@ public class BoxHandler extends BaseBridgeHandler implements IFritzHandler {
      * Schedule for polling
      */
     private ScheduledFuture<?> pollingJob;
+    /**
+     * Handlers of the devices connected to the FRITZ!Box, by AIN
+     */
+    private final Map<String, DeviceHandler> deviceHandlers = new ConcurrentHashMap<>();
+    /**
+     * Device models of the last poll, by AIN
+     */
+    private final Map<String, DeviceModel> lastDevices = new ConcurrentHashMap<>();
 
     /**
      * Constructor
@@ -116,6 +114,7 @@ public class BoxHandler extends BaseBridgeHandler implements IFritzHandler {
             pollingJob.cancel(true);
             pollingJob = null;
         }
+        lastDevices.clear();
     }
 
     @Override
@@ -129,107 +128,54 @@ public class BoxHandler extends BaseBridgeHandler implements IFritzHandler {
     }
 
     @Override
-    public void addDeviceList(DeviceModel device) {
-        try {
-            logger.debug("set device model: {}", device);
-            ThingUID thingUID = getThingUID(device);
-            Thing thing = getThingByUID(thingUID);
-            if (thing != null) {
-                logger.debug("update thing {} with device model: {}", thingUID, device);
-                updateThingFromDevice(thing, device);
+    public void childHandlerInitialized(ThingHandler childHandler, Thing childThing) {
+        if (childHandler instanceof DeviceHandler) {
+            String ain = getAin(childThing);
+            if (ain != null) {
+                deviceHandlers.put(ain, (DeviceHandler) childHandler);
+                // the next poll has to update the new handler, even if the device did not change
+                lastDevices.remove(ain);
             }
-        } catch (Exception e) {
-            logger.error("{}", e.getLocalizedMessage(), e);
+        }
+    }
+
+    @Override
+    public void childHandlerDisposed(ThingHandler childHandler, Thing childThing) {
+        String ain = getAin(childThing);
+        if (ain != null) {
+            deviceHandlers.remove(ain, childHandler);
         }
     }
 
     /**
-     * Updates things from device model.
-     *
-     * @param thing Thing to be updated.
-     * @param device Device model with new data.
+     * Passes the device model to the handler of the device, unless it equals the model of the previous poll.
      */
-    private void updateThingFromDevice(Thing thing, DeviceModel device) {
-        if (thing == null || device == null) {
-            throw new IllegalArgumentException("thing or device is null, cannot perform update");
+    @Override
+    public void addDeviceList(DeviceModel device) {
+        String ain = device.getIdentifier();
+        if (ain == null) {
+            return;
         }
-        if (device.getPresent() == 1) {
-            thing.setStatusInfo(new ThingStatusInfo(ThingStatus.ONLINE, ThingStatusDetail.NONE, null));
-            if (device.isTempSensor() && device.getTemperature() != null) {
-                updateThingChannelState(thing, CHANNEL_TEMP, new DecimalType(device.getTemperature().getCelsius()));
-            }
-            if (device.isPowermeter() && device.getPowermeter() != null) {
-                updateThingChannelState(thing, CHANNEL_ENERGY, new DecimalType(device.getPowermeter().getEnergy()));
-                updateThingChannelState(thing, CHANNEL_POWER, new DecimalType(device.getPowermeter().getPower()));
-            }
-            if (device.isSwitchableOutlet() && device.getSwitch() != null) {
-                updateThingChannelState(thing, CHANNEL_MODE, new StringType(device.getSwitch().getMode()));
-                updateThingChannelState(thing, CHANNEL_LOCKED, device.getSwitch().getLock().equals(BigDecimal.ONE)
-                        ? OpenClosedType.CLOSED : OpenClosedType.OPEN);
-                if (device.getSwitch().getState() == null) {
-                    updateThingChannelState(thing, CHANNEL_SWITCH, UnDefType.UNDEF);
-                } else {
-                    updateThingChannelState(thing, CHANNEL_SWITCH,
-                            device.getSwitch().getState().equals(SwitchModel.ON) ? OnOffType.ON : OnOffType.OFF);
-                }
-            }
-            if (device.isHeatingThermostat() && device.getHkr() != null) {
-                updateThingChannelState(thing, CHANNEL_MODE, new StringType(device.getHkr().getMode()));
-                updateThingChannelState(thing, CHANNEL_LOCKED,
-                        device.getHkr().getLock().equals(BigDecimal.ONE) ? OpenClosedType.CLOSED : OpenClosedType.OPEN);
-                updateThingChannelState(thing, CHANNEL_ACTUALTEMP,
-                        new DecimalType(HeatingModel.toCelsius(device.getHkr().getTist())));
-                final BigDecimal settemp = HeatingModel.toCelsius(device.getHkr().getTsoll());
-                if (HeatingModel.inCelsiusRange(settemp)) {
-                    thing.getConfiguration().put(THING_SETTEMP, settemp);
-                }
-                updateThingChannelState(thing, CHANNEL_SETTEMP, new DecimalType(settemp));
-                final BigDecimal ecotemp = HeatingModel.toCelsius(device.getHkr().getAbsenk());
-                thing.getConfiguration().put(THING_ECOTEMP, ecotemp);
-                updateThingChannelState(thing, CHANNEL_ECOTEMP, new DecimalType(ecotemp));
-                final BigDecimal comforttemp = HeatingModel.toCelsius(device.getHkr().getKomfort());
-                thing.getConfiguration().put(THING_COMFORTTEMP, comforttemp);
-                updateThingChannelState(thing, CHANNEL_COMFORTTEMP, new DecimalType(comforttemp));
-                updateThingChannelState(thing, CHANNEL_RADIATOR_MODE,
-                        new StringType(device.getHkr().getRadiatorMode()));
-                if (device.getHkr().getNextchange() != null) {
-                    if (device.getHkr().getNextchange().getEndperiod() == 0) {
-                        updateThingChannelState(thing, CHANNEL_NEXTCHANGE, UnDefType.UNDEF);
-                    } else {
-                        final Calendar calendar = Calendar.getInstance();
-                        calendar.setTime(new Date(device.getHkr().getNextchange().getEndperiod() * 1000L));
-                        updateThingChannelState(thing, CHANNEL_NEXTCHANGE, new DateTimeType(calendar));
-                    }
-                    updateThingChannelState(thing, CHANNEL_NEXTTEMP,
-                            new DecimalType(HeatingModel.toCelsius(device.getHkr().getNextchange().getTchange())));
-                }
-                if (device.getHkr().getBatterylow() == null) {
-                    updateThingChannelState(thing, CHANNEL_BATTERY, UnDefType.UNDEF);
-                } else {
-                    updateThingChannelState(thing, CHANNEL_BATTERY,
-                            device.getHkr().getBatterylow().equals(HeatingModel.BATTERY_ON) ? OnOffType.ON
-                                    : OnOffType.OFF);
-                }
-            }
+        DeviceModel lastDevice = lastDevices.put(ain, device);
+        if (device.equals(lastDevice)) {
+            logger.trace("device model unchanged: {}", ain);
+            return;
+        }
+        DeviceHandler handler = deviceHandlers.get(ain);
+        if (handler != null) {
+            logger.debug("update thing {} with device model: {}", handler.getThing().getUID(), device);
+            handler.onDeviceUpdated(device);
         } else {
-            thing.setStatusInfo(new ThingStatusInfo(ThingStatus.OFFLINE, ThingStatusDetail.NONE, "Device not present"));
+            logger.debug("no thing for device model: {}", device);
         }
     }
 
     /**
-     * Updates thing channels.
-     *
-     * @param thing Thing to be updated.
-     * @param channelId ID of the channel to be updated.
-     * @param state State to be set.
+     * @return the AIN of a thing without spaces, the same as {@link DeviceModel#getIdentifier()}
      */
-    private void updateThingChannelState(Thing thing, String channelId, State state) {
-        final Channel channel = thing.getChannel(channelId);
-        if (channel != null) {
-            updateState(channel.getUID(), state);
-        } else {
-            logger.warn("Channel {} in thing {} does not exist, please recreate the thing", channelId, thing.getUID());
-        }
+    private String getAin(Thing thing) {
+        Object ain = thing.getConfiguration().get(THING_AIN);
+        return ain != null ? ain.toString().replace(" ", "") : null;
     }
 
     /**
@@ -234,13 +234,22 @@ public class DeviceHandler extends BaseThingHandler implements IFritzHandler {
 
     @Override
     public void addDeviceList(DeviceModel device) {
+        logger.debug("set device model: {}", device);
+        ThingUID thingUID = getThingUID(device);
+        logger.debug("update thing {} with device model: {}", thingUID, device);
+        if (getThing().getUID().equals(thingUID)) {
+            onDeviceUpdated(device);
+        }
+    }
+
+    /**
+     * Called from the {@link BoxHandler} or the own polling with new values of the device.
+     *
+     * @param device Device model with updated data.
+     */
+    public void onDeviceUpdated(DeviceModel device) {
         try {
-            logger.debug("set device model: {}", device);
-            ThingUID thingUID = getThingUID(device);
-            logger.debug("update thing {} with device model: {}", thingUID, device);
-            if (thingUID.equals(thing.getUID())) {
-                updateThingFromDevice(getThing(), device);
-            }
+            updateThingFromDevice(getThing(), device);
         } catch (Exception e) {
             logger.error("{}", e.getLocalizedMessage(), e);
         }
@@ -12,6 +12,8 @@ import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
 
 /**
@@ -119,6 +121,22 @@ public class DeviceModel {
         this.ident = identifier;
     }
 
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(String deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public int getBitmask() {
+        return bitmask;
+    }
+
+    public void setBitmask(int bitmask) {
+        this.bitmask = bitmask;
+    }
+
     public boolean isSwitchableOutlet() {
         return (bitmask & DeviceModel.SWITCH_BIT) > 0;
     }
@@ -143,18 +161,66 @@ public class DeviceModel {
         return firmwareVersion;
     }
 
+    public void setFirmwareVersion(String firmwareVersion) {
+        this.firmwareVersion = firmwareVersion;
+    }
+
+    public String getManufacturer() {
+        return deviceManufacturer;
+    }
+
+    public void setManufacturer(String manufacturer) {
+        this.deviceManufacturer = manufacturer;
+    }
+
     public String getProductName() {
         return productName;
     }
 
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
     public int getPresent() {
         return present;
     }
 
+    public void setPresent(Integer present) {
+        this.present = present;
+    }
+
     public String getName() {
         return name;
     }
 
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DeviceModel)) {
+            return false;
+        }
+        DeviceModel other = (DeviceModel) obj;
+        return new EqualsBuilder().append(ident, other.ident).append(deviceId, other.deviceId)
+                .append(bitmask, other.bitmask).append(firmwareVersion, other.firmwareVersion)
+                .append(deviceManufacturer, other.deviceManufacturer).append(productName, other.productName)
+                .append(present, other.present).append(name, other.name).append(switchModel, other.switchModel)
+                .append(powermeterModel, other.powermeterModel).append(temperatureModel, other.temperatureModel)
+                .append(heatingModel, other.heatingModel).isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(ident).append(deviceId).append(bitmask).append(firmwareVersion)
+                .append(deviceManufacturer).append(productName).append(present).append(name).append(switchModel)
+                .append(powermeterModel).append(temperatureModel).append(heatingModel).toHashCode();
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this).append("ain", this.getIdentifier()).append("bitmask", this.bitmask)
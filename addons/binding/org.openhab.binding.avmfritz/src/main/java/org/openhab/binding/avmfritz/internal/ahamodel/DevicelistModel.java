@@ -14,9 +14,12 @@ import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
 
+import org.openhab.binding.avmfritz.util.DevicelistParser;
+
 /**
- * This JAXB model class maps the XML response to an <b>getdevicelistinfos</b>
- * command on a FRITZ!Box device. As of today, this class is able to to bind the
+ * This model class maps the XML response to an <b>getdevicelistinfos</b>
+ * command on a FRITZ!Box device, it is filled by the {@link DevicelistParser}.
+ * As of today, this class is able to to bind the
  * devicelist version 1 (currently used by AVM) response:
  * 
  * <pre>
@@ -89,4 +92,8 @@ public class DevicelistModel {
     public String getXmlApiVersion() {
         return this.apiVersion;
     }
+
+    public void setXmlApiVersion(String apiVersion) {
+        this.apiVersion = apiVersion;
+    }
 }
@@ -15,6 +15,8 @@ import java.math.BigDecimal;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
 
 /**
@@ -146,6 +148,27 @@ public class HeatingModel {
         this.nextchange = nextchange;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof HeatingModel)) {
+            return false;
+        }
+        HeatingModel other = (HeatingModel) obj;
+        return new EqualsBuilder().append(tist, other.tist).append(tsoll, other.tsoll).append(absenk, other.absenk)
+                .append(komfort, other.komfort).append(lock, other.lock).append(devicelock, other.devicelock)
+                .append(errorcode, other.errorcode).append(batterylow, other.batterylow)
+                .append(nextchange, other.nextchange).isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(tist).append(tsoll).append(absenk).append(komfort).append(lock)
+                .append(devicelock).append(errorcode).append(batterylow).append(nextchange).toHashCode();
+    }
+
     public String toString() {
         return new ToStringBuilder(this).append("tist", getTist()).append("tsoll", getTsoll())
                 .append("absenk", getAbsenk()).append("komfort", getKomfort()).append("lock", getLock())
@@ -201,6 +224,23 @@ public class HeatingModel {
             this.tchange = tchange;
         }
 
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Nextchange)) {
+                return false;
+            }
+            Nextchange other = (Nextchange) obj;
+            return new EqualsBuilder().append(endperiod, other.endperiod).append(tchange, other.tchange).isEquals();
+        }
+
+        @Override
+        public int hashCode() {
+            return new HashCodeBuilder().append(endperiod).append(tchange).toHashCode();
+        }
+
         public String toString() {
             return new ToStringBuilder(this).append("endperiod", getEndperiod()).append("tchange", getTchange())
                     .toString();
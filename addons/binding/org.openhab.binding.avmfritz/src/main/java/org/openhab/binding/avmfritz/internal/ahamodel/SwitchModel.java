@@ -15,6 +15,8 @@ import java.math.BigDecimal;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
 
 /**
@@ -64,6 +66,24 @@ public class SwitchModel {
         this.lock = lock;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SwitchModel)) {
+            return false;
+        }
+        SwitchModel other = (SwitchModel) obj;
+        return new EqualsBuilder().append(state, other.state).append(mode, other.mode).append(lock, other.lock)
+                .isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(state).append(mode).append(lock).toHashCode();
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this).append("state", getState()).append("mode", getMode()).append("lock", getLock())
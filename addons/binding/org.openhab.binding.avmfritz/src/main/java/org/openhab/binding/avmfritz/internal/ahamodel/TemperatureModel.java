@@ -13,6 +13,8 @@ import java.math.BigDecimal;
 import javax.xml.bind.annotation.XmlRootElement;
 import javax.xml.bind.annotation.XmlType;
 
+import org.apache.commons.lang.builder.EqualsBuilder;
+import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.apache.commons.lang.builder.ToStringBuilder;
 
 /**
@@ -46,6 +48,23 @@ public class TemperatureModel {
         this.offset = offset;
     }
 
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof TemperatureModel)) {
+            return false;
+        }
+        TemperatureModel other = (TemperatureModel) obj;
+        return new EqualsBuilder().append(celsius, other.celsius).append(offset, other.offset).isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder().append(celsius).append(offset).toHashCode();
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this).append("celsius", getCelsius()).append("offset", getOffset()).toString();
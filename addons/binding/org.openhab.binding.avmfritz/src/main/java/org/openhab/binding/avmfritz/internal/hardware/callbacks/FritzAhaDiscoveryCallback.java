@@ -8,16 +8,13 @@
  */
 package org.openhab.binding.avmfritz.internal.hardware.callbacks;
 
-import java.io.StringReader;
-
-import javax.xml.bind.JAXBException;
-import javax.xml.bind.Unmarshaller;
+import javax.xml.stream.XMLStreamException;
 
 import org.openhab.binding.avmfritz.internal.ahamodel.DeviceModel;
 import org.openhab.binding.avmfritz.internal.ahamodel.DevicelistModel;
 import org.openhab.binding.avmfritz.internal.discovery.AVMFritzDiscoveryService;
 import org.openhab.binding.avmfritz.internal.hardware.FritzahaWebInterface;
-import org.openhab.binding.avmfritz.util.JAXBtUtils;
+import org.openhab.binding.avmfritz.util.DevicelistParser;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,8 +55,7 @@ public class FritzAhaDiscoveryCallback extends FritzAhaReauthCallback {
         logger.trace("Received discovery callback response: {}", response);
         if (isValidRequest()) {
             try {
-                final Unmarshaller jaxbUnmarshaller = JAXBtUtils.JAXBCONTEXT.createUnmarshaller();
-                final DevicelistModel model = (DevicelistModel) jaxbUnmarshaller.unmarshal(new StringReader(response));
+                final DevicelistModel model = DevicelistParser.parse(response);
                 if (model != null) {
                     for (final DeviceModel device : model.getDevicelist()) {
                         service.onDeviceAddedInternal(device);
@@ -67,8 +63,8 @@ public class FritzAhaDiscoveryCallback extends FritzAhaReauthCallback {
                 } else {
                     logger.warn("no model in response");
                 }
-            } catch (JAXBException e) {
-                logger.error("Exception creating Unmarshaller: {}", e.getLocalizedMessage(), e);
+            } catch (XMLStreamException e) {
+                logger.error("Exception parsing device list: {}", e.getLocalizedMessage(), e);
             }
         } else {
             logger.info("request is invalid: {}", status);
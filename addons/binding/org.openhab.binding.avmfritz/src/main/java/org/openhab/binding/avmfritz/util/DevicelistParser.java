@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.avmfritz.util;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.openhab.binding.avmfritz.internal.ahamodel.DeviceModel;
+import org.openhab.binding.avmfritz.internal.ahamodel.DevicelistModel;
+import org.openhab.binding.avmfritz.internal.ahamodel.HeatingModel;
+import org.openhab.binding.avmfritz.internal.ahamodel.PowerMeterModel;
+import org.openhab.binding.avmfritz.internal.ahamodel.SwitchModel;
+import org.openhab.binding.avmfritz.internal.ahamodel.TemperatureModel;
+
+/**
+ * Streaming parser for the response to a <b>getdevicelistinfos</b> command, see {@link DevicelistModel}. The
+ * response is read element by element with StAX, which avoids the reflective overhead of JAXB on every poll. Unknown
+ * elements are skipped, empty or invalid numbers are read as null.
+ *
+ * @author agent - Initial contribution
+ *
+ */
+public class DevicelistParser {
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    private DevicelistParser() {
+        // static utility methods only
+    }
+
+    /**
+     * Parses a device list.
+     *
+     * @param xml The response of the FRITZ!Box
+     * @return The device list
+     * @throws XMLStreamException if the response is not a well formed device list
+     */
+    public static DevicelistModel parse(String xml) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(new StringReader(xml));
+        try {
+            reader.nextTag();
+            reader.require(XMLStreamConstants.START_ELEMENT, null, "devicelist");
+            DevicelistModel model = new DevicelistModel();
+            model.setXmlApiVersion(reader.getAttributeValue(null, "version"));
+            while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+                if ("device".equals(reader.getLocalName())) {
+                    model.getDevicelist().add(readDevice(reader));
+                } else {
+                    skipElement(reader);
+                }
+            }
+            return model;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static DeviceModel readDevice(XMLStreamReader reader) throws XMLStreamException {
+        DeviceModel device = new DeviceModel();
+        device.setIdentifier(reader.getAttributeValue(null, "identifier"));
+        device.setDeviceId(reader.getAttributeValue(null, "id"));
+        Integer bitmask = toInteger(reader.getAttributeValue(null, "functionbitmask"));
+        device.setBitmask(bitmask != null ? bitmask : 0);
+        device.setFirmwareVersion(reader.getAttributeValue(null, "fwversion"));
+        device.setManufacturer(reader.getAttributeValue(null, "manufacturer"));
+        device.setProductName(reader.getAttributeValue(null, "productname"));
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "present":
+                    device.setPresent(toInteger(reader.getElementText()));
+                    break;
+                case "name":
+                    device.setName(reader.getElementText());
+                    break;
+                case "switch":
+                    device.setSwitch(readSwitch(reader));
+                    break;
+                case "powermeter":
+                    device.setPowermeter(readPowerMeter(reader));
+                    break;
+                case "temperature":
+                    device.setTemperature(readTemperature(reader));
+                    break;
+                case "hkr":
+                    device.setHkr(readHeating(reader));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return device;
+    }
+
+    private static SwitchModel readSwitch(XMLStreamReader reader) throws XMLStreamException {
+        SwitchModel switchModel = new SwitchModel();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "state":
+                    switchModel.setState(toDecimal(reader.getElementText()));
+                    break;
+                case "mode":
+                    switchModel.setMode(reader.getElementText());
+                    break;
+                case "lock":
+                    switchModel.setLock(toDecimal(reader.getElementText()));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return switchModel;
+    }
+
+    private static PowerMeterModel readPowerMeter(XMLStreamReader reader) throws XMLStreamException {
+        PowerMeterModel powerMeter = new PowerMeterModel();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "power":
+                    powerMeter.setPower(toDecimal(reader.getElementText()));
+                    break;
+                case "energy":
+                    powerMeter.setEnergy(toDecimal(reader.getElementText()));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return powerMeter;
+    }
+
+    private static TemperatureModel readTemperature(XMLStreamReader reader) throws XMLStreamException {
+        TemperatureModel temperature = new TemperatureModel();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "celsius":
+                    temperature.setCelsius(toDecimal(reader.getElementText()));
+                    break;
+                case "offset":
+                    temperature.setOffset(toDecimal(reader.getElementText()));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return temperature;
+    }
+
+    private static HeatingModel readHeating(XMLStreamReader reader) throws XMLStreamException {
+        HeatingModel heating = new HeatingModel();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "tist":
+                    heating.setTist(toDecimal(reader.getElementText()));
+                    break;
+                case "tsoll":
+                    heating.setTsoll(toDecimal(reader.getElementText()));
+                    break;
+                case "absenk":
+                    heating.setAbsenk(toDecimal(reader.getElementText()));
+                    break;
+                case "komfort":
+                    heating.setKomfort(toDecimal(reader.getElementText()));
+                    break;
+                case "lock":
+                    heating.setLock(toDecimal(reader.getElementText()));
+                    break;
+                case "devicelock":
+                    heating.setDevicelock(toDecimal(reader.getElementText()));
+                    break;
+                case "errorcode":
+                    heating.setErrorcode(reader.getElementText());
+                    break;
+                case "batterylow":
+                    heating.setBatterylow(toDecimal(reader.getElementText()));
+                    break;
+                case "nextchange":
+                    heating.setNextchange(readNextchange(reader));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return heating;
+    }
+
+    private static HeatingModel.Nextchange readNextchange(XMLStreamReader reader) throws XMLStreamException {
+        HeatingModel.Nextchange nextchange = new HeatingModel.Nextchange();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "endperiod":
+                    Integer endperiod = toInteger(reader.getElementText());
+                    nextchange.setEndperiod(endperiod != null ? endperiod : 0);
+                    break;
+                case "tchange":
+                    nextchange.setTchange(toDecimal(reader.getElementText()));
+                    break;
+                default:
+                    skipElement(reader);
+                    break;
+            }
+        }
+        return nextchange;
+    }
+
+    /**
+     * Skips the current element including all of its children.
+     */
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    private static BigDecimal toDecimal(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer toInteger(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
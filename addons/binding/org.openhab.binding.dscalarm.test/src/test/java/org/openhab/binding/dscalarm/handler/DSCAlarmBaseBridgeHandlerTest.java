@@ -0,0 +1,218 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.dscalarm.handler;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EventObject;
+import java.util.List;
+
+import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingTypeUID;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Replays a recorded IT-100 session of a PowerSeries panel with 64 zones through the routing of the
+ * {@link DSCAlarmBaseBridgeHandler} and checks which things receive the messages.
+ *
+ * @author agent - Initial contribution
+ */
+public class DSCAlarmBaseBridgeHandlerTest {
+
+    private static final int NUMBER_OF_ZONES = 64;
+
+    private final List<Thing> things = new ArrayList<>();
+    private Bridge bridge;
+    private DSCAlarmBaseBridgeHandler bridgeHandler;
+    private Thing panel;
+    private Thing keypad;
+    private Thing partition;
+    private final List<Thing> zones = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        bridge = mock(Bridge.class);
+        when(bridge.getUID()).thenReturn(new ThingUID(new ThingTypeUID("dscalarm", "it100"), "bridge"));
+        when(bridge.getThings()).thenReturn(things);
+
+        bridgeHandler = new DSCAlarmBaseBridgeHandler(bridge, DSCAlarmBridgeType.IT100, DSCAlarmProtocol.IT100_API) {
+            @Override
+            void openConnection() {
+            }
+
+            @Override
+            void closeConnection() {
+            }
+
+            @Override
+            public void write(String writeString) {
+            }
+
+            @Override
+            public String read() {
+                return null;
+            }
+        };
+
+        panel = addThing("panel", DSCAlarmThingType.PANEL, 0, 0);
+        keypad = addThing("keypad", DSCAlarmThingType.KEYPAD, 0, 0);
+        partition = addThing("partition1", DSCAlarmThingType.PARTITION, 1, 0);
+        for (int zone = 1; zone <= NUMBER_OF_ZONES; zone++) {
+            zones.add(addThing("zone" + zone, DSCAlarmThingType.ZONE, 1, zone));
+        }
+        for (Thing thing : things) {
+            bridgeHandler.childHandlerInitialized(thing.getHandler(), thing);
+        }
+    }
+
+    @Test
+    public void replayedSessionReachesTheThingsOfTheMessages() throws IOException {
+        replay("it100-session.txt");
+
+        // acknowledge and time broadcast
+        verifyEvents(panel, 2);
+        verifyEvents(keypad, 1);
+        // not ready, ready, exit delay, armed, user closing, entry delay, in alarm, user opening, disarmed, ready
+        verifyEvents(partition, 10);
+        for (int zone = 1; zone <= NUMBER_OF_ZONES; zone++) {
+            switch (zone) {
+                case 3:
+                    // restored, open, alarm, alarm restore, restored
+                    verifyEvents(zones.get(zone - 1), 5);
+                    break;
+                case 5:
+                case 12:
+                    // open, restored
+                    verifyEvents(zones.get(zone - 1), 2);
+                    break;
+                default:
+                    verifyEvents(zones.get(zone - 1), 1);
+                    break;
+            }
+        }
+    }
+
+    @Test
+    public void messageOfAnUnknownZoneIsNotRouted() {
+        bridgeHandler.handleIncomingMessage("61006532");
+
+        for (Thing zone : zones) {
+            verifyEvents(zone, 0);
+        }
+    }
+
+    @Test
+    public void disposedThingIsNotRouted() {
+        Thing zone = zones.get(6);
+        bridgeHandler.childHandlerDisposed(zone.getHandler(), zone);
+        things.remove(zone);
+
+        bridgeHandler.handleIncomingMessage("60900736");
+
+        verifyEvents(zone, 0);
+    }
+
+    @Test
+    public void thingNotReportedToTheBridgeIsFound() {
+        Thing zone = addThing("zone65", DSCAlarmThingType.ZONE, 1, 65);
+
+        bridgeHandler.handleIncomingMessage("61006532");
+        bridgeHandler.handleIncomingMessage("6090653A");
+
+        verifyEvents(zone, 2);
+    }
+
+    @Test
+    public void unknownZoneIsSearchedOnce() {
+        bridgeHandler.handleIncomingMessage("61006532");
+        bridgeHandler.handleIncomingMessage("6090653A");
+        bridgeHandler.handleIncomingMessage("61006532");
+
+        verify(bridge, times(1)).getThings();
+    }
+
+    @Test
+    public void thingInitializedAfterAMissIsRouted() {
+        bridgeHandler.handleIncomingMessage("61006532");
+
+        Thing zone = addThing("zone65", DSCAlarmThingType.ZONE, 1, 65);
+        bridgeHandler.childHandlerInitialized(zone.getHandler(), zone);
+        bridgeHandler.handleIncomingMessage("6090653A");
+
+        verifyEvents(zone, 1);
+    }
+
+    @Test
+    public void thingNotReportedAfterAMissIsFoundOnceTheThingsAreChecked() {
+        bridgeHandler.handleIncomingMessage("61006532");
+
+        Thing zone = addThing("zone65", DSCAlarmThingType.ZONE, 1, 65);
+        bridgeHandler.handleIncomingMessage("6090653A");
+        verifyEvents(zone, 0);
+
+        bridgeHandler.checkThings();
+        bridgeHandler.handleIncomingMessage("61006532");
+        verifyEvents(zone, 1);
+    }
+
+    @Test
+    public void reconfiguredThingIsRoutedByItsNewNumber() {
+        Thing zone = zones.get(NUMBER_OF_ZONES - 1);
+        DSCAlarmBaseThingHandler handler = (DSCAlarmBaseThingHandler) zone.getHandler();
+        // the handler is initialized again with another zone number, without telling the bridge
+        when(handler.getZoneNumber()).thenReturn(65);
+
+        bridgeHandler.handleIncomingMessage("61006431");
+        verifyEvents(zone, 0);
+
+        bridgeHandler.handleIncomingMessage("61006532");
+        verifyEvents(zone, 1);
+    }
+
+    private Thing addThing(String id, DSCAlarmThingType thingType, int partitionNumber, int zoneNumber) {
+        DSCAlarmBaseThingHandler handler = mock(DSCAlarmBaseThingHandler.class);
+        when(handler.getDSCAlarmThingType()).thenReturn(thingType);
+        when(handler.getPartitionNumber()).thenReturn(partitionNumber);
+        when(handler.getZoneNumber()).thenReturn(zoneNumber);
+        when(handler.isThingHandlerInitialized()).thenReturn(true);
+
+        Thing thing = mock(Thing.class);
+        when(thing.getUID()).thenReturn(new ThingUID(new ThingTypeUID("dscalarm", thingType.getLabel()), id));
+        when(thing.getHandler()).thenReturn(handler);
+        when(thing.getStatus()).thenReturn(ThingStatus.ONLINE);
+        things.add(thing);
+        return thing;
+    }
+
+    private void verifyEvents(Thing thing, int events) {
+        DSCAlarmBaseThingHandler handler = (DSCAlarmBaseThingHandler) thing.getHandler();
+        verify(handler, times(events)).dscAlarmEventReceived(any(EventObject.class), same(thing));
+    }
+
+    private void replay(String session) throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("input/" + session);
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.US_ASCII))) {
+            String message;
+            while ((message = reader.readLine()) != null) {
+                bridgeHandler.handleIncomingMessage(message);
+            }
+        }
+    }
+}
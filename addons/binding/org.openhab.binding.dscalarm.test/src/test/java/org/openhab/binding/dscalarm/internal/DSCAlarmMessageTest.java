@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.dscalarm.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+import org.openhab.binding.dscalarm.internal.DSCAlarmMessage.DSCAlarmMessageInfoType;
+import org.openhab.binding.dscalarm.internal.DSCAlarmMessage.DSCAlarmMessageType;
+
+/**
+ * Tests the fields a {@link DSCAlarmMessage} parses from messages of an IT-100.
+ *
+ * @author agent - Initial contribution
+ */
+public class DSCAlarmMessageTest {
+
+    @Test
+    public void parseZoneMessage() {
+        DSCAlarmMessage message = new DSCAlarmMessage("61006431");
+
+        assertThat(message.getDSCAlarmCode(), is(DSCAlarmCode.ZoneRestored));
+        assertThat(message.getDSCAlarmMessageType(), is(DSCAlarmMessageType.ZONE_EVENT));
+        assertThat(message.getZoneId(), is(64));
+        assertThat(message.getPartitionId(), is(0));
+        assertThat(message.getMessageInfo(DSCAlarmMessageInfoType.ZONE), is("064"));
+    }
+
+    @Test
+    public void parseZoneMessageWithPartitionAndTimeStamp() {
+        DSCAlarmMessage message = new DSCAlarmMessage("10:31:32 60110035B");
+
+        assertThat(message.getDSCAlarmCode(), is(DSCAlarmCode.ZoneAlarm));
+        assertThat(message.getDSCAlarmMessageType(), is(DSCAlarmMessageType.ZONE_EVENT));
+        assertThat(message.getPartitionId(), is(1));
+        assertThat(message.getZoneId(), is(3));
+        assertThat(message.getMessageInfo(DSCAlarmMessageInfoType.TIME_STAMP), is("10:31:32"));
+    }
+
+    @Test
+    public void parsePartitionArmed() {
+        DSCAlarmMessage message = new DSCAlarmMessage("65210FE");
+
+        assertThat(message.getDSCAlarmCode(), is(DSCAlarmCode.PartitionArmed));
+        assertThat(message.getDSCAlarmMessageType(), is(DSCAlarmMessageType.PARTITION_EVENT));
+        assertThat(message.getPartitionId(), is(1));
+        assertThat(message.getZoneId(), is(0));
+        assertThat(message.getMessageInfo(DSCAlarmMessageInfoType.MODE), is("0"));
+        assertThat(message.getMessageInfo(DSCAlarmMessageInfoType.NAME), is("Partition Armed (Away)"));
+    }
+
+    @Test
+    public void parseUserClosing() {
+        DSCAlarmMessage message = new DSCAlarmMessage("700100408C");
+
+        assertThat(message.getDSCAlarmCode(), is(DSCAlarmCode.UserClosing));
+        assertThat(message.getDSCAlarmMessageType(), is(DSCAlarmMessageType.PARTITION_EVENT));
+        assertThat(message.getPartitionId(), is(1));
+        assertThat(message.getMessageInfo(DSCAlarmMessageInfoType.NAME), is("User Closing: 0040"));
+    }
+
+    @Test
+    public void parseKeypadMessage() {
+        DSCAlarmMessage message = new DSCAlarmMessage("51081FF");
+
+        assertThat(message.getDSCAlarmCode(), is(DSCAlarmCode.KeypadLEDState));
+        assertThat(message.getDSCAlarmMessageType(), is(DSCAlarmMessageType.KEYPAD_EVENT));
+        assertThat(message.getMessageInfo(DSCAlarmMessageInfoType.DATA), is("81"));
+    }
+
+    @Test
+    public void parseInvalidMessage() {
+        DSCAlarmMessage message = new DSCAlarmMessage("50");
+
+        assertThat(message.getDSCAlarmCode(), is(DSCAlarmCode.UnknownCode));
+        assertThat(message.getDSCAlarmMessageType(), is(DSCAlarmMessageType.PANEL_EVENT));
+        assertThat(message.getPartitionId(), is(0));
+        assertThat(message.getZoneId(), is(0));
+    }
+}
@@ -10,14 +10,15 @@ package org.openhab.binding.dscalarm.handler;
 
 import static org.openhab.binding.dscalarm.DSCAlarmBindingConstants.*;
 
-import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
-import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.thing.Bridge;
@@ -25,10 +26,9 @@ import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
-import org.openhab.binding.dscalarm.config.DSCAlarmPartitionConfiguration;
-import org.openhab.binding.dscalarm.config.DSCAlarmZoneConfiguration;
 import org.openhab.binding.dscalarm.internal.DSCAlarmCode;
 import org.openhab.binding.dscalarm.internal.DSCAlarmEvent;
 import org.openhab.binding.dscalarm.internal.DSCAlarmMessage;
@@ -68,6 +68,12 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
     /** Determines if all things have been initialized. */
     private boolean allThingsInitialized = false;
 
+    /** Child Things by Thing type, partition and zone, used to route the incoming messages. */
+    private final Map<String, Thing> thingRoutes = new ConcurrentHashMap<>();
+
+    /** Route keys no child Thing has been found for, not searched again until the child Things change. */
+    private final Set<String> unroutedKeys = ConcurrentHashMap.newKeySet();
+
     /** Thing count. */
     private int thingCount = 0;
 
@@ -349,6 +355,7 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
         if (things.size() != thingCount) {
             thingsHaveChanged = true;
             thingCount = things.size();
+            unroutedKeys.clear();
         }
 
         for (Thing thing : things) {
@@ -366,6 +373,7 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
                     }
 
                     allThingsInitialized = false;
+                    unroutedKeys.clear();
                 }
 
                 if (handler.getDSCAlarmThingType().equals(DSCAlarmThingType.PANEL)) {
@@ -381,6 +389,51 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
 
     }
 
+    @Override
+    public void childHandlerInitialized(ThingHandler childHandler, Thing childThing) {
+        if (childHandler instanceof DSCAlarmBaseThingHandler) {
+            DSCAlarmBaseThingHandler handler = (DSCAlarmBaseThingHandler) childHandler;
+            String routeKey = getRouteKey(handler.getDSCAlarmThingType(), handler.getPartitionNumber(),
+                    handler.getZoneNumber());
+            if (routeKey != null) {
+                thingRoutes.put(routeKey, childThing);
+                unroutedKeys.clear();
+                logger.debug("childHandlerInitialized(): Thing '{}' Routed - {}", childThing.getUID(), routeKey);
+            }
+        }
+    }
+
+    @Override
+    public void childHandlerDisposed(ThingHandler childHandler, Thing childThing) {
+        thingRoutes.values().removeIf(thing -> thing.getUID().equals(childThing.getUID()));
+        unroutedKeys.clear();
+    }
+
+    /**
+     * Get the key of a Thing in the routing table.
+     *
+     * @param dscAlarmThingType
+     * @param partitionId
+     * @param zoneId
+     * @return routeKey
+     */
+    private String getRouteKey(DSCAlarmThingType dscAlarmThingType, int partitionId, int zoneId) {
+        if (dscAlarmThingType == null) {
+            return null;
+        }
+
+        switch (dscAlarmThingType) {
+            case PARTITION:
+                return dscAlarmThingType + ":" + partitionId;
+            case ZONE:
+                return dscAlarmThingType + ":" + zoneId;
+            case PANEL:
+            case KEYPAD:
+            default:
+                return dscAlarmThingType.toString();
+        }
+    }
+
     /**
      * Find a Thing.
      *
@@ -390,63 +443,61 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
      * @return thing
      */
     public Thing findThing(DSCAlarmThingType dscAlarmThingType, int partitionId, int zoneId) {
+        String routeKey = getRouteKey(dscAlarmThingType, partitionId, zoneId);
 
-        List<Thing> things = getThing().getThings();
+        if (routeKey == null) {
+            return null;
+        }
 
-        Thing thing = null;
-
-        for (Thing t : things) {
-
-            try {
-                Configuration config = t.getConfiguration();
-                DSCAlarmBaseThingHandler handler = (DSCAlarmBaseThingHandler) t.getHandler();
-
-                if (handler != null) {
-                    DSCAlarmThingType handlerDSCAlarmThingType = handler.getDSCAlarmThingType();
-
-                    if (handlerDSCAlarmThingType != null) {
-                        if (handlerDSCAlarmThingType.equals(dscAlarmThingType)) {
-                            switch (handlerDSCAlarmThingType) {
-                                case PANEL:
-                                case KEYPAD:
-                                    thing = t;
-                                    logger.debug("findThing(): Thing Found - {}, {}, {}", t, handler,
-                                            handlerDSCAlarmThingType);
-                                    return thing;
-                                case PARTITION:
-                                    BigDecimal partitionNumber = (BigDecimal) config
-                                            .get(DSCAlarmPartitionConfiguration.PARTITION_NUMBER);
-                                    if (partitionId == partitionNumber.intValue()) {
-                                        thing = t;
-                                        logger.debug("findThing(): Thing Found - {}, {}, {}", t, handler,
-                                                handlerDSCAlarmThingType);
-                                        return thing;
-                                    }
-                                    break;
-                                case ZONE:
-                                    BigDecimal zoneNumber = (BigDecimal) config
-                                            .get(DSCAlarmZoneConfiguration.ZONE_NUMBER);
-                                    if (zoneId == zoneNumber.intValue()) {
-                                        thing = t;
-                                        logger.debug("findThing(): Thing Found - {}, {}, {}", t, handler,
-                                                handlerDSCAlarmThingType);
-                                        return thing;
-                                    }
-                                    break;
-                                default:
-                                    break;
-                            }
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                logger.debug("findThing(): Error Seaching Thing - {} ", e.getMessage(), e);
+        Thing thing = thingRoutes.get(routeKey);
+
+        if (thing != null) {
+            DSCAlarmBaseThingHandler handler = (DSCAlarmBaseThingHandler) thing.getHandler();
+
+            // A thing handler re-initialized after a configuration change is not reported to the bridge
+            if (handler != null && routeKey.equals(getRouteKey(handler.getDSCAlarmThingType(),
+                    handler.getPartitionNumber(), handler.getZoneNumber()))) {
+                return thing;
             }
+
+            thingRoutes.remove(routeKey, thing);
+            // the new key of the handler may have been searched in vain before
+            unroutedKeys.clear();
+        } else if (unroutedKeys.contains(routeKey)) {
+            return null;
+        }
+
+        thing = searchThing(routeKey);
+
+        if (thing != null) {
+            thingRoutes.put(routeKey, thing);
+        } else {
+            unroutedKeys.add(routeKey);
         }
 
         return thing;
     }
 
+    /**
+     * Search the child Things for a Thing not in the routing table.
+     *
+     * @param routeKey
+     * @return thing
+     */
+    private Thing searchThing(String routeKey) {
+        for (Thing thing : getThing().getThings()) {
+            DSCAlarmBaseThingHandler handler = (DSCAlarmBaseThingHandler) thing.getHandler();
+
+            if (handler != null && routeKey.equals(getRouteKey(handler.getDSCAlarmThingType(),
+                    handler.getPartitionNumber(), handler.getZoneNumber()))) {
+                logger.debug("searchThing(): Thing Found - {}, {}", thing, routeKey);
+                return thing;
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Handles an incoming message from the DSC Alarm System.
      *
@@ -466,8 +517,7 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
             int partitionId = 0;
             int zoneId = 0;
 
-            DSCAlarmCode dscAlarmCode = DSCAlarmCode
-                    .getDSCAlarmCodeValue(dscAlarmMessage.getMessageInfo(DSCAlarmMessageInfoType.CODE));
+            DSCAlarmCode dscAlarmCode = dscAlarmMessage.getDSCAlarmCode();
 
             if (panelThingHandler != null) {
                 panelThingHandler.setPanelMessage(dscAlarmMessage);
@@ -495,12 +545,11 @@ public abstract class DSCAlarmBaseBridgeHandler extends BaseBridgeHandler {
                     break;
                 case PARTITION_EVENT:
                     dscAlarmThingType = DSCAlarmThingType.PARTITION;
-                    partitionId = Integer
-                            .parseInt(event.getDSCAlarmMessage().getMessageInfo(DSCAlarmMessageInfoType.PARTITION));
+                    partitionId = event.getDSCAlarmMessage().getPartitionId();
                     break;
                 case ZONE_EVENT:
                     dscAlarmThingType = DSCAlarmThingType.ZONE;
-                    zoneId = Integer.parseInt(event.getDSCAlarmMessage().getMessageInfo(DSCAlarmMessageInfoType.ZONE));
+                    zoneId = event.getDSCAlarmMessage().getZoneId();
                     break;
                 case KEYPAD_EVENT:
                     dscAlarmThingType = DSCAlarmThingType.KEYPAD;
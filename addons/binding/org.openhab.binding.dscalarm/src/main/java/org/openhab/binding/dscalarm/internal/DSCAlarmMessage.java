@@ -60,6 +60,10 @@ public class DSCAlarmMessage {
     private String user = "";
     private String error = "";
 
+    private DSCAlarmCode dscAlarmCode = DSCAlarmCode.UnknownCode;
+    private int partitionId = 0;
+    private int zoneId = 0;
+
     /**
      * Constructor.
      *
@@ -75,8 +79,6 @@ public class DSCAlarmMessage {
      * Processes the incoming DSC Alarm message and extracts the information.
      */
     private void processDSCAlarmMessage() {
-        DSCAlarmCode dscAlarmCode;
-
         if (message.length() > 3) {
             try {
                 if (message.length() >= 8 && message.charAt(2) == ':' && message.charAt(5) == ':') {
@@ -121,6 +123,9 @@ public class DSCAlarmMessage {
                         }
                     }
 
+                    partitionId = parseNumber(partition);
+                    zoneId = parseNumber(zone);
+
                     messageType = messageParms.getType();
 
                 }
@@ -261,6 +266,21 @@ public class DSCAlarmMessage {
         }
     }
 
+    /**
+     * Parses a partition or zone number of the message.
+     *
+     * @param number
+     * @return the number, or 0 if it is invalid
+     */
+    private int parseNumber(String number) {
+        try {
+            return Integer.parseInt(number);
+        } catch (NumberFormatException e) {
+            logger.debug("parseNumber(): Invalid number ({}) in message ({})", number, message);
+            return 0;
+        }
+    }
+
     /**
      * Returns the DSCAlarm Message Type.
      *
@@ -270,6 +290,33 @@ public class DSCAlarmMessage {
         return messageType;
     }
 
+    /**
+     * Returns the DSC Alarm code of the message.
+     *
+     * @return dscAlarmCode
+     */
+    public DSCAlarmCode getDSCAlarmCode() {
+        return dscAlarmCode;
+    }
+
+    /**
+     * Returns the partition number of the message, 0 if the message has no partition.
+     *
+     * @return partitionId
+     */
+    public int getPartitionId() {
+        return partitionId;
+    }
+
+    /**
+     * Returns the zone number of the message, 0 if the message has no zone.
+     *
+     * @return zoneId
+     */
+    public int getZoneId() {
+        return zoneId;
+    }
+
     /**
      * Returns Information from A DSC Alarm Message
      *
@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+import static org.openhab.binding.exec.ExecBindingConstants.*;
+
+import java.math.BigDecimal;
+
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.exec.internal.ExecutionEngine;
+
+/**
+ * Tests that the {@link ExecHandler} has at most one execution of its command queued or running.
+ *
+ * @author agent - Initial contribution
+ */
+public class ExecHandlerTest {
+
+    private static final ThingUID THING_UID = new ThingUID(THING_COMMAND, "sleep");
+
+    private final ExecutionEngine engine = new ExecutionEngine(2);
+    private final Configuration configuration = new Configuration();
+    private ExecHandler handler;
+
+    @Before
+    public void setUp() {
+        configuration.put(ExecHandler.COMMAND, "sleep 1");
+        configuration.put(ExecHandler.TIME_OUT, new BigDecimal(5));
+        configuration.put(ExecHandler.AUTORUN, Boolean.TRUE);
+
+        Thing thing = mock(Thing.class);
+        when(thing.getUID()).thenReturn(THING_UID);
+        when(thing.getConfiguration()).thenReturn(configuration);
+
+        handler = new ExecHandler(thing, engine);
+        handler.setCallback(mock(ThingHandlerCallback.class));
+    }
+
+    @After
+    public void tearDown() {
+        handler.dispose();
+        engine.shutdown();
+    }
+
+    @Test
+    public void periodicExecutionIsSkippedWhileRunning() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            handler.periodicExecutionRunnable.run();
+        }
+
+        assertExecutions(1);
+    }
+
+    @Test
+    public void requestsWhileQueuedAreMerged() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            handler.handleCommand(new ChannelUID(THING_UID, RUN), OnOffType.ON);
+        }
+
+        assertExecutions(1);
+    }
+
+    @Test
+    public void requestsWhileRunningRunOnceMoreAfterTheRunningOne() throws InterruptedException {
+        handler.handleCommand(new ChannelUID(THING_UID, RUN), OnOffType.ON);
+        // the command runs for a second
+        Thread.sleep(300);
+        for (int i = 0; i < 3; i++) {
+            handler.handleCommand(new ChannelUID(THING_UID, RUN), OnOffType.ON);
+        }
+
+        assertExecutions(2);
+    }
+
+    @Test
+    public void changedInputWhileRunningRunsOnceMoreAfterTheRunningOne() throws InterruptedException {
+        handler.handleCommand(new ChannelUID(THING_UID, INPUT), new StringType("input"));
+        Thread.sleep(300);
+        for (int i = 0; i < 3; i++) {
+            handler.handleCommand(new ChannelUID(THING_UID, INPUT), new StringType("input" + i));
+        }
+
+        assertExecutions(2);
+    }
+
+    @Test
+    public void disposedHandlerDoesNotExecute() throws InterruptedException {
+        handler.dispose();
+
+        handler.handleCommand(new ChannelUID(THING_UID, RUN), OnOffType.ON);
+
+        // the queued execution ends without starting a process
+        long deadline = System.currentTimeMillis() + 5000;
+        while (engine.getExecutions() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(engine.getExecutions(), is(1L));
+        assertThat(engine.getAverageRunTime() < 500, is(true));
+    }
+
+    /**
+     * Waits until the command has been executed the given number of times and no further execution followed.
+     */
+    private void assertExecutions(long executions) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (engine.getExecutions() < executions && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        // a further execution would have finished after the run time of the command
+        Thread.sleep(1500);
+        assertThat(engine.getExecutions(), is(executions));
+        assertThat(engine.getQueuedExecutions(), is(0));
+    }
+}
@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the concurrency limit, the statistics and the process handling of the {@link ExecutionEngine}.
+ *
+ * @author agent - Initial contribution
+ */
+public class ExecutionEngineTest {
+
+    private ExecutionEngine engine = new ExecutionEngine(2);
+
+    @After
+    public void tearDown() {
+        engine.shutdown();
+    }
+
+    @Test
+    public void executionsBeyondTheLimitAreQueued() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(6);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        for (int i = 0; i < 6; i++) {
+            engine.submit(new Runnable() {
+                @Override
+                public void run() {
+                    int nowRunning = running.incrementAndGet();
+                    synchronized (maxRunning) {
+                        maxRunning.set(Math.max(maxRunning.get(), nowRunning));
+                    }
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                    finished.countDown();
+                }
+            });
+        }
+
+        waitFor(running, 2);
+        assertThat(engine.getQueuedExecutions(), is(4));
+
+        release.countDown();
+        assertThat(finished.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(maxRunning.get(), is(2));
+        waitForExecutions(6);
+        assertThat(engine.getQueuedExecutions(), is(0));
+    }
+
+    @Test
+    public void queueWaitIsMeasured() throws InterruptedException {
+        engine = new ExecutionEngine(1);
+        for (int i = 0; i < 2; i++) {
+            engine.submit(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+        }
+
+        waitForExecutions(2);
+        assertThat(engine.getAverageRunTime() >= 150, is(true));
+        // the second execution waited for the first one
+        assertThat(engine.getAverageQueueWait() >= 75, is(true));
+    }
+
+    @Test
+    public void shutdownDiscardsTheQueuedExecutions() throws InterruptedException {
+        engine = new ExecutionEngine(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final AtomicInteger started = new AtomicInteger();
+        Runnable execution = new Runnable() {
+            @Override
+            public void run() {
+                started.incrementAndGet();
+                try {
+                    Thread.sleep(10000);
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+            }
+        };
+        engine.submit(execution);
+        engine.submit(execution);
+        waitFor(started, 1);
+
+        engine.shutdown();
+        engine.submit(execution);
+
+        assertThat(interrupted.await(5, TimeUnit.SECONDS), is(true));
+        Thread.sleep(100);
+        assertThat(started.get(), is(1));
+    }
+
+    @Test
+    public void executeReturnsTheExitValueAndTheOutput() throws IOException, InterruptedException {
+        File script = createScript("echo out", "echo err >&2", "exit 3");
+        try {
+            ExecutionResult result = engine.execute("sh " + script.getAbsolutePath(), 5000);
+
+            assertThat(result.getExitValue(), is(3));
+            assertThat(result.getOutput(), is("out\nerr\n"));
+            assertThat(result.isTimedOut(), is(false));
+        } finally {
+            script.delete();
+        }
+    }
+
+    @Test
+    public void processIsTerminatedAfterTheTimeout() throws IOException, InterruptedException {
+        long start = System.currentTimeMillis();
+
+        ExecutionResult result = engine.execute("sleep 10", 200);
+
+        assertThat(result.isTimedOut(), is(true));
+        assertThat(System.currentTimeMillis() - start < 5000, is(true));
+    }
+
+    @Test
+    public void timeoutsAreCounted() {
+        engine.timedOut();
+        engine.timedOut();
+
+        assertThat(engine.getTimeouts(), is(2L));
+        assertThat(engine.getExecutions(), is(0L));
+        assertThat(engine.getAverageRunTime(), is(0L));
+    }
+
+    @Test
+    public void commandLineIsSplitAtWhiteSpace() {
+        assertThat(ExecutionEngine.tokenize(" ls  -l\t/tmp "), is(new String[] { "ls", "-l", "/tmp" }));
+    }
+
+    private void waitFor(AtomicInteger counter, int value) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (counter.get() < value && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(counter.get(), is(value));
+    }
+
+    private void waitForExecutions(long executions) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (engine.getExecutions() < executions && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(engine.getExecutions(), is(executions));
+    }
+
+    private static File createScript(String... lines) throws IOException {
+        File script = File.createTempFile("exec-test-", ".sh");
+        try (Writer writer = new FileWriter(script)) {
+            for (String line : lines) {
+                writer.write(line + "\n");
+            }
+        }
+        return script;
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Tests the {@link Interpreter} with a running <code>/bin/sh</code>.
+ *
+ * @author agent - Initial contribution
+ */
+public class InterpreterTest {
+
+    private final Interpreter interpreter = new Interpreter("/bin/sh");
+
+    @After
+    public void tearDown() {
+        interpreter.close();
+    }
+
+    @Test
+    public void commandsAreExecutedInTheSameShell() throws IOException, InterruptedException {
+        assertThat(interpreter.execute("COUNTER=41", 5000).getExitValue(), is(0));
+
+        ExecutionResult result = interpreter.execute("echo $((COUNTER + 1))", 5000);
+
+        assertThat(result.getExitValue(), is(0));
+        assertThat(result.getOutput(), is("42\n"));
+    }
+
+    @Test
+    public void exitValueAndErrorOutputAreReturned() throws IOException, InterruptedException {
+        ExecutionResult result = interpreter.execute("echo failed >&2; false", 5000);
+
+        assertThat(result.getExitValue(), is(1));
+        assertThat(result.getOutput(), is("failed\n"));
+        assertThat(result.isTimedOut(), is(false));
+    }
+
+    @Test
+    public void outputWithoutLineFeedIsReturned() throws IOException, InterruptedException {
+        ExecutionResult result = interpreter.execute("printf partial", 5000);
+
+        assertThat(result.getOutput(), is("partial\n"));
+        assertThat(result.getExitValue(), is(0));
+    }
+
+    @Test
+    public void terminatedShellIsStartedAgain() throws IOException, InterruptedException {
+        interpreter.execute("COUNTER=1", 5000);
+        interpreter.close();
+
+        ExecutionResult result = interpreter.execute("echo \"[$COUNTER]\"", 5000);
+
+        assertThat(result.getOutput(), is("[]\n"));
+        assertThat(result.getExitValue(), is(0));
+    }
+
+    @Test
+    public void shellIsRestartedAfterATimeout() throws IOException, InterruptedException {
+        interpreter.execute("COUNTER=1", 5000);
+        long start = System.currentTimeMillis();
+
+        ExecutionResult result = interpreter.execute("sleep 10", 200);
+
+        assertThat(result.isTimedOut(), is(true));
+        assertThat(System.currentTimeMillis() - start < 5000, is(true));
+
+        // a new shell does not know the variables of the terminated one
+        result = interpreter.execute("echo \"[$COUNTER]\"", 5000);
+        assertThat(result.getOutput(), is("[]\n"));
+        assertThat(result.isTimedOut(), is(false));
+    }
+
+    @Test
+    public void quotedValueIsASingleWord() throws IOException, InterruptedException {
+        String value = "it's $(echo injected); `echo injected` | echo injected";
+
+        ExecutionResult result = interpreter.execute("printf '%s\\n' " + Interpreter.quote(value), 5000);
+
+        assertThat(result.getOutput(), is(value + "\n"));
+        assertThat(result.getExitValue(), is(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void valueWithALineBreakIsNotQuoted() {
+        Interpreter.quote("value\necho injected");
+    }
+}
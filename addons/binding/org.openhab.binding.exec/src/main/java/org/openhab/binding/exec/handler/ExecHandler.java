@@ -10,14 +10,12 @@ package org.openhab.binding.exec.handler;
 
 import static org.openhab.binding.exec.ExecBindingConstants.*;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.util.Calendar;
 import java.util.IllegalFormatException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,6 +33,9 @@ import org.eclipse.smarthome.core.transform.TransformationHelper;
 import org.eclipse.smarthome.core.transform.TransformationService;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
+import org.openhab.binding.exec.internal.ExecutionEngine;
+import org.openhab.binding.exec.internal.ExecutionResult;
+import org.openhab.binding.exec.internal.Interpreter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -42,6 +43,10 @@ import org.slf4j.LoggerFactory;
  * The {@link ExecHandler} is responsible for handling commands, which are
  * sent to one of the channels.
  *
+ * The command is executed by the shared {@link ExecutionEngine}, and only one execution of a thing is queued or
+ * running at a time. A periodic execution is skipped while the previous one is still running, an execution requested
+ * through the run or input channel is started once the running one has finished.
+ *
  * @author Karel Goderis - Initial contribution
  */
 public class ExecHandler extends BaseThingHandler {
@@ -54,6 +59,7 @@ public class ExecHandler extends BaseThingHandler {
     public static final String COMMAND = "command";
     public static final String TRANSFORM = "transform";
     public static final String AUTORUN = "autorun";
+    public static final String INTERPRETER = "interpreter";
 
     // RegEx to extract a parse a function String <code>'(.*?)\((.*)\)'</code>
     private static final Pattern EXTRACT_FUNCTION_PATTERN = Pattern.compile("(.*?)\\((.*)\\)");
@@ -61,10 +67,15 @@ public class ExecHandler extends BaseThingHandler {
     private ScheduledFuture<?> executionJob;
     private String lastInput;
 
-    private static Runtime rt = Runtime.getRuntime();
+    private final ExecutionEngine executionEngine;
+    private final AtomicBoolean executing = new AtomicBoolean();
+    private volatile boolean executionRequested;
+    private volatile boolean disposed;
+    private volatile Interpreter interpreter;
 
-    public ExecHandler(Thing thing) {
+    public ExecHandler(Thing thing, ExecutionEngine executionEngine) {
         super(thing);
+        this.executionEngine = executionEngine;
     }
 
     @Override
@@ -76,7 +87,7 @@ public class ExecHandler extends BaseThingHandler {
             if (channelUID.getId().equals(RUN)) {
                 if (command instanceof OnOffType) {
                     if (command == OnOffType.ON) {
-                        scheduler.schedule(periodicExecutionRunnable, 0, TimeUnit.SECONDS);
+                        requestExecution(true);
                     }
                 }
             } else if (channelUID.getId().equals(INPUT)) {
@@ -88,7 +99,7 @@ public class ExecHandler extends BaseThingHandler {
                             lastInput = command.toString();
                             logger.trace("Executing command '{}' after a change of the input channel to '{}'",
                                     getConfig().get(COMMAND), command.toString());
-                            scheduler.schedule(periodicExecutionRunnable, 0, TimeUnit.SECONDS);
+                            requestExecution(true);
                         }
                     }
                 }
@@ -98,6 +109,12 @@ public class ExecHandler extends BaseThingHandler {
 
     @Override
     public void initialize() {
+        disposed = false;
+
+        String interpreterCommandLine = (String) getConfig().get(INTERPRETER);
+        if (StringUtils.isNotBlank(interpreterCommandLine)) {
+            interpreter = new Interpreter(interpreterCommandLine);
+        }
 
         if (executionJob == null || executionJob.isCancelled()) {
             if (((BigDecimal) getConfig().get(INTERVAL)) != null && ((BigDecimal) getConfig().get(INTERVAL)).intValue() > 0) {
@@ -116,126 +133,145 @@ public class ExecHandler extends BaseThingHandler {
             executionJob.cancel(true);
             executionJob = null;
         }
+        disposed = true;
+        if (interpreter != null) {
+            interpreter.close();
+            interpreter = null;
+        }
+    }
+
+    /**
+     * Queues an execution of the command, unless an execution is already queued or running.
+     *
+     * @param afterRunning <code>true</code> to execute the command again when the running execution has finished
+     */
+    private void requestExecution(boolean afterRunning) {
+        if (executing.compareAndSet(false, true)) {
+            executionEngine.submit(executionRunnable);
+        } else if (afterRunning) {
+            executionRequested = true;
+            // the running execution might have finished without seeing the request
+            if (executing.compareAndSet(false, true)) {
+                executionEngine.submit(executionRunnable);
+            }
+        } else {
+            logger.debug("Skipping the execution of '{}', the previous execution has not finished yet",
+                    getConfig().get(COMMAND));
+        }
     }
 
     protected Runnable periodicExecutionRunnable = new Runnable() {
 
         @Override
         public void run() {
+            requestExecution(false);
+        }
+
+    };
 
-            String commandLine = (String) getConfig().get(COMMAND);
+    private Runnable executionRunnable = new Runnable() {
 
-            int timeOut = 60000;
-            if (((BigDecimal) getConfig().get(TIME_OUT)) != null) {
-                timeOut = ((BigDecimal) getConfig().get(TIME_OUT)).intValue() * 1000;
+        @Override
+        public void run() {
+            executionRequested = false;
+            try {
+                if (!disposed) {
+                    execute();
+                }
+            } catch (RuntimeException e) {
+                logger.error("An exception occurred while executing '{}' : '{}'", getConfig().get(COMMAND),
+                        e.getMessage(), e);
+            } finally {
+                executing.set(false);
+                if (executionRequested && executing.compareAndSet(false, true)) {
+                    executionEngine.submit(executionRunnable);
+                }
             }
+        }
 
-            if (commandLine != null && !commandLine.isEmpty()) {
+    };
 
-                updateState(RUN, OnOffType.ON);
+    private void execute() {
+        String commandLine = (String) getConfig().get(COMMAND);
 
-                // For some obscure reason, when using Apache Common Exec, or using a straight implementation of
-                // Runtime.Exec(), on Mac OS X (Yosemite and El Capitan), there seems to be a lock race condition
-                // randomly appearing (on UNIXProcess) *when* one tries to gobble up the stdout and sterr output of the
-                // subprocess in separate threads. It seems to be common "wisdom" to do that in separate threads, but
-                // only when keeping everything between .exec() and .waitfor() in the same thread, this lock race
-                // condition seems to go away. This approach of not reading the outputs in separate threads *might* be a
-                // problem for external commands that generate a lot of output, but this will be dependent on the limits
-                // of the underlying operating system.
+        int timeOut = 60000;
+        if (((BigDecimal) getConfig().get(TIME_OUT)) != null) {
+            timeOut = ((BigDecimal) getConfig().get(TIME_OUT)).intValue() * 1000;
+        }
 
-                try {
-                    if (lastInput != null) {
-                        commandLine = String.format(commandLine, Calendar.getInstance().getTime(), lastInput);
-                    } else {
-                        commandLine = String.format(commandLine, Calendar.getInstance().getTime());
-                    }
-                } catch (IllegalFormatException e) {
-                    logger.error(
-                            "An exception occurred while formatting the command line with the current time and input values : '{}'",
-                            e.getMessage());
-                    updateState(RUN, OnOffType.OFF);
-                    return;
-                }
+        if (commandLine != null && !commandLine.isEmpty()) {
 
-                logger.trace("The command to be executed will be '{}'", commandLine);
+            updateState(RUN, OnOffType.ON);
 
-                Process proc = null;
+            Interpreter currentInterpreter = interpreter;
+            String input = lastInput;
+            if (input != null && currentInterpreter != null) {
+                // the command line is run by a shell, the input must not add commands of its own
                 try {
-                    proc = rt.exec(commandLine.toString());
-                } catch (Exception e) {
-                    logger.error("An exception occurred while executing '{}' : '{}'",
-                            new Object[] { commandLine.toString(), e.getMessage() });
+                    input = Interpreter.quote(input);
+                } catch (IllegalArgumentException e) {
+                    logger.warn("Not executing '{}', the input contains a line break", commandLine);
                     updateState(RUN, OnOffType.OFF);
-                    updateState(OUTPUT, new StringType(e.getMessage()));
                     return;
                 }
+            }
 
-                StringBuilder outputBuilder = new StringBuilder();
-                StringBuilder errorBuilder = new StringBuilder();
-
-                try (InputStreamReader isr = new InputStreamReader(proc.getInputStream());
-                        BufferedReader br = new BufferedReader(isr);) {
-                    String line = null;
-                    while ((line = br.readLine()) != null) {
-                        outputBuilder.append(line).append("\n");
-                        logger.debug("Exec [{}]: '{}'", "OUTPUT", line);
-                    }
-                    isr.close();
-                } catch (IOException e) {
-                    logger.error("An exception occurred while reading the stdout when executing '{}' : '{}'",
-                            new Object[] { commandLine.toString(), e.getMessage() });
-                }
-
-                try (InputStreamReader isr = new InputStreamReader(proc.getErrorStream());
-                        BufferedReader br = new BufferedReader(isr);) {
-                    String line = null;
-                    while ((line = br.readLine()) != null) {
-                        errorBuilder.append(line).append("\n");
-                        logger.debug("Exec [{}]: '{}'", "ERROR", line);
-                    }
-                    isr.close();
-                } catch (IOException e) {
-                    logger.error("An exception occurred while reading the stderr when executing '{}' : '{}'",
-                            new Object[] { commandLine.toString(), e.getMessage() });
+            try {
+                if (input != null) {
+                    commandLine = String.format(commandLine, Calendar.getInstance().getTime(), input);
+                } else {
+                    commandLine = String.format(commandLine, Calendar.getInstance().getTime());
                 }
+            } catch (IllegalFormatException e) {
+                logger.error(
+                        "An exception occurred while formatting the command line with the current time and input values : '{}'",
+                        e.getMessage());
+                updateState(RUN, OnOffType.OFF);
+                return;
+            }
 
-                boolean exitVal = false;
-                try {
-                    exitVal = proc.waitFor(timeOut, TimeUnit.MILLISECONDS);
-                } catch (InterruptedException e) {
-                    logger.error("An exception occurred while waiting for the process ('{}') to finish : '{}'",
-                            new Object[] { commandLine.toString(), e.getMessage() });
-                }
+            logger.trace("The command to be executed will be '{}'", commandLine);
 
-                if (!exitVal) {
-                    logger.warn("Forcibly termininating the process ('{}') after a timeout of {} ms",
-                            new Object[] { commandLine.toString(), timeOut });
-                    proc.destroyForcibly();
+            ExecutionResult result;
+            try {
+                if (currentInterpreter != null) {
+                    result = currentInterpreter.execute(commandLine, timeOut);
+                } else {
+                    result = executionEngine.execute(commandLine, timeOut);
                 }
-
+            } catch (InterruptedException e) {
+                logger.debug("The execution of '{}' has been interrupted", commandLine);
+                Thread.currentThread().interrupt();
                 updateState(RUN, OnOffType.OFF);
-                updateState(EXIT, new DecimalType(proc.exitValue()));
-
-                outputBuilder.append(errorBuilder.toString());
+                return;
+            } catch (Exception e) {
+                logger.error("An exception occurred while executing '{}' : '{}'",
+                        new Object[] { commandLine.toString(), e.getMessage() });
+                updateState(RUN, OnOffType.OFF);
+                updateState(OUTPUT, new StringType(e.getMessage()));
+                return;
+            }
 
-                outputBuilder.append(errorBuilder.toString());
+            if (result.isTimedOut()) {
+                executionEngine.timedOut();
+            }
 
-                String transformedResponse = StringUtils.chomp(outputBuilder.toString());
-                String transformation = (String) getConfig().get(TRANSFORM);
+            updateState(RUN, OnOffType.OFF);
+            updateState(EXIT, new DecimalType(result.getExitValue()));
 
-                if (transformation != null && transformation.length() > 0) {
-                    transformedResponse = transformResponse(transformedResponse, transformation);
-                }
+            String transformedResponse = StringUtils.chomp(result.getOutput());
+            String transformation = (String) getConfig().get(TRANSFORM);
 
-                updateState(OUTPUT, new StringType(transformedResponse));
+            if (transformation != null && transformation.length() > 0) {
+                transformedResponse = transformResponse(transformedResponse, transformation);
+            }
 
-                DateTimeType stampType = new DateTimeType(Calendar.getInstance());
-                updateState(LAST_EXECUTION, stampType);
+            updateState(OUTPUT, new StringType(transformedResponse));
 
-            }
+            DateTimeType stampType = new DateTimeType(Calendar.getInstance());
+            updateState(LAST_EXECUTION, stampType);
         }
-
-    };
+    }
 
     protected String transformResponse(String response, String transformation) {
         String transformedResponse;
@@ -18,6 +18,7 @@ import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.binding.BaseThingHandlerFactory;
 import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.openhab.binding.exec.handler.ExecHandler;
+import org.osgi.service.component.ComponentContext;
 
 /**
  * The {@link ExecHandlerFactory} is responsible for creating things and thing
@@ -29,6 +30,8 @@ public class ExecHandlerFactory extends BaseThingHandlerFactory {
 
     private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Collections.singleton(THING_COMMAND);
 
+    private final ExecutionEngine executionEngine = new ExecutionEngine();
+
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
         return SUPPORTED_THING_TYPES_UIDS.contains(thingTypeUID);
@@ -40,9 +43,15 @@ public class ExecHandlerFactory extends BaseThingHandlerFactory {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (thingTypeUID.equals(THING_COMMAND)) {
-            return new ExecHandler(thing);
+            return new ExecHandler(thing, executionEngine);
         }
 
         return null;
     }
+
+    @Override
+    protected void deactivate(ComponentContext componentContext) {
+        executionEngine.shutdown();
+        super.deactivate(componentContext);
+    }
 }
@@ -0,0 +1,233 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.StringTokenizer;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link ExecutionEngine} runs the executions of all command things on a bounded number of threads. Executions
+ * beyond this limit wait in a queue, instead of blocking the scheduler threads or forking an unlimited number of
+ * processes. It keeps statistics about the run time, the time spent waiting in the queue and the timeouts, which are
+ * logged every {@value #STATISTICS_LOG_INTERVAL} executions and when the engine is shut down.
+ *
+ * The output of a process is written to temporary files instead of pipes. The process can not block on a full pipe,
+ * and its output does not have to be read while it is running, so the executing thread only waits for the process
+ * to end or for the timeout.
+ *
+ * @author agent - Initial contribution
+ */
+public class ExecutionEngine {
+
+    /**
+     * The default number of commands executed at the same time.
+     */
+    public static final int DEFAULT_MAX_CONCURRENT_EXECUTIONS = Math.max(2,
+            Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The number of executions after which the statistics are logged.
+     */
+    public static final int STATISTICS_LOG_INTERVAL = 1000;
+
+    private final Logger logger = LoggerFactory.getLogger(ExecutionEngine.class);
+
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong totalRunTime = new AtomicLong();
+    private final AtomicLong totalQueueWait = new AtomicLong();
+
+    public ExecutionEngine() {
+        this(DEFAULT_MAX_CONCURRENT_EXECUTIONS);
+    }
+
+    /**
+     * @param maxConcurrentExecutions the maximum number of commands executed at the same time
+     */
+    public ExecutionEngine(int maxConcurrentExecutions) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        ThreadFactory threadFactory = new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "ESH-exec-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        };
+        executor = new ThreadPoolExecutor(maxConcurrentExecutions, maxConcurrentExecutions, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), threadFactory);
+        // the threads end when no command has been executed for a minute
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Queues an execution, which is run as soon as a thread is available. Executions submitted after the engine has
+     * been shut down are discarded.
+     *
+     * @param execution the execution
+     */
+    public void submit(final Runnable execution) {
+        if (executor.isShutdown()) {
+            logger.debug("Discarding an execution, the engine has been shut down");
+            return;
+        }
+        final long queuedTime = System.nanoTime();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                long startTime = System.nanoTime();
+                try {
+                    execution.run();
+                } finally {
+                    long queueWait = TimeUnit.NANOSECONDS.toMillis(startTime - queuedTime);
+                    long runTime = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+                    totalQueueWait.addAndGet(queueWait);
+                    totalRunTime.addAndGet(runTime);
+                    long count = executions.incrementAndGet();
+                    logger.debug("Execution finished after {} ms, waited {} ms in the queue ({} still queued)",
+                            runTime, queueWait, executor.getQueue().size());
+                    if (count % STATISTICS_LOG_INTERVAL == 0) {
+                        logStatistics();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Executes a command line in a new process. The command line is split at white space like
+     * {@link Runtime#exec(String)} does.
+     *
+     * @param commandLine the command line
+     * @param timeOut the time in milliseconds after which the process is terminated
+     * @return the exit value and the standard output followed by the error output
+     * @throws IOException if the process can not be started
+     * @throws InterruptedException if the thread has been interrupted while waiting for the process
+     */
+    public ExecutionResult execute(String commandLine, int timeOut) throws IOException, InterruptedException {
+        File outputFile = File.createTempFile("exec-", ".out");
+        File errorFile = File.createTempFile("exec-", ".err");
+        try {
+            Process process = new ProcessBuilder(tokenize(commandLine)).redirectOutput(outputFile)
+                    .redirectError(errorFile).start();
+
+            boolean timedOut;
+            try {
+                timedOut = !process.waitFor(timeOut, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // the engine is shut down, do not leave the process running
+                process.destroyForcibly();
+                throw e;
+            }
+            if (timedOut) {
+                logger.warn("Forcibly terminating the process ('{}') after a timeout of {} ms", commandLine,
+                        timeOut);
+                process.destroyForcibly().waitFor();
+            }
+
+            StringBuilder outputBuilder = new StringBuilder();
+            readLines(outputFile, "OUTPUT", outputBuilder);
+            readLines(errorFile, "ERROR", outputBuilder);
+            return new ExecutionResult(process.exitValue(), outputBuilder.toString(), timedOut);
+        } finally {
+            if (!outputFile.delete() || !errorFile.delete()) {
+                logger.debug("Could not delete the output files of '{}'", commandLine);
+            }
+        }
+    }
+
+    private void readLines(File file, String name, StringBuilder builder) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file)))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                builder.append(line).append("\n");
+                logger.debug("Exec [{}]: '{}'", name, line);
+            }
+        }
+    }
+
+    /**
+     * Splits a command line at white space.
+     */
+    static String[] tokenize(String commandLine) {
+        StringTokenizer tokenizer = new StringTokenizer(commandLine);
+        String[] tokens = new String[tokenizer.countTokens()];
+        for (int i = 0; tokenizer.hasMoreTokens(); i++) {
+            tokens[i] = tokenizer.nextToken();
+        }
+        return tokens;
+    }
+
+    /**
+     * Discards the queued executions and interrupts the running ones, whose processes are terminated.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        logStatistics();
+    }
+
+    private void logStatistics() {
+        logger.info("{} commands executed, {} timed out, {} ms average run time, {} ms average wait in the queue",
+                getExecutions(), getTimeouts(), getAverageRunTime(), getAverageQueueWait());
+    }
+
+    /**
+     * Counts an execution that has been terminated after its timeout.
+     */
+    public void timedOut() {
+        timeouts.incrementAndGet();
+    }
+
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    public long getTimeouts() {
+        return timeouts.get();
+    }
+
+    /**
+     * @return the average run time of the executions in milliseconds
+     */
+    public long getAverageRunTime() {
+        long count = executions.get();
+        return count == 0 ? 0 : totalRunTime.get() / count;
+    }
+
+    /**
+     * @return the average time in milliseconds the executions waited in the queue
+     */
+    public long getAverageQueueWait() {
+        long count = executions.get();
+        return count == 0 ? 0 : totalQueueWait.get() / count;
+    }
+
+    /**
+     * @return the number of executions waiting for a thread
+     */
+    public int getQueuedExecutions() {
+        return executor.getQueue().size();
+    }
+
+}
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.internal;
+
+/**
+ * The {@link ExecutionResult} holds the exit value and the output of an executed command.
+ *
+ * @author agent - Initial contribution
+ */
+public class ExecutionResult {
+
+    private final int exitValue;
+    private final String output;
+    private final boolean timedOut;
+
+    public ExecutionResult(int exitValue, String output, boolean timedOut) {
+        this.exitValue = exitValue;
+        this.output = output;
+        this.timedOut = timedOut;
+    }
+
+    public int getExitValue() {
+        return exitValue;
+    }
+
+    /**
+     * @return the standard output followed by the error output, one line feed after each line
+     */
+    public String getOutput() {
+        return output;
+    }
+
+    public boolean isTimedOut() {
+        return timedOut;
+    }
+
+}
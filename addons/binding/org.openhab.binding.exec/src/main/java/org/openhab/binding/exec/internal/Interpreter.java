@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.exec.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link Interpreter} keeps a shell running and executes the commands by writing them to its standard input,
+ * which saves starting a new process for every execution. After each command the shell is asked to echo a marker
+ * with the exit value of the command, which ends the output of the command. This requires a POSIX compatible shell,
+ * e.g. <code>/bin/sh</code>. The error output is merged into the standard output.
+ *
+ * The output is read by a thread of its own. A process started by the command inherits the output of the shell and
+ * keeps it open after the shell has been terminated, so the executing thread must not block on it.
+ *
+ * @author agent - Initial contribution
+ */
+public class Interpreter {
+
+    private static final String END_MARKER = "~~openhab-exec-end~~";
+
+    // Queued by the reader thread at the end of the output, compared by identity
+    private static final String END_OF_OUTPUT = new String();
+
+    private final Logger logger = LoggerFactory.getLogger(Interpreter.class);
+
+    private final String commandLine;
+
+    private volatile Process process;
+    private Writer input;
+    private BlockingQueue<String> output;
+
+    /**
+     * @param commandLine the command line starting the shell
+     */
+    public Interpreter(String commandLine) {
+        this.commandLine = commandLine;
+    }
+
+    /**
+     * Executes a command in the shell, which is started if it is not running. If the command does not finish within
+     * the timeout, the shell is terminated and started again with the next command.
+     *
+     * @param command the command to execute
+     * @param timeOut the timeout in milliseconds
+     * @return the result of the command
+     * @throws IOException if the shell can not be started or has terminated unexpectedly
+     * @throws InterruptedException if the thread has been interrupted while waiting for the command
+     */
+    public synchronized ExecutionResult execute(String command, int timeOut) throws IOException, InterruptedException {
+        if (process == null || !process.isAlive()) {
+            start();
+        }
+
+        long deadline = System.currentTimeMillis() + timeOut;
+        StringBuilder outputBuilder = new StringBuilder();
+        try {
+            input.write(command + "\necho \"" + END_MARKER + "$?\"\n");
+            input.flush();
+
+            while (true) {
+                String line = output.poll(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+                if (line == null) {
+                    logger.warn("Terminating the interpreter ('{}') after a timeout of {} ms", commandLine, timeOut);
+                    close();
+                    return new ExecutionResult(-1, outputBuilder.toString(), true);
+                }
+                if (line == END_OF_OUTPUT) {
+                    throw new IOException("The interpreter '" + commandLine + "' has terminated");
+                }
+                int markerIndex = line.indexOf(END_MARKER);
+                if (markerIndex >= 0) {
+                    if (markerIndex > 0) {
+                        // the output of the command did not end with a line feed
+                        outputBuilder.append(line.substring(0, markerIndex)).append("\n");
+                    }
+                    int exitValue = Integer.parseInt(line.substring(markerIndex + END_MARKER.length()).trim());
+                    return new ExecutionResult(exitValue, outputBuilder.toString(), false);
+                }
+                outputBuilder.append(line).append("\n");
+                logger.debug("Exec [{}]: '{}'", "OUTPUT", line);
+            }
+        } catch (IOException | InterruptedException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Quotes a value as a single word of the shell, so that it can not add commands or expansions of its own. Line
+     * breaks are refused, because they would end the command written to the shell.
+     *
+     * @param value the value to quote
+     * @return the value in single quotes
+     * @throws IllegalArgumentException if the value contains a line break
+     */
+    public static String quote(String value) {
+        if (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("The value contains a line break");
+        }
+        return "'" + value.replace("'", "'\\''") + "'";
+    }
+
+    /**
+     * Terminates the shell.
+     */
+    public void close() {
+        Process runningProcess = process;
+        process = null;
+        if (runningProcess != null) {
+            runningProcess.destroyForcibly();
+        }
+    }
+
+    private void start() throws IOException {
+        logger.debug("Starting the interpreter '{}'", commandLine);
+        Process newProcess = new ProcessBuilder(ExecutionEngine.tokenize(commandLine)).redirectErrorStream(true)
+                .start();
+        final InputStream outputStream = newProcess.getInputStream();
+        final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        Thread readerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(outputStream))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        lines.add(line);
+                    }
+                } catch (IOException e) {
+                    logger.debug("Could not read the output of the interpreter '{}': {}", commandLine,
+                            e.getMessage());
+                } finally {
+                    lines.add(END_OF_OUTPUT);
+                }
+            }
+        }, "ESH-exec-interpreter");
+        readerThread.setDaemon(true);
+        readerThread.start();
+
+        input = new OutputStreamWriter(newProcess.getOutputStream());
+        output = lines;
+        process = newProcess;
+    }
+
+}
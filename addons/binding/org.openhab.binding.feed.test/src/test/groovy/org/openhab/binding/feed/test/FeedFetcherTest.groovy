@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2014 openHAB UG (haftungsbeschraenkt) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.feed.test
+
+import static org.hamcrest.CoreMatchers.*
+import static org.junit.Assert.*
+
+import javax.servlet.ServletException
+import javax.servlet.http.HttpServlet
+import javax.servlet.http.HttpServletRequest
+import javax.servlet.http.HttpServletResponse
+
+import org.eclipse.jetty.http.HttpStatus
+import org.eclipse.smarthome.test.OSGiTest
+import org.junit.After
+import org.junit.Before
+import org.junit.Test
+import org.openhab.binding.feed.internal.FeedFetcher
+import org.osgi.service.http.HttpService
+
+import com.rometools.rome.feed.synd.SyndFeed
+import com.rometools.rome.io.FeedException
+
+/**
+ * Tests for {@link FeedFetcher}
+ *
+ * @author agent
+ */
+public class FeedFetcherTest extends OSGiTest {
+
+    def MOCK_SERVLET_PATH = '/test/fetcher'
+    def MOCK_SERVLET_URL = "http://localhost:9090$MOCK_SERVLET_PATH"
+
+    def DEFAULT_MOCK_CONTENT = 'rss_2.0.xml'
+    def MOCK_CONTENT_CHANGED = 'rss_2.0_changed.xml'
+
+    private FeedFetcher feedFetcher
+    private CountingFeedServiceMock servlet
+
+    /**
+     * Serves the feed content with an ETag and counts the full and the not modified responses.
+     */
+    class CountingFeedServiceMock extends HttpServlet {
+        def feedContent
+        def sendETag = true
+        int fullResponses = 0
+        int notModifiedResponses = 0
+
+        public CountingFeedServiceMock(def feedContentFile) {
+            super()
+            setFeedContent(feedContentFile)
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException{
+            def eTag = "\"${feedContent.hashCode()}\""
+            if (sendETag && eTag == request.getHeader('If-None-Match')) {
+                notModifiedResponses++
+                response.setStatus(HttpStatus.NOT_MODIFIED_304)
+                return
+            }
+            fullResponses++
+            if (sendETag) {
+                response.setHeader('ETag', eTag)
+            }
+            response.setContentType("application/rss+xml")
+            response.setStatus(HttpStatus.OK_200)
+            response.getOutputStream().print(feedContent)
+        }
+
+        public void setFeedContent(String feedContentFile) {
+            def path = "input/${feedContentFile}"
+            feedContent = getClass().getClassLoader().getResourceAsStream(path).getText()
+        }
+    }
+
+    @Before
+    public void setUp() {
+        HttpService httpService = getService(HttpService)
+        assertThat httpService,is(notNullValue())
+        servlet = new CountingFeedServiceMock(DEFAULT_MOCK_CONTENT)
+        httpService.registerServlet(MOCK_SERVLET_PATH, servlet, null, null)
+
+        feedFetcher = new FeedFetcher()
+    }
+
+    @After
+    public void tearDown() {
+        HttpService httpService = getService(HttpService)
+        assertThat httpService,is(notNullValue())
+        httpService.unregister(MOCK_SERVLET_PATH)
+        servlet = null
+    }
+
+    @Test
+    public void 'assert that a feed requested twice within the maximum age is downloaded once' () {
+        SyndFeed first = feedFetcher.fetch(MOCK_SERVLET_URL, 60000)
+        SyndFeed second = feedFetcher.fetch(MOCK_SERVLET_URL, 60000)
+
+        assertThat servlet.fullResponses, is(1)
+        assertThat servlet.notModifiedResponses, is(0)
+        assertThat second, is(sameInstance(first))
+    }
+
+    @Test
+    public void 'assert that an unchanged feed is requested conditionally and not parsed again' () {
+        SyndFeed first = feedFetcher.fetch(MOCK_SERVLET_URL, 0)
+        SyndFeed second = feedFetcher.fetch(MOCK_SERVLET_URL, 0)
+
+        assertThat servlet.fullResponses, is(1)
+        assertThat servlet.notModifiedResponses, is(1)
+        assertThat second, is(sameInstance(first))
+    }
+
+    @Test
+    public void 'assert that an unchanged feed without ETag is not parsed again' () {
+        servlet.sendETag = false
+
+        SyndFeed first = feedFetcher.fetch(MOCK_SERVLET_URL, 0)
+        SyndFeed second = feedFetcher.fetch(MOCK_SERVLET_URL, 0)
+
+        assertThat servlet.fullResponses, is(2)
+        assertThat second, is(sameInstance(first))
+    }
+
+    @Test
+    public void 'assert that a changed feed is downloaded and parsed again' () {
+        SyndFeed first = feedFetcher.fetch(MOCK_SERVLET_URL, 0)
+        servlet.setFeedContent(MOCK_CONTENT_CHANGED)
+        SyndFeed second = feedFetcher.fetch(MOCK_SERVLET_URL, 0)
+
+        assertThat servlet.fullResponses, is(2)
+        assertThat second, is(not(sameInstance(first)))
+        assertThat second.getEntries().size(), is(first.getEntries().size() + 1)
+    }
+
+    @Test
+    public void 'assert that a feed which could not be parsed is not answered with not modified' () {
+        feedFetcher.fetch(MOCK_SERVLET_URL, 0)
+        servlet.@feedContent = 'no feed'
+
+        2.times {
+            try {
+                feedFetcher.fetch(MOCK_SERVLET_URL, 0)
+                fail('FeedException expected')
+            } catch (FeedException e) {
+            }
+        }
+
+        assertThat servlet.fullResponses, is(3)
+        assertThat servlet.notModifiedResponses, is(0)
+    }
+
+    @Test(expected = IOException)
+    public void 'assert that an HTTP error is reported' () {
+        feedFetcher.fetch("http://localhost:9090/test/invalid/path", 0)
+    }
+}
@@ -10,20 +10,15 @@ package org.openhab.binding.feed.handler;
 
 import static org.openhab.binding.feed.FeedBindingConstants.*;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.math.BigDecimal;
 import java.net.MalformedURLException;
-import java.net.URL;
-import java.net.URLConnection;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-import java.util.zip.GZIPInputStream;
 
 import org.eclipse.smarthome.config.core.Configuration;
 import org.eclipse.smarthome.core.library.types.DateTimeType;
@@ -38,13 +33,13 @@ import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
+import org.openhab.binding.feed.internal.FeedFetcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.rometools.rome.feed.synd.SyndEntry;
 import com.rometools.rome.feed.synd.SyndFeed;
 import com.rometools.rome.io.FeedException;
-import com.rometools.rome.io.SyndFeedInput;
 
 /**
  * The {@link FeedHandler } is responsible for handling commands, which are
@@ -61,9 +56,11 @@ public class FeedHandler extends BaseThingHandler {
     private ScheduledFuture<?> refreshTask;
     private SyndFeed currentFeedState;
     private long lastRefreshTime;
+    private final FeedFetcher feedFetcher;
 
-    public FeedHandler(Thing thing) {
+    public FeedHandler(Thing thing, FeedFetcher feedFetcher) {
         super(thing);
+        this.feedFetcher = feedFetcher;
         currentFeedState = null;
     }
 
@@ -187,8 +184,9 @@ public class FeedHandler extends BaseThingHandler {
      *         otherwise
      */
     private synchronized boolean updateFeedIfChanged(SyndFeed newFeedState) {
-        // SyndFeed class has implementation of equals ()
-        if (newFeedState != null && !newFeedState.equals(currentFeedState)) {
+        // an unchanged feed is returned as the same instance by the FeedFetcher, SyndFeed has an implementation of
+        // equals() for the first fetch after initialization
+        if (newFeedState != null && newFeedState != currentFeedState && !newFeedState.equals(currentFeedState)) {
             currentFeedState = newFeedState;
             logger.debug("New content available!");
             return true;
@@ -198,7 +196,8 @@ public class FeedHandler extends BaseThingHandler {
     }
 
     /**
-     * This method tries to make connection with the server and fetch data from the feed.
+     * This method fetches the data of the feed with the shared {@link FeedFetcher}, things with the same URL get
+     * the same data within {@link org.openhab.binding.feed.FeedBindingConstants#MINIMUM_REFRESH_TIME}.
      * The status of the feed thing is set to {@link ThingStatus#ONLINE}, if the fetching was successful.
      * Otherwise the status will be set to {@link ThingStatus#OFFLINE} with
      * {@link ThingStatusDetail#CONFIGURATION_ERROR} or
@@ -211,21 +210,7 @@ public class FeedHandler extends BaseThingHandler {
     private SyndFeed fetchFeedData(String urlString) {
         SyndFeed feed = null;
         try {
-            URL url = new URL(urlString);
-
-            URLConnection connection = url.openConnection();
-            connection.setRequestProperty("Accept-Encoding", "gzip");
-
-            BufferedReader in = null;
-            if ("gzip".equals(connection.getContentEncoding())) {
-                in = new BufferedReader(new InputStreamReader(new GZIPInputStream(connection.getInputStream())));
-            } else {
-                in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-            }
-
-            SyndFeedInput input = new SyndFeedInput();
-            feed = input.build(in);
-            in.close();
+            feed = feedFetcher.fetch(urlString, MINIMUM_REFRESH_TIME);
 
             if (this.thing.getStatus() != ThingStatus.ONLINE) {
                 updateStatus(ThingStatus.ONLINE);
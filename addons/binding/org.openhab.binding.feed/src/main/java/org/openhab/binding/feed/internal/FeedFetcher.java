@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.feed.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.rometools.rome.feed.synd.SyndFeed;
+import com.rometools.rome.io.FeedException;
+import com.rometools.rome.io.SyndFeedInput;
+import com.rometools.rome.io.XmlReader;
+
+/**
+ * The {@link FeedFetcher} downloads and parses feeds for all feed things. It keeps the last parsed feed of the
+ * recently used URLs, so that things pointing at the same URL share one request. The server is asked with a
+ * conditional request whether the feed has changed, and a downloaded document is only parsed when its content differs
+ * from the cached one.
+ *
+ * @author agent - Initial contribution
+ */
+public class FeedFetcher {
+
+    /**
+     * The default number of feeds kept in the cache.
+     */
+    public static final int DEFAULT_CACHE_SIZE = 32;
+
+    private static final int CONNECT_TIMEOUT = 10000;
+    private static final int READ_TIMEOUT = 30000;
+
+    private final Logger logger = LoggerFactory.getLogger(FeedFetcher.class);
+
+    private final Map<String, CacheEntry> cache;
+
+    public FeedFetcher() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    /**
+     * @param cacheSize the maximum number of feeds kept in the cache, the least recently used one is dropped first
+     */
+    public FeedFetcher(final int cacheSize) {
+        cache = new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Returns the feed of the given URL. If the feed has been requested during the last <code>maxAge</code>
+     * milliseconds, the cached feed is returned without contacting the server. The same {@link SyndFeed} instance is
+     * returned as long as the feed has not changed on the server.
+     *
+     * @param urlString the URL of the feed
+     * @param maxAge the maximum age of a cached feed in milliseconds, which is returned without a request
+     * @return the feed
+     * @throws IOException if the feed can not be downloaded
+     * @throws FeedException if the downloaded document is not a valid feed
+     */
+    public SyndFeed fetch(String urlString, long maxAge) throws IOException, FeedException {
+        URL url = new URL(urlString);
+
+        CacheEntry entry;
+        synchronized (cache) {
+            entry = cache.get(urlString);
+            if (entry == null) {
+                entry = new CacheEntry();
+                cache.put(urlString, entry);
+            }
+        }
+
+        // things with the same URL wait for the request of the first one and then get its result
+        synchronized (entry) {
+            long now = System.currentTimeMillis();
+            if (entry.feed != null && now - entry.lastRequestTime < maxAge) {
+                logger.trace("Using cached feed of {}", urlString);
+                return entry.feed;
+            }
+            SyndFeed feed = download(url, entry);
+            entry.lastRequestTime = now;
+            return feed;
+        }
+    }
+
+    /**
+     * Removes all feeds from the cache.
+     */
+    public void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    private SyndFeed download(URL url, CacheEntry entry) throws IOException, FeedException {
+        URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(CONNECT_TIMEOUT);
+        connection.setReadTimeout(READ_TIMEOUT);
+        connection.setRequestProperty("Accept-Encoding", "gzip");
+
+        if (connection instanceof HttpURLConnection) {
+            if (entry.feed != null && entry.eTag != null) {
+                connection.setRequestProperty("If-None-Match", entry.eTag);
+            }
+            if (entry.feed != null && entry.lastModified != null) {
+                connection.setRequestProperty("If-Modified-Since", entry.lastModified);
+            }
+
+            int responseCode = ((HttpURLConnection) connection).getResponseCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && entry.feed != null) {
+                logger.debug("Feed {} has not been modified", url);
+                return entry.feed;
+            }
+            if (responseCode >= HttpURLConnection.HTTP_BAD_REQUEST) {
+                throw new IOException("Server returned HTTP response code: " + responseCode + " for URL: " + url);
+            }
+        }
+
+        byte[] content = readContent(connection);
+        byte[] digest = digest(content);
+        String eTag = connection.getHeaderField("ETag");
+        String lastModified = connection.getHeaderField("Last-Modified");
+
+        if (entry.feed != null && Arrays.equals(digest, entry.digest)) {
+            logger.debug("Content of feed {} has not changed", url);
+            entry.eTag = eTag;
+            entry.lastModified = lastModified;
+            return entry.feed;
+        }
+
+        // the validators are only stored with a parsed feed, otherwise a document that could not be parsed would be
+        // answered with 'not modified' from now on and the old feed would be kept forever
+        SyndFeed feed = new SyndFeedInput().build(new XmlReader(new ByteArrayInputStream(content)));
+        entry.feed = feed;
+        entry.digest = digest;
+        entry.eTag = eTag;
+        entry.lastModified = lastModified;
+        return feed;
+    }
+
+    private byte[] readContent(URLConnection connection) throws IOException {
+        InputStream in = connection.getInputStream();
+        if ("gzip".equals(connection.getContentEncoding())) {
+            in = new GZIPInputStream(in);
+        }
+        try {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            return content.toByteArray();
+        } finally {
+            in.close();
+        }
+    }
+
+    private byte[] digest(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support SHA-256, compare the whole content otherwise
+            return content;
+        }
+    }
+
+    private static class CacheEntry {
+        private SyndFeed feed;
+        private byte[] digest;
+        private String eTag;
+        private String lastModified;
+        private long lastRequestTime;
+    }
+
+}
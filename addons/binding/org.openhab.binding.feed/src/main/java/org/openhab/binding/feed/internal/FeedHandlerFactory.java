@@ -29,19 +29,38 @@ public class FeedHandlerFactory extends BaseThingHandlerFactory {
 
     private static final Set<ThingTypeUID> SUPPORTED_THING_TYPES_UIDS = Collections.singleton(FEED_THING_TYPE_UID);
 
+    private final FeedFetcher feedFetcher = new FeedFetcher();
+
+    /**
+     * Number of feed handlers sharing the {@link #feedFetcher}
+     */
+    private int feedHandlerCount = 0;
+
     @Override
     public boolean supportsThingType(ThingTypeUID thingTypeUID) {
         return SUPPORTED_THING_TYPES_UIDS.contains(thingTypeUID);
     }
 
     @Override
-    protected ThingHandler createHandler(Thing thing) {
+    protected synchronized ThingHandler createHandler(Thing thing) {
         ThingTypeUID thingTypeUID = thing.getThingTypeUID();
 
         if (thingTypeUID.equals(FEED_THING_TYPE_UID)) {
-            return new FeedHandler(thing);
+            feedHandlerCount++;
+            return new FeedHandler(thing, feedFetcher);
         }
 
         return null;
     }
+
+    @Override
+    protected synchronized void removeHandler(ThingHandler thingHandler) {
+        if (thingHandler instanceof FeedHandler) {
+            feedHandlerCount--;
+            // a thing created later must not get a feed cached before it existed
+            if (feedHandlerCount == 0) {
+                feedFetcher.clear();
+            }
+        }
+    }
 }
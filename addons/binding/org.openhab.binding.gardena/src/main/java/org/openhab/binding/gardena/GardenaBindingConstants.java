@@ -32,6 +32,10 @@ public class GardenaBindingConstants {
     public static final String PROPERTY_CONNECTION_STATUS_UNREACH_VALUE = "status_device_unreachable";
     public static final String PROPERTY_STATE = "state";
 
+    public static final String ACCOUNT_PROPERTY_REFRESH_DURATION = "refreshDuration";
+    public static final String ACCOUNT_PROPERTY_CHANGED_DEVICES = "changedDevices";
+    public static final String ACCOUNT_PROPERTY_CHANGED_PROPERTIES = "changedProperties";
+
     public static final String ABILITY_DEVICE_INFO = "device_info";
     public static final String ABILITY_RADIO = "radio";
 
@@ -8,7 +8,10 @@
  */
 package org.openhab.binding.gardena.handler;
 
+import static org.openhab.binding.gardena.GardenaBindingConstants.*;
+
 import java.util.Hashtable;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.config.discovery.DiscoveryService;
@@ -29,6 +32,7 @@ import org.openhab.binding.gardena.internal.GardenaSmartImpl;
 import org.openhab.binding.gardena.internal.config.GardenaConfig;
 import org.openhab.binding.gardena.internal.exception.GardenaException;
 import org.openhab.binding.gardena.internal.model.Device;
+import org.openhab.binding.gardena.internal.model.Property;
 import org.openhab.binding.gardena.util.UidUtils;
 import org.osgi.framework.ServiceRegistration;
 import org.slf4j.Logger;
@@ -186,6 +190,51 @@ public class GardenaAccountHandler extends BaseBridgeHandler implements GardenaS
         }
     }
 
+    @Override
+    public void onPropertiesUpdated(Device device, List<Property> properties) {
+        for (ThingUID thingUID : UidUtils.getThingUIDs(device, getThing())) {
+            Thing gardenaThing = getThingByUID(thingUID);
+            try {
+                GardenaThingHandler gardenaThingHandler = (GardenaThingHandler) gardenaThing.getHandler();
+                boolean deviceInfoChanged = false;
+                for (Property property : properties) {
+                    String abilityName = property.getAbility().getName();
+                    if (ABILITY_DEVICE_INFO.equals(abilityName)) {
+                        deviceInfoChanged = true;
+                    }
+                    Channel channel = gardenaThing.getChannel(abilityName + "#" + property.getName());
+                    if (channel != null) {
+                        gardenaThingHandler.updateChannel(channel.getUID());
+                    }
+                }
+                if (deviceInfoChanged) {
+                    gardenaThingHandler.updateProperties(device);
+                }
+                gardenaThingHandler.updateStatus(device);
+            } catch (GardenaException ex) {
+                logger.error("There is something wrong with your thing, please recreate the thing {}",
+                        gardenaThing.getUID(), ex);
+                updateStatus(ThingStatus.OFFLINE);
+            } catch (AccountHandlerNotAvailableException ignore) {
+            }
+        }
+    }
+
+    @Override
+    public void onSettingsUpdated(Device device) {
+        for (ThingUID thingUID : UidUtils.getThingUIDs(device, getThing())) {
+            Thing gardenaThing = getThingByUID(thingUID);
+            try {
+                GardenaThingHandler gardenaThingHandler = (GardenaThingHandler) gardenaThing.getHandler();
+                gardenaThingHandler.updateSettings(device);
+            } catch (GardenaException ex) {
+                logger.error("There is something wrong with your thing, please recreate the thing {}",
+                        gardenaThing.getUID(), ex);
+                updateStatus(ThingStatus.OFFLINE);
+            }
+        }
+    }
+
     @Override
     public void onNewDevice(Device device) {
         if (discoveryService != null) {
@@ -211,4 +260,11 @@ public class GardenaAccountHandler extends BaseBridgeHandler implements GardenaS
         updateStatus(ThingStatus.ONLINE);
     }
 
+    @Override
+    public void onDevicesRefreshed(long duration, int changedDevices, int changedProperties) {
+        updateProperty(ACCOUNT_PROPERTY_REFRESH_DURATION, String.valueOf(duration));
+        updateProperty(ACCOUNT_PROPERTY_CHANGED_DEVICES, String.valueOf(changedDevices));
+        updateProperty(ACCOUNT_PROPERTY_CHANGED_PROPERTIES, String.valueOf(changedProperties));
+    }
+
 }
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.gardena.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.lang.ObjectUtils;
+import org.apache.commons.lang.StringUtils;
+import org.openhab.binding.gardena.internal.model.Ability;
+import org.openhab.binding.gardena.internal.model.Device;
+import org.openhab.binding.gardena.internal.model.Property;
+import org.openhab.binding.gardena.internal.model.Setting;
+
+/**
+ * Compares two versions of a Gardena device and determines the changed abilities, properties and settings.
+ *
+ * @author agent - Initial contribution
+ */
+public class DeviceDiff {
+    private final List<Property> changedProperties = new ArrayList<>();
+    private boolean structureChanged;
+    private boolean settingsChanged;
+
+    public DeviceDiff(Device oldDevice, Device newDevice) {
+        compareAbilities(oldDevice, newDevice);
+        compareSettings(oldDevice, newDevice);
+    }
+
+    /**
+     * Compares the property values of the devices, an added or removed ability or property is a structural change.
+     */
+    private void compareAbilities(Device oldDevice, Device newDevice) {
+        Map<String, Property> oldProperties = new HashMap<>();
+        for (Ability ability : oldDevice.getAbilities()) {
+            for (Property property : ability.getProperties()) {
+                oldProperties.put(getKey(ability, property), property);
+            }
+        }
+
+        int propertyCount = 0;
+        for (Ability ability : newDevice.getAbilities()) {
+            for (Property property : ability.getProperties()) {
+                propertyCount++;
+                Property oldProperty = oldProperties.get(getKey(ability, property));
+                if (oldProperty == null) {
+                    structureChanged = true;
+                } else if (!StringUtils.equals(oldProperty.getValue(), property.getValue())) {
+                    changedProperties.add(property);
+                }
+            }
+        }
+        if (propertyCount != oldProperties.size()) {
+            structureChanged = true;
+        }
+    }
+
+    /**
+     * Compares the setting values of the devices.
+     */
+    private void compareSettings(Device oldDevice, Device newDevice) {
+        Map<String, Object> oldSettings = new HashMap<>();
+        for (Setting setting : oldDevice.getSettings()) {
+            oldSettings.put(setting.getName(), setting.getValue());
+        }
+
+        if (oldSettings.size() != newDevice.getSettings().size()) {
+            settingsChanged = true;
+            return;
+        }
+        for (Setting setting : newDevice.getSettings()) {
+            if (!oldSettings.containsKey(setting.getName())
+                    || !ObjectUtils.equals(oldSettings.get(setting.getName()), setting.getValue())) {
+                settingsChanged = true;
+                return;
+            }
+        }
+    }
+
+    private static String getKey(Ability ability, Property property) {
+        return ability.getName() + "#" + property.getName();
+    }
+
+    /**
+     * Returns true, if abilities or properties have been added or removed.
+     */
+    public boolean isStructureChanged() {
+        return structureChanged;
+    }
+
+    /**
+     * Returns true, if a setting has been added, removed or changed.
+     */
+    public boolean isSettingsChanged() {
+        return settingsChanged;
+    }
+
+    /**
+     * Returns the properties of the new device with a changed value.
+     */
+    public List<Property> getChangedProperties() {
+        return changedProperties;
+    }
+
+    /**
+     * Returns true, if anything changed.
+     */
+    public boolean hasChanges() {
+        return structureChanged || settingsChanged || !changedProperties.isEmpty();
+    }
+
+}
@@ -8,7 +8,10 @@
  */
 package org.openhab.binding.gardena.internal;
 
+import java.util.List;
+
 import org.openhab.binding.gardena.internal.model.Device;
+import org.openhab.binding.gardena.internal.model.Property;
 
 /**
  * Listener with methods called from events within the {@link GardenaSmart} class.
@@ -22,6 +25,16 @@ public interface GardenaSmartEventListener {
      */
     public void onDeviceUpdated(Device device);
 
+    /**
+     * Called when property values of a device have changed, only the changed properties are passed.
+     */
+    public void onPropertiesUpdated(Device device, List<Property> properties);
+
+    /**
+     * Called when the settings of a device have changed.
+     */
+    public void onSettingsUpdated(Device device);
+
     /**
      * Called when a new device has been detected.
      */
@@ -42,4 +55,9 @@ public interface GardenaSmartEventListener {
      */
     public void onConnectionResumed();
 
+    /**
+     * Called after the devices have been refreshed from Gardena Smart Home.
+     */
+    public void onDevicesRefreshed(long duration, int changedDevices, int changedProperties);
+
 }
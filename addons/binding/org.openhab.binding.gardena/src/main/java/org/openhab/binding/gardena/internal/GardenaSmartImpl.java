@@ -8,26 +8,32 @@
  */
 package org.openhab.binding.gardena.internal;
 
-import java.util.Collection;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.ObjectUtils;
 import org.eclipse.jetty.client.HttpClient;
 import org.eclipse.jetty.client.HttpResponseException;
 import org.eclipse.jetty.client.api.ContentResponse;
 import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.util.FutureResponseListener;
 import org.eclipse.jetty.client.util.StringContentProvider;
 import org.eclipse.jetty.http.HttpHeader;
 import org.eclipse.jetty.http.HttpMethod;
+import org.eclipse.jetty.http.HttpStatus;
 import org.eclipse.jetty.util.ssl.SslContextFactory;
 import org.openhab.binding.gardena.internal.config.GardenaConfig;
 import org.openhab.binding.gardena.internal.config.GardenaConfigWrapper;
@@ -90,6 +96,7 @@ public class GardenaSmartImpl implements GardenaSmart {
     private static final String DEVICE_CATEGORY_GATEWAY = "gateway";
 
     private static final String DEFAULT_MOWER_DURATION = "180";
+    private static final int MAX_RESPONSE_LENGTH = 4 * 1024 * 1024;
 
     private static final String URL = "https://smart.gardena.com";
     private static final String URL_LOGIN = URL + "/sg-1/sessions";
@@ -113,8 +120,10 @@ public class GardenaSmartImpl implements GardenaSmart {
 
     private GardenaSmartEventListener eventListener;
 
-    private Map<String, Device> allDevicesById = new HashMap<>();
+    private Map<String, Device> allDevicesById = new ConcurrentHashMap<>();
     private Set<Location> allLocations = new HashSet<>();
+    /** The ETag of the last devices response of each location, for conditional requests */
+    private Map<String, String> deviceETagsByLocation = new ConcurrentHashMap<>();
 
     @Override
     public void init(String id, GardenaConfig config, GardenaSmartEventListener eventListener,
@@ -153,6 +162,7 @@ public class GardenaSmartImpl implements GardenaSmart {
         }
         allLocations.clear();
         allDevicesById.clear();
+        deviceETagsByLocation.clear();
     }
 
     /**
@@ -198,18 +208,16 @@ public class GardenaSmartImpl implements GardenaSmart {
         try {
             allLocations.clear();
             allDevicesById.clear();
+            deviceETagsByLocation.clear();
 
             verifySession();
             Locations locations = executeRequest(HttpMethod.GET, URL_LOCATIONS + session.getUserId(), null,
                     Locations.class);
 
-            for (Location location : locations.getLocations()) {
-                allLocations.add(location);
-                Devices devices = loadDevices(location);
+            allLocations.addAll(locations.getLocations());
+            for (Devices devices : loadDevices(allLocations).values()) {
                 for (Device device : devices.getDevices()) {
-                    if (DEVICE_CATEGORY_GATEWAY.equals(device.getCategory())) {
-                        location.getDeviceIds().remove(device.getId());
-                    } else {
+                    if (!DEVICE_CATEGORY_GATEWAY.equals(device.getCategory())) {
                         allDevicesById.put(device.getId(), device);
                     }
                 }
@@ -220,11 +228,52 @@ public class GardenaSmartImpl implements GardenaSmart {
     }
 
     /**
-     * Loads all devices for the location, adds virtual properties for commands.
+     * Loads the devices of all locations in parallel. Locations whose devices have not been modified since the last
+     * request are not contained in the result.
      */
-    private Devices loadDevices(Location location) throws GardenaException {
-        Devices devices = executeRequest(HttpMethod.GET, URL_DEVICES + location.getId(), null, Devices.class);
+    private Map<Location, Devices> loadDevices(Set<Location> locations) throws GardenaException {
+        Map<Location, FutureResponseListener> responseListeners = new LinkedHashMap<>();
+        for (Location location : locations) {
+            Request request = createRequest(HttpMethod.GET, URL_DEVICES + location.getId(), null, true);
+            String eTag = deviceETagsByLocation.get(location.getId());
+            if (eTag != null) {
+                request.header(HttpHeader.IF_NONE_MATCH, eTag);
+            }
+            FutureResponseListener responseListener = new FutureResponseListener(request, MAX_RESPONSE_LENGTH);
+            request.send(responseListener);
+            responseListeners.put(location, responseListener);
+        }
+
+        Map<Location, Devices> devicesByLocation = new LinkedHashMap<>();
+        for (Entry<Location, FutureResponseListener> entry : responseListeners.entrySet()) {
+            Location location = entry.getKey();
+            ContentResponse contentResponse = getResponse(entry.getValue());
+            if (contentResponse.getStatus() == HttpStatus.NOT_MODIFIED_304) {
+                logger.trace("Devices of location '{}' not modified", location.getId());
+                continue;
+            }
+            Devices devices = parseResponse(contentResponse, Devices.class);
+            initDevices(location, devices);
+
+            String eTag = contentResponse.getHeaders().get(HttpHeader.ETAG);
+            if (eTag != null) {
+                deviceETagsByLocation.put(location.getId(), eTag);
+            } else {
+                deviceETagsByLocation.remove(location.getId());
+            }
+            devicesByLocation.put(location, devices);
+        }
+        return devicesByLocation;
+    }
+
+    /**
+     * Initializes the devices of the location, adds virtual properties for commands.
+     */
+    private void initDevices(Location location, Devices devices) throws GardenaException {
         for (Device device : devices.getDevices()) {
+            if (DEVICE_CATEGORY_GATEWAY.equals(device.getCategory())) {
+                location.getDeviceIds().remove(device.getId());
+            }
             device.setLocation(location);
             for (Ability ability : device.getAbilities()) {
                 ability.setDevice(device);
@@ -253,7 +302,6 @@ public class GardenaSmartImpl implements GardenaSmart {
                 mower.addProperty(new Property(GardenaSmartCommandName.DURATION_PROPERTY, mowerDuration));
             }
         }
-        return devices;
     }
 
     @Override
@@ -368,33 +416,61 @@ public class GardenaSmartImpl implements GardenaSmart {
     /**
      * Communicates with Gardena Smart Home and parses the result.
      */
-    private synchronized <T> T executeRequest(HttpMethod method, String url, Object contentObject, Class<T> result)
+    private <T> T executeRequest(HttpMethod method, String url, Object contentObject, Class<T> result)
             throws GardenaException {
-
+        Request request = createRequest(method, url, contentObject, !result.equals(SessionWrapper.class));
         try {
-            if (logger.isTraceEnabled()) {
-                logger.trace("{} request:  {}", method, url);
-                if (contentObject != null) {
-                    logger.trace("{} data   :  {}", method, gson.toJson(contentObject));
-                }
-            }
-
-            Request request = httpClient.newRequest(url).method(method)
-                    .timeout(config.getConnectionTimeout(), TimeUnit.SECONDS)
-                    .header(HttpHeader.CONTENT_TYPE, "application/json").header(HttpHeader.ACCEPT, "application/json")
-                    .header(HttpHeader.ACCEPT_ENCODING, "gzip");
+            return parseResponse(request.send(), result);
+        } catch (InterruptedException | TimeoutException | ExecutionException ex) {
+            throw toGardenaException(ex);
+        }
+    }
 
+    /**
+     * Creates a request to Gardena Smart Home, the request is authenticated with the session if required.
+     */
+    private Request createRequest(HttpMethod method, String url, Object contentObject, boolean sessionRequired)
+            throws GardenaException {
+        if (logger.isTraceEnabled()) {
+            logger.trace("{} request:  {}", method, url);
             if (contentObject != null) {
-                StringContentProvider content = new StringContentProvider(gson.toJson(contentObject));
-                request.content(content);
+                logger.trace("{} data   :  {}", method, gson.toJson(contentObject));
             }
+        }
 
-            if (!result.equals(SessionWrapper.class)) {
-                verifySession();
-                request.header("X-Session", session.getToken());
-            }
+        Request request = httpClient.newRequest(url).method(method)
+                .timeout(config.getConnectionTimeout(), TimeUnit.SECONDS)
+                .header(HttpHeader.CONTENT_TYPE, "application/json").header(HttpHeader.ACCEPT, "application/json")
+                .header(HttpHeader.ACCEPT_ENCODING, "gzip");
+
+        if (contentObject != null) {
+            StringContentProvider content = new StringContentProvider(gson.toJson(contentObject));
+            request.content(content);
+        }
+
+        if (sessionRequired) {
+            verifySession();
+            request.header("X-Session", session.getToken());
+        }
+        return request;
+    }
 
-            ContentResponse contentResponse = request.send();
+    /**
+     * Waits for the response of a request sent asynchronously.
+     */
+    private ContentResponse getResponse(FutureResponseListener responseListener) throws GardenaException {
+        try {
+            return responseListener.get();
+        } catch (InterruptedException | ExecutionException ex) {
+            throw toGardenaException(ex);
+        }
+    }
+
+    /**
+     * Checks the status of the response and parses the result.
+     */
+    private <T> T parseResponse(ContentResponse contentResponse, Class<T> result) throws GardenaException {
+        try {
             int status = contentResponse.getStatus();
             if (logger.isTraceEnabled()) {
                 logger.trace("Status  : {}", status);
@@ -413,25 +489,35 @@ public class GardenaSmartImpl implements GardenaSmart {
             }
 
             return gson.fromJson(contentResponse.getContentAsString(), result);
-        } catch (ExecutionException ex) {
-            Throwable cause = ex.getCause();
-            if (cause instanceof HttpResponseException) {
-                HttpResponseException responseException = (HttpResponseException) ex.getCause();
-                int status = responseException.getResponse().getStatus();
-                if (status == 401) {
-                    throw new GardenaUnauthorizedException(ex.getCause());
-                }
-            }
-            throw new GardenaException(ex.getMessage(), ex);
+        } catch (GardenaException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new GardenaException(ex.getMessage(), ex);
         }
     }
 
+    /**
+     * Converts an exception of a request to a {@link GardenaException}.
+     */
+    private GardenaException toGardenaException(Exception ex) {
+        if (ex instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        Throwable cause = ex.getCause();
+        if (cause instanceof HttpResponseException) {
+            HttpResponseException responseException = (HttpResponseException) cause;
+            int status = responseException.getResponse().getStatus();
+            if (status == 401) {
+                return new GardenaUnauthorizedException(cause);
+            }
+        }
+        return new GardenaException(ex.getMessage(), ex);
+    }
+
     /**
      * Verifies the Gardena Smart Home session and reconnects if necessary.
      */
-    private void verifySession() throws GardenaException {
+    private synchronized void verifySession() throws GardenaException {
         if (session == null
                 || session.getCreated() + (config.getSessionTimeout() * 60000) <= System.currentTimeMillis()) {
             logger.trace("(Re)logging in to Gardena Smart Home");
@@ -450,18 +536,8 @@ public class GardenaSmartImpl implements GardenaSmart {
         public void run() {
             try {
                 logger.debug("Refreshing gardena device data");
-                Map<String, Device> newDevicesById = new HashMap<String, Device>();
-
-                for (Location location : allLocations) {
-                    Devices devices = loadDevices(location);
-                    for (Device device : devices.getDevices()) {
-                        if (DEVICE_CATEGORY_GATEWAY.equals(device.getCategory())) {
-                            location.getDeviceIds().remove(device.getId());
-                        } else {
-                            newDevicesById.put(device.getId(), device);
-                        }
-                    }
-                }
+                long start = System.currentTimeMillis();
+                Map<Location, Devices> devicesByLocation = loadDevices(allLocations);
 
                 if (connectionLost) {
                     connectionLost = false;
@@ -469,36 +545,64 @@ public class GardenaSmartImpl implements GardenaSmart {
                     eventListener.onConnectionResumed();
                 }
 
-                // determine deleted devices
-                @SuppressWarnings("unchecked")
-                Collection<Device> deletedDevices = CollectionUtils.subtract(allDevicesById.values(),
-                        newDevicesById.values());
-
-                // determine new devices
-                @SuppressWarnings("unchecked")
-                Collection<Device> newDevices = CollectionUtils.subtract(newDevicesById.values(),
-                        allDevicesById.values());
-
-                // determine updated devices
-                @SuppressWarnings("unchecked")
-                Collection<Device> updatedDevices = CollectionUtils.intersection(allDevicesById.values(),
-                        newDevicesById.values());
-
-                allDevicesById = newDevicesById;
-                newDevicesById = null;
+                // the devices of not modified locations are kept
+                Map<String, Device> newDevicesById = new HashMap<>();
+                for (Device device : allDevicesById.values()) {
+                    if (!devicesByLocation.containsKey(device.getLocation())) {
+                        newDevicesById.put(device.getId(), device);
+                    }
+                }
+                for (Devices devices : devicesByLocation.values()) {
+                    for (Device device : devices.getDevices()) {
+                        if (!DEVICE_CATEGORY_GATEWAY.equals(device.getCategory())) {
+                            newDevicesById.put(device.getId(), device);
+                        }
+                    }
+                }
 
+                // determine deleted devices
+                List<Device> deletedDevices = new ArrayList<>();
+                for (Device device : allDevicesById.values()) {
+                    if (!newDevicesById.containsKey(device.getId())) {
+                        deletedDevices.add(device);
+                    }
+                }
                 for (Device deletedDevice : deletedDevices) {
+                    allDevicesById.remove(deletedDevice.getId());
                     eventListener.onDeviceDeleted(deletedDevice);
                 }
 
-                for (Device newDevice : newDevices) {
-                    eventListener.onNewDevice(newDevice);
-                }
-
-                for (Device updatedDevice : updatedDevices) {
-                    eventListener.onDeviceUpdated(updatedDevice);
+                // determine new and changed devices
+                int changedDevices = 0;
+                int changedProperties = 0;
+                for (Device device : newDevicesById.values()) {
+                    Device oldDevice = allDevicesById.put(device.getId(), device);
+                    if (oldDevice == null) {
+                        changedDevices++;
+                        eventListener.onNewDevice(device);
+                    } else if (oldDevice != device) {
+                        DeviceDiff diff = new DeviceDiff(oldDevice, device);
+                        if (diff.hasChanges()) {
+                            changedDevices++;
+                            changedProperties += diff.getChangedProperties().size();
+                        }
+                        if (diff.isStructureChanged()) {
+                            eventListener.onDeviceUpdated(device);
+                        } else {
+                            if (!diff.getChangedProperties().isEmpty()) {
+                                eventListener.onPropertiesUpdated(device, diff.getChangedProperties());
+                            }
+                            if (diff.isSettingsChanged()) {
+                                eventListener.onSettingsUpdated(device);
+                            }
+                        }
+                    }
                 }
 
+                long duration = System.currentTimeMillis() - start;
+                logger.debug("Refreshed gardena device data in {} ms, {} devices and {} properties changed", duration,
+                        changedDevices, changedProperties);
+                eventListener.onDevicesRefreshed(duration, changedDevices, changedProperties);
             } catch (GardenaException ex) {
                 if (!connectionLost) {
                     connectionLost = true;
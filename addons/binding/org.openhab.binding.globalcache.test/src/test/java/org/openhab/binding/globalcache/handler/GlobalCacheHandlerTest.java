@@ -0,0 +1,288 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.globalcache.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static org.openhab.binding.globalcache.GlobalCacheBindingConstants.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.thing.Channel;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingStatus;
+import org.eclipse.smarthome.core.thing.ThingStatusInfo;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
+import org.eclipse.smarthome.core.thing.binding.builder.ChannelBuilder;
+import org.eclipse.smarthome.core.thing.binding.builder.ThingBuilder;
+import org.eclipse.smarthome.core.thing.type.ChannelTypeUID;
+import org.eclipse.smarthome.core.types.RefreshType;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+/**
+ * Tests the command lanes of the {@link GlobalCacheHandler} against a local TCP stand-in of an iTach CC. The
+ * stand-in answers the commands on each module:connector after a configurable delay and counts the commands which
+ * are in flight at the same time.
+ *
+ * @author agent - Initial contribution
+ */
+public class GlobalCacheHandlerTest {
+
+    private static final String IP_ADDRESS = "127.0.0.1";
+    private static final long SLOW_REPLY_DELAY = 2000;
+
+    private ITachStandIn device;
+    private Thing thing;
+    private GlobalCacheHandler handler;
+    private ThingHandlerCallback callback;
+
+    @Before
+    public void setUp() throws Exception {
+        device = new ITachStandIn();
+
+        ThingUID thingUID = new ThingUID(THING_TYPE_ITACH_CC, "000C1E024B3A");
+        List<Channel> channels = new ArrayList<>();
+        for (int connector = 1; connector <= 3; connector++) {
+            Map<String, String> properties = new HashMap<>();
+            properties.put(CHANNEL_PROPERTY_MODULE, "1");
+            properties.put(CHANNEL_PROPERTY_CONNECTOR, String.valueOf(connector));
+            channels.add(ChannelBuilder.create(getChannelUID(thingUID, connector), "Switch")
+                    .withType(new ChannelTypeUID(BINDING_ID, CHANNEL_TYPE_CC)).withProperties(properties).build());
+        }
+        thing = ThingBuilder.create(THING_TYPE_ITACH_CC, thingUID.getId())
+                .withConfiguration(new Configuration(Collections.<String, Object> singletonMap(THING_PROPERTY_IP,
+                        IP_ADDRESS)))
+                .withChannels(channels).build();
+
+        // the callback takes over the status like the thing manager does
+        callback = mock(ThingHandlerCallback.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) {
+                thing.setStatusInfo((ThingStatusInfo) invocation.getArguments()[1]);
+                return null;
+            }
+        }).when(callback).statusUpdated(any(Thing.class), any(ThingStatusInfo.class));
+
+        handler = new GlobalCacheHandler(thing, IP_ADDRESS);
+        thing.setHandler(handler);
+        handler.setCallback(callback);
+        handler.initialize();
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (thing.getStatus() != ThingStatus.ONLINE && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(thing.getStatus(), is(ThingStatus.ONLINE));
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        handler.dispose();
+        device.close();
+    }
+
+    @Test
+    public void commandOnAConnectorIsNotHeldUpBySlowCommandOnAnother() throws Exception {
+        device.replyDelays.put("1:1", SLOW_REPLY_DELAY);
+
+        Thread slowCommand = sendInBackground(1, OnOffType.ON);
+        device.awaitCommand("setstate,1:1,1");
+
+        long start = System.currentTimeMillis();
+        handler.handleCommand(getChannelUID(thing.getUID(), 2), OnOffType.ON);
+        long latency = System.currentTimeMillis() - start;
+        slowCommand.join();
+
+        assertThat("latency of the command on 1:2 in ms", latency < SLOW_REPLY_DELAY / 2, is(true));
+        assertThat(device.getMaxInFlight(), is(2));
+        assertThat(device.relayStates.get("1:1"), is("1"));
+        assertThat(device.relayStates.get("1:2"), is("1"));
+    }
+
+    @Test
+    public void commandsOnTheSameConnectorAreSentOneAfterTheOther() throws Exception {
+        device.replyDelays.put("1:1", 500L);
+
+        Thread first = sendInBackground(1, OnOffType.ON);
+        device.awaitCommand("setstate,1:1,1");
+        Thread second = sendInBackground(1, OnOffType.OFF);
+        first.join();
+        second.join();
+
+        assertThat(device.commands, is(Arrays.asList("setstate,1:1,1", "setstate,1:1,0")));
+        assertThat(device.getMaxInFlight(), is(1));
+        assertThat(device.relayStates.get("1:1"), is("0"));
+    }
+
+    @Test
+    public void refreshUpdatesTheStateOfTheRelay() throws Exception {
+        device.relayStates.put("1:3", "1");
+
+        handler.handleCommand(getChannelUID(thing.getUID(), 3), RefreshType.REFRESH);
+
+        verify(callback).stateUpdated(getChannelUID(thing.getUID(), 3), OnOffType.ON);
+    }
+
+    private static ChannelUID getChannelUID(ThingUID thingUID, int connector) {
+        return new ChannelUID(thingUID, "cc-m1#c" + connector);
+    }
+
+    private Thread sendInBackground(final int connector, final OnOffType command) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                handler.handleCommand(getChannelUID(thing.getUID(), connector), command);
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Answers the contact closure commands of an iTach on its command port. The replies to the commands on a
+     * module:connector are delayed by {@link #replyDelays}, replies to different connectors may overtake each other.
+     */
+    private static class ITachStandIn implements Runnable {
+
+        private static final int COMMAND_PORT = 4998;
+
+        private final ServerSocket serverSocket;
+        private final ScheduledExecutorService replyScheduler = Executors.newSingleThreadScheduledExecutor();
+        private final List<String> commands = Collections.synchronizedList(new ArrayList<String>());
+        private final Map<String, Long> replyDelays = new ConcurrentHashMap<>();
+        private final Map<String, String> relayStates = new ConcurrentHashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger maxInFlight = new AtomicInteger();
+
+        ITachStandIn() throws IOException {
+            serverSocket = new ServerSocket();
+            serverSocket.setReuseAddress(true);
+            serverSocket.bind(new InetSocketAddress(InetAddress.getByName(IP_ADDRESS), COMMAND_PORT));
+            Thread thread = new Thread(this, "iTach stand-in");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int getMaxInFlight() {
+            return maxInFlight.get();
+        }
+
+        void awaitCommand(String command) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5000;
+            while (!commands.contains(command) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(commands, hasItem(command));
+        }
+
+        void close() throws IOException {
+            replyScheduler.shutdownNow();
+            serverSocket.close();
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try (Socket socket = serverSocket.accept()) {
+                    serve(socket);
+                } catch (IOException e) {
+                    // the stand-in has been closed or the handler has closed the connection
+                }
+            }
+        }
+
+        private void serve(Socket socket) throws IOException {
+            InputStream in = socket.getInputStream();
+            final OutputStream out = socket.getOutputStream();
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != -1) {
+                if (c != '\r' && c != '\n') {
+                    line.append((char) c);
+                    continue;
+                }
+                if (line.length() == 0) {
+                    continue;
+                }
+                final String command = line.toString();
+                line.setLength(0);
+
+                // getversion is sent by the connection monitor and is not counted
+                if (!command.equals("getversion")) {
+                    commands.add(command);
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                }
+                String[] fields = command.split(",");
+                Long delay = fields.length > 1 ? replyDelays.get(fields[1]) : null;
+                replyScheduler.schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        String reply = respond(command);
+                        if (!command.equals("getversion")) {
+                            inFlight.decrementAndGet();
+                        }
+                        try {
+                            synchronized (out) {
+                                out.write((reply + "\r").getBytes(StandardCharsets.US_ASCII));
+                                out.flush();
+                            }
+                        } catch (IOException e) {
+                            // the handler has closed the connection
+                        }
+                    }
+                }, delay != null ? delay : 0, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private String respond(String command) {
+            String[] fields = command.split(",");
+            switch (fields[0]) {
+                case "getversion":
+                    return "710-2000-15";
+                case "setstate":
+                    relayStates.put(fields[1], fields[2]);
+                    return "state," + fields[1] + "," + fields[2];
+                case "getstate":
+                    String state = relayStates.get(fields[1]);
+                    return "state," + fields[1] + "," + (state != null ? state : "0");
+                default:
+                    return "unknowncommand,001";
+            }
+        }
+    }
+}
@@ -14,6 +14,7 @@ import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
@@ -25,15 +26,21 @@ import java.net.SocketException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.net.UnknownHostException;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.apache.commons.lang.StringUtils;
 import org.eclipse.jdt.annotation.NonNull;
+import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.StringType;
@@ -71,6 +78,11 @@ public class GlobalCacheHandler extends BaseThingHandler {
 
     private static final String GLOBALCACHE_THREAD_POOL = "globalCacheHandler";
 
+    private static final Pattern HEX_CODE_PATTERN = Pattern
+            .compile("0000( +[0-9A-Fa-f][0-9A-Fa-f][0-9A-Fa-f][0-9A-Fa-f])+");
+    private static final Pattern MODULE_CONNECTOR_PATTERN = Pattern.compile("(?:^|[,_])([0-9]:[0-9])(?=,|$)");
+    private static final Pattern IR_ID_PATTERN = Pattern.compile("^(?:sendir|completeir|busyIR),[0-9]:[0-9],(\\d+)");
+
     private InetAddress ifAddress;
     private CommandProcessor commandProcessor;
     private ScheduledExecutorService scheduledExecutorService = ThreadPoolManager
@@ -84,6 +96,11 @@ public class GlobalCacheHandler extends BaseThingHandler {
     // IR transaction counter
     private AtomicInteger irCounter;
 
+    // IR and serial codes transformed by the MAP file and converted to GC format, by command
+    private final Map<String, String> codeCache = new ConcurrentHashMap<String, String>();
+    private String codeCacheMapFile;
+    private long codeCacheMapFileModified;
+
     // Character set to use for URL encoding & decoding
     private String CHARSET = "ISO-8859-1";
 
@@ -233,8 +250,8 @@ public class GlobalCacheHandler extends BaseThingHandler {
     }
 
     /*
-     * Look up the IR or serial command code in the MAP file.
-     *
+     * Look up the IR or serial command code in the MAP file. Codes are cached until the MAP file
+     * is changed or another MAP file is configured.
      */
     private String lookupCode(Command command) {
         if (command.toString() == null) {
@@ -248,6 +265,13 @@ public class GlobalCacheHandler extends BaseThingHandler {
             return null;
         }
 
+        validateCodeCache(mapFile);
+        String cachedCode = codeCache.get(command.toString());
+        if (cachedCode != null) {
+            logger.debug("Found cached code for {} for thing {} with map file '{}'", command, thingID(), mapFile);
+            return cachedCode;
+        }
+
         TransformationService transformService = TransformationHelper.getTransformationService(bundleContext, "MAP");
         if (transformService == null) {
             logger.error("Failed to get MAP transformation service for thing {}; is bundle installed?", thingID());
@@ -282,15 +306,33 @@ public class GlobalCacheHandler extends BaseThingHandler {
                 return null;
             }
         }
+        codeCache.put(command.toString(), code);
         return code;
     }
 
+    /*
+     * Clear the code cache if the MAP file has been modified since the codes were cached, or if
+     * the thing has been configured with another MAP file.
+     */
+    private synchronized void validateCodeCache(String mapFile) {
+        File file = new File(ConfigConstants.getConfigFolder() + File.separator
+                + TransformationService.TRANSFORM_FOLDER_NAME + File.separator + mapFile);
+        long lastModified = file.lastModified();
+        if (!mapFile.equals(codeCacheMapFile) || lastModified != codeCacheMapFileModified) {
+            if (!codeCache.isEmpty()) {
+                logger.debug("Map file '{}' of thing {} has changed, clearing cached codes", mapFile, thingID());
+            }
+            codeCache.clear();
+            codeCacheMapFile = mapFile;
+            codeCacheMapFileModified = lastModified;
+        }
+    }
+
     /*
      * Check if the string looks like a hex code; if not then assume it's GC format
      */
     private boolean isHexCode(String code) {
-        Pattern pattern = Pattern.compile("0000( +[0-9A-Fa-f][0-9A-Fa-f][0-9A-Fa-f][0-9A-Fa-f])+");
-        return pattern.matcher(code).find();
+        return HEX_CODE_PATTERN.matcher(code).find();
     }
 
     /*
@@ -433,8 +475,10 @@ public class GlobalCacheHandler extends BaseThingHandler {
 
     /**
      * The {@link CommandProcessor} class is responsible for handling communication with the GlobalCache
-     * device. It waits for requests to arrive on a queue. When a request arrives, it sends the command to the
-     * GlobalCache device, waits for a response from the device, parses the response, then responds to the caller by
+     * device. It waits for requests to arrive on a queue and hands each request to the {@link CommandLane} of the
+     * module:connector (or serial port) it addresses. Lanes send their requests independently of each other, so a
+     * long IR transmission on one connector does not hold up a contact closure on another. Replies are read by the
+     * {@link CommandReplyReader} and routed back to the lane waiting for them, then passed to the caller by
      * placing a message in a response queue. Device response time is typically well below 100 ms, hence the reason
      * fgor a relatively low timeout when reading the response queue.
      *
@@ -449,8 +493,13 @@ public class GlobalCacheHandler extends BaseThingHandler {
         private final int SEND_QUEUE_MAX_DEPTH = 10;
         private final int SEND_QUEUE_TIMEOUT = 2000;
 
+        // Lane for commands that don't address a module:connector, such as getversion
+        private final String DEVICE_LANE = "device";
+
         private ConnectionManager connectionManager;
 
+        private final Map<String, CommandLane> lanes = new ConcurrentHashMap<String, CommandLane>();
+
         public CommandProcessor() {
             super("GlobalCache Command Processor");
             sendQueue = new LinkedBlockingQueue<RequestMessage>(SEND_QUEUE_MAX_DEPTH);
@@ -488,34 +537,12 @@ public class GlobalCacheHandler extends BaseThingHandler {
                             break;
                         }
 
-                        String deviceReply;
                         connectionManager.connect();
                         if (connectionManager.isConnected()) {
-                            try {
-                                long startTime = System.currentTimeMillis();
-                                if (requestMessage.isCommand()) {
-                                    writeCommandToDevice(requestMessage);
-                                    deviceReply = readReplyFromDevice(requestMessage);
-                                } else {
-                                    writeSerialToDevice(requestMessage);
-                                    deviceReply = "successful";
-                                }
-                                long endTime = System.currentTimeMillis();
-                                logger.debug("Transaction '{}' for thing {} at {} took {} ms",
-                                        requestMessage.getCommandName(), thingID(), getIP(), endTime - startTime);
-
-                            } catch (IOException e) {
-                                logger.error("Comm error for thing {} at {}: {}", thingID(), getIP(), e.getMessage());
-                                deviceReply = "ERROR: " + e.getMessage();
-                                connectionManager.setCommError(deviceReply);
-                                connectionManager.disconnect();
-                            }
+                            getLane(requestMessage).submit(requestMessage);
                         } else {
-                            deviceReply = "ERROR: " + "No connection to device";
+                            respond(requestMessage, "ERROR: " + "No connection to device");
                         }
-
-                        logger.trace("Processor for thing {} queuing response message: {}", thingID(), deviceReply);
-                        requestMessage.getReceiveQueue().put(new ResponseMessage(deviceReply));
                     }
                 }
             } catch (InterruptedException e) {
@@ -530,34 +557,92 @@ public class GlobalCacheHandler extends BaseThingHandler {
         }
 
         /*
-         * Write the command to the device.
+         * Serial commands are sent on the lane of their serial port, device commands on the lane of the
+         * module:connector they address.
          */
-        private void writeCommandToDevice(RequestMessage requestMessage) throws IOException {
-            logger.trace("Processor for thing {} writing command to device", thingID());
+        private CommandLane getLane(RequestMessage requestMessage) {
+            String laneName;
+            if (requestMessage.isSerial()) {
+                laneName = requestMessage.getCommandType().toString();
+            } else {
+                laneName = getModuleConnector(requestMessage.getDeviceCommand());
+                if (laneName == null) {
+                    laneName = DEVICE_LANE;
+                }
+            }
+            CommandLane lane = lanes.get(laneName);
+            if (lane == null) {
+                lane = new CommandLane(laneName);
+                lanes.put(laneName, lane);
+            }
+            return lane;
+        }
 
-            if (connectionManager.getCommandOut() == null) {
-                logger.debug("Error writing to device because output stream object is null");
-                return;
+        /*
+         * Route a reply read from the command port to the lane waiting for it. IR completions are matched by the
+         * ID of the sendir command, other replies by the module:connector they contain. Replies without a
+         * module:connector go to the device lane, or else to the lane that has been waiting the longest.
+         */
+        private void dispatchReply(String deviceReply) {
+            String moduleConnector = getModuleConnector(deviceReply);
+            String irId = getIrId(deviceReply);
+            if (moduleConnector != null) {
+                CommandLane lane = lanes.get(moduleConnector);
+                if (lane != null && lane.completeIfWaitingFor(deviceReply, irId)) {
+                    return;
+                }
+            } else {
+                CommandLane deviceLane = lanes.get(DEVICE_LANE);
+                if (deviceLane != null && deviceLane.completeIfWaitingFor(deviceReply, null)) {
+                    return;
+                }
+                CommandLane oldestLane = null;
+                for (CommandLane lane : lanes.values()) {
+                    if (lane.getSentTime() != 0
+                            && (oldestLane == null || lane.getSentTime() < oldestLane.getSentTime())) {
+                        oldestLane = lane;
+                    }
+                }
+                if (oldestLane != null && oldestLane.completeIfWaitingFor(deviceReply, null)) {
+                    return;
+                }
             }
+            logger.debug("Processor for thing {} ignoring unsolicited reply: {}", thingID(), deviceReply);
+        }
 
-            byte[] deviceCommand = (requestMessage.getDeviceCommand() + '\r').getBytes();
-            connectionManager.getCommandOut().write(deviceCommand);
-            connectionManager.getCommandOut().flush();
+        /*
+         * Fail the requests of all lanes after the connection to the device has been closed.
+         */
+        private void abortLanes(String reason) {
+            for (CommandLane lane : lanes.values()) {
+                lane.abort(reason);
+            }
+        }
+
+        private void respond(RequestMessage requestMessage, String deviceReply) {
+            logger.trace("Processor for thing {} queuing response message: {}", thingID(), deviceReply);
+            if (!requestMessage.getReceiveQueue().offer(new ResponseMessage(deviceReply))) {
+                logger.debug("Processor for thing {} dropped response, requester is gone: {}", thingID(),
+                        deviceReply);
+            }
         }
 
         /*
-         * Read command reply from the device, then remove the CR at the end of the line.
+         * Write the command to the device. Lanes write concurrently, so writes are serialized on the stream.
          */
-        private String readReplyFromDevice(RequestMessage requestMessage) throws IOException {
-            logger.trace("Processor for thing {} reading reply from device", thingID());
+        private void writeCommandToDevice(RequestMessage requestMessage) throws IOException {
+            logger.trace("Processor for thing {} writing command to device", thingID());
 
-            if (connectionManager.getCommandIn() == null) {
-                logger.debug("Error reading from device because input stream object is null");
-                return "ERROR: BufferedReader is null!";
+            DataOutputStream out = connectionManager.getCommandOut();
+            if (out == null) {
+                throw new IOException("Command output stream is null");
             }
 
-            logger.trace("Processor for thing {} reading response from device", thingID());
-            return connectionManager.getCommandIn().readLine().trim();
+            byte[] deviceCommand = (requestMessage.getDeviceCommand() + '\r').getBytes();
+            synchronized (out) {
+                out.write(deviceCommand);
+                out.flush();
+            }
         }
 
         /*
@@ -576,6 +661,204 @@ public class GlobalCacheHandler extends BaseThingHandler {
             logger.debug("Writing decoded deviceCommand byte array: {}", getAsHexString(deviceCommand));
             out.write(deviceCommand);
         }
+
+        /*
+         * The {@link CommandLane} class sends the requests for one module:connector or serial port in order. It
+         * has at most one command in flight on the device; the next request is sent when the reply of the previous
+         * one is routed to the lane, or when waiting for the reply timed out. The lane keeps the transaction times
+         * of its requests.
+         *
+         * @author agent - Initial contribution
+         */
+        private class CommandLane {
+            private final int REPLY_TIMEOUT = 3000;
+
+            private final String name;
+            private final Queue<RequestMessage> waitingRequests = new ArrayDeque<RequestMessage>();
+
+            private RequestMessage inFlight;
+            private String inFlightIrId;
+            private long sentTime;
+            private ScheduledFuture<?> replyTimeoutJob;
+
+            private long transactionCount;
+            private long totalTransactionTime;
+            private long maxTransactionTime;
+
+            CommandLane(String name) {
+                this.name = name;
+            }
+
+            synchronized void submit(RequestMessage requestMessage) {
+                waitingRequests.add(requestMessage);
+                if (inFlight == null) {
+                    sendNext();
+                }
+            }
+
+            synchronized long getSentTime() {
+                return inFlight == null ? 0 : sentTime;
+            }
+
+            /*
+             * Complete the command in flight with the reply, if the reply belongs to it. IR completions have to
+             * carry the ID of the sendir command.
+             */
+            synchronized boolean completeIfWaitingFor(String deviceReply, String irId) {
+                if (inFlight == null || (irId != null && !irId.equals(inFlightIrId))) {
+                    return false;
+                }
+                complete(deviceReply);
+                sendNext();
+                return true;
+            }
+
+            synchronized void abort(String reason) {
+                if (inFlight != null) {
+                    complete("ERROR: " + reason);
+                }
+                RequestMessage requestMessage;
+                while ((requestMessage = waitingRequests.poll()) != null) {
+                    respond(requestMessage, "ERROR: " + reason);
+                }
+            }
+
+            private synchronized void replyTimedOut(RequestMessage requestMessage) {
+                if (inFlight == requestMessage) {
+                    logger.debug("Processor for thing {} timed out waiting for reply to '{}' on lane {}", thingID(),
+                            requestMessage.getCommandName(), name);
+                    complete("ERROR: " + "Timed out waiting for reply from device");
+                    sendNext();
+                }
+            }
+
+            private void sendNext() {
+                RequestMessage requestMessage;
+                while (inFlight == null && (requestMessage = waitingRequests.poll()) != null) {
+                    sentTime = System.currentTimeMillis();
+                    try {
+                        if (requestMessage.isCommand()) {
+                            inFlight = requestMessage;
+                            inFlightIrId = getIrId(requestMessage.getDeviceCommand());
+                            writeCommandToDevice(requestMessage);
+                            final RequestMessage timeoutMessage = requestMessage;
+                            replyTimeoutJob = scheduledExecutorService.schedule(() -> replyTimedOut(timeoutMessage),
+                                    REPLY_TIMEOUT, TimeUnit.MILLISECONDS);
+                        } else {
+                            writeSerialToDevice(requestMessage);
+                            inFlight = requestMessage;
+                            complete("successful");
+                        }
+                    } catch (IOException e) {
+                        logger.error("Comm error for thing {} at {}: {}", thingID(), getIP(), e.getMessage());
+                        inFlight = requestMessage;
+                        complete("ERROR: " + e.getMessage());
+                        connectionManager.setCommError("ERROR: " + e.getMessage());
+                        scheduledExecutorService.execute(() -> connectionManager.disconnect());
+                        return;
+                    }
+                }
+            }
+
+            private void complete(String deviceReply) {
+                if (replyTimeoutJob != null) {
+                    replyTimeoutJob.cancel(false);
+                    replyTimeoutJob = null;
+                }
+                long transactionTime = System.currentTimeMillis() - sentTime;
+                transactionCount++;
+                totalTransactionTime += transactionTime;
+                maxTransactionTime = Math.max(maxTransactionTime, transactionTime);
+                logger.debug("Transaction '{}' on lane {} for thing {} at {} took {} ms (avg {} ms, max {} ms)",
+                        inFlight.getCommandName(), name, thingID(), getIP(), transactionTime,
+                        totalTransactionTime / transactionCount, maxTransactionTime);
+
+                respond(inFlight, deviceReply);
+                inFlight = null;
+                inFlightIrId = null;
+            }
+        }
+    }
+
+    /*
+     * Get the module:connector addressed by a command or contained in a reply, such as
+     * sendir,1:1,... or ERR_1:1,001. Returns null if there is none.
+     */
+    private static String getModuleConnector(String line) {
+        Matcher matcher = MODULE_CONNECTOR_PATTERN.matcher(line);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /*
+     * Get the ID of a sendir command or of the completeir/busyIR reply to it. Returns null for other lines.
+     */
+    private static String getIrId(String line) {
+        Matcher matcher = IR_ID_PATTERN.matcher(line);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /*
+     * The {@link CommandReplyReader} class reads the replies from the command port of the device, and
+     * passes them to the command processor, which routes them to the lane waiting for them.
+     *
+     * @author agent - Initial contribution
+     */
+    private class CommandReplyReader {
+        private Logger logger = LoggerFactory.getLogger(CommandReplyReader.class);
+
+        private BufferedReader commandIn;
+        private ScheduledFuture<?> commandReplyReaderJob;
+        private volatile boolean terminateCommandReplyReader;
+
+        CommandReplyReader(BufferedReader commandIn) {
+            if (commandIn == null) {
+                throw new IllegalArgumentException("Command input stream is not set");
+            }
+            this.commandIn = commandIn;
+            commandReplyReaderJob = null;
+            terminateCommandReplyReader = false;
+        }
+
+        public void start() {
+            commandReplyReaderJob = scheduledExecutorService.schedule(this::commandReplyReader, 0, TimeUnit.SECONDS);
+        }
+
+        public void stop() {
+            if (commandReplyReaderJob != null) {
+                terminateCommandReplyReader = true;
+                commandReplyReaderJob.cancel(true);
+                commandReplyReaderJob = null;
+            }
+        }
+
+        private void commandReplyReader() {
+            logger.debug("Command reply reader RUNNING for {} on {}", thingID(), getIP());
+
+            while (!terminateCommandReplyReader) {
+                try {
+                    String deviceReply = commandIn.readLine();
+                    if (deviceReply == null) {
+                        throw new IOException("Unexpected end of stream");
+                    }
+                    deviceReply = deviceReply.trim();
+                    if (!deviceReply.isEmpty()) {
+                        logger.trace("Command reply reader for thing {} read reply: {}", thingID(), deviceReply);
+                        commandProcessor.dispatchReply(deviceReply);
+                    }
+                } catch (IOException e) {
+                    if (!terminateCommandReplyReader) {
+                        logger.error("Comm error for thing {} at {}: {}", thingID(), getIP(), e.getMessage());
+                        ConnectionManager connectionManager = commandProcessor.connectionManager;
+                        if (connectionManager != null) {
+                            connectionManager.setCommError("ERROR: " + e.getMessage());
+                            connectionManager.disconnect();
+                        }
+                    }
+                    break;
+                }
+            }
+            logger.debug("Command reply reader STOPPING for {} on {}", thingID(), getIP());
+        }
     }
 
     /*
@@ -591,6 +874,7 @@ public class GlobalCacheHandler extends BaseThingHandler {
         private DeviceConnection serialPort1Connection;
         private DeviceConnection serialPort2Connection;
 
+        private CommandReplyReader commandReplyReader;
         private SerialPortReader serialReaderPort1;
         private SerialPortReader serialReaderPort2;
 
@@ -643,7 +927,7 @@ public class GlobalCacheHandler extends BaseThingHandler {
          * Connect to the command and serial port(s) on the device. The serial connections are established only for
          * devices that support serial.
          */
-        protected void connect() {
+        protected synchronized void connect() {
             if (isConnected()) {
                 return;
             }
@@ -672,10 +956,11 @@ public class GlobalCacheHandler extends BaseThingHandler {
 
             /*
              * All connections opened successfully, so we can mark the thing online
-             * and start the serial port readers
+             * and start the command reply reader and the serial port readers
              */
             markThingOnline();
             deviceIsConnected = true;
+            startCommandReplyReader();
             startSerialPortReaders();
         }
 
@@ -748,11 +1033,13 @@ public class GlobalCacheHandler extends BaseThingHandler {
          * Disconnect from the command and serial port(s) on the device. Only disconnect the serial port
          * connections if the devices have serial ports.
          */
-        protected void disconnect() {
+        protected synchronized void disconnect() {
             if (!isConnected()) {
                 return;
             }
+            stopCommandReplyReader();
             commandDisconnect(commandConnection);
+            commandProcessor.abortLanes("Connection to device closed");
 
             stopSerialPortReaders();
             if (deviceSupportsSerialPort1()) {
@@ -887,6 +1174,20 @@ public class GlobalCacheHandler extends BaseThingHandler {
             }
         }
 
+        private void startCommandReplyReader() {
+            commandReplyReader = new CommandReplyReader(getCommandIn());
+            commandReplyReader.start();
+        }
+
+        private void stopCommandReplyReader() {
+            if (commandReplyReader != null) {
+                logger.debug("Stopping command reply reader for thing {} at IP {}", thingID(),
+                        commandConnection.getIP());
+                commandReplyReader.stop();
+                commandReplyReader = null;
+            }
+        }
+
         private void startSerialPortReaders() {
             if (deviceSupportsSerialPort1()) {
                 serialReaderPort1 = startSerialPortReader(CommandType.SERIAL1, CONFIG_ENABLE_TWO_WAY_PORT_1,
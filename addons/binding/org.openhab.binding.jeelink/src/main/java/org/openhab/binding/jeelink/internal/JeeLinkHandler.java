@@ -8,10 +8,11 @@
  */
 package org.openhab.binding.jeelink.internal;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -40,7 +41,7 @@ public class JeeLinkHandler extends BaseBridgeHandler implements BridgeHandler,
 
     private JeeLinkConnection connection;
     private Map<String, JeeLinkReadingConverter> converters = new HashMap<>();
-    private Map<JeeLinkReadingConverter, List<ReadingHandler>> convSensorMap = new HashMap<>();
+    private Map<String, SketchRoute> routes = new ConcurrentHashMap<>();
 
     private AtomicBoolean connectionInitialized = new AtomicBoolean(false);
     private ScheduledFuture<?> connectJob;
@@ -83,29 +84,30 @@ public class JeeLinkHandler extends BaseBridgeHandler implements BridgeHandler,
     }
 
     public void addReadingHandler(ReadingHandler h) {
-        synchronized (convSensorMap) {
-            JeeLinkReadingConverter c = converters.get(h.getSketchName());
-            List<ReadingHandler> handlers = convSensorMap.get(c);
-            if (handlers == null) {
-                handlers = new ArrayList<>();
-                convSensorMap.put(c, handlers);
+        synchronized (routes) {
+            SketchRoute route = routes.get(h.getSketchName());
+            if (route == null) {
+                JeeLinkReadingConverter c = converters.get(h.getSketchName());
+                if (c == null) {
+                    logger.warn("No converter for sketch {} found", h.getSketchName());
+                    return;
+                }
+                route = new SketchRoute(c);
+                routes.put(h.getSketchName(), route);
             }
 
-            if (!handlers.contains(h)) {
-                handlers.add(h);
-            }
+            route.add(h);
         }
     }
 
     public void removeReadingHandler(ReadingHandler h) {
-        synchronized (convSensorMap) {
-            JeeLinkReadingConverter c = converters.get(h.getSketchName());
-            List<ReadingHandler> handlers = convSensorMap.get(c);
-            if (handlers != null) {
-                handlers.remove(h);
+        synchronized (routes) {
+            SketchRoute route = routes.get(h.getSketchName());
+            if (route != null) {
+                route.remove(h);
 
-                if (handlers.isEmpty()) {
-                    convSensorMap.remove(c);
+                if (route.isEmpty()) {
+                    routes.remove(h.getSketchName());
                 }
             }
         }
@@ -117,24 +119,25 @@ public class JeeLinkHandler extends BaseBridgeHandler implements BridgeHandler,
 
     @Override
     public void handleInput(String input) {
-        synchronized (convSensorMap) {
-            for (JeeLinkReadingConverter c : convSensorMap.keySet()) {
-                Reading r = c.createReading(input);
-                if (r != null) {
-                    if (!connectionInitialized.getAndSet(true)) {
-                        JeeLinkConfig cfg = getConfig().as(JeeLinkConfig.class);
-
-                        String initCommands = cfg.initCommands;
-                        if (initCommands != null && !initCommands.trim().isEmpty()) {
-                            logger.debug("Sending init commands for port {}: {}", connection.getPort(), initCommands);
-                            connection.sendInitCommands(initCommands);
-                        }
-                    }
+        int[] values = JeeLinkLineTokenizer.tokenize(input);
+        if (values == null) {
+            logger.trace("Ignoring input that is no reading: {}", input);
+            return;
+        }
+
+        for (SketchRoute route : routes.values()) {
+            if (route.converter.accepts(values)) {
+                if (!connectionInitialized.getAndSet(true)) {
+                    JeeLinkConfig cfg = getConfig().as(JeeLinkConfig.class);
 
-                    for (ReadingHandler h : convSensorMap.get(c)) {
-                        h.handleReading(r);
+                    String initCommands = cfg.initCommands;
+                    if (initCommands != null && !initCommands.trim().isEmpty()) {
+                        logger.debug("Sending init commands for port {}: {}", connection.getPort(), initCommands);
+                        connection.sendInitCommands(initCommands);
                     }
                 }
+
+                route.dispatch(values);
             }
         }
     }
@@ -155,4 +158,69 @@ public class JeeLinkHandler extends BaseBridgeHandler implements BridgeHandler,
         SensorDefinition.disposeConverters(this);
         super.dispose();
     }
+
+    /**
+     * Routes the readings of one sketch to the handlers registered for the sensor ID of the reading.
+     * Readings of sensors without a handler are passed to the handlers not bound to a sensor (e.g. discovery).
+     */
+    private static class SketchRoute {
+        private final JeeLinkReadingConverter converter;
+        private final Map<String, List<ReadingHandler>> sensorHandlers = new ConcurrentHashMap<>();
+        private final List<ReadingHandler> unboundHandlers = new CopyOnWriteArrayList<>();
+
+        SketchRoute(JeeLinkReadingConverter converter) {
+            this.converter = converter;
+        }
+
+        void add(ReadingHandler h) {
+            List<ReadingHandler> handlers = getHandlers(h.getSensorId(), true);
+            if (!handlers.contains(h)) {
+                handlers.add(h);
+            }
+        }
+
+        void remove(ReadingHandler h) {
+            String sensorId = h.getSensorId();
+            List<ReadingHandler> handlers = getHandlers(sensorId, false);
+            if (handlers != null) {
+                handlers.remove(h);
+
+                if (sensorId != null && handlers.isEmpty()) {
+                    sensorHandlers.remove(sensorId);
+                }
+            }
+        }
+
+        boolean isEmpty() {
+            return sensorHandlers.isEmpty() && unboundHandlers.isEmpty();
+        }
+
+        @SuppressWarnings("unchecked")
+        void dispatch(int[] values) {
+            List<ReadingHandler> handlers = sensorHandlers.get(converter.getSensorId(values));
+            if (handlers == null) {
+                handlers = unboundHandlers;
+            }
+
+            if (!handlers.isEmpty()) {
+                Reading r = converter.createReading(values);
+                for (ReadingHandler h : handlers) {
+                    h.handleReading(r);
+                }
+            }
+        }
+
+        private List<ReadingHandler> getHandlers(String sensorId, boolean create) {
+            if (sensorId == null) {
+                return unboundHandlers;
+            }
+
+            List<ReadingHandler> handlers = sensorHandlers.get(sensorId);
+            if (handlers == null && create) {
+                handlers = new CopyOnWriteArrayList<>();
+                sensorHandlers.put(sensorId, handlers);
+            }
+            return handlers;
+        }
+    }
 }
@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.jeelink.internal;
+
+/**
+ * Splits a line read from a JeeLink sketch into its numeric values without using regular expressions.
+ *
+ * Readings sent by the sketches have the format "OK v1 v2 ... vn" with all values being non-negative
+ * decimal numbers separated by whitespace. Any other line (e.g. the sketch banner) is rejected.
+ *
+ * @author agent - Initial contribution
+ */
+public final class JeeLinkLineTokenizer {
+    private static final String READING_PREFIX = "OK";
+    private static final int MAX_VALUES = 32;
+    private static final int MAX_DIGITS = 9;
+
+    private JeeLinkLineTokenizer() {
+    }
+
+    /**
+     * Tokenizes the given line.
+     *
+     * @param line the line read from the JeeLink.
+     * @return the numeric values following the "OK" prefix or null if the line is not a reading.
+     */
+    public static int[] tokenize(String line) {
+        if (line == null || !line.startsWith(READING_PREFIX)) {
+            return null;
+        }
+
+        int[] buffer = new int[MAX_VALUES];
+        int count = 0;
+        int len = line.length();
+        int pos = READING_PREFIX.length();
+
+        while (pos < len) {
+            char c = line.charAt(pos);
+            if (Character.isWhitespace(c)) {
+                pos++;
+                continue;
+            }
+
+            // each value must be separated from the previous token by whitespace
+            if (!Character.isWhitespace(line.charAt(pos - 1)) || count == MAX_VALUES) {
+                return null;
+            }
+
+            int value = 0;
+            int start = pos;
+            while (pos < len && (c = line.charAt(pos)) >= '0' && c <= '9') {
+                if (pos - start == MAX_DIGITS) {
+                    return null;
+                }
+                value = value * 10 + (c - '0');
+                pos++;
+            }
+
+            if (pos == start || (pos < len && !Character.isWhitespace(line.charAt(pos)))) {
+                return null;
+            }
+            buffer[count++] = value;
+        }
+
+        if (count == 0) {
+            return null;
+        }
+
+        int[] values = new int[count];
+        System.arraycopy(buffer, 0, values, 0, count);
+        return values;
+    }
+}
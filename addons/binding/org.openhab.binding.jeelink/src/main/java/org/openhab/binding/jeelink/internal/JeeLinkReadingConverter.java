@@ -11,10 +11,23 @@ package org.openhab.binding.jeelink.internal;
 /**
  * Interface for converting input read from a JeeLinkConnection to a Reading.
  *
+ * The input line is tokenized once by the {@link JeeLinkLineTokenizer}, so that the converter only has
+ * to check the values for being produced by its sketch.
+ *
  * @author Volker Bier - Initial contribution
  */
 public interface JeeLinkReadingConverter<R extends Reading> {
-    public R createReading(String inputLine);
+    /**
+     * @return true if the tokenized line was produced by the sketch of this converter.
+     */
+    public boolean accepts(int[] values);
+
+    /**
+     * Extracts the sensor ID from an accepted line without creating the whole reading.
+     */
+    public String getSensorId(int[] values);
+
+    public R createReading(int[] values);
 
     public String getSketchName();
 }
@@ -47,15 +47,17 @@ public abstract class JeeLinkSensorHandler<R extends Reading> extends BaseThingH
         }
     }
 
+    @Override
+    public String getSensorId() {
+        return id;
+    }
+
     @Override
     public synchronized void handleCommand(ChannelUID channelUid, Command command) {
     }
 
     @Override
     public synchronized void initialize() {
-        JeeLinkHandler jlh = (JeeLinkHandler) getBridge().getHandler();
-        jlh.addReadingHandler(this);
-
         JeeLinkSensorConfig cfg = getConfigAs(JeeLinkSensorConfig.class);
         id = cfg.sensorId;
 
@@ -63,16 +65,19 @@ public abstract class JeeLinkSensorHandler<R extends Reading> extends BaseThingH
 
         publisher = createPublisher();
 
+        JeeLinkHandler jlh = (JeeLinkHandler) getBridge().getHandler();
+        jlh.addReadingHandler(this);
+
         updateStatus(ThingStatus.UNKNOWN);
     }
 
     @Override
     public synchronized void dispose() {
-        id = null;
-
         JeeLinkHandler jlh = (JeeLinkHandler) getBridge().getHandler();
         jlh.removeReadingHandler(this);
 
+        id = null;
+
         if (statusUpdateJob != null) {
             statusUpdateJob.cancel(true);
             statusUpdateJob = null;
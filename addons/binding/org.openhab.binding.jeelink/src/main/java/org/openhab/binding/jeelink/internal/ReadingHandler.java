@@ -17,4 +17,10 @@ public interface ReadingHandler<R extends Reading> {
     public void handleReading(R r);
 
     public String getSketchName();
+
+    /**
+     * @return the ID of the sensor whose readings should be passed to this handler or null, if the handler wants to
+     *         receive the readings of all sensors that are not handled by any other handler.
+     */
+    public String getSensorId();
 }
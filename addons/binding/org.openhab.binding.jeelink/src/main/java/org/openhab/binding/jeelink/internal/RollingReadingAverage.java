@@ -11,48 +11,85 @@ package org.openhab.binding.jeelink.internal;
 /**
  * Computes a rolling average of readings.
  *
+ * The averaged values of the readings are kept in primitive ring buffers, one per value, together with their
+ * running totals, so adding a reading does not allocate any objects. Readings are added by the connection's
+ * reader thread only, the average may be retrieved from any thread.
+ *
  * @author Volker Bier - Initial contribution
  */
 public abstract class RollingReadingAverage<R extends Reading> {
-    private int size = 0;
-    private int maxSize;
-    private R total = null;
+    private final int maxSize;
+    private final double[][] samples;
+    private final double[] totals;
+
+    private volatile int size = 0;
+    private volatile R lastReading;
     private int index = 0;
-    private R[] samples;
 
-    public RollingReadingAverage(R[] array) {
-        maxSize = array.length;
-        samples = array;
+    /**
+     * @param bufferSize the number of readings to average over.
+     * @param valueCount the number of values of a reading that are averaged.
+     */
+    public RollingReadingAverage(int bufferSize, int valueCount) {
+        maxSize = bufferSize;
+        samples = new double[valueCount][bufferSize];
+        totals = new double[valueCount];
     }
 
     public void add(R reading) {
-        if (size < maxSize) {
-            size++;
-        }
+        for (int i = 0; i < samples.length; i++) {
+            double value = getValue(reading, i);
+            double[] buffer = samples[i];
 
-        if (total == null) {
-            total = reading;
-        } else {
-            total = add(total, reading);
-            total = substract(total, samples[index]);
+            totals[i] += value - buffer[index];
+            buffer[index] = value;
         }
 
-        samples[index] = reading;
         if (++index == maxSize) {
             index = 0;
+            recomputeTotals();
         }
+
+        if (size < maxSize) {
+            size++;
+        }
+        lastReading = reading;
     }
 
     public R getAverage() {
-        if (total == null) {
+        R reading = lastReading;
+        int count = size;
+        if (reading == null) {
             return null;
         }
-        return divide(total, size);
+
+        double[] averages = new double[totals.length];
+        for (int i = 0; i < totals.length; i++) {
+            averages[i] = totals[i] / count;
+        }
+        return createAverage(reading, averages);
     }
 
-    protected abstract R add(R value1, R value2);
+    /**
+     * Recomputes the running totals once per buffer cycle to avoid accumulating rounding errors.
+     */
+    private void recomputeTotals() {
+        for (int i = 0; i < samples.length; i++) {
+            double total = 0;
+            for (double value : samples[i]) {
+                total += value;
+            }
+            totals[i] = total;
+        }
+    }
 
-    protected abstract R substract(R from, R value);
+    /**
+     * @return the value with the given index of the reading.
+     */
+    protected abstract double getValue(R reading, int valueIndex);
 
-    protected abstract R divide(R value, int count);
+    /**
+     * Creates a reading with the given average values. All other values are taken from the latest reading.
+     */
+    protected abstract R createAverage(R latest, double[] averages);
 }
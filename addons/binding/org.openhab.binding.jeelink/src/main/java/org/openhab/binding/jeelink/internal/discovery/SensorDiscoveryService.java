@@ -99,6 +99,12 @@ public class SensorDiscoveryService extends AbstractDiscoveryService {
             return sketchName;
         }
 
+        @Override
+        public String getSensorId() {
+            // we are interested in all sensors that have no handler yet
+            return null;
+        }
+
         @Override
         public void handleReading(Reading reading) {
             if (capture.get()) {
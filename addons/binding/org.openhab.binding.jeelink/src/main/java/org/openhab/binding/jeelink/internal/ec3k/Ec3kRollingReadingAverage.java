@@ -17,36 +17,17 @@ import org.openhab.binding.jeelink.internal.RollingReadingAverage;
  */
 public class Ec3kRollingReadingAverage extends RollingReadingAverage<Ec3kReading> {
     public Ec3kRollingReadingAverage(int bufferSize) {
-        super(new Ec3kReading[bufferSize]);
+        super(bufferSize, 1);
     }
 
     @Override
-    protected Ec3kReading add(Ec3kReading value1, Ec3kReading value2) {
-        if (value2 != null) {
-            return new Ec3kReading(value2.getSensorId(), value1.getCurrentWatt() + value2.getCurrentWatt(),
-                    value2.getMaxWatt(), value2.getConsumptionTotal(), value2.getApplianceTime(),
-                    value2.getSensorTime(), value2.getResets());
-        }
-
-        return new Ec3kReading(value1.getSensorId(), value1.getCurrentWatt(), value1.getMaxWatt(),
-                value1.getConsumptionTotal(), value1.getApplianceTime(), value1.getSensorTime(), value1.getResets());
-    }
-
-    @Override
-    protected Ec3kReading substract(Ec3kReading from, Ec3kReading value) {
-        float newCurrWatt = from.getCurrentWatt();
-
-        if (value != null) {
-            newCurrWatt -= value.getCurrentWatt();
-        }
-
-        return new Ec3kReading(from.getSensorId(), newCurrWatt, from.getMaxWatt(), from.getConsumptionTotal(),
-                from.getApplianceTime(), from.getSensorTime(), from.getResets());
+    protected double getValue(Ec3kReading reading, int valueIndex) {
+        return reading.getCurrentWatt();
     }
 
     @Override
-    protected Ec3kReading divide(Ec3kReading value, int number) {
-        return new Ec3kReading(value.getSensorId(), value.getCurrentWatt() / number, value.getMaxWatt(),
-                value.getConsumptionTotal(), value.getApplianceTime(), value.getSensorTime(), value.getResets());
+    protected Ec3kReading createAverage(Ec3kReading latest, double[] averages) {
+        return new Ec3kReading(latest.getSensorId(), (float) averages[0], latest.getMaxWatt(),
+                latest.getConsumptionTotal(), latest.getApplianceTime(), latest.getSensorTime(), latest.getResets());
     }
 }
@@ -8,8 +8,7 @@
  */
 package org.openhab.binding.jeelink.internal.lacrosse;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Arrays;
 
 import org.openhab.binding.jeelink.internal.JeeLinkReadingConverter;
 import org.slf4j.Logger;
@@ -21,8 +20,7 @@ import org.slf4j.LoggerFactory;
  * @author Volker Bier - Initial contribution
  */
 public class LaCrosseTemperatureReadingConverter implements JeeLinkReadingConverter<LaCrosseTemperatureReading> {
-    private static final Pattern LINE_P = Pattern
-            .compile("OK\\s+([0-9]+)\\s+([0-9]+)\\s+([0-9]+)\\s+([0-9]+)\\s+([0-9]+)\\s+([0-9]+)");
+    private static final int VALUE_COUNT = 6;
 
     private final Logger logger = LoggerFactory.getLogger(LaCrosseTemperatureReadingConverter.class);
 
@@ -32,43 +30,50 @@ public class LaCrosseTemperatureReadingConverter implements JeeLinkReadingConver
     }
 
     @Override
-    public LaCrosseTemperatureReading createReading(String inputLine) {
-        // parse lines only if we have registered listeners
-        if (inputLine != null) {
-            Matcher matcher = LINE_P.matcher(inputLine);
-            if (matcher.matches()) {
-                // Format
-                //
-                // OK 9 56 1 4 156 37 (ID = 56 T: 18.0 H: 37 no NewBatt)
-                // OK 9 49 1 4 182 54 (ID = 49 T: 20.6 H: 54 no NewBatt)
-                // OK 9 55 129 4 192 56 (ID = 55 T: 21.6 H: 56 WITH NewBatt)
-                // OK 9 ID XXX XXX XXX XXX
-                // | | | | | | |
-                // | | | | | | --- Humidity incl. WeakBatteryFlag
-                // | | | | | |------ Temp * 10 + 1000 LSB
-                // | | | | |---------- Temp * 10 + 1000 MSB
-                // | | | |-------------- Sensor type (1 or 2) +128 if NewBatteryFlag
-                // | | |----------------- Sensor ID
-                // | |------------------- fix "9"
-                // |---------------------- fix "OK"
-                logger.trace("Creating reading from: {}", inputLine);
+    public boolean accepts(int[] values) {
+        return values.length == VALUE_COUNT;
+    }
+
+    @Override
+    public String getSensorId(int[] values) {
+        return String.valueOf(values[1]);
+    }
 
-                int sensorId = Integer.parseInt(matcher.group(2));
-                int int3 = Integer.parseInt(matcher.group(3));
+    @Override
+    public LaCrosseTemperatureReading createReading(int[] values) {
+        if (values != null && accepts(values)) {
+            // Format
+            //
+            // OK 9 56 1 4 156 37 (ID = 56 T: 18.0 H: 37 no NewBatt)
+            // OK 9 49 1 4 182 54 (ID = 49 T: 20.6 H: 54 no NewBatt)
+            // OK 9 55 129 4 192 56 (ID = 55 T: 21.6 H: 56 WITH NewBatt)
+            // OK 9 ID XXX XXX XXX XXX
+            // | | | | | | |
+            // | | | | | | --- Humidity incl. WeakBatteryFlag
+            // | | | | | |------ Temp * 10 + 1000 LSB
+            // | | | | |---------- Temp * 10 + 1000 MSB
+            // | | | |-------------- Sensor type (1 or 2) +128 if NewBatteryFlag
+            // | | |----------------- Sensor ID
+            // | |------------------- fix "9"
+            // |---------------------- fix "OK"
+            if (logger.isTraceEnabled()) {
+                logger.trace("Creating reading from: {}", Arrays.toString(values));
+            }
 
-                int batteryNewInt = (int3 & 0x80) >> 7;
-                int type = (int3 & 0x70) >> 7;
+            int int3 = values[2];
 
-                float temperature = (float) (Integer.parseInt(matcher.group(4)) * 256
-                        + Integer.parseInt(matcher.group(5)) - 1000) / 10;
-                int humidity = Integer.parseInt(matcher.group(6)) & 0x7f;
-                int batteryLowInt = (Integer.parseInt(matcher.group(6)) & 0x80) >> 7;
+            int batteryNewInt = (int3 & 0x80) >> 7;
+            int type = (int3 & 0x70) >> 7;
 
-                boolean batteryLow = batteryLowInt == 1;
-                boolean batteryNew = batteryNewInt == 1;
+            float temperature = (float) (values[3] * 256 + values[4] - 1000) / 10;
+            int humidity = values[5] & 0x7f;
+            int batteryLowInt = (values[5] & 0x80) >> 7;
 
-                return new LaCrosseTemperatureReading(sensorId, type, temperature, humidity, batteryNew, batteryLow);
-            }
+            boolean batteryLow = batteryLowInt == 1;
+            boolean batteryNew = batteryNewInt == 1;
+
+            return new LaCrosseTemperatureReading(getSensorId(values), type, temperature, humidity, batteryNew,
+                    batteryLow);
         }
 
         return null;
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.kodi.internal.protocol;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Sends requests with the {@link KodiClientSocket} to the websocket of a {@link KodiStandIn} and measures how long
+ * they take. A command must not wait for the answers to earlier requests.
+ *
+ * @author agent - Initial contribution
+ */
+public class KodiClientSocketTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private KodiStandIn kodi;
+    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+    private KodiClientSocket socket;
+
+    @Before
+    public void setUp() throws Exception {
+        kodi = new KodiStandIn();
+        kodi.answer("JSONRPC.Ping", new JsonPrimitive("pong"));
+
+        socket = new KodiClientSocket(new KodiClientSocketEventListener() {
+            @Override
+            public void handleEvent(JsonObject json) {
+            }
+
+            @Override
+            public void onConnectionClosed() {
+            }
+
+            @Override
+            public void onConnectionOpened() {
+            }
+        }, kodi.getUri(), scheduler);
+        socket.open();
+
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (!socket.isConnected() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(socket.isConnected(), is(true));
+    }
+
+    @After
+    public void tearDown() {
+        socket.close();
+        kodi.close();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void requestIsCompletedWithItsResult() throws Exception {
+        JsonElement result = socket.callMethodAsync("JSONRPC.Ping", null).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        assertThat(result, is((JsonElement) new JsonPrimitive("pong")));
+    }
+
+    @Test
+    public void errorResponseCompletesTheRequestExceptionally() throws Exception {
+        try {
+            socket.callMethodAsync("Player.Unknown", null).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            fail("The error response completed the request");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause() instanceof KodiRpcException, is(true));
+            JsonObject error = ((KodiRpcException) e.getCause()).getError().getAsJsonObject();
+            assertThat(error.get("code").getAsInt(), is(-32601));
+        }
+    }
+
+    @Test
+    public void errorResponseReturnsNullToSynchronousCalls() {
+        assertThat(socket.callMethod("Player.Unknown"), is(nullValue()));
+    }
+
+    @Test
+    public void pipelinedRequestsDoNotWaitForEachOther() throws Exception {
+        kodi.setResponseDelay(200);
+        long start = System.currentTimeMillis();
+
+        List<CompletableFuture<JsonElement>> requests = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            requests.add(socket.callMethodAsync("JSONRPC.Ping", null));
+        }
+        for (CompletableFuture<JsonElement> request : requests) {
+            assertThat(request.get(TIMEOUT_MS, TimeUnit.MILLISECONDS).getAsString(), is("pong"));
+        }
+
+        // one request after the other would take two seconds
+        assertThat(System.currentTimeMillis() - start < 1000, is(true));
+    }
+
+    @Test
+    public void batchIsSentAsOneMessageAndAnsweredPerRequest() throws Exception {
+        JsonObject speed = new JsonObject();
+        speed.addProperty("speed", 1);
+        kodi.answer("Player.GetProperties", speed);
+        int received = kodi.getReceivedMessages();
+
+        List<CompletableFuture<JsonElement>> responses = socket.callMethodsAsync(
+                new String[] { "Player.GetProperties", "Player.GetItem", "JSONRPC.Ping" },
+                new JsonObject[] { new JsonObject(), null, null });
+
+        assertThat(responses.get(0).get(TIMEOUT_MS, TimeUnit.MILLISECONDS), is((JsonElement) speed));
+        assertThat(responses.get(1).isCompletedExceptionally(), is(true));
+        assertThat(responses.get(2).get(TIMEOUT_MS, TimeUnit.MILLISECONDS).getAsString(), is("pong"));
+        assertThat(kodi.getReceivedMessages() - received, is(1));
+    }
+
+    @Test
+    public void roundTripOnTheLoopbackIsShort() throws Exception {
+        // warm up the connection and the JIT
+        for (int i = 0; i < 20; i++) {
+            socket.callMethodAsync("JSONRPC.Ping", null).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        }
+
+        int requests = 100;
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            socket.callMethodAsync("JSONRPC.Ping", null).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        }
+        long averageMicros = (System.nanoTime() - start) / requests / 1000;
+
+        assertThat("Average round trip " + averageMicros + " us", averageMicros < 20000, is(true));
+    }
+
+    @Test
+    public void pendingRequestsFailWhenTheConnectionIsLost() throws Exception {
+        kodi.setResponseDelay(TIMEOUT_MS);
+        CompletableFuture<JsonElement> request = socket.callMethodAsync("JSONRPC.Ping", null);
+
+        kodi.dropConnections();
+
+        try {
+            request.get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            fail("The request was answered");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause() instanceof IOException, is(true));
+        }
+    }
+}
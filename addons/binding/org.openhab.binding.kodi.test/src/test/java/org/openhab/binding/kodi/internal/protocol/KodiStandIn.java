@@ -0,0 +1,273 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.kodi.internal.protocol;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Stands in for the JSON-RPC websocket of Kodi on a local port. It answers the methods it has been given a result
+ * for, after a configurable delay, and all other methods with the error Kodi sends for unknown methods. The answers to
+ * different requests are delayed independently, like the answers of Kodi to a slow and a fast request.
+ *
+ * @author agent - Initial contribution
+ */
+public class KodiStandIn {
+
+    private static final String WEBSOCKET_GUID = "258EAFA5-E914-47DA-95CA-C5AB0DC85B11";
+    private static final int OPCODE_TEXT = 0x1;
+    private static final int OPCODE_CLOSE = 0x8;
+    private static final int OPCODE_PING = 0x9;
+    private static final int OPCODE_PONG = 0xA;
+
+    private final ServerSocket serverSocket;
+    private final ScheduledExecutorService responder = Executors.newScheduledThreadPool(4);
+    private final List<Socket> connections = new CopyOnWriteArrayList<>();
+    private final Map<String, JsonElement> results = new ConcurrentHashMap<>();
+    private final AtomicInteger receivedMessages = new AtomicInteger();
+    private volatile long responseDelay = 0;
+
+    public KodiStandIn() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "Kodi stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public URI getUri() {
+        return URI.create("ws://127.0.0.1:" + serverSocket.getLocalPort() + "/jsonrpc");
+    }
+
+    /**
+     * Answers the given method with the given result.
+     */
+    public void answer(String method, JsonElement result) {
+        results.put(method, result);
+    }
+
+    public void setResponseDelay(long milliseconds) {
+        responseDelay = milliseconds;
+    }
+
+    /**
+     * @return the number of websocket messages received, a batch of requests is a single message
+     */
+    public int getReceivedMessages() {
+        return receivedMessages.get();
+    }
+
+    /**
+     * Closes the connections without a close handshake, like a Kodi that has been switched off.
+     */
+    public void dropConnections() {
+        for (Socket connection : connections) {
+            closeQuietly(connection);
+        }
+        connections.clear();
+    }
+
+    public void close() {
+        responder.shutdownNow();
+        dropConnections();
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket connection = serverSocket.accept();
+                connection.setTcpNoDelay(true);
+                connections.add(connection);
+                Thread reader = new Thread(() -> serve(connection), "Kodi stand-in connection");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    private void serve(Socket connection) {
+        try {
+            DataInputStream in = new DataInputStream(connection.getInputStream());
+            OutputStream out = connection.getOutputStream();
+            handshake(in, out);
+            while (true) {
+                int first = in.readUnsignedByte();
+                int second = in.readUnsignedByte();
+                long length = second & 0x7F;
+                if (length == 126) {
+                    length = in.readUnsignedShort();
+                } else if (length == 127) {
+                    length = in.readLong();
+                }
+                byte[] mask = new byte[4];
+                if ((second & 0x80) != 0) {
+                    in.readFully(mask);
+                }
+                byte[] payload = new byte[(int) length];
+                in.readFully(payload);
+                for (int i = 0; i < payload.length; i++) {
+                    payload[i] ^= mask[i % 4];
+                }
+                int opcode = first & 0x0F;
+                if (opcode == OPCODE_TEXT) {
+                    receivedMessages.incrementAndGet();
+                    onMessage(out, new String(payload, StandardCharsets.UTF_8));
+                } else if (opcode == OPCODE_PING) {
+                    send(out, OPCODE_PONG, payload);
+                } else if (opcode == OPCODE_CLOSE) {
+                    send(out, OPCODE_CLOSE, payload);
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // the connection has been closed
+        } finally {
+            connections.remove(connection);
+            closeQuietly(connection);
+        }
+    }
+
+    private void handshake(DataInputStream in, OutputStream out) throws IOException {
+        String key = null;
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && "Sec-WebSocket-Key".equalsIgnoreCase(line.substring(0, colon).trim())) {
+                key = line.substring(colon + 1).trim();
+            }
+        }
+        if (key == null) {
+            throw new IOException("Not a websocket upgrade request");
+        }
+        String response = "HTTP/1.1 101 Switching Protocols\r\nUpgrade: websocket\r\nConnection: Upgrade\r\n"
+                + "Sec-WebSocket-Accept: " + accept(key) + "\r\n\r\n";
+        synchronized (out) {
+            out.write(response.getBytes(StandardCharsets.ISO_8859_1));
+            out.flush();
+        }
+    }
+
+    /**
+     * Reads a line of the upgrade request without buffering the frames that follow it.
+     */
+    private static String readLine(DataInputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return c == -1 && line.length() == 0 ? null : line.toString();
+    }
+
+    private static String accept(String key) throws IOException {
+        try {
+            MessageDigest sha1 = MessageDigest.getInstance("SHA-1");
+            byte[] digest = sha1.digest((key + WEBSOCKET_GUID).getBytes(StandardCharsets.ISO_8859_1));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void onMessage(OutputStream out, String message) {
+        JsonElement request = new JsonParser().parse(message);
+        JsonElement response;
+        if (request.isJsonArray()) {
+            JsonArray responses = new JsonArray();
+            for (JsonElement batchRequest : request.getAsJsonArray()) {
+                responses.add(respond(batchRequest.getAsJsonObject()));
+            }
+            response = responses;
+        } else {
+            response = respond(request.getAsJsonObject());
+        }
+        byte[] payload = response.toString().getBytes(StandardCharsets.UTF_8);
+        responder.schedule(() -> {
+            try {
+                send(out, OPCODE_TEXT, payload);
+            } catch (IOException e) {
+                // the connection has been closed
+            }
+        }, responseDelay, TimeUnit.MILLISECONDS);
+    }
+
+    private JsonObject respond(JsonObject request) {
+        JsonObject response = new JsonObject();
+        response.addProperty("jsonrpc", "2.0");
+        response.add("id", request.get("id"));
+        JsonElement result = results.get(request.get("method").getAsString());
+        if (result != null) {
+            response.add("result", result);
+        } else {
+            JsonObject error = new JsonObject();
+            error.add("code", new JsonPrimitive(-32601));
+            error.addProperty("message", "Method not found.");
+            response.add("error", error);
+        }
+        return response;
+    }
+
+    private static void send(OutputStream out, int opcode, byte[] payload) throws IOException {
+        // the frame is written at once, a frame split into several packets waits for the delayed acknowledge
+        ByteArrayOutputStream frame = new ByteArrayOutputStream(payload.length + 4);
+        frame.write(0x80 | opcode);
+        if (payload.length < 126) {
+            frame.write(payload.length);
+        } else {
+            frame.write(126);
+            frame.write(payload.length >> 8);
+            frame.write(payload.length);
+        }
+        frame.write(payload);
+        synchronized (out) {
+            frame.writeTo(out);
+            out.flush();
+        }
+    }
+
+    private static void closeQuietly(Socket connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+}
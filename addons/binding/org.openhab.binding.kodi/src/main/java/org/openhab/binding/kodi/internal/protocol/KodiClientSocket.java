@@ -8,10 +8,19 @@
  */
 package org.openhab.binding.kodi.internal.protocol;
 
+import java.io.IOException;
 import java.net.URI;
-import java.util.concurrent.CountDownLatch;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
@@ -24,6 +33,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
@@ -32,6 +42,10 @@ import com.google.gson.JsonParser;
  * KodiClientSocket implements the low level communication to kodi through
  * websocket. Usually this communication is done through port 9090
  *
+ * Requests are sent without waiting for earlier responses. Each response is
+ * correlated to its request by the JSON-RPC id and completes the future
+ * returned for that request.
+ *
  * @author Paul Frank
  *
  */
@@ -42,9 +56,8 @@ public class KodiClientSocket {
     private final ScheduledExecutorService scheduler;
     private static final int REQUEST_TIMEOUT_MS = 60000;
 
-    private CountDownLatch commandLatch = null;
-    private JsonObject commandResponse = null;
-    private int nextMessageId = 1;
+    private final AtomicInteger nextMessageId = new AtomicInteger(1);
+    private final Map<Integer, CompletableFuture<JsonElement>> pendingRequests = new ConcurrentHashMap<>();
 
     private boolean connected = false;
 
@@ -95,6 +108,7 @@ public class KodiClientSocket {
             }
             session = null;
         }
+        failPendingRequests(new IOException("Connection closed"));
         try {
             client.stop();
         } catch (Exception e) {
@@ -138,14 +152,17 @@ public class KodiClientSocket {
         @OnWebSocketMessage
         public void onMessage(String message) {
             logger.debug("Message received from server: {}", message);
-            final JsonObject json = parser.parse(message).getAsJsonObject();
-            if (json.has("id")) {
-                logger.debug("Response received from server: {}", json);
-                int messageId = json.get("id").getAsInt();
-                if (messageId == nextMessageId - 1) {
-                    commandResponse = json;
-                    commandLatch.countDown();
+            final JsonElement element = parser.parse(message);
+            if (element.isJsonArray()) {
+                // the responses to a batch request
+                for (JsonElement response : element.getAsJsonArray()) {
+                    handleResponse(response.getAsJsonObject());
                 }
+                return;
+            }
+            final JsonObject json = element.getAsJsonObject();
+            if (json.has("id")) {
+                handleResponse(json);
             } else {
                 logger.debug("Event received from server: {}", json);
                 try {
@@ -176,6 +193,7 @@ public class KodiClientSocket {
             session = null;
             connected = false;
             logger.debug("Closing a WebSocket due to {}", reason);
+            failPendingRequests(new IOException("Connection closed: " + reason));
             scheduler.submit(new Runnable() {
 
                 @Override
@@ -190,7 +208,10 @@ public class KodiClientSocket {
         }
     }
 
-    private void sendMessage(String str) throws Exception {
+    /**
+     * Sends a message, the remote endpoint of the session does not allow concurrent writes.
+     */
+    private synchronized void sendMessage(String str) throws Exception {
         if (isConnected()) {
             logger.debug("send message: {}", str);
             session.getRemote().sendString(str);
@@ -199,37 +220,129 @@ public class KodiClientSocket {
         }
     }
 
-    public JsonElement callMethod(String methodName) {
-        return callMethod(methodName, null);
+    private void handleResponse(JsonObject json) {
+        logger.debug("Response received from server: {}", json);
+        JsonElement id = json.get("id");
+        if (id == null || !id.isJsonPrimitive()) {
+            return;
+        }
+        CompletableFuture<JsonElement> request = pendingRequests.remove(id.getAsInt());
+        if (request == null) {
+            logger.debug("Response for unknown or timed out request {}", id);
+            return;
+        }
+        if (json.has("error")) {
+            request.completeExceptionally(new KodiRpcException(json.get("error")));
+        } else {
+            request.complete(json.get("result"));
+        }
     }
 
-    public synchronized JsonElement callMethod(String methodName, JsonObject params) {
-        try {
-            JsonObject payloadObject = new JsonObject();
-            payloadObject.addProperty("jsonrpc", "2.0");
-            payloadObject.addProperty("id", nextMessageId);
-            payloadObject.addProperty("method", methodName);
+    private void failPendingRequests(Throwable cause) {
+        for (Integer id : pendingRequests.keySet()) {
+            CompletableFuture<JsonElement> request = pendingRequests.remove(id);
+            if (request != null) {
+                request.completeExceptionally(cause);
+            }
+        }
+    }
+
+    private JsonObject createRequest(String methodName, JsonObject params, CompletableFuture<JsonElement> future) {
+        int id = nextMessageId.getAndIncrement();
+        JsonObject payloadObject = new JsonObject();
+        payloadObject.addProperty("jsonrpc", "2.0");
+        payloadObject.addProperty("id", id);
+        payloadObject.addProperty("method", methodName);
 
-            if (params != null) {
-                payloadObject.add("params", params);
+        if (params != null) {
+            payloadObject.add("params", params);
+        }
+
+        pendingRequests.put(id, future);
+        ScheduledFuture<?> timeout = scheduler.schedule(() -> {
+            if (pendingRequests.remove(id, future)) {
+                logger.debug("Timeout during callMethod({}, {})", methodName, params != null ? params : "");
+                future.completeExceptionally(new TimeoutException("Timeout during " + methodName));
+            }
+        }, REQUEST_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        future.whenComplete((result, error) -> timeout.cancel(false));
+        return payloadObject;
+    }
+
+    private void send(JsonElement payload, List<CompletableFuture<JsonElement>> futures) {
+        try {
+            sendMessage(mapper.toJson(payload));
+        } catch (Exception e) {
+            for (CompletableFuture<JsonElement> future : futures) {
+                future.completeExceptionally(e);
             }
+        }
+    }
 
-            String message = mapper.toJson(payloadObject);
+    /**
+     * Sends a request without waiting for its response.
+     *
+     * @return a future completed with the result of the request, or completed exceptionally if the request fails, times
+     *         out or is answered with an error
+     */
+    public CompletableFuture<JsonElement> callMethodAsync(String methodName, JsonObject params) {
+        CompletableFuture<JsonElement> future = new CompletableFuture<>();
+        JsonObject payload = createRequest(methodName, params, future);
+        List<CompletableFuture<JsonElement>> futures = new ArrayList<>(1);
+        futures.add(future);
+        send(payload, futures);
+        return future;
+    }
 
-            commandLatch = new CountDownLatch(1);
-            commandResponse = null;
-            nextMessageId++;
+    /**
+     * Sends several requests as one JSON-RPC batch, Kodi answers them with a single message.
+     *
+     * @param methodNames the methods to call
+     * @param params the parameters of each method, entries may be null
+     * @return a future for the result of each request, in the order of the methods
+     */
+    public List<CompletableFuture<JsonElement>> callMethodsAsync(String[] methodNames, JsonObject[] params) {
+        List<CompletableFuture<JsonElement>> futures = new ArrayList<>(methodNames.length);
+        JsonArray batch = new JsonArray();
+        for (int i = 0; i < methodNames.length; i++) {
+            CompletableFuture<JsonElement> future = new CompletableFuture<>();
+            batch.add(createRequest(methodNames[i], params[i], future));
+            futures.add(future);
+        }
+        send(batch, futures);
+        return futures;
+    }
 
-            sendMessage(message);
-            if (commandLatch.await(REQUEST_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
-                logger.debug("callMethod returns {}", commandResponse.toString());
-                return commandResponse.get("result");
+    public JsonElement callMethod(String methodName) {
+        return callMethod(methodName, null);
+    }
+
+    /**
+     * Sends a request and waits for its response.
+     *
+     * @return the result of the request, or null on errors and error responses
+     */
+    public JsonElement callMethod(String methodName, JsonObject params) {
+        try {
+            JsonElement result = callMethodAsync(methodName, params).get(REQUEST_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            logger.debug("callMethod returns {}", result);
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof KodiRpcException) {
+                // e.g. a PVR method while the PVR is disabled
+                logger.debug("Error during callMethod({}, {}): {}", methodName,
+                        params != null ? params.toString() : "", e.getCause().getMessage());
             } else {
-                logger.error("Timeout during callMethod({}, {})", methodName, params != null ? params.toString() : "");
-                return null;
+                logger.error("Error during callMethod({}, {}): {}", methodName,
+                        params != null ? params.toString() : "", e.getMessage());
             }
-        } catch (Exception e) {
-            logger.error("Error during callMethod", e);
+            return null;
+        } catch (TimeoutException e) {
+            logger.error("Error during callMethod({}, {}): {}", methodName, params != null ? params.toString() : "",
+                    e.getMessage());
             return null;
         }
     }
@@ -9,6 +9,8 @@
 package org.openhab.binding.kodi.internal.protocol;
 
 import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 
 import org.apache.commons.lang.StringUtils;
@@ -25,6 +27,9 @@ import com.google.gson.JsonPrimitive;
 /**
  * KodiConnection provides an api for accessing a kodi device.
  *
+ * Commands are sent asynchronously, so they never wait behind a running status
+ * update. The player state is kept up to date by the notifications Kodi pushes.
+ *
  * @author Paul Frank - Initial contribution
  * @author Christoph Weitkamp - Added channels for opening PVR TV or Radio streams
  *
@@ -37,9 +42,12 @@ public class KodiConnection implements KodiClientSocketEventListener {
 
     private URI wsUri;
     private KodiClientSocket socket;
+    private ScheduledExecutorService scheduler;
 
-    private int volume = 0;
-    private KodiState currentState = KodiState.Stop;
+    private volatile int volume = 0;
+    private volatile KodiState currentState = KodiState.Stop;
+    // the id of the active player as announced by Kodi, -1 if nothing is playing
+    private volatile int activePlayer = -1;
 
     private final KodiEventListener listener;
 
@@ -49,6 +57,7 @@ public class KodiConnection implements KodiClientSocketEventListener {
 
     @Override
     public synchronized void onConnectionClosed() {
+        activePlayer = -1;
         listener.updateConnectionState(false);
     }
 
@@ -59,6 +68,7 @@ public class KodiConnection implements KodiClientSocketEventListener {
 
     public synchronized void connect(String hostName, int port, ScheduledExecutorService scheduler) {
         try {
+            this.scheduler = scheduler;
             wsUri = new URI(String.format("ws://%s:%d/jsonrpc", hostName, port));
             socket = new KodiClientSocket(this, wsUri, scheduler);
             socket.open();
@@ -67,137 +77,151 @@ public class KodiConnection implements KodiClientSocketEventListener {
         }
     }
 
-    private int getActivePlayer() {
-        JsonElement response = socket.callMethod("Player.GetActivePlayers");
-        if (response != null) {
-            boolean playing = response.isJsonArray() && response.getAsJsonArray().size() > 0;
-            if (playing) {
+    /**
+     * Requests the active player from Kodi and remembers it for subsequent commands.
+     */
+    private CompletableFuture<Integer> requestActivePlayer() {
+        return socket.callMethodAsync("Player.GetActivePlayers", null).thenApply(response -> {
+            int player = -1;
+            if (response != null && response.isJsonArray() && response.getAsJsonArray().size() > 0) {
                 JsonObject player0 = response.getAsJsonArray().get(0).getAsJsonObject();
-                return player0.get("playerid").getAsInt();
+                player = player0.get("playerid").getAsInt();
             }
+            activePlayer = player;
+            return player;
+        });
+    }
+
+    private CompletableFuture<Integer> getActivePlayer() {
+        int player = activePlayer;
+        if (player >= 0) {
+            return CompletableFuture.completedFuture(player);
         }
-        return -1;
+        return requestActivePlayer();
     }
 
-    public synchronized void playerPlayPause() {
-        int activePlayer = getActivePlayer();
-        JsonObject params = new JsonObject();
-        params.addProperty("playerid", activePlayer);
-        socket.callMethod("Player.PlayPause", params);
+    /**
+     * Sends a request without waiting for its result.
+     */
+    private void sendMethod(String methodName, JsonObject params) {
+        logFailure(methodName, socket.callMethodAsync(methodName, params));
     }
 
-    public synchronized void playerStop() {
-        int activePlayer = getActivePlayer();
-        JsonObject params = new JsonObject();
-        params.addProperty("playerid", activePlayer);
-        socket.callMethod("Player.Stop", params);
+    /**
+     * Sends a request for the active player without waiting for its result.
+     */
+    private void sendPlayerMethod(String methodName, JsonObject params) {
+        logFailure(methodName, getActivePlayer().thenCompose(player -> {
+            params.addProperty("playerid", player);
+            return socket.callMethodAsync(methodName, params);
+        }));
     }
 
-    public synchronized void playerNext() {
-        int activePlayer = getActivePlayer();
+    private void logFailure(String methodName, CompletableFuture<?> future) {
+        future.whenComplete((result, e) -> {
+            if (e != null) {
+                logger.debug("Error during {}: {}", methodName, e.getMessage());
+            }
+        });
+    }
 
-        JsonObject params = new JsonObject();
-        params.addProperty("playerid", activePlayer);
-        params.addProperty("to", "next");
-        socket.callMethod("Player.GoTo", params);
+    public void playerPlayPause() {
+        sendPlayerMethod("Player.PlayPause", new JsonObject());
+    }
 
-        updatePlayerStatus();
+    public void playerStop() {
+        sendPlayerMethod("Player.Stop", new JsonObject());
     }
 
-    public synchronized void playerPrevious() {
-        int activePlayer = getActivePlayer();
+    public void playerNext() {
+        JsonObject params = new JsonObject();
+        params.addProperty("to", "next");
+        sendPlayerMethod("Player.GoTo", params);
+    }
 
+    public void playerPrevious() {
         JsonObject params = new JsonObject();
-        params.addProperty("playerid", activePlayer);
         params.addProperty("to", "previous");
-        socket.callMethod("Player.GoTo", params);
-
-        updatePlayerStatus();
+        sendPlayerMethod("Player.GoTo", params);
     }
 
-    public synchronized void playerRewind() {
-        int activePlayer = getActivePlayer();
-
+    public void playerRewind() {
         JsonObject params = new JsonObject();
-        params.addProperty("playerid", activePlayer);
         params.addProperty("speed", -2);
-        socket.callMethod("Player.SetSpeed", params);
-
-        updatePlayerStatus();
+        sendPlayerMethod("Player.SetSpeed", params);
     }
 
-    public synchronized void playerFastForward() {
-        int activePlayer = getActivePlayer();
-
+    public void playerFastForward() {
         JsonObject params = new JsonObject();
-        params.addProperty("playerid", activePlayer);
         params.addProperty("speed", 2);
-        socket.callMethod("Player.SetSpeed", params);
-
-        updatePlayerStatus();
+        sendPlayerMethod("Player.SetSpeed", params);
     }
 
-    public synchronized void increaseVolume() {
-        this.volume += VOLUMESTEP;
-        JsonObject params = new JsonObject();
-        params.addProperty("volume", volume);
-        socket.callMethod("Application.SetVolume", params);
+    public void increaseVolume() {
+        setVolume(volume + VOLUMESTEP);
     }
 
-    public synchronized void decreaseVolume() {
-        this.volume -= VOLUMESTEP;
-        JsonObject params = new JsonObject();
-        params.addProperty("volume", volume);
-        socket.callMethod("Application.SetVolume", params);
+    public void decreaseVolume() {
+        setVolume(volume - VOLUMESTEP);
     }
 
-    public synchronized void setVolume(int volume) {
+    public void setVolume(int volume) {
         this.volume = volume;
         JsonObject params = new JsonObject();
         params.addProperty("volume", volume);
-        socket.callMethod("Application.SetVolume", params);
+        sendMethod("Application.SetVolume", params);
     }
 
     public int getVolume() {
         return volume;
     }
 
-    public synchronized void setMute(boolean mute) {
+    public void setMute(boolean mute) {
         JsonObject params = new JsonObject();
         params.addProperty("mute", mute);
-        socket.callMethod("Application.SetMute", params);
+        sendMethod("Application.SetMute", params);
     }
 
-    private int getSpeed(int activePlayer) {
-        final String[] properties = { "speed", "position" };
-
-        JsonObject params = new JsonObject();
-        params.addProperty("playerid", activePlayer);
-        params.add("properties", getJsonArray(properties));
-        JsonElement response = socket.callMethod("Player.GetProperties", params);
-
-        JsonObject result = response.getAsJsonObject();
-        return result.get("speed").getAsInt();
+    private void updateSpeed(JsonElement response) {
+        if (!(response instanceof JsonObject)) {
+            return;
+        }
+        int speed = response.getAsJsonObject().get("speed").getAsInt();
+        if (speed == 0) {
+            updateState(KodiState.Stop);
+        } else if (speed == 1) {
+            updateState(KodiState.Play);
+        } else if (speed < 0) {
+            updateState(KodiState.Rewind);
+        } else {
+            updateState(KodiState.FastForward);
+        }
     }
 
-    public synchronized void updatePlayerStatus() {
+    /**
+     * Requests the state of the player. Speed and the current item are requested in a single batch.
+     */
+    public void updatePlayerStatus() {
         if (socket.isConnected()) {
-            int activePlayer = getActivePlayer();
-            if (activePlayer >= 0) {
-                int speed = getSpeed(activePlayer);
-                if (speed == 0) {
+            logFailure("updatePlayerStatus", requestActivePlayer().thenCompose(player -> {
+                if (player < 0) {
                     updateState(KodiState.Stop);
-                } else if (speed == 1) {
-                    updateState(KodiState.Play);
-                } else if (speed < 0) {
-                    updateState(KodiState.Rewind);
-                } else {
-                    updateState(KodiState.FastForward);
+                    return CompletableFuture.completedFuture(null);
                 }
-                requestPlayerUpdate(activePlayer);
-            } else {
-                updateState(KodiState.Stop);
-            }
+                final String[] properties = { "speed", "position" };
+                JsonObject params = new JsonObject();
+                params.addProperty("playerid", player);
+                params.add("properties", getJsonArray(properties));
+
+                List<CompletableFuture<JsonElement>> responses = socket.callMethodsAsync(
+                        new String[] { "Player.GetProperties", "Player.GetItem" },
+                        new JsonObject[] { params, getPlayerItemParams(player) });
+                return responses.get(0).thenCombineAsync(responses.get(1), (speed, item) -> {
+                    updateSpeed(speed);
+                    updatePlayerItem(item);
+                    return null;
+                }, scheduler);
+            }));
         }
     }
 
@@ -222,15 +246,25 @@ public class KodiConnection implements KodiClientSocketEventListener {
          */
     }
 
-    private void requestPlayerUpdate(int activePlayer) {
+    private JsonObject getPlayerItemParams(int activePlayer) {
         final String[] properties = { "title", "album", "artist", "director", "thumbnail", "file", "fanart",
                 "showtitle", "streamdetails", "channel", "channeltype" };
 
         JsonObject params = new JsonObject();
         params.addProperty("playerid", activePlayer);
         params.add("properties", getJsonArray(properties));
-        JsonElement response = socket.callMethod("Player.GetItem", params);
+        return params;
+    }
+
+    private void requestPlayerUpdate(int activePlayer) {
+        logFailure("Player.GetItem", socket.callMethodAsync("Player.GetItem", getPlayerItemParams(activePlayer))
+                .thenAcceptAsync(this::updatePlayerItem, scheduler));
+    }
 
+    private void updatePlayerItem(JsonElement response) {
+        if (!(response instanceof JsonObject) || !((JsonObject) response).has("item")) {
+            return;
+        }
         JsonObject item = ((JsonObject) response).get("item").getAsJsonObject();
 
         String title = "";
@@ -370,10 +404,12 @@ public class KodiConnection implements KodiClientSocketEventListener {
 
             JsonObject data = json.get("data").getAsJsonObject();
             JsonObject player = data.get("player").getAsJsonObject();
-            Integer playerId = player.get("playerid").getAsInt();
+            int playerId = player.get("playerid").getAsInt();
+            activePlayer = playerId;
 
             updateState(KodiState.Play);
 
+            // the notification names library items by type and id only, their title, artist etc. must be requested
             requestPlayerUpdate(playerId);
         } else if ("Player.OnPause".equals(method)) {
             updateState(KodiState.Pause);
@@ -381,6 +417,7 @@ public class KodiConnection implements KodiClientSocketEventListener {
             // get the end parameter and send an End state if true
             JsonObject data = json.get("data").getAsJsonObject();
             Boolean end = data.get("end").getAsBoolean();
+            activePlayer = -1;
             if (end) {
                 updateState(KodiState.End);
             }
@@ -460,43 +497,43 @@ public class KodiConnection implements KodiClientSocketEventListener {
         socket = null;
     }
 
-    public synchronized void updateVolume() {
+    public void updateVolume() {
         if (socket.isConnected()) {
             String[] props = { "volume", "version", "name", "muted" };
 
             JsonObject params = new JsonObject();
             params.add("properties", getJsonArray(props));
 
-            JsonElement response = socket.callMethod("Application.GetProperties", params);
-
-            if (response instanceof JsonObject) {
-                JsonObject result = (JsonObject) response;
-                if (result.has("volume")) {
-                    volume = result.get("volume").getAsInt();
-                    listener.updateVolume(volume);
-                }
-                if (result.has("muted")) {
-                    boolean muted = result.get("muted").getAsBoolean();
-                    listener.updateMuted(muted);
-                }
-
-            }
+            logFailure("Application.GetProperties", socket.callMethodAsync("Application.GetProperties", params)
+                    .thenAcceptAsync(response -> {
+                        if (response instanceof JsonObject) {
+                            JsonObject result = (JsonObject) response;
+                            if (result.has("volume")) {
+                                volume = result.get("volume").getAsInt();
+                                listener.updateVolume(volume);
+                            }
+                            if (result.has("muted")) {
+                                boolean muted = result.get("muted").getAsBoolean();
+                                listener.updateMuted(muted);
+                            }
+                        }
+                    }, scheduler));
         } else {
             listener.updateMuted(false);
             listener.updateVolume(100);
         }
     }
 
-    public synchronized void playURI(String uri) {
+    public void playURI(String uri) {
         JsonObject item = new JsonObject();
         item.addProperty("file", uri);
 
         JsonObject params = new JsonObject();
         params.add("item", item);
-        socket.callMethod("Player.Open", params);
+        sendMethod("Player.Open", params);
     }
 
-    private synchronized JsonArray getChannelGroups(final String channelType) {
+    private JsonArray getChannelGroups(final String channelType) {
         JsonObject params = new JsonObject();
         params.addProperty("channeltype", channelType);
         JsonElement response = socket.callMethod("PVR.GetChannelGroups", params);
@@ -525,7 +562,7 @@ public class KodiConnection implements KodiClientSocketEventListener {
         return 0;
     }
 
-    private synchronized JsonArray getChannels(final int channelGroupID) {
+    private JsonArray getChannels(final int channelGroupID) {
         JsonObject params = new JsonObject();
         params.addProperty("channelgroupid", channelGroupID);
         JsonElement response = socket.callMethod("PVR.GetChannels", params);
@@ -554,20 +591,20 @@ public class KodiConnection implements KodiClientSocketEventListener {
         return 0;
     }
 
-    public synchronized void playPVRChannel(final int channelID) {
+    public void playPVRChannel(final int channelID) {
         JsonObject item = new JsonObject();
         item.addProperty("channelid", channelID);
 
         JsonObject params = new JsonObject();
         params.add("item", item);
-        socket.callMethod("Player.Open", params);
+        sendMethod("Player.Open", params);
     }
 
-    public synchronized void showNotification(String message) {
+    public void showNotification(String message) {
         JsonObject params = new JsonObject();
         params.addProperty("title", "openHAB");
         params.addProperty("message", message);
-        socket.callMethod("GUI.ShowNotification", params);
+        sendMethod("GUI.ShowNotification", params);
     }
 
     public boolean checkConnection() {
@@ -618,13 +655,13 @@ public class KodiConnection implements KodiClientSocketEventListener {
     }
 
     public void input(String key) {
-        socket.callMethod("Input." + key);
+        sendMethod("Input." + key, null);
     }
 
     public void inputText(String text) {
         JsonObject params = new JsonObject();
         params.addProperty("text", text);
-        socket.callMethod("Input.SendText", params);
+        sendMethod("Input.SendText", params);
     }
 
     public void playNotificationSoundURI(String uri) {
@@ -633,7 +670,7 @@ public class KodiConnection implements KodiClientSocketEventListener {
 
     public void sendSystemCommand(String command) {
         String method = "System." + command;
-        socket.callMethod(method);
+        sendMethod(method, null);
     }
 
 }
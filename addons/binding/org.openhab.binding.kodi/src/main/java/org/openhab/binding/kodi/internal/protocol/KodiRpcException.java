@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.kodi.internal.protocol;
+
+import com.google.gson.JsonElement;
+
+/**
+ * Kodi answered a JSON-RPC request with an error.
+ *
+ * @author agent - Initial contribution
+ */
+public class KodiRpcException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient JsonElement error;
+
+    public KodiRpcException(JsonElement error) {
+        super("Error response: " + error);
+        this.error = error;
+    }
+
+    /**
+     * @return the <code>error</code> object of the response, with its <code>code</code> and <code>message</code>
+     */
+    public JsonElement getError() {
+        return error;
+    }
+}
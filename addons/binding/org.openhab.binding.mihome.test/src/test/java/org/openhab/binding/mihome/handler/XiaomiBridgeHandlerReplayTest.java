@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.mihome.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.smarthome.core.thing.Bridge;
+import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.mihome.internal.XiaomiItemUpdateListener;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Replays recorded multicast messages of a gateway through the {@link XiaomiBridgeHandler}, like the socket passes
+ * them on, and checks which messages reach the handlers of the devices and how long this takes.
+ *
+ * @author agent - Initial contribution
+ */
+public class XiaomiBridgeHandlerReplayTest {
+
+    private static final String GATEWAY = "f0b429b3a1a1";
+    private static final String SENSOR_HT = "158d0001d8a1b2";
+    private static final String MAGNET = "158d00015c3a1f";
+    private static final String MOTION = "158d0001a2b3c4";
+
+    private final JsonParser parser = new JsonParser();
+    private final Map<String, AtomicInteger> updates = new ConcurrentHashMap<>();
+    private XiaomiBridgeHandler handler;
+    private List<String> datagrams;
+
+    @Before
+    public void setUp() throws IOException {
+        handler = new XiaomiBridgeHandler(mock(Bridge.class));
+        handler.setCallback(mock(ThingHandlerCallback.class));
+        for (String sid : new String[] { GATEWAY, SENSOR_HT, MAGNET, MOTION }) {
+            handler.registerItemListener(new CountingListener(sid));
+        }
+        datagrams = readDatagrams("gateway-traffic");
+    }
+
+    @Test
+    public void messagesReachTheHandlerOfTheirDevice() {
+        replay(1);
+
+        assertThat(updates(GATEWAY, "report"), is(1));
+        assertThat(updates(MAGNET, "report"), is(2));
+        assertThat(updates(MOTION, "report"), is(1));
+        assertThat(updates(SENSOR_HT, "heartbeat"), is(1));
+        assertThat(updates(MAGNET, "heartbeat"), is(1));
+        // the switch has no handler
+        assertThat(updates.size(), is(6));
+    }
+
+    @Test
+    public void unchangedHeartbeatsArePassedOnOnce() {
+        replay(100);
+
+        assertThat(updates(GATEWAY, "heartbeat"), is(1));
+        assertThat(updates(SENSOR_HT, "heartbeat"), is(1));
+        assertThat(updates(MAGNET, "heartbeat"), is(1));
+        assertThat(updates(GATEWAY, "report"), is(100));
+        assertThat(updates(MAGNET, "report"), is(200));
+        assertThat(updates(MOTION, "report"), is(100));
+    }
+
+    @Test
+    public void changedHeartbeatIsPassedOn() {
+        replay(1);
+
+        receive("{\"cmd\":\"heartbeat\",\"model\":\"sensor_ht\",\"sid\":\"" + SENSOR_HT
+                + "\",\"short_id\":12345,\"data\":\"{\\\"voltage\\\":3005,\\\"temperature\\\":\\\"2175\\\","
+                + "\\\"humidity\\\":\\\"4532\\\"}\"}");
+
+        assertThat(updates(SENSOR_HT, "heartbeat"), is(2));
+    }
+
+    @Test
+    public void replayedTrafficIsRoutedQuickly() {
+        // warm up the JIT
+        replay(1000);
+
+        int rounds = 10000;
+        long start = System.nanoTime();
+        replay(rounds);
+        long averageNanos = (System.nanoTime() - start) / (rounds * datagrams.size());
+
+        // parsing and routing a datagram must not keep the receiver thread busy
+        assertThat("Average time per datagram " + averageNanos + " ns", averageNanos < 100000, is(true));
+    }
+
+    private void replay(int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            for (String datagram : datagrams) {
+                receive(datagram);
+            }
+        }
+    }
+
+    /**
+     * Parses a datagram and passes it to the bridge handler, like the receiver thread of the socket.
+     */
+    private void receive(String datagram) {
+        JsonObject message = parser.parse(datagram).getAsJsonObject();
+        handler.onDataReceived(message);
+    }
+
+    private int updates(String sid, String command) {
+        AtomicInteger count = updates.get(sid + " " + command);
+        return count != null ? count.get() : 0;
+    }
+
+    private List<String> readDatagrams(String name) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("input/" + name + ".txt");
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    lines.add(line);
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Counts the updates of a device by command.
+     */
+    private class CountingListener implements XiaomiItemUpdateListener {
+        private final String sid;
+
+        CountingListener(String sid) {
+            this.sid = sid;
+        }
+
+        @Override
+        public void onItemUpdate(String sid, String command, JsonObject message) {
+            assertThat(sid, is(this.sid));
+            updates.computeIfAbsent(sid + " " + command, key -> new AtomicInteger()).incrementAndGet();
+        }
+
+        @Override
+        public String getItemId() {
+            return sid;
+        }
+    }
+}
@@ -14,13 +14,13 @@ import static org.openhab.binding.mihome.XiaomiGatewayBindingConstants.*;
 import java.math.BigDecimal;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.config.core.Configuration;
@@ -56,6 +56,7 @@ public class XiaomiBridgeHandler extends ConfigStatusBridgeHandler implements Xi
 
     private static final int DISCOVERY_LOCK_TIME_MILLIS = 10000;
     private static final int READ_ACK_RETENTION_MILLIS = 60 * 60 * 1000; // 2 hours
+    private static final long HEARTBEAT_DEDUPLICATION_MILLIS = 30 * 60 * 1000; // 30 minutes
     public static final Set<ThingTypeUID> SUPPORTED_THING_TYPES = Collections.singleton(THING_TYPE_BRIDGE);
     private static final JsonParser PARSER = new JsonParser();
     private static final EncryptionHelper CRYPTER = new EncryptionHelper();
@@ -63,8 +64,9 @@ public class XiaomiBridgeHandler extends ConfigStatusBridgeHandler implements Xi
 
     private final Logger logger = LoggerFactory.getLogger(XiaomiBridgeHandler.class);
 
-    private List<XiaomiItemUpdateListener> itemListeners = new ArrayList<>();
-    private List<XiaomiItemUpdateListener> itemDiscoveryListeners = new ArrayList<>();
+    private Map<String, XiaomiItemUpdateListener> itemListeners = new ConcurrentHashMap<>();
+    private List<XiaomiItemUpdateListener> itemDiscoveryListeners = new CopyOnWriteArrayList<>();
+    private Map<String, Heartbeat> lastHeartbeats = new ConcurrentHashMap<>();
 
     private String gatewayToken;
     private long lastDiscoveryTime;
@@ -121,8 +123,14 @@ public class XiaomiBridgeHandler extends ConfigStatusBridgeHandler implements Xi
     @Override
     public void onDataReceived(JsonObject message) {
         logger.trace("Received message {}", message);
-        String sid = message.has("sid") ? message.get("sid").getAsString() : null;
-        String command = message.get("cmd").getAsString();
+        JsonElement sidElement = message.get("sid");
+        JsonElement cmdElement = message.get("cmd");
+        if (cmdElement == null) {
+            logger.debug("Ignoring message without command: {}", message);
+            return;
+        }
+        String sid = sidElement != null ? sidElement.getAsString() : null;
+        String command = cmdElement.getAsString();
 
         updateDeviceStatus(sid);
         updateStatus(ThingStatus.ONLINE);
@@ -133,6 +141,10 @@ public class XiaomiBridgeHandler extends ConfigStatusBridgeHandler implements Xi
                 if (message.has("token")) {
                     this.gatewayToken = message.get("token").getAsString();
                 }
+                if (isDuplicateHeartbeat(sid, message)) {
+                    logger.trace("Skipping unchanged heartbeat of device {}", sid);
+                    return;
+                }
                 break;
             case "get_id_list_ack":
                 JsonArray devices = PARSER.parse(message.get("data").getAsString()).getAsJsonArray();
@@ -151,7 +163,41 @@ public class XiaomiBridgeHandler extends ConfigStatusBridgeHandler implements Xi
                 logger.debug("Device {} honored write request", sid);
                 break;
         }
-        notifyListeners(command, message);
+        notifyListeners(sid, command, message);
+    }
+
+    /**
+     * Checks whether a heartbeat carries the same data as the last one seen for the device. The gateway sends a
+     * heartbeat every ten seconds, so unchanged ones are only passed on once within
+     * {@link #HEARTBEAT_DEDUPLICATION_MILLIS}, while the "last time seen" of the device is still updated.
+     *
+     * @param sid the itemID of the device
+     * @param message the received heartbeat message
+     * @return true, if the heartbeat doesn't need to be passed to the listeners
+     */
+    private boolean isDuplicateHeartbeat(String sid, JsonObject message) {
+        JsonElement data = message.get("data");
+        if (sid == null || data == null) {
+            return false;
+        }
+        String dataString = data.getAsString();
+        long now = System.currentTimeMillis();
+        Heartbeat last = lastHeartbeats.get(sid);
+        if (last != null && last.data.equals(dataString) && now - last.timestamp < HEARTBEAT_DEDUPLICATION_MILLIS) {
+            return true;
+        }
+        lastHeartbeats.put(sid, new Heartbeat(dataString, now));
+        return false;
+    }
+
+    private static class Heartbeat {
+        private final String data;
+        private final long timestamp;
+
+        Heartbeat(String data, long timestamp) {
+            this.data = data;
+            this.timestamp = timestamp;
+        }
     }
 
     private synchronized void retend(String sid, JsonObject message) {
@@ -188,23 +234,17 @@ public class XiaomiBridgeHandler extends ConfigStatusBridgeHandler implements Xi
         }
     }
 
-    private synchronized void notifyListeners(String command, JsonObject message) {
-        boolean knownDevice = false;
-        String sid = message.get("sid").getAsString();
-
+    private void notifyListeners(String sid, String command, JsonObject message) {
         // Not a message to pass to any itemListener
         if (sid == null) {
             return;
         }
-        for (XiaomiItemUpdateListener itemListener : itemListeners) {
-            if (sid.equals(itemListener.getItemId())) {
-                itemListener.onItemUpdate(sid, command, message);
-                knownDevice = true;
-            }
-        }
-        if (!knownDevice) {
-            for (XiaomiItemUpdateListener itemListener : itemDiscoveryListeners) {
-                itemListener.onItemUpdate(sid, command, message);
+        XiaomiItemUpdateListener itemListener = itemListeners.get(sid);
+        if (itemListener != null) {
+            itemListener.onItemUpdate(sid, command, message);
+        } else {
+            for (XiaomiItemUpdateListener discoveryListener : itemDiscoveryListeners) {
+                discoveryListener.onItemUpdate(sid, command, message);
             }
         }
     }
@@ -216,16 +256,23 @@ public class XiaomiBridgeHandler extends ConfigStatusBridgeHandler implements Xi
         } else if (listener instanceof XiaomiItemDiscoveryService) {
             result = !(itemDiscoveryListeners.contains(listener)) ? itemDiscoveryListeners.add(listener) : false;
             logger.debug("Having {} Item Discovery listeners", itemDiscoveryListeners.size());
+        } else if (listener.getItemId() == null) {
+            logger.warn("It's not allowed to pass a XiaomiItemUpdateListener without itemID");
         } else {
             logger.debug("Adding item listener for device {}", listener.getItemId());
-            result = !(itemListeners.contains(listener)) ? itemListeners.add(listener) : false;
+            result = itemListeners.put(listener.getItemId(), listener) != listener;
+            // make sure the new listener gets the next heartbeat
+            lastHeartbeats.remove(listener.getItemId());
             logger.debug("Having {} Item listeners", itemListeners.size());
         }
         return result;
     }
 
     public synchronized boolean unregisterItemListener(XiaomiItemUpdateListener listener) {
-        return itemListeners.remove(listener);
+        if (listener instanceof XiaomiItemDiscoveryService) {
+            return itemDiscoveryListeners.remove(listener);
+        }
+        return itemListeners.values().remove(listener);
     }
 
     private void sendMessageToBridge(String message) {
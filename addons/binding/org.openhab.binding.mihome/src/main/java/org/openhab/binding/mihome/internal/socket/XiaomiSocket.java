@@ -12,7 +12,9 @@ import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 
@@ -22,6 +24,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 
 /**
@@ -39,6 +42,8 @@ public abstract class XiaomiSocket {
     private DatagramPacket datagramPacket = new DatagramPacket(new byte[BUFFER_LENGTH], BUFFER_LENGTH);
 
     private List<XiaomiSocketListener> listeners = new CopyOnWriteArrayList<>();
+    private Map<InetAddress, XiaomiSocketListener> bridgeListenersByHost = new ConcurrentHashMap<>();
+    private List<XiaomiSocketListener> discoveryListeners = new CopyOnWriteArrayList<>();
 
     private static final JsonParser PARSER = new JsonParser();
 
@@ -111,6 +116,14 @@ public abstract class XiaomiSocket {
         if (!getListeners().contains(listener)) {
             logger.trace("Adding socket listener {}", listener);
             getListeners().add(listener);
+            if (listener instanceof XiaomiBridgeHandler) {
+                InetAddress host = ((XiaomiBridgeHandler) listener).getHost();
+                if (host != null) {
+                    bridgeListenersByHost.put(host, listener);
+                }
+            } else if (listener instanceof XiaomiBridgeDiscoveryService) {
+                discoveryListeners.add(listener);
+            }
         }
         if (getSocket() == null) {
             intialize();
@@ -125,6 +138,8 @@ public abstract class XiaomiSocket {
      */
     public synchronized void unregisterListener(XiaomiSocketListener listener) {
         getListeners().remove(listener);
+        bridgeListenersByHost.values().remove(listener);
+        discoveryListeners.remove(listener);
 
         if (getListeners().isEmpty()) {
             closeSocket();
@@ -191,8 +206,8 @@ public abstract class XiaomiSocket {
 
         /**
          * This method is the main method of the {@link ReceiverThread} for the {@link XiaomiBridgeSocket}.
-         * If the socket has data, it parses the data to a json object and calls all
-         * {@link XiaomiSocketListener} and passes the data to them.
+         * If the socket has data and there is any {@link XiaomiSocketListener} interested in the sender,
+         * it parses the data to a json object once and passes it to them.
          *
          * @param socket - The multicast socket to listen to
          * @param dgram - The datagram to receive
@@ -205,10 +220,20 @@ public abstract class XiaomiSocket {
                     InetAddress address = dgram.getAddress();
                     logger.debug("Received Datagram from {}:{} on Port {}", address.getHostAddress(), dgram.getPort(),
                             socket.getLocalPort());
-                    String sentence = new String(dgram.getData(), 0, dgram.getLength());
-                    JsonObject message = PARSER.parse(sentence).getAsJsonObject();
-                    notifyAll(getListeners(), message, address);
-                    logger.trace("Data received and notified {} listeners", getListeners().size());
+                    XiaomiSocketListener bridgeListener = bridgeListenersByHost.get(address);
+                    if (bridgeListener == null && discoveryListeners.isEmpty()) {
+                        logger.trace("No listener for datagram from {}, dropping it", address.getHostAddress());
+                        continue;
+                    }
+                    String sentence = new String(dgram.getData(), 0, dgram.getLength(), StandardCharsets.UTF_8);
+                    JsonObject message;
+                    try {
+                        message = PARSER.parse(sentence).getAsJsonObject();
+                    } catch (JsonParseException | IllegalStateException e) {
+                        logger.debug("Ignoring invalid message from {}: {}", address.getHostAddress(), sentence);
+                        continue;
+                    }
+                    notifyAll(bridgeListener, message);
                 }
             } catch (IOException e) {
                 if (!isInterrupted()) {
@@ -221,21 +246,19 @@ public abstract class XiaomiSocket {
         }
 
         /**
-         * Notifies all {@link XiaomiSocketListener} on the parent {@link XiaomiSocket}. First checks for any matching
-         * {@link XiaomiBridgeHandler}, before passing to any {@link XiaomiBridgeDiscoveryService}.
+         * Notifies the {@link XiaomiBridgeHandler} registered for the sender's address, before passing the message to
+         * any {@link XiaomiBridgeDiscoveryService}. The listener registries are lock-free, so no synchronization is
+         * needed on the receive path.
          *
-         * @param listeners - a list of all {@link XiaomiSocketListener} to notify
+         * @param bridgeListener - the {@link XiaomiSocketListener} of the sending bridge, may be null
          * @param message - the data message as {@link JsonObject}
          */
-        synchronized void notifyAll(List<XiaomiSocketListener> listeners, JsonObject message, InetAddress address) {
-            for (XiaomiSocketListener listener : listeners) {
-                if (listener instanceof XiaomiBridgeHandler) {
-                    if (((XiaomiBridgeHandler) listener).getHost().equals(address)) {
-                        listener.onDataReceived(message);
-                    }
-                } else if (listener instanceof XiaomiBridgeDiscoveryService) {
-                    listener.onDataReceived(message);
-                }
+        private void notifyAll(XiaomiSocketListener bridgeListener, JsonObject message) {
+            if (bridgeListener != null) {
+                bridgeListener.onDataReceived(message);
+            }
+            for (XiaomiSocketListener listener : discoveryListeners) {
+                listener.onDataReceived(message);
             }
         }
     }
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.milight.internal.protocol;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests which commands the {@link QueuedSend} sends, and in which order, if commands are queued faster than they can
+ * be send. The commands are queued before the send thread is started and received by a local UDP socket.
+ *
+ * @author agent - Initial contribution
+ */
+public class QueuedSendTest {
+
+    private static final int BRIGHTNESS = 1;
+    private static final int COLOR = 2;
+
+    private DatagramSocket receiver;
+    private QueuedSend queue;
+
+    @Before
+    public void setUp() throws IOException {
+        receiver = new DatagramSocket(0, InetAddress.getLoopbackAddress());
+        receiver.setSoTimeout(500);
+
+        queue = new QueuedSend();
+        queue.setAddress(InetAddress.getLoopbackAddress());
+        queue.setPort(receiver.getLocalPort());
+        queue.setDelayBetweenCommands(1);
+    }
+
+    @After
+    public void tearDown() {
+        queue.dispose();
+        queue.getSocket().close();
+        receiver.close();
+    }
+
+    @Test
+    public void newerCommandReplacesThePendingCommandOfItsSlot() throws IOException {
+        for (int brightness = 1; brightness <= 50; brightness++) {
+            queue.queueRepeatable(BRIGHTNESS, command(BRIGHTNESS, brightness));
+        }
+        queue.start();
+
+        assertThat(receive(), is(command(BRIGHTNESS, 50)));
+        assertNothingReceived();
+    }
+
+    @Test
+    public void replacedCommandMovesToTheEndOfTheQueue() throws IOException {
+        queue.queueRepeatable(BRIGHTNESS, command(BRIGHTNESS, 10));
+        queue.queueRepeatable(COLOR, command(COLOR, 120));
+        queue.queue(QueueItem.createNonRepeatable(command(QueuedSend.NO_CATEGORY, 1)));
+        queue.queueRepeatable(BRIGHTNESS, command(BRIGHTNESS, 20));
+        queue.start();
+
+        assertThat(receive(), is(command(COLOR, 120)));
+        assertThat(receive(), is(command(QueuedSend.NO_CATEGORY, 1)));
+        assertThat(receive(), is(command(BRIGHTNESS, 20)));
+        assertNothingReceived();
+    }
+
+    @Test
+    public void nonCategorisedCommandsAreNotReplaced() throws IOException {
+        for (int step = 1; step <= 3; step++) {
+            queue.queue(QueueItem.createNonRepeatable(command(QueuedSend.NO_CATEGORY, step)));
+        }
+        queue.start();
+
+        for (int step = 1; step <= 3; step++) {
+            assertThat(receive(), is(command(QueuedSend.NO_CATEGORY, step)));
+        }
+        assertNothingReceived();
+    }
+
+    @Test
+    public void fullQueueDropsNonCategorisedCommandsOnly() throws IOException {
+        for (int step = 1; step <= 25; step++) {
+            queue.queue(QueueItem.createNonRepeatable(command(QueuedSend.NO_CATEGORY, step)));
+        }
+        queue.queueRepeatable(BRIGHTNESS, command(BRIGHTNESS, 100));
+        queue.start();
+
+        for (int step = 1; step <= 20; step++) {
+            assertThat(receive(), is(command(QueuedSend.NO_CATEGORY, step)));
+        }
+        assertThat(receive(), is(command(BRIGHTNESS, 100)));
+        assertNothingReceived();
+    }
+
+    @Test
+    public void commandChainIsSentInARow() throws IOException {
+        QueueItem chain = QueueItem.createRepeatable(COLOR, command(COLOR, 1)).addRepeatable(command(COLOR, 2))
+                .addRepeatable(command(COLOR, 3));
+        queue.queue(chain);
+        queue.queueRepeatable(BRIGHTNESS, command(BRIGHTNESS, 30));
+        queue.start();
+
+        List<byte[]> received = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            received.add(receive());
+        }
+        assertThat(received.get(0), is(command(COLOR, 1)));
+        assertThat(received.get(1), is(command(COLOR, 2)));
+        assertThat(received.get(2), is(command(COLOR, 3)));
+        assertThat(received.get(3), is(command(BRIGHTNESS, 30)));
+    }
+
+    @Test
+    public void confirmedCommandsAreNotDelayed() throws IOException {
+        queue.setDelayBetweenCommands(400);
+        queue.setConfirmedPacing(true);
+        for (int category = 1; category <= 10; category++) {
+            queue.queueRepeatable(category, command(category, 0));
+        }
+        queue.start();
+
+        long start = System.currentTimeMillis();
+        for (int category = 1; category <= 10; category++) {
+            assertThat(receive(), is(command(category, 0)));
+            queue.commandConfirmed();
+        }
+
+        // without the confirmations, the ten commands would take four seconds
+        assertThat(System.currentTimeMillis() - start < 2000, is(true));
+    }
+
+    @Test
+    public void unconfirmedCommandDelaysTheNextOne() throws IOException {
+        queue.setDelayBetweenCommands(200);
+        queue.setConfirmedPacing(true);
+        queue.queueRepeatable(BRIGHTNESS, command(BRIGHTNESS, 10));
+        queue.queueRepeatable(COLOR, command(COLOR, 120));
+        queue.start();
+
+        assertThat(receive(), is(command(BRIGHTNESS, 10)));
+        long sent = System.currentTimeMillis();
+        assertThat(receive(), is(command(COLOR, 120)));
+
+        assertThat(System.currentTimeMillis() - sent >= 150, is(true));
+    }
+
+    private static byte[] command(int category, int value) {
+        return new byte[] { (byte) 0x80, (byte) category, (byte) value };
+    }
+
+    private byte[] receive() throws IOException {
+        byte[] buffer = new byte[64];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        receiver.receive(packet);
+        byte[] data = new byte[packet.getLength()];
+        System.arraycopy(buffer, 0, data, 0, data.length);
+        return data;
+    }
+
+    private void assertNothingReceived() throws IOException {
+        try {
+            fail("Unexpected command " + receive()[1]);
+        } catch (SocketTimeoutException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.milight.test;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.SocketException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.openhab.binding.milight.MilightBindingConstants;
+import org.openhab.binding.milight.internal.MilightThingState;
+import org.openhab.binding.milight.internal.protocol.MilightV6RGB_IBOX;
+import org.openhab.binding.milight.internal.protocol.MilightV6SessionManager;
+import org.openhab.binding.milight.internal.protocol.MilightV6SessionManager.SessionState;
+import org.openhab.binding.milight.internal.protocol.QueuedSend;
+
+/**
+ * Sends commands of an iBox bulb to the {@link EmulatedV6Bridge} and measures how long it takes until the bridge
+ * confirmed the last command. A drag of the colour picker or of the brightness slider must not leave the bulb
+ * behind.
+ *
+ * @author agent - Initial contribution
+ */
+public class EmulatedV6BridgeLagTest {
+
+    private static final String BRIDGE_ID = "ACCF23F57AD4";
+    // The maximum delay between commands, only waited for if a command is not confirmed
+    private static final int DELAY_BETWEEN_COMMANDS = 400;
+
+    private static EmulatedV6Bridge bridge;
+
+    private ConfirmationCountingQueue queue;
+    private ScheduledExecutorService scheduler;
+    private MilightV6SessionManager session;
+    private MilightV6RGB_IBOX bulb;
+    private final MilightThingState state = new MilightThingState();
+
+    /**
+     * The emulated bridge listens on the fixed ports of an iBox and can't be stopped, so all tests share it.
+     */
+    @BeforeClass
+    public static void startBridge() {
+        bridge = new EmulatedV6Bridge();
+    }
+
+    @Before
+    public void setUp() throws IOException, InterruptedException {
+        queue = new ConfirmationCountingQueue();
+        queue.setAddress(InetAddress.getLoopbackAddress());
+        queue.setPort(MilightBindingConstants.PORT_VER6);
+        queue.setDelayBetweenCommands(DELAY_BETWEEN_COMMANDS);
+        queue.setConfirmedPacing(true);
+        queue.start();
+
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        session = new MilightV6SessionManager(queue, BRIDGE_ID, scheduler, new MilightV6SessionManager.ISessionState() {
+            @Override
+            public void sessionStateChanged(SessionState state) {
+            }
+        }, InetAddress.getLoopbackAddress());
+        bulb = new MilightV6RGB_IBOX(queue, session);
+
+        // the handshake is retried after three seconds, if the bridge was not ready for the first one
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!session.isValid() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat("No session with the emulated bridge " + bridge, session.isValid(), is(true));
+        queue.awaitIdle();
+    }
+
+    @After
+    public void tearDown() {
+        session.dispose();
+        queue.dispose();
+        queue.getSocket().close();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void draggedBrightnessSliderDoesNotLag() throws InterruptedException {
+        for (int brightness = 1; brightness <= 100; brightness++) {
+            bulb.setBrightness(brightness, state);
+            Thread.sleep(1);
+        }
+        long lastCommand = System.currentTimeMillis();
+        queue.awaitIdle();
+
+        assertThat(queue.getLastConfirmation() - lastCommand < DELAY_BETWEEN_COMMANDS, is(true));
+    }
+
+    @Test
+    public void commandsOfAllSlotsArePacedByConfirmation() throws InterruptedException {
+        int confirmed = queue.getConfirmations();
+
+        for (int round = 0; round < 5; round++) {
+            long start = System.currentTimeMillis();
+            bulb.setHSB(round * 60, -1, -1, state);
+            bulb.setPower(round % 2 == 0, state);
+            bulb.setLedMode(round + 1, state);
+            bulb.whiteMode(state);
+            queue.awaitIdle();
+
+            // with the fixed delay between commands, the last command would be send after three delays
+            assertThat(queue.getLastConfirmation() - start < DELAY_BETWEEN_COMMANDS, is(true));
+        }
+        assertThat(queue.getConfirmations() - confirmed, is(20));
+    }
+
+    /**
+     * A send queue that counts the confirmations the session manager received from the bridge.
+     */
+    private static class ConfirmationCountingQueue extends QueuedSend {
+        private int confirmations = 0;
+        private long lastConfirmation = 0;
+
+        ConfirmationCountingQueue() throws SocketException {
+        }
+
+        @Override
+        public void commandConfirmed() {
+            synchronized (this) {
+                ++confirmations;
+                lastConfirmation = System.currentTimeMillis();
+                notifyAll();
+            }
+            super.commandConfirmed();
+        }
+
+        synchronized int getConfirmations() {
+            return confirmations;
+        }
+
+        synchronized long getLastConfirmation() {
+            return lastConfirmation;
+        }
+
+        /**
+         * Waits until no confirmation arrived for the delay between commands.
+         */
+        synchronized void awaitIdle() throws InterruptedException {
+            int seen;
+            do {
+                seen = confirmations;
+                wait(getDelayBetweenCommands());
+            } while (seen != confirmations);
+        }
+    }
+}
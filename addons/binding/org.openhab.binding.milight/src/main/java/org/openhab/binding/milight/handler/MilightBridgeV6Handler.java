@@ -78,6 +78,8 @@ public class MilightBridgeV6Handler extends AbstractMilightBridgeHandler impleme
 
         com.setAddress(addr);
         com.setPort(port);
+        // The iBox confirms each command, the next one can be send as soon as the confirmation arrived
+        com.setConfirmedPacing(true);
         com.start();
 
         updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_PENDING, "Waiting for session");
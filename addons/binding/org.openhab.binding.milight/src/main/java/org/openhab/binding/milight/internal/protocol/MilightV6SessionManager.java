@@ -517,6 +517,7 @@ public class MilightV6SessionManager implements Runnable {
                     // 88 00 00 00 03 SN SN 00 // two byte sequence number, we use the later one only
                     case (byte) 0x88:
                         used_sequence_no.remove(buffer[6]);
+                        sendQueue.commandConfirmed();
                         if (buffer[07] == 0) {
                             if (DEBUG_SESSION) {
                                 logger.debug("Confirmation received for command: {}", String.valueOf(buffer[6]));
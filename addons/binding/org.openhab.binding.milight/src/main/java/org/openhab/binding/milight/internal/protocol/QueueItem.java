@@ -13,11 +13,12 @@ package org.openhab.binding.milight.internal.protocol;
  * @author David Graeff - Initial contribution
  */
 public class QueueItem {
-    static final int INVALID = -1;
     byte[] data;
     int unique_command_id;
     boolean repeatable;
     int custom_delay_time;
+    // Time when the command was added to the send queue
+    long queued_time;
 
     private QueueItem root, last = null;
     QueueItem next = null;
@@ -13,9 +13,8 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.SocketException;
 import java.util.Iterator;
-import java.util.NoSuchElementException;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +26,13 @@ import org.slf4j.LoggerFactory;
  * delay only. The user may issue absolute brightness or color changes faster than 1/10s though, and we don't
  * want to just queue up those commands but apply the newest command only.
  *
+ * The queue consists of slots, one for each id (bulb type, zone and command category) and one for each
+ * non-categorised item. A new item replaces the pending item of the same id in constant time and is moved to the
+ * end of the queue, so the order of the commands is kept.
+ *
+ * Bridges that confirm received commands (iBox, v6) can enable confirmed pacing: The next command is send as soon
+ * as the previous one is confirmed, the delay between commands is used as timeout only.
+ *
  * @author David Graeff <david.graeff@web.de>
  * @since 2.1
  *
@@ -34,12 +40,18 @@ import org.slf4j.LoggerFactory;
 public class QueuedSend implements Runnable {
     private final Logger logger = LoggerFactory.getLogger(QueuedSend.class);
 
-    BlockingQueue<QueueItem> queue = new LinkedBlockingQueue<>(20);
+    // Pending items in sending order, by unique command id or by the item itself if non-categorised
+    private final Map<Object, QueueItem> queue = new LinkedHashMap<>();
+    private static final int MAX_NON_CATEGORISED = 20;
+    private int non_categorised = 0;
     protected final DatagramPacket packet;
     protected final DatagramSocket datagramSocket;
     private int delay_between_commands = 100;
     private int repeat_commands = 1;
-    private boolean willbeclosed = false;
+    private boolean confirmed_pacing = false;
+    private final Object confirmation = new Object();
+    private boolean confirmed = false;
+    private volatile boolean willbeclosed = false;
     private Thread thread;
 
     public static final byte NO_CATEGORY = 0;
@@ -83,6 +95,26 @@ public class QueuedSend implements Runnable {
         delay_between_commands = ms;
     }
 
+    /**
+     * Enable this for bridges that confirm each received command. The delay between commands will only be waited
+     * for if a command is not confirmed.
+     *
+     * @param confirmed_pacing Send the next command as soon as the previous one has been confirmed
+     */
+    public void setConfirmedPacing(boolean confirmed_pacing) {
+        this.confirmed_pacing = confirmed_pacing;
+    }
+
+    /**
+     * Called if the bridge confirmed a command. Wakes up the send thread if confirmed pacing is enabled.
+     */
+    public void commandConfirmed() {
+        synchronized (confirmation) {
+            confirmed = true;
+            confirmation.notifyAll();
+        }
+    }
+
     /**
      * The queue process
      */
@@ -96,7 +128,7 @@ public class QueuedSend implements Runnable {
             } else {
                 try {
                     // block/wait for another item
-                    item = queue.take();
+                    item = take();
                 } catch (InterruptedException e) {
                     if (!willbeclosed) {
                         logger.error("Queue take failed: {}", e.getLocalizedMessage());
@@ -105,13 +137,10 @@ public class QueuedSend implements Runnable {
                 }
             }
 
-            if (item == null || item.unique_command_id == QueueItem.INVALID) {
-                // Just in case it is a command chain, set the item to null to not process any chained commands.
-                item = null;
-                continue;
-            }
-
             packet.setData(item.data);
+            synchronized (confirmation) {
+                confirmed = false;
+            }
             try {
                 for (int i = 0; i < (item.repeatable ? repeat_commands : 1); ++i) {
                     datagramSocket.send(packet);
@@ -121,8 +150,8 @@ public class QueuedSend implements Runnable {
                         for (int c = 0; c < item.data.length; ++c) {
                             s.append(String.format("%02X ", item.data[c]));
                         }
-                        logger.debug("Sent packet '{}' to bridge {}", s.toString(),
-                                packet.getAddress().getHostAddress());
+                        logger.debug("Sent packet '{}' to bridge {}, {} ms after queuing", s.toString(),
+                                packet.getAddress().getHostAddress(), System.currentTimeMillis() - item.queued_time);
                     }
                 }
 
@@ -132,7 +161,13 @@ public class QueuedSend implements Runnable {
             }
 
             try {
-                Thread.sleep((item.custom_delay_time != 0) ? item.custom_delay_time : delay_between_commands);
+                if (item.custom_delay_time != 0) {
+                    Thread.sleep(item.custom_delay_time);
+                } else if (confirmed_pacing) {
+                    waitForConfirmation(delay_between_commands);
+                } else {
+                    Thread.sleep(delay_between_commands);
+                }
             } catch (InterruptedException e) {
                 if (!willbeclosed) {
                     logger.error("Queue sleep failed: {}", e.getLocalizedMessage());
@@ -163,28 +198,71 @@ public class QueuedSend implements Runnable {
     }
 
     /**
-     * Mark all commands in the queue invalid that have the same unique id as the given one. This does not synchronise
-     * with the sender thread. If an element has been started to being processed, this method has no more effect on that
-     * element. Command chains are always executed in a row. Even if the head of the command queue has been marked
-     * as invalid, if the processing has been started, the chain will be processed completely.
+     * Wait for the next item and remove it from the queue.
      *
-     * @param unique_command_id
+     * @return The oldest queued item
+     * @throws InterruptedException
      */
-    private void remove_from_queue(int unique_command_id) {
-        Iterator<QueueItem> iterator = queue.iterator();
-        while (iterator.hasNext()) {
-            try {
-                QueueItem item = iterator.next();
-                if (item != null && item.unique_command_id == unique_command_id) {
-                    item.unique_command_id = QueueItem.INVALID; // invalidate
+    private QueueItem take() throws InterruptedException {
+        synchronized (queue) {
+            while (queue.isEmpty()) {
+                queue.wait();
+            }
+            Iterator<QueueItem> iterator = queue.values().iterator();
+            QueueItem item = iterator.next();
+            iterator.remove();
+            if (item.unique_command_id == NO_CATEGORY) {
+                --non_categorised;
+            }
+            return item;
+        }
+    }
+
+    /**
+     * Wait until the bridge confirmed the last command, but not longer than the given time.
+     *
+     * @param timeout Maximum waiting time in ms
+     * @throws InterruptedException
+     */
+    private void waitForConfirmation(int timeout) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeout;
+        synchronized (confirmation) {
+            long remaining = timeout;
+            while (!confirmed && remaining > 0) {
+                confirmation.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
+        }
+    }
+
+    /**
+     * Add an item to the queue. A pending item with the same unique id is replaced by the new one. If an element has
+     * been started to being processed, this method has no more effect on that element. Command chains are always
+     * executed in a row. Even if the head of the command chain has been replaced, if the processing has been
+     * started, the chain will be processed completely.
+     *
+     * @param item A queue item, cannot be null.
+     */
+    private void add(QueueItem item) {
+        long now = System.currentTimeMillis();
+        for (QueueItem i = item; i != null; i = i.next) {
+            i.queued_time = now;
+        }
+
+        synchronized (queue) {
+            if (item.unique_command_id == NO_CATEGORY) {
+                if (non_categorised >= MAX_NON_CATEGORISED) {
+                    logger.debug("Send queue for bridge {} is full, dropping command", packet.getAddress());
+                    return;
                 }
-            } catch (IllegalStateException e) {
-                // Ignore threading errors
-                logger.error("{}", e.getLocalizedMessage());
-            } catch (NoSuchElementException e) {
-                // The element might have been processed already while iterate.
-                // Ignore NoSuchElementException here.
+                ++non_categorised;
+                queue.put(item, item);
+            } else {
+                // Remove first, so that the new item is moved to the end of the queue
+                queue.remove(item.unique_command_id);
+                queue.put(item.unique_command_id, item);
             }
+            queue.notifyAll();
         }
     }
 
@@ -202,13 +280,12 @@ public class QueuedSend implements Runnable {
      * @param data Data to be send
      */
     public void queueRepeatable(int unique_command_id, byte[]... data) {
-        remove_from_queue(unique_command_id);
         QueueItem item = QueueItem.createRepeatable(unique_command_id, data[0]);
         QueueItem next = item;
         for (int i = 1; i < data.length; ++i) {
             next = next.addRepeatable(data[i]);
         }
-        queue.offer(item);
+        add(item);
     }
 
     /**
@@ -220,10 +297,7 @@ public class QueuedSend implements Runnable {
      * @param item A queue item, cannot be null.
      */
     public void queue(QueueItem item) {
-        if (item.unique_command_id != NO_CATEGORY) {
-            remove_from_queue(item.unique_command_id);
-        }
-        queue.offer(item);
+        add(item);
     }
 
     public InetAddress getAddr() {
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.nest.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.nest.internal.data.Structure;
+import org.openhab.binding.nest.internal.data.Thermostat;
+
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests cases for {@link NestDataCache}.
+ *
+ * @author agent - Initial contribution
+ */
+public class NestDataCacheTest {
+
+    private static final String DATA = "{\"devices\":{\"thermostats\":{"
+            + "\"therm1\":{\"device_id\":\"therm1\",\"name\":\"Living Room\",\"hvac_mode\":\"heat\"},"
+            + "\"therm2\":{\"device_id\":\"therm2\",\"name\":\"Bedroom\",\"hvac_mode\":\"off\"}}},"
+            + "\"structures\":{\"struct1\":{\"structure_id\":\"struct1\",\"name\":\"Home\",\"away\":\"home\"}}}";
+
+    private final JsonParser parser = new JsonParser();
+    private NestDataCache cache;
+
+    @Before
+    public void setUp() {
+        cache = new NestDataCache(new GsonBuilder().create());
+        cache.put("/", parser.parse(DATA));
+    }
+
+    @Test
+    public void allItemsChangeOnFirstUpdate() {
+        assertEquals(3, cache.getChangedItems("/").size());
+        assertTrue(cache.getChangedItems("/").isEmpty());
+    }
+
+    @Test
+    public void unchangedDataIsNotReturned() {
+        cache.getChangedItems("/");
+        cache.put("/", parser.parse(DATA));
+        assertTrue(cache.getChangedItems("/").isEmpty());
+    }
+
+    @Test
+    public void patchReturnsOnlyTheChangedDevice() {
+        cache.getChangedItems("/");
+        cache.patch("/devices/thermostats/therm2", parser.parse("{\"hvac_mode\":\"heat\"}"));
+
+        List<Object> items = cache.getChangedItems("/devices/thermostats/therm2");
+        assertEquals(1, items.size());
+        Thermostat thermostat = (Thermostat) items.get(0);
+        assertEquals("therm2", thermostat.getDeviceId());
+        assertEquals("heat", thermostat.getMode());
+        assertEquals("Bedroom", thermostat.getName());
+    }
+
+    @Test
+    public void putBelowAnItemReturnsTheItem() {
+        cache.getChangedItems("/");
+        cache.put("/structures/struct1/away", parser.parse("\"away\""));
+
+        assertTrue(cache.getChangedItems("/devices").isEmpty());
+        List<Object> items = cache.getChangedItems("/");
+        assertEquals(1, items.size());
+        assertEquals("struct1", ((Structure) items.get(0)).getStructureId());
+    }
+
+    @Test
+    public void putNullRemovesTheItem() {
+        cache.put("/devices/thermostats/therm1", null);
+
+        assertNull(cache.getItem("therm1"));
+        assertNotNull(cache.getItem("therm2"));
+        assertEquals(2, cache.getItems().size());
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.nest.internal;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.gson.JsonElement;
+
+/**
+ * Reads the event stream of a {@link NestStandIn} with the {@link NestStreamingClient} and measures how long it takes
+ * until an event reaches the listener.
+ *
+ * @author agent - Initial contribution
+ */
+public class NestEventStreamTest {
+
+    private static final long TIMEOUT_MS = 5000;
+
+    private NestStandIn nest;
+    private HttpClient httpClient;
+    private RecordingListener listener;
+    private NestStreamingClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        nest = new NestStandIn();
+        httpClient = new HttpClient();
+        httpClient.start();
+        listener = new RecordingListener();
+
+        client = new NestStreamingClient(httpClient, nest.getUrl(), listener);
+        client.start();
+
+        assertTrue("No event stream requested", nest.awaitStream(TIMEOUT_MS));
+        assertEquals("connected", listener.next());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.stop();
+        httpClient.stop();
+        nest.close();
+    }
+
+    @Test
+    public void eventStreamIsRequested() {
+        assertEquals("text/event-stream", nest.getAcceptHeader());
+        assertTrue(client.isConnected());
+    }
+
+    @Test
+    public void eventsArePassedOnWithoutDelay() throws Exception {
+        nest.send("put", "{\"path\":\"/\",\"data\":{\"devices\":{}}}");
+        assertEquals("put / {\"devices\":{}}", listener.next());
+
+        long maximumMillis = 0;
+        for (int temperature = 10; temperature < 30; temperature++) {
+            long start = System.nanoTime();
+            nest.send("patch", "{\"path\":\"/devices/thermostats/therm1\",\"data\":{\"target_temperature_c\":"
+                    + temperature + "}}");
+
+            assertEquals("patch /devices/thermostats/therm1 {\"target_temperature_c\":" + temperature + "}",
+                    listener.next());
+            maximumMillis = Math.max(maximumMillis, (System.nanoTime() - start) / 1000000);
+        }
+
+        assertTrue("Maximum event delay " + maximumMillis + " ms", maximumMillis < 200);
+    }
+
+    @Test
+    public void keepAliveDoesNotReachTheListener() throws Exception {
+        nest.send("keep-alive", "null");
+        nest.send("put", "{\"path\":\"/structures\",\"data\":{}}");
+
+        assertEquals("put /structures {}", listener.next());
+    }
+
+    @Test
+    public void revokedAccessTokenStopsTheClient() throws Exception {
+        nest.send("auth_revoked", "\"token\"");
+
+        assertEquals("auth_revoked", listener.next());
+        assertEquals("disconnected Received auth_revoked event", listener.next());
+        assertFalse(client.isRunning());
+        assertFalse(client.isConnected());
+        assertEquals(1, nest.getRequests());
+    }
+
+    @Test
+    public void closedStreamIsOpenedAgainLater() throws Exception {
+        nest.closeStreams();
+
+        assertEquals("disconnected End of stream", listener.next());
+        assertTrue(client.isRunning());
+        assertFalse(client.isConnected());
+    }
+
+    /**
+     * Records the calls of the client, in the order they were made.
+     */
+    private static class RecordingListener implements NestStreamingListener {
+        private final BlockingQueue<String> calls = new LinkedBlockingQueue<>();
+
+        String next() throws InterruptedException {
+            String call = calls.poll(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            assertNotNull("No call of the listener", call);
+            return call;
+        }
+
+        @Override
+        public void onConnected() {
+            calls.add("connected");
+        }
+
+        @Override
+        public void onDisconnected(String reason) {
+            calls.add("disconnected " + reason);
+        }
+
+        @Override
+        public void onPut(String path, JsonElement data) {
+            calls.add("put " + path + " " + data);
+        }
+
+        @Override
+        public void onPatch(String path, JsonElement data) {
+            calls.add("patch " + path + " " + data);
+        }
+
+        @Override
+        public void onAuthRevoked() {
+            calls.add("auth_revoked");
+        }
+    }
+}
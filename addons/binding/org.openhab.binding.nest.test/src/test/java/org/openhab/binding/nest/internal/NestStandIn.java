@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.nest.internal;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stands in for the streaming Nest API on a local port. Each request is answered with an event stream that stays
+ * open until the stand-in closes it, the events are written to all open streams.
+ *
+ * @author agent - Initial contribution
+ */
+public class NestStandIn {
+
+    private final ServerSocket serverSocket;
+    private final List<Socket> streams = new CopyOnWriteArrayList<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile String acceptHeader;
+
+    public NestStandIn() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "Nest stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + serverSocket.getLocalPort() + "/?auth=token";
+    }
+
+    /**
+     * @return the number of requests for the event stream
+     */
+    public int getRequests() {
+        return requests.get();
+    }
+
+    /**
+     * @return the value of the Accept header of the last request
+     */
+    public String getAcceptHeader() {
+        return acceptHeader;
+    }
+
+    /**
+     * Waits until an event stream is open.
+     */
+    public boolean awaitStream(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (streams.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        return !streams.isEmpty();
+    }
+
+    /**
+     * Writes an event to all open streams.
+     */
+    public void send(String event, String data) throws IOException {
+        byte[] message = ("event: " + event + "\ndata: " + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+        for (Socket stream : streams) {
+            OutputStream out = stream.getOutputStream();
+            out.write(message);
+            out.flush();
+        }
+    }
+
+    /**
+     * Closes the open streams, like Nest does from time to time.
+     */
+    public void closeStreams() {
+        for (Socket stream : streams) {
+            closeQuietly(stream);
+        }
+        streams.clear();
+    }
+
+    public void close() {
+        closeStreams();
+        try {
+            serverSocket.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket connection = serverSocket.accept();
+                connection.setTcpNoDelay(true);
+                openStream(connection);
+            } catch (IOException e) {
+                // closed
+            }
+        }
+    }
+
+    private void openStream(Socket connection) throws IOException {
+        InputStream in = connection.getInputStream();
+        String line;
+        while ((line = readLine(in)) != null && !line.isEmpty()) {
+            int colon = line.indexOf(':');
+            if (colon > 0 && "Accept".equalsIgnoreCase(line.substring(0, colon).trim())) {
+                acceptHeader = line.substring(colon + 1).trim();
+            }
+        }
+        requests.incrementAndGet();
+        OutputStream out = connection.getOutputStream();
+        out.write(("HTTP/1.1 200 OK\r\nContent-Type: text/event-stream; charset=utf-8\r\nCache-Control: no-cache\r\n"
+                + "Connection: close\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+        out.flush();
+        streams.add(connection);
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                line.append((char) c);
+            }
+        }
+        return c == -1 && line.length() == 0 ? null : line.toString();
+    }
+
+    private static void closeQuietly(Socket connection) {
+        try {
+            connection.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.nest.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+import static org.mockito.MockitoAnnotations.initMocks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+
+import com.google.gson.JsonElement;
+
+/**
+ * Tests the parsing of the server-sent events by the {@link NestStreamingClient}.
+ *
+ * @author agent - Initial contribution
+ */
+public class NestStreamingClientTest {
+
+    @Mock
+    private NestStreamingListener listener;
+
+    private NestStreamingClient client;
+
+    @Before
+    public void setUp() {
+        initMocks(this);
+        client = new NestStreamingClient(null, "http://localhost/", listener);
+    }
+
+    private String read(String stream) throws IOException {
+        return client.readEvents(new BufferedReader(new StringReader(stream)));
+    }
+
+    @Test
+    public void putEventIsPassedOn() throws IOException {
+        read("event: put\ndata: {\"path\":\"/\",\"data\":{\"devices\":{}}}\n\n");
+
+        ArgumentCaptor<JsonElement> data = ArgumentCaptor.forClass(JsonElement.class);
+        verify(listener).onPut(eq("/"), data.capture());
+        assertEquals("{\"devices\":{}}", data.getValue().toString());
+    }
+
+    @Test
+    public void patchEventIsPassedOn() throws IOException {
+        read("event: patch\ndata: {\"path\":\"/devices/thermostats/therm1\",\"data\":{\"hvac_mode\":\"off\"}}\n\n");
+
+        verify(listener).onPatch(eq("/devices/thermostats/therm1"), any(JsonElement.class));
+    }
+
+    @Test
+    public void keepAliveIsIgnored() throws IOException {
+        String reason = read("event: keep-alive\ndata: null\n\n");
+
+        assertEquals("End of stream", reason);
+        verifyZeroInteractions(listener);
+    }
+
+    @Test
+    public void authRevokedClosesTheStream() throws IOException {
+        String reason = read("event: auth_revoked\ndata: \"token\"\n\n"
+                + "event: put\ndata: {\"path\":\"/\",\"data\":{}}\n\n");
+
+        assertEquals("Received auth_revoked event", reason);
+        verify(listener).onAuthRevoked();
+        verify(listener, never()).onPut(anyString(), any(JsonElement.class));
+    }
+
+    @Test
+    public void invalidEventIsSkipped() throws IOException {
+        read("event: put\ndata: not json\n\nevent: put\ndata: {\"path\":\"/structures\",\"data\":{}}\n\n");
+
+        verify(listener).onPut(eq("/structures"), any(JsonElement.class));
+    }
+}
@@ -24,4 +24,6 @@ public class NestBridgeConfiguration {
     public String accessToken;
     /** How often to refresh data from nest. */
     public int refreshInterval;
+    /** Receive the data from the event stream of nest, polling is only used while it is not connected. */
+    public boolean streaming = true;
 }
@@ -8,10 +8,10 @@
  */
 package org.openhab.binding.nest.handler;
 
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -27,54 +27,69 @@ import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.openhab.binding.nest.NestBindingConstants;
 import org.openhab.binding.nest.config.NestBridgeConfiguration;
 import org.openhab.binding.nest.discovery.NestDiscoveryService;
 import org.openhab.binding.nest.internal.NestAccessToken;
+import org.openhab.binding.nest.internal.NestDataCache;
 import org.openhab.binding.nest.internal.NestDeviceAddedListener;
+import org.openhab.binding.nest.internal.NestStreamingClient;
+import org.openhab.binding.nest.internal.NestStreamingListener;
 import org.openhab.binding.nest.internal.NestUpdateRequest;
 import org.openhab.binding.nest.internal.data.Camera;
-import org.openhab.binding.nest.internal.data.NestDevices;
 import org.openhab.binding.nest.internal.data.SmokeDetector;
 import org.openhab.binding.nest.internal.data.Structure;
 import org.openhab.binding.nest.internal.data.Thermostat;
-import org.openhab.binding.nest.internal.data.TopLevelData;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 
 /**
  * This bridge handler connects to nest and handles all the api requests. It pulls down the
  * updated data, polls the system and does all the co-ordination with the other handlers
  * to get the data updated to the correct things.
  *
+ * When streaming is enabled, the data is received from the event stream of the Nest API after
+ * the first poll. Polling is only used while the event stream is not connected.
+ *
  * @author David Bennett - initial contribution
  */
-public class NestBridgeHandler extends BaseBridgeHandler {
+public class NestBridgeHandler extends BaseBridgeHandler implements NestStreamingListener {
 
     private Logger logger = LoggerFactory.getLogger(NestBridgeHandler.class);
 
-    private List<NestDeviceAddedListener> listeners = new ArrayList<NestDeviceAddedListener>();
+    private List<NestDeviceAddedListener> listeners = new CopyOnWriteArrayList<NestDeviceAddedListener>();
 
-    // Will refresh the data each time it runs.
+    // Will refresh the data each time it runs, unless the event stream is connected.
     private Runnable pollingRunnable = new Runnable() {
         @Override
         public void run() {
-            refreshData();
+            NestStreamingClient client = streamingClient;
+            if (client == null || !client.isConnected()) {
+                refreshData();
+            }
         }
     };
 
     private ScheduledFuture<?> pollingJob;
     private NestAccessToken accessToken;
-    private List<NestUpdateRequest> nestUpdateRequests = new ArrayList<>();
-    private TopLevelData lastDataQuery;
+    private List<NestUpdateRequest> nestUpdateRequests = new CopyOnWriteArrayList<>();
     private HttpClient httpClient;
+    private NestStreamingClient streamingClient;
+
+    /** The last known data, shared by polling and streaming */
+    private final NestDataCache dataCache;
+    private final JsonParser parser = new JsonParser();
 
-    private final GsonBuilder builder;
+    /** The handlers of the things of this bridge, by device or structure id */
+    private final Map<String, ThingHandler> handlersById = new ConcurrentHashMap<>();
 
     /**
      * Creates the bridge handler to connect to nest.
@@ -83,7 +98,7 @@ public class NestBridgeHandler extends BaseBridgeHandler {
      */
     public NestBridgeHandler(Bridge bridge) {
         super(bridge);
-        builder = new GsonBuilder().setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        dataCache = new NestDataCache(new GsonBuilder().setDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'").create());
     }
 
     /**
@@ -97,6 +112,11 @@ public class NestBridgeHandler extends BaseBridgeHandler {
         SslContextFactory sslContextFactory = new SslContextFactory();
         httpClient = new HttpClient(sslContextFactory);
         httpClient.setConnectTimeout(30000);
+        try {
+            httpClient.start();
+        } catch (Exception e) {
+            logger.error("Could not start the http client", e);
+        }
 
         NestBridgeConfiguration config = getConfigAs(NestBridgeConfiguration.class);
         startAutomaticRefresh(config.refreshInterval);
@@ -120,6 +140,8 @@ public class NestBridgeHandler extends BaseBridgeHandler {
 
         updateAccessToken();
 
+        // the next poll starts the event stream again with the new configuration
+        stopStreaming();
         stopAutomaticRefresh();
         startAutomaticRefresh(getConfigAs(NestBridgeConfiguration.class).refreshInterval);
     }
@@ -131,12 +153,34 @@ public class NestBridgeHandler extends BaseBridgeHandler {
     public void dispose() {
         logger.debug("Nest bridge disposed");
         stopAutomaticRefresh();
+        stopStreaming();
+        try {
+            httpClient.stop();
+        } catch (Exception e) {
+            logger.debug("Could not stop the http client", e);
+        }
         this.accessToken = null;
-        this.lastDataQuery = null;
+        this.dataCache.clear();
         this.pollingJob = null;
         this.pollingRunnable = null;
     }
 
+    @Override
+    public void childHandlerInitialized(ThingHandler childHandler, Thing childThing) {
+        String id = childThing.getUID().getId();
+        handlersById.put(id, childHandler);
+        // The data of the thing may not change for a long time, so pass on what is already known.
+        Object item = dataCache.getItem(id);
+        if (item != null) {
+            updateItem(item);
+        }
+    }
+
+    @Override
+    public void childHandlerDisposed(ThingHandler childHandler, Thing childThing) {
+        handlersById.remove(childThing.getUID().getId(), childHandler);
+    }
+
     /**
      * Handles an incoming command update
      */
@@ -157,20 +201,19 @@ public class NestBridgeHandler extends BaseBridgeHandler {
         try {
             String uri = buildQueryString(config);
             String data = jsonFromGetUrl(uri, config);
-            logger.error("Data from nest {}", data);
+            logger.trace("Data from nest {}", data);
             updateStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE, "Received update from nest");
             // Now convert the incoming data into something more useful.
-            Gson gson = builder.create();
-            TopLevelData newData = gson.fromJson(data, TopLevelData.class);
-            if (newData != null) {
-                lastDataQuery = newData;
-            } else {
-                newData = lastDataQuery;
+            JsonElement newData = parser.parse(data);
+            if (newData != null && newData.isJsonObject()) {
+                dataCache.put("/", newData);
             }
             // Turn this new data into things and stuff.
-            compareThings(newData.getDevices());
-            compareStructure(newData.getStructures().values());
-        } catch (InterruptedException | TimeoutException | ExecutionException e) {
+            updateItems(dataCache.getChangedItems("/"));
+            if (config.streaming) {
+                startStreaming(uri);
+            }
+        } catch (InterruptedException | TimeoutException | ExecutionException | JsonParseException e) {
             logger.error("Error parsing data", e);
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
                     "Error parsing data " + e.getMessage());
@@ -178,76 +221,55 @@ public class NestBridgeHandler extends BaseBridgeHandler {
 
     }
 
-    private Thing getDevice(String deviceId, List<Thing> things) {
-        for (Thing thing : things) {
-            String thingDeviceId = thing.getUID().getId();
-            if (thingDeviceId.equals(deviceId)) {
-                return thing;
-            }
+    private void updateItems(List<Object> items) {
+        for (Object item : items) {
+            updateItem(item);
         }
-        return null;
     }
 
-    private void compareThings(NestDevices devices) {
-        Bridge bridge = getThing();
-        List<Thing> things = bridge.getThings();
-
-        for (Thermostat thermostat : devices.getThermostats().values()) {
-            Thing thingThermostat = getDevice(thermostat.getDeviceId(), things);
-            if (thingThermostat != null) {
-                NestThermostatHandler handler = (NestThermostatHandler) thingThermostat.getHandler();
-                if (handler != null) {
-                    handler.updateThermostat(thermostat);
-                }
-            } else {
+    /**
+     * Passes a device or structure to the handler of its thing, or to the discovery listeners if there is none.
+     */
+    private void updateItem(Object item) {
+        if (item instanceof Thermostat) {
+            Thermostat thermostat = (Thermostat) item;
+            ThingHandler handler = handlersById.get(thermostat.getDeviceId());
+            if (handler instanceof NestThermostatHandler) {
+                ((NestThermostatHandler) handler).updateThermostat(thermostat);
+            } else if (handler == null) {
                 for (NestDeviceAddedListener listener : listeners) {
                     logger.debug("Found new thermostat {}", thermostat.getDeviceId());
                     listener.onThermostatAdded(thermostat);
                 }
             }
-        }
-        for (Camera camera : devices.getCameras().values()) {
-            Thing thingCamera = getDevice(camera.getDeviceId(), things);
-            if (thingCamera != null) {
-                NestCameraHandler handler = (NestCameraHandler) thingCamera.getHandler();
-                if (handler != null) {
-                    handler.updateCamera(camera);
-                }
-            } else {
+        } else if (item instanceof Camera) {
+            Camera camera = (Camera) item;
+            ThingHandler handler = handlersById.get(camera.getDeviceId());
+            if (handler instanceof NestCameraHandler) {
+                ((NestCameraHandler) handler).updateCamera(camera);
+            } else if (handler == null) {
                 for (NestDeviceAddedListener listener : listeners) {
                     logger.debug("Found new camera. {}", camera.getDeviceId());
                     listener.onCameraAdded(camera);
                 }
             }
-        }
-        for (SmokeDetector smokeDetector : devices.getSmokeDetectors().values()) {
-            Thing thingSmokeDetector = getDevice(smokeDetector.getDeviceId(), things);
-            if (thingSmokeDetector != null) {
-                NestSmokeDetectorHandler handler = (NestSmokeDetectorHandler) thingSmokeDetector.getHandler();
-                if (handler != null) {
-                    handler.updateSmokeDetector(smokeDetector);
-                }
-            } else {
+        } else if (item instanceof SmokeDetector) {
+            SmokeDetector smokeDetector = (SmokeDetector) item;
+            ThingHandler handler = handlersById.get(smokeDetector.getDeviceId());
+            if (handler instanceof NestSmokeDetectorHandler) {
+                ((NestSmokeDetectorHandler) handler).updateSmokeDetector(smokeDetector);
+            } else if (handler == null) {
                 for (NestDeviceAddedListener listener : listeners) {
                     logger.debug("Found new smoke detector. {}", smokeDetector.getDeviceId());
                     listener.onSmokeDetectorAdded(smokeDetector);
                 }
             }
-        }
-    }
-
-    private void compareStructure(Collection<Structure> structures) {
-        Bridge bridge = getThing();
-        List<Thing> things = bridge.getThings();
-
-        for (Structure struct : structures) {
-            Thing thingStructure = getDevice(struct.getStructureId(), things);
-            if (thingStructure != null) {
-                NestStructureHandler handler = (NestStructureHandler) thingStructure.getHandler();
-                if (handler != null) {
-                    handler.updateStructure(struct);
-                }
-            } else {
+        } else if (item instanceof Structure) {
+            Structure struct = (Structure) item;
+            ThingHandler handler = handlersById.get(struct.getStructureId());
+            if (handler instanceof NestStructureHandler) {
+                ((NestStructureHandler) handler).updateStructure(struct);
+            } else if (handler == null) {
                 for (NestDeviceAddedListener listener : listeners) {
                     logger.debug("Found new structure {}", struct.getStructureId());
                     listener.onStructureAdded(struct);
@@ -256,6 +278,52 @@ public class NestBridgeHandler extends BaseBridgeHandler {
         }
     }
 
+    private synchronized void startStreaming(String uri) {
+        if (streamingClient == null) {
+            logger.debug("Starting the Nest event stream");
+            streamingClient = new NestStreamingClient(httpClient, uri, this);
+            streamingClient.start();
+        }
+    }
+
+    private synchronized void stopStreaming() {
+        if (streamingClient != null) {
+            streamingClient.stop();
+            streamingClient = null;
+        }
+    }
+
+    @Override
+    public void onConnected() {
+        logger.debug("Nest event stream connected");
+    }
+
+    @Override
+    public void onDisconnected(String reason) {
+        logger.debug("Nest event stream disconnected, polling until it is connected again: {}", reason);
+    }
+
+    @Override
+    public void onPut(String path, JsonElement data) {
+        dataCache.put(path, data);
+        updateStatus(ThingStatus.ONLINE, ThingStatusDetail.NONE, "Received update from nest");
+        updateItems(dataCache.getChangedItems(path));
+    }
+
+    @Override
+    public void onPatch(String path, JsonElement data) {
+        dataCache.patch(path, data);
+        updateItems(dataCache.getChangedItems(path));
+    }
+
+    @Override
+    public void onAuthRevoked() {
+        logger.warn("The Nest access token was revoked");
+        // the event stream has stopped, polling and streaming start again with a new access token
+        stopAutomaticRefresh();
+        updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR, "Access token revoked");
+    }
+
     private String buildQueryString(NestBridgeConfiguration config)
             throws InterruptedException, TimeoutException, ExecutionException {
         logger.debug("Making url with access token {}", config.accessToken);
@@ -329,6 +397,11 @@ public class NestBridgeHandler extends BaseBridgeHandler {
      * Called to start the discovery scan. Forces a data refresh.
      */
     public void startDiscoveryScan() {
-        refreshData();
+        NestStreamingClient client = streamingClient;
+        if (client != null && client.isConnected()) {
+            updateItems(dataCache.getItems());
+        } else {
+            refreshData();
+        }
     }
 }
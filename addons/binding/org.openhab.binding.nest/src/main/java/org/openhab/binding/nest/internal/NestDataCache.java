@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.nest.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.openhab.binding.nest.internal.data.Camera;
+import org.openhab.binding.nest.internal.data.SmokeDetector;
+import org.openhab.binding.nest.internal.data.Structure;
+import org.openhab.binding.nest.internal.data.Thermostat;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Keeps the last known data of the Nest API as a JSON tree. The tree is updated with complete documents from polling
+ * or with the <code>put</code> and <code>patch</code> events of the streaming API. Afterwards only the thermostats,
+ * cameras, smoke detectors and structures whose JSON changed are converted into data objects, so that only the
+ * affected handlers need to be updated.
+ *
+ * @author agent - Initial contribution
+ */
+public class NestDataCache {
+
+    private static final String DEVICES = "devices";
+    private static final String STRUCTURES = "structures";
+
+    /** The data classes of the device types below /devices */
+    private static final Map<String, Class<?>> DEVICE_CLASSES = new LinkedHashMap<>();
+    static {
+        DEVICE_CLASSES.put("thermostats", Thermostat.class);
+        DEVICE_CLASSES.put("cameras", Camera.class);
+        DEVICE_CLASSES.put("smoke_co_alarms", SmokeDetector.class);
+    }
+
+    private final Gson gson;
+    private JsonObject root = new JsonObject();
+
+    /** The JSON of each device and structure when it was last returned as changed, by id */
+    private final Map<String, JsonElement> publishedItems = new HashMap<>();
+
+    public NestDataCache(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Replaces the data at the given path.
+     *
+     * @param path The path, e.g. "/" or "/devices/thermostats/id"
+     * @param data The new data, null to remove the data at the path
+     */
+    public synchronized void put(String path, JsonElement data) {
+        String[] segments = split(path);
+        if (segments.length == 0) {
+            root = data != null && data.isJsonObject() ? data.getAsJsonObject() : new JsonObject();
+            return;
+        }
+        JsonObject parent = getObject(segments, segments.length - 1);
+        String name = segments[segments.length - 1];
+        if (data == null || data.isJsonNull()) {
+            parent.remove(name);
+        } else {
+            parent.add(name, data);
+        }
+    }
+
+    /**
+     * Replaces the children of the data at the given path which are contained in the patch.
+     *
+     * @param path The path, e.g. "/devices/thermostats/id"
+     * @param data The children to replace, a null child removes the child
+     */
+    public synchronized void patch(String path, JsonElement data) {
+        if (data == null || !data.isJsonObject()) {
+            put(path, data);
+            return;
+        }
+        String[] segments = split(path);
+        JsonObject object = getObject(segments, segments.length);
+        for (Entry<String, JsonElement> child : data.getAsJsonObject().entrySet()) {
+            if (child.getValue() == null || child.getValue().isJsonNull()) {
+                object.remove(child.getKey());
+            } else {
+                object.add(child.getKey(), child.getValue());
+            }
+        }
+    }
+
+    /**
+     * Returns the devices and structures at or below the given path which changed since they were last returned.
+     *
+     * @param path The path which was updated, "/" to check everything
+     * @return {@link Thermostat}, {@link Camera}, {@link SmokeDetector} and {@link Structure} objects
+     */
+    public synchronized List<Object> getChangedItems(String path) {
+        String[] segments = split(path);
+        List<Object> items = new ArrayList<>();
+        JsonObject devices = getChild(root, DEVICES);
+        for (Entry<String, Class<?>> deviceClass : DEVICE_CLASSES.entrySet()) {
+            if (isInScope(segments, DEVICES, deviceClass.getKey())) {
+                addChangedItems(segments, items, getChild(devices, deviceClass.getKey()), deviceClass.getValue(),
+                        DEVICES, deviceClass.getKey());
+            }
+        }
+        if (isInScope(segments, STRUCTURES)) {
+            addChangedItems(segments, items, getChild(root, STRUCTURES), Structure.class, STRUCTURES);
+        }
+        return items;
+    }
+
+    /**
+     * @return All known devices and structures
+     */
+    public synchronized List<Object> getItems() {
+        List<Object> items = new ArrayList<>();
+        JsonObject devices = getChild(root, DEVICES);
+        for (Entry<String, Class<?>> deviceClass : DEVICE_CLASSES.entrySet()) {
+            addItems(items, getChild(devices, deviceClass.getKey()), deviceClass.getValue());
+        }
+        addItems(items, getChild(root, STRUCTURES), Structure.class);
+        return items;
+    }
+
+    /**
+     * @return The device or structure with the given id, null if it is not known
+     */
+    public synchronized Object getItem(String id) {
+        JsonObject devices = getChild(root, DEVICES);
+        for (Entry<String, Class<?>> deviceClass : DEVICE_CLASSES.entrySet()) {
+            JsonObject device = getChild(getChild(devices, deviceClass.getKey()), id);
+            if (device != null) {
+                return gson.fromJson(device, deviceClass.getValue());
+            }
+        }
+        JsonObject structure = getChild(getChild(root, STRUCTURES), id);
+        return structure != null ? gson.fromJson(structure, Structure.class) : null;
+    }
+
+    /**
+     * Forgets all data.
+     */
+    public synchronized void clear() {
+        root = new JsonObject();
+        publishedItems.clear();
+    }
+
+    private void addChangedItems(String[] segments, List<Object> items, JsonObject parent, Class<?> itemClass,
+            String... parentSegments) {
+        if (parent == null) {
+            return;
+        }
+        for (Entry<String, JsonElement> item : parent.entrySet()) {
+            String id = item.getKey();
+            if (segments.length > parentSegments.length && !segments[parentSegments.length].equals(id)) {
+                continue;
+            }
+            JsonElement json = item.getValue();
+            if (!json.equals(publishedItems.get(id))) {
+                publishedItems.put(id, json);
+                items.add(gson.fromJson(json, itemClass));
+            }
+        }
+    }
+
+    private void addItems(List<Object> items, JsonObject parent, Class<?> itemClass) {
+        if (parent != null) {
+            for (Entry<String, JsonElement> item : parent.entrySet()) {
+                items.add(gson.fromJson(item.getValue(), itemClass));
+            }
+        }
+    }
+
+    /**
+     * @return true if an update of the path can affect the data at the item path
+     */
+    private static boolean isInScope(String[] segments, String... itemSegments) {
+        for (int i = 0; i < Math.min(segments.length, itemSegments.length); i++) {
+            if (!segments[i].equals(itemSegments[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the object at the first segments of the path for modification, missing objects are created. The objects
+     * along the path are replaced by copies, so the objects in {@link #publishedItems} are never modified.
+     */
+    private JsonObject getObject(String[] segments, int length) {
+        root = copy(root);
+        JsonObject object = root;
+        for (int i = 0; i < length; i++) {
+            JsonObject child = getChild(object, segments[i]);
+            child = child != null ? copy(child) : new JsonObject();
+            object.add(segments[i], child);
+            object = child;
+        }
+        return object;
+    }
+
+    /**
+     * @return A shallow copy of the object
+     */
+    private static JsonObject copy(JsonObject object) {
+        JsonObject copy = new JsonObject();
+        for (Entry<String, JsonElement> child : object.entrySet()) {
+            copy.add(child.getKey(), child.getValue());
+        }
+        return copy;
+    }
+
+    private static JsonObject getChild(JsonObject object, String name) {
+        if (object == null) {
+            return null;
+        }
+        JsonElement child = object.get(name);
+        return child != null && child.isJsonObject() ? child.getAsJsonObject() : null;
+    }
+
+    private static String[] split(String path) {
+        List<String> segments = new ArrayList<>();
+        for (String segment : path.split("/")) {
+            if (!segment.isEmpty()) {
+                segments.add(segment);
+            }
+        }
+        return segments.toArray(new String[segments.size()]);
+    }
+}
@@ -0,0 +1,238 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.nest.internal;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.util.InputStreamResponseListener;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+/**
+ * Keeps a connection to the streaming (server-sent events) Nest API and passes the received events to a
+ * {@link NestStreamingListener}. The stream is read by its own thread and re-established after a delay when it is
+ * closed, unless the access token has been revoked.
+ *
+ * @author agent - Initial contribution
+ */
+public class NestStreamingClient {
+
+    private static final String EVENT_STREAM = "text/event-stream";
+    private static final int CONNECT_TIMEOUT = 30;
+    /** Nest sends a keep-alive event every 30 seconds */
+    private static final int IDLE_TIMEOUT = 90;
+    private static final int RECONNECT_DELAY = 30;
+
+    private final Logger logger = LoggerFactory.getLogger(NestStreamingClient.class);
+
+    private final HttpClient httpClient;
+    private final String url;
+    private final NestStreamingListener listener;
+    private final JsonParser parser = new JsonParser();
+
+    private volatile boolean running;
+    private volatile boolean connected;
+    private volatile Request request;
+    private Thread thread;
+
+    /**
+     * @param httpClient The started HTTP client
+     * @param url The URL of the Nest API including the access token
+     * @param listener The listener for the events
+     */
+    public NestStreamingClient(HttpClient httpClient, String url, NestStreamingListener listener) {
+        this.httpClient = httpClient;
+        this.url = url;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts the thread that reads the event stream.
+     */
+    public synchronized void start() {
+        if (thread == null) {
+            running = true;
+            thread = new Thread(this::run, "ESH-nest-streaming");
+            thread.setDaemon(true);
+            thread.start();
+        }
+    }
+
+    /**
+     * Closes the event stream and stops the thread.
+     */
+    public synchronized void stop() {
+        running = false;
+        Request currentRequest = request;
+        if (currentRequest != null) {
+            currentRequest.abort(new IOException("Streaming stopped"));
+        }
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    /**
+     * @return false once the client has been stopped, or the access token has been revoked
+     */
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * @return true while the event stream is established
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    private void run() {
+        while (running) {
+            String reason;
+            try {
+                reason = readStream();
+            } catch (IOException | ExecutionException | TimeoutException e) {
+                reason = e.getMessage();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                reason = "Interrupted";
+            }
+            request = null;
+            if (connected) {
+                connected = false;
+                listener.onDisconnected(reason);
+            }
+            if (running) {
+                logger.debug("Nest event stream closed: {}, reconnecting in {} s", reason, RECONNECT_DELAY);
+                try {
+                    TimeUnit.SECONDS.sleep(RECONNECT_DELAY);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Connects to the event stream and reads it until it is closed.
+     *
+     * @return Why the stream was closed
+     */
+    private String readStream() throws IOException, InterruptedException, ExecutionException, TimeoutException {
+        InputStreamResponseListener responseListener = new InputStreamResponseListener();
+        Request newRequest = httpClient.newRequest(url).header(HttpHeader.ACCEPT, EVENT_STREAM)
+                .idleTimeout(IDLE_TIMEOUT, TimeUnit.SECONDS);
+        request = newRequest;
+        newRequest.send(responseListener);
+        Response response = responseListener.get(CONNECT_TIMEOUT, TimeUnit.SECONDS);
+        if (response.getStatus() != HttpStatus.OK_200) {
+            response.abort(new IOException("Unexpected response"));
+            return "Unexpected response " + response.getStatus();
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(responseListener.getInputStream(), StandardCharsets.UTF_8))) {
+            connected = true;
+            listener.onConnected();
+            return readEvents(reader);
+        }
+    }
+
+    /**
+     * Reads server-sent events until the end of the stream or an event that closes the stream.
+     *
+     * @return Why the stream was closed
+     */
+    String readEvents(BufferedReader reader) throws IOException {
+        String event = null;
+        StringBuilder data = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (event != null && !handleEvent(event, data.toString())) {
+                    return "Received " + event + " event";
+                }
+                event = null;
+                data.setLength(0);
+            } else if (line.startsWith("event:")) {
+                event = fieldValue(line, "event:");
+            } else if (line.startsWith("data:")) {
+                if (data.length() > 0) {
+                    data.append('\n');
+                }
+                data.append(fieldValue(line, "data:"));
+            }
+            // other fields and comments are not used by the Nest API
+        }
+        return "End of stream";
+    }
+
+    /**
+     * @return false if the stream has to be closed
+     */
+    private boolean handleEvent(String event, String data) {
+        switch (event) {
+            case "put":
+            case "patch":
+                try {
+                    JsonObject message = parser.parse(data).getAsJsonObject();
+                    String path = message.get("path").getAsString();
+                    JsonElement value = message.get("data");
+                    if ("put".equals(event)) {
+                        listener.onPut(path, value);
+                    } else {
+                        listener.onPatch(path, value);
+                    }
+                } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+                    logger.debug("Invalid Nest {} event: {}", event, data);
+                }
+                return true;
+            case "keep-alive":
+                logger.trace("Nest event stream keep-alive");
+                return true;
+            case "auth_revoked":
+                // the stream can not be opened again without a new access token
+                running = false;
+                listener.onAuthRevoked();
+                return false;
+            case "cancel":
+            case "error":
+                logger.debug("Nest event stream {}: {}", event, data);
+                return false;
+            default:
+                logger.debug("Unhandled Nest event {}: {}", event, data);
+                return true;
+        }
+    }
+
+    private static String fieldValue(String line, String field) {
+        int start = field.length();
+        if (line.length() > start && line.charAt(start) == ' ') {
+            start++;
+        }
+        return line.substring(start);
+    }
+}
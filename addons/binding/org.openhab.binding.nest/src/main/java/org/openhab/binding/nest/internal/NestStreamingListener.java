@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2014-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.nest.internal;
+
+import com.google.gson.JsonElement;
+
+/**
+ * Receives the events of the {@link NestStreamingClient}.
+ *
+ * @author agent - Initial contribution
+ */
+public interface NestStreamingListener {
+
+    /**
+     * Called when the event stream is established.
+     */
+    public void onConnected();
+
+    /**
+     * Called when the event stream is closed, it is re-established after a delay unless the access token was revoked.
+     *
+     * @param reason Why the stream was closed
+     */
+    public void onDisconnected(String reason);
+
+    /**
+     * Called when the data at a path is replaced.
+     *
+     * @param path The path of the data, "/" for the complete data
+     * @param data The new data at the path
+     */
+    public void onPut(String path, JsonElement data);
+
+    /**
+     * Called when some children of the data at a path are replaced.
+     *
+     * @param path The path of the data
+     * @param data The children that are replaced
+     */
+    public void onPatch(String path, JsonElement data);
+
+    /**
+     * Called when the access token was revoked, the stream is closed afterwards and not re-established.
+     */
+    public void onAuthRevoked();
+}
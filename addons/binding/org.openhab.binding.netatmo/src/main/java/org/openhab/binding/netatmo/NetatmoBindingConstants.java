@@ -92,6 +92,11 @@ public class NetatmoBindingConstants {
     public static final String PROPERTY_BATTERY_LOW = "batteryLow";
     public static final String PROPERTY_SIGNAL_LEVELS = "signalLevels";
 
+    // Bridge Properties
+    public static final String PROPERTY_API_CALLS = "apiCalls";
+    public static final String PROPERTY_UNCHANGED_RESPONSES = "unchangedResponses";
+    public static final String PROPERTY_HOURLY_QUOTA_REMAINING = "hourlyQuotaRemaining";
+
     // List of all supported physical devices and modules
     public static final Set<ThingTypeUID> SUPPORTED_DEVICE_THING_TYPES_UIDS = ImmutableSet.of(MAIN_THING_TYPE,
             MODULE1_THING_TYPE, MODULE2_THING_TYPE, MODULE3_THING_TYPE, MODULE4_THING_TYPE, PLUG_THING_TYPE,
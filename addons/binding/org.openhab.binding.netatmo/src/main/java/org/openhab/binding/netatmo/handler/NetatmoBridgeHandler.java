@@ -8,16 +8,30 @@
  */
 package org.openhab.binding.netatmo.handler;
 
+import static org.openhab.binding.netatmo.NetatmoBindingConstants.*;
+
 import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.oltu.oauth2.client.request.OAuthClientRequest;
 import org.eclipse.smarthome.core.thing.Bridge;
 import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
+import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.openhab.binding.netatmo.config.NetatmoBridgeConfiguration;
+import org.openhab.binding.netatmo.internal.NADeviceAdapter;
+import org.openhab.binding.netatmo.internal.NAModuleAdapter;
+import org.openhab.binding.netatmo.internal.NAPlugAdapter;
+import org.openhab.binding.netatmo.internal.NAStationAdapter;
+import org.openhab.binding.netatmo.internal.NetatmoApiCounters;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,6 +41,8 @@ import io.swagger.client.api.StationApi;
 import io.swagger.client.api.ThermostatApi;
 import io.swagger.client.auth.OAuth;
 import io.swagger.client.auth.OAuthFlow;
+import io.swagger.client.model.NAMain;
+import io.swagger.client.model.NAPlug;
 import io.swagger.client.model.NAStationDataBody;
 import io.swagger.client.model.NAThermostatDataBody;
 import retrofit.RestAdapter.LogLevel;
@@ -34,8 +50,10 @@ import retrofit.RetrofitError;
 
 /**
  * {@link NetatmoBridgeHandler} is the handler for a Netatmo API and connects it
- * to the framework. The devices and modules uses the
- * {@link NetatmoBridgeHandler} to request informations about their status
+ * to the framework. The bridge requests the data of all stations and thermostats
+ * in one call per API and dispatches it to the devices by equipment id. Netatmo
+ * only publishes new measurements every 10 minutes, so the next request is
+ * scheduled shortly after the next measurement is expected.
  *
  * @author Gaël L'hopital - Initial contribution OH2 version
  *
@@ -48,6 +66,22 @@ public class NetatmoBridgeHandler extends BaseBridgeHandler {
     private ThermostatApi thermostatApi = null;
     private PartnerApi partnerApi = null;
 
+    /** Netatmo devices publish a new measurement every 10 minutes */
+    private static final long MEASUREMENT_INTERVAL = TimeUnit.MINUTES.toMillis(10);
+    /** The time given to Netatmo to make a new measurement available */
+    private static final long PUBLICATION_DELAY = TimeUnit.SECONDS.toMillis(30);
+    private static final long MIN_REFRESH_DELAY = TimeUnit.MINUTES.toMillis(1);
+    private static final long REFRESH_REQUEST_DELAY = TimeUnit.SECONDS.toMillis(2);
+
+    private final Map<String, NetatmoDeviceHandler<?>> deviceHandlers = new ConcurrentHashMap<>();
+    private final Map<String, NetatmoModuleHandler<?>> moduleHandlers = new ConcurrentHashMap<>();
+    /** The last data received for each device, by equipment id */
+    private final Map<String, NADeviceAdapter<?>> devices = new ConcurrentHashMap<>();
+    private final NetatmoApiCounters counters = new NetatmoApiCounters();
+    private ScheduledFuture<?> refreshJob;
+    private boolean refreshing;
+    private volatile boolean forceUpdate;
+
     public NetatmoBridgeHandler(Bridge bridge) {
         super(bridge);
     }
@@ -62,6 +96,7 @@ public class NetatmoBridgeHandler extends BaseBridgeHandler {
         // Test connection to Netatmo API using PartnerAPI. This can cause authentication error
         // or an error if there is no partner station. In the former case, it is not an issue.
         try {
+            counters.apiCalled();
             getPartnerApi().partnerdevices();
         } catch (RetrofitError e) {
             if (e.getCause() instanceof IOException) {
@@ -72,6 +107,203 @@ public class NetatmoBridgeHandler extends BaseBridgeHandler {
             }
         }
         updateStatus(ThingStatus.ONLINE);
+        synchronized (this) {
+            refreshing = true;
+        }
+        scheduleRefresh(REFRESH_REQUEST_DELAY);
+    }
+
+    @Override
+    public void dispose() {
+        logger.debug("Running dispose()");
+        synchronized (this) {
+            refreshing = false;
+            if (refreshJob != null) {
+                refreshJob.cancel(true);
+                refreshJob = null;
+            }
+        }
+        devices.clear();
+    }
+
+    @Override
+    public void childHandlerInitialized(ThingHandler childHandler, Thing childThing) {
+        if (childHandler instanceof NetatmoDeviceHandler) {
+            NetatmoDeviceHandler<?> deviceHandler = (NetatmoDeviceHandler<?>) childHandler;
+            String equipmentId = getKey(deviceHandler.getConfiguration().getEquipmentId());
+            deviceHandlers.put(equipmentId, deviceHandler);
+            NADeviceAdapter<?> device = devices.get(equipmentId);
+            if (device != null) {
+                deviceHandler.updateDevice(device);
+            } else {
+                requestRefresh();
+            }
+        } else if (childHandler instanceof NetatmoModuleHandler) {
+            NetatmoModuleHandler<?> moduleHandler = (NetatmoModuleHandler<?>) childHandler;
+            String equipmentId = getKey(moduleHandler.getConfiguration().getEquipmentId());
+            moduleHandlers.put(equipmentId, moduleHandler);
+            String parentId = moduleHandler.getConfiguration().getParentId();
+            NADeviceAdapter<?> device = parentId != null ? devices.get(getKey(parentId)) : null;
+            NAModuleAdapter module = device != null
+                    ? device.getModules().get(moduleHandler.getConfiguration().getEquipmentId()) : null;
+            if (module != null) {
+                moduleHandler.updateChannels(module);
+            }
+        }
+    }
+
+    @Override
+    public void childHandlerDisposed(ThingHandler childHandler, Thing childThing) {
+        if (childHandler instanceof NetatmoDeviceHandler) {
+            deviceHandlers.values().remove(childHandler);
+        } else if (childHandler instanceof NetatmoModuleHandler) {
+            moduleHandlers.values().remove(childHandler);
+        }
+    }
+
+    /**
+     * Returns the handler of a module, modules are updated with the data of their device.
+     */
+    NetatmoModuleHandler<?> getModuleHandler(String equipmentId) {
+        return equipmentId != null ? moduleHandlers.get(getKey(equipmentId)) : null;
+    }
+
+    /**
+     * Requests the data of all devices shortly, e.g. after a command changed a device. All devices are updated
+     * even if their data did not change.
+     */
+    public void requestRefresh() {
+        forceUpdate = true;
+        scheduleRefresh(REFRESH_REQUEST_DELAY);
+    }
+
+    private synchronized void scheduleRefresh(long delay) {
+        if (!refreshing) {
+            return;
+        }
+        if (refreshJob != null) {
+            if (refreshJob.getDelay(TimeUnit.MILLISECONDS) <= delay) {
+                return;
+            }
+            refreshJob.cancel(false);
+        }
+        logger.debug("Scheduling the next Netatmo API refresh in {} ms", delay);
+        refreshJob = scheduler.schedule(this::refresh, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh() {
+        synchronized (this) {
+            refreshJob = null;
+        }
+        boolean force = forceUpdate;
+        forceUpdate = false;
+        long now = System.currentTimeMillis();
+        long nextMeasurement = Long.MAX_VALUE;
+
+        try {
+            if (hasDevices(MAIN_THING_TYPE)) {
+                NAStationDataBody stationsDataBody = getStationsDataBody(null);
+                if (stationsDataBody != null && stationsDataBody.getDevices() != null) {
+                    boolean changed = false;
+                    for (NAMain station : stationsDataBody.getDevices()) {
+                        NADeviceAdapter<?> device = new NAStationAdapter(station,
+                                stationsDataBody.getUser().getAdministrative());
+                        changed |= updateDevice(device, force);
+                        nextMeasurement = Math.min(nextMeasurement, getNextMeasurement(device, now));
+                    }
+                    if (!changed) {
+                        counters.unchangedResponse();
+                    }
+                }
+            }
+
+            if (hasDevices(PLUG_THING_TYPE)) {
+                NAThermostatDataBody thermostatsDataBody = getThermostatsDataBody(null);
+                if (thermostatsDataBody != null && thermostatsDataBody.getDevices() != null) {
+                    boolean changed = false;
+                    for (NAPlug plug : thermostatsDataBody.getDevices()) {
+                        NADeviceAdapter<?> device = new NAPlugAdapter(plug,
+                                thermostatsDataBody.getUser().getAdministrative());
+                        changed |= updateDevice(device, force);
+                        nextMeasurement = Math.min(nextMeasurement, getNextMeasurement(device, now));
+                    }
+                    if (!changed) {
+                        counters.unchangedResponse();
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Exception when trying to refresh Netatmo devices: {}", e.getMessage(), e);
+        }
+
+        updateProperty(PROPERTY_API_CALLS, Long.toString(counters.getApiCalls()));
+        updateProperty(PROPERTY_UNCHANGED_RESPONSES, Long.toString(counters.getUnchangedResponses()));
+        updateProperty(PROPERTY_HOURLY_QUOTA_REMAINING, Integer.toString(counters.getRemainingHourlyQuota()));
+
+        long delay = Math.max(MIN_REFRESH_DELAY, Math.min(nextMeasurement - now, getMaxRefreshInterval()));
+        scheduleRefresh(delay);
+    }
+
+    private boolean hasDevices(ThingTypeUID thingTypeUID) {
+        for (NetatmoDeviceHandler<?> handler : deviceHandlers.values()) {
+            if (thingTypeUID.equals(handler.getThing().getThingTypeUID())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Passes the data of a device to its handler if it changed since the last refresh.
+     *
+     * @return true if the data of the device changed
+     */
+    private boolean updateDevice(NADeviceAdapter<?> device, boolean force) {
+        String equipmentId = getKey(device.getId());
+        NADeviceAdapter<?> lastDevice = devices.put(equipmentId, device);
+        boolean changed = lastDevice == null || lastDevice.getLastStatusStore() == null
+                || !lastDevice.getLastStatusStore().equals(device.getLastStatusStore());
+        NetatmoDeviceHandler<?> handler = deviceHandlers.get(equipmentId);
+        if (handler != null && (changed || force)) {
+            logger.debug("Updating device {}", equipmentId);
+            handler.updateDevice(device);
+        }
+        return changed;
+    }
+
+    /**
+     * Returns when the next measurement of the device will be available: a multiple of the measurement interval after
+     * its last measurement, so that a device which stopped reporting is not requested more often.
+     */
+    private long getNextMeasurement(NADeviceAdapter<?> device, long now) {
+        Integer lastMeasurementTime = device.getLastMeasurementTime();
+        if (lastMeasurementTime == null) {
+            return Long.MAX_VALUE;
+        }
+        long nextMeasurement = TimeUnit.SECONDS.toMillis(lastMeasurementTime) + MEASUREMENT_INTERVAL
+                + PUBLICATION_DELAY;
+        if (nextMeasurement <= now) {
+            nextMeasurement += ((now - nextMeasurement) / MEASUREMENT_INTERVAL + 1) * MEASUREMENT_INTERVAL;
+        }
+        return nextMeasurement;
+    }
+
+    /**
+     * @return the smallest refresh interval configured on the devices, the data is requested at least that often
+     */
+    private long getMaxRefreshInterval() {
+        long interval = MEASUREMENT_INTERVAL;
+        for (NetatmoDeviceHandler<?> handler : deviceHandlers.values()) {
+            long refreshInterval = handler.getConfiguration().refreshInterval;
+            if (refreshInterval > 0 && refreshInterval < interval) {
+                interval = refreshInterval;
+            }
+        }
+        return interval;
+    }
+
+    private static String getKey(String equipmentId) {
+        return equipmentId.toLowerCase();
     }
 
     // We'll use TrustingOkHttpClient because Netatmo certificate is a StartTTLS
@@ -136,6 +368,7 @@ public class NetatmoBridgeHandler extends BaseBridgeHandler {
     public NAStationDataBody getStationsDataBody(String equipmentId) {
         if (getStationApi() != null) {
             try {
+                counters.apiCalled();
                 NAStationDataBody data = getStationApi().getstationsdata(equipmentId).getBody();
                 updateStatus(ThingStatus.ONLINE);
                 return data;
@@ -151,6 +384,7 @@ public class NetatmoBridgeHandler extends BaseBridgeHandler {
     public NAThermostatDataBody getThermostatsDataBody(String equipmentId) {
         if (getThermostatApi() != null) {
             try {
+                counters.apiCalled();
                 NAThermostatDataBody data = getThermostatApi().getthermostatsdata(equipmentId).getBody();
                 updateStatus(ThingStatus.ONLINE);
                 return data;
@@ -10,18 +10,13 @@ package org.openhab.binding.netatmo.handler;
 
 import static org.openhab.binding.netatmo.NetatmoBindingConstants.*;
 
-import java.util.concurrent.ScheduledFuture;
-import java.util.concurrent.TimeUnit;
-
 import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.PointType;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
-import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.netatmo.config.NetatmoDeviceConfiguration;
-import org.openhab.binding.netatmo.config.NetatmoModuleConfiguration;
 import org.openhab.binding.netatmo.internal.ChannelTypeUtils;
 import org.openhab.binding.netatmo.internal.NADeviceAdapter;
 import org.openhab.binding.netatmo.internal.NAModuleAdapter;
@@ -42,7 +37,6 @@ public abstract class NetatmoDeviceHandler<X extends NetatmoDeviceConfiguration>
 
     protected NADeviceAdapter<?> device;
     private Logger logger = LoggerFactory.getLogger(NetatmoDeviceHandler.class);
-    private ScheduledFuture<?> refreshJob;
 
     public NetatmoDeviceHandler(Thing thing, Class<X> configurationClass) {
         super(thing, configurationClass);
@@ -57,13 +51,6 @@ public abstract class NetatmoDeviceHandler<X extends NetatmoDeviceConfiguration>
             if (getBridge().getStatus() == ThingStatus.ONLINE) {
                 logger.debug("setting device '{}' online", configuration.getEquipmentId());
                 updateStatus(ThingStatus.ONLINE);
-                logger.debug("scheduling update channel thread to run every {} ms", configuration.refreshInterval);
-                refreshJob = scheduler.scheduleWithFixedDelay(new Runnable() {
-                    @Override
-                    public void run() {
-                        updateChannels(configuration.getEquipmentId());
-                    }
-                }, 1, configuration.refreshInterval, TimeUnit.MILLISECONDS);
             } else {
                 logger.debug("setting device '{}' offline (bridge or thing offline)", configuration.getEquipmentId());
                 updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.OFFLINE.BRIDGE_OFFLINE);
@@ -74,28 +61,24 @@ public abstract class NetatmoDeviceHandler<X extends NetatmoDeviceConfiguration>
         }
     }
 
-    @Override
-    public void dispose() {
-        logger.debug("Running dispose()");
-        if (refreshJob != null && !refreshJob.isCancelled()) {
-            refreshJob.cancel(true);
-            refreshJob = null;
-        }
+    /**
+     * Called by the bridge with the latest data of the device.
+     */
+    public void updateDevice(NADeviceAdapter<?> device) {
+        logger.debug("Received new readings of device {}, updating channels", configuration.getEquipmentId());
+        this.device = device;
+        updateChannels(configuration.getEquipmentId());
     }
 
-    protected abstract NADeviceAdapter<?> updateReadings(String equipmentId);
-
     @Override
     protected void updateChannels(String equipmentId) {
-        logger.debug("Trying to update channels on device {}", equipmentId);
+        if (device == null) {
+            logger.debug("No readings of device {} received yet", equipmentId);
+            return;
+        }
         try {
-            NADeviceAdapter<?> tmpDevice = updateReadings(equipmentId);
-            if (tmpDevice != null) {
-                logger.debug("Successfully updated device readings! Now updating channels");
-                this.device = tmpDevice;
-                super.updateChannels(equipmentId);
-                updateChildModules(equipmentId);
-            }
+            super.updateChannels(equipmentId);
+            updateChildModules(equipmentId);
         } catch (Exception e) {
             logger.error("Exception when trying to update channels: {}", e.getMessage());
         }
@@ -126,19 +109,11 @@ public abstract class NetatmoDeviceHandler<X extends NetatmoDeviceConfiguration>
 
     private void updateChildModules(String equipmentId) {
         logger.debug("Updating child modules of {}", equipmentId);
-        for (Thing handler : getBridge().getThings()) {
-            ThingHandler thingHandler = handler.getHandler();
-            if (thingHandler instanceof NetatmoModuleHandler) {
-                @SuppressWarnings("unchecked")
-                NetatmoModuleHandler<NetatmoModuleConfiguration> moduleHandler = (NetatmoModuleHandler<NetatmoModuleConfiguration>) thingHandler;
-                NetatmoModuleConfiguration moduleConfiguration = moduleHandler.configuration;
-                String parentId = moduleConfiguration.getParentId();
-                if (equipmentId.equalsIgnoreCase(parentId)) {
-                    String childId = moduleHandler.configuration.getEquipmentId();
-                    NAModuleAdapter module = device.getModules().get(childId);
-                    logger.debug("Updating child module {}", childId);
-                    moduleHandler.updateChannels(module);
-                }
+        for (NAModuleAdapter module : device.getModules().values()) {
+            NetatmoModuleHandler<?> moduleHandler = getBridgeHandler().getModuleHandler(module.getId());
+            if (moduleHandler != null) {
+                logger.debug("Updating child module {}", module.getId());
+                moduleHandler.updateChannels(module);
             }
         }
     }
@@ -12,9 +12,7 @@ import static org.openhab.binding.netatmo.NetatmoBindingConstants.*;
 
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.thing.Thing;
-import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.State;
-import org.openhab.binding.netatmo.config.NetatmoDeviceConfiguration;
 import org.openhab.binding.netatmo.config.NetatmoModuleConfiguration;
 import org.openhab.binding.netatmo.internal.ChannelTypeUtils;
 import org.openhab.binding.netatmo.internal.NAModuleAdapter;
@@ -92,18 +90,7 @@ public abstract class NetatmoModuleHandler<X extends NetatmoModuleConfiguration>
 
     protected void requestParentRefresh() {
         logger.debug("Updating parent modules of {}", configuration.getEquipmentId());
-        for (Thing thing : getBridge().getThings()) {
-            ThingHandler thingHandler = thing.getHandler();
-            if (thingHandler instanceof NetatmoDeviceHandler) {
-                @SuppressWarnings("unchecked")
-                NetatmoDeviceHandler<NetatmoDeviceConfiguration> deviceHandler = (NetatmoDeviceHandler<NetatmoDeviceConfiguration>) thingHandler;
-                NetatmoDeviceConfiguration deviceConfiguration = deviceHandler.configuration;
-                if (deviceConfiguration.getEquipmentId().equalsIgnoreCase(configuration.getParentId())) {
-                    // I'm your father Luke
-                    ((NetatmoDeviceHandler<?>) thingHandler).refreshAllChannels();
-                }
-            }
-        }
+        getBridgeHandler().requestRefresh();
     }
 
 }
@@ -16,12 +16,10 @@ import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.netatmo.config.NetatmoDeviceConfiguration;
 import org.openhab.binding.netatmo.handler.NetatmoDeviceHandler;
 import org.openhab.binding.netatmo.internal.ChannelTypeUtils;
-import org.openhab.binding.netatmo.internal.NADeviceAdapter;
 import org.openhab.binding.netatmo.internal.NAStationAdapter;
 import org.openhab.binding.netatmo.internal.WeatherUtils;
 
 import io.swagger.client.model.NADashboardData;
-import io.swagger.client.model.NAStationDataBody;
 import io.swagger.client.model.NAUserAdministrative;
 
 /**
@@ -37,16 +35,6 @@ public class NAMainHandler extends NetatmoDeviceHandler<NetatmoDeviceConfigurati
         super(thing, NetatmoDeviceConfiguration.class);
     }
 
-    @Override
-    protected NADeviceAdapter<?> updateReadings(String equipmentId) {
-        NAStationDataBody stationDataBody = getBridgeHandler().getStationsDataBody(equipmentId);
-        if (stationDataBody != null) {
-            return new NAStationAdapter(stationDataBody);
-        } else {
-            return null;
-        }
-    }
-
     @Override
     protected State getNAThingProperty(String channelId) {
         NAStationAdapter stationAdapter = (NAStationAdapter) device;
@@ -16,11 +16,8 @@ import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.netatmo.config.NetatmoDeviceConfiguration;
 import org.openhab.binding.netatmo.handler.NetatmoDeviceHandler;
 import org.openhab.binding.netatmo.internal.ChannelTypeUtils;
-import org.openhab.binding.netatmo.internal.NADeviceAdapter;
 import org.openhab.binding.netatmo.internal.NAPlugAdapter;
 
-import io.swagger.client.model.NAThermostatDataBody;
-
 /**
  * {@link NAPlugHandler} is the class used to handle the plug
  * device of a thermostat set
@@ -33,16 +30,6 @@ public class NAPlugHandler extends NetatmoDeviceHandler<NetatmoDeviceConfigurati
         super(thing, NetatmoDeviceConfiguration.class);
     }
 
-    @Override
-    protected NADeviceAdapter<?> updateReadings(String equipmentId) {
-        NAThermostatDataBody thermostatDataBody = getBridgeHandler().getThermostatsDataBody(equipmentId);
-        if (thermostatDataBody != null) {
-            return new NAPlugAdapter(thermostatDataBody);
-        } else {
-            return null;
-        }
-    }
-
     @Override
     protected State getNAThingProperty(String channelId) {
         NAPlugAdapter plugAdapter = (NAPlugAdapter) device;
@@ -38,6 +38,15 @@ public abstract class NADeviceAdapter<DeviceClass> {
         }
     }
 
+    public NADeviceAdapter(DeviceClass device, NAUserAdministrative userAdministrative) {
+        if (device != null) {
+            this.device = device;
+            this.userAdministrative = userAdministrative;
+        } else {
+            throw new IllegalArgumentException("device can not be null");
+        }
+    }
+
     @SuppressWarnings("unchecked")
     public NADeviceAdapter(NAStationDataBody stationDataBody) {
         if (stationDataBody != null) {
@@ -60,6 +69,11 @@ public abstract class NADeviceAdapter<DeviceClass> {
 
     public abstract Integer getLastStatusStore();
 
+    /**
+     * @return the time of the last measurement (in seconds since epoch)
+     */
+    public abstract Integer getLastMeasurementTime();
+
     public abstract NAPlace getPlace();
 
     public abstract Integer getWifiStatus();
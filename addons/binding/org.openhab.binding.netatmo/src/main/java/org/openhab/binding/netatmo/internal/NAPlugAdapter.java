@@ -14,6 +14,7 @@ import io.swagger.client.model.NAPlace;
 import io.swagger.client.model.NAPlug;
 import io.swagger.client.model.NAThermostat;
 import io.swagger.client.model.NAThermostatDataBody;
+import io.swagger.client.model.NAUserAdministrative;
 
 /**
  * {@link NAPlugAdapter} handles specifics of the NAPlug device
@@ -27,6 +28,10 @@ public class NAPlugAdapter extends NADeviceAdapter<NAPlug> {
         super(device);
     }
 
+    public NAPlugAdapter(NAPlug device, NAUserAdministrative userAdministrative) {
+        super(device, userAdministrative);
+    }
+
     public NAPlugAdapter(NAThermostatDataBody thermostatDataBody) {
         super(thermostatDataBody);
     }
@@ -36,6 +41,18 @@ public class NAPlugAdapter extends NADeviceAdapter<NAPlug> {
         return device.getLastStatusStore();
     }
 
+    @Override
+    public Integer getLastMeasurementTime() {
+        Integer time = null;
+        for (NAThermostat module : device.getModules()) {
+            if (module.getMeasured() != null && module.getMeasured().getTime() != null
+                    && (time == null || module.getMeasured().getTime() > time)) {
+                time = module.getMeasured().getTime();
+            }
+        }
+        return time != null ? time : device.getLastStatusStore();
+    }
+
     @Override
     public NAPlace getPlace() {
         return device.getPlace();
@@ -0,0 +1,60 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.netatmo.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link NetatmoApiCounters} counts the calls done to the Netatmo API
+ * and keeps track of the remaining hourly quota of the user
+ *
+ * @author agent - Initial contribution
+ */
+public class NetatmoApiCounters {
+    /** Netatmo allows 500 requests per hour and user */
+    public static final int HOURLY_QUOTA = 500;
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+
+    private final Deque<Long> lastHourCalls = new ArrayDeque<Long>();
+    private long apiCalls;
+    private long unchangedResponses;
+
+    public synchronized void apiCalled() {
+        long now = System.currentTimeMillis();
+        apiCalls++;
+        lastHourCalls.addLast(now);
+        purge(now);
+    }
+
+    public synchronized void unchangedResponse() {
+        unchangedResponses++;
+    }
+
+    public synchronized long getApiCalls() {
+        return apiCalls;
+    }
+
+    public synchronized long getUnchangedResponses() {
+        return unchangedResponses;
+    }
+
+    public synchronized int getRemainingHourlyQuota() {
+        purge(System.currentTimeMillis());
+        return Math.max(0, HOURLY_QUOTA - lastHourCalls.size());
+    }
+
+    private void purge(long now) {
+        while (!lastHourCalls.isEmpty() && lastHourCalls.peekFirst() <= now - HOUR) {
+            lastHourCalls.removeFirst();
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.opensprinkler.internal.api;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the requests the {@link OpenSprinklerHttpApiV210} sends to refresh the state of a device. A local HTTP
+ * stand-in of an OpenSprinkler with 24 stations counts the requests and the connections.
+ *
+ * @author agent - Initial contribution
+ */
+public class OpenSprinklerHttpApiV210Test {
+
+    private static final int NUMBER_OF_STATIONS = 24;
+
+    private OpenSprinklerStandIn device;
+    private OpenSprinklerApi api;
+
+    @Before
+    public void setUp() throws Exception {
+        device = new OpenSprinklerStandIn();
+        api = OpenSprinklerApiFactory.getHttpApi("localhost", device.getPort(), "opendoor");
+        api.openConnection();
+        device.requests.clear();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        device.close();
+    }
+
+    @Test
+    public void refreshSendsOneRequestForTheStatusAndOneForAllStations() throws Exception {
+        assertThat(api.isRainDetected(), is(true));
+        boolean[] stationStates = api.getStationStates();
+
+        assertThat(device.requests.size(), is(2));
+        assertThat(device.requests.get(0), startsWith("/jc?"));
+        assertThat(device.requests.get(1), startsWith("/js?"));
+
+        assertThat(stationStates.length, is(NUMBER_OF_STATIONS));
+        for (int i = 0; i < NUMBER_OF_STATIONS; i++) {
+            assertThat("station " + i, stationStates[i], is(i % 3 == 0));
+        }
+    }
+
+    @Test
+    public void refreshesReuseTheConnection() throws Exception {
+        int connections = device.connections.get();
+
+        for (int i = 0; i < 5; i++) {
+            api.isRainDetected();
+            api.getStationStates();
+        }
+
+        assertThat(device.requests.size(), is(10));
+        assertThat(device.connections.get(), is(connections));
+    }
+
+    /**
+     * Answers the status requests of an OpenSprinkler with firmware 2.1.7 over HTTP/1.1 connections, which are kept
+     * open for further requests.
+     */
+    private static class OpenSprinklerStandIn implements Runnable {
+
+        private final ServerSocket serverSocket;
+        private final List<String> requests = Collections.synchronizedList(new ArrayList<String>());
+        private final AtomicInteger connections = new AtomicInteger();
+
+        OpenSprinklerStandIn() throws IOException {
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread thread = new Thread(this, "OpenSprinkler stand-in");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        void close() throws IOException {
+            serverSocket.close();
+        }
+
+        @Override
+        public void run() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    final Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    Thread thread = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            serve(socket);
+                        }
+                    }, "OpenSprinkler stand-in connection");
+                    thread.setDaemon(true);
+                    thread.start();
+                } catch (IOException e) {
+                    // the stand-in has been closed
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (Socket connection = socket) {
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(connection.getInputStream(), StandardCharsets.ISO_8859_1));
+                OutputStream out = connection.getOutputStream();
+                String requestLine;
+                while ((requestLine = in.readLine()) != null) {
+                    String header;
+                    while ((header = in.readLine()) != null && !header.isEmpty()) {
+                        // the headers are not needed
+                    }
+                    String path = requestLine.split(" ")[1];
+                    requests.add(path);
+
+                    byte[] body = respond(path).getBytes(StandardCharsets.UTF_8);
+                    out.write(("HTTP/1.1 200 OK\r\nContent-Type: application/json\r\nContent-Length: " + body.length
+                            + "\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                    out.write(body);
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // the client has closed the connection
+            }
+        }
+
+        private String respond(String path) {
+            if (path.startsWith("/jo")) {
+                return "{\"fwv\":217,\"tz\":48,\"ntp\":1,\"dhcp\":1,\"hp0\":144,\"hp1\":31,\"ext\":2}";
+            } else if (path.startsWith("/jc")) {
+                return "{\"devt\":1508410000,\"nbrd\":3,\"en\":1,\"rd\":0,\"rs\":1,\"rdst\":0,\"loc\":\"\","
+                        + "\"sbits\":[73,146,36,0],\"ps\":[],\"lrun\":[0,0,0,0],\"curr\":0}";
+            } else if (path.startsWith("/js")) {
+                StringBuilder stations = new StringBuilder();
+                for (int i = 0; i < NUMBER_OF_STATIONS; i++) {
+                    stations.append(i == 0 ? "" : ",").append(i % 3 == 0 ? 1 : 0);
+                }
+                return "{\"sn\":[" + stations + "],\"nstations\":" + NUMBER_OF_STATIONS + "}";
+            }
+            return "{\"result\":1}";
+        }
+    }
+}
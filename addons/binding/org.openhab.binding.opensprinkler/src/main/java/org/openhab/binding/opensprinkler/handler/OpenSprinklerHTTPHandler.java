@@ -17,7 +17,6 @@ import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
-import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.opensprinkler.OpenSprinklerBindingConstants.Station;
 import org.openhab.binding.opensprinkler.config.OpenSprinklerConfig;
 import org.openhab.binding.opensprinkler.internal.api.OpenSprinklerApiFactory;
@@ -118,20 +117,21 @@ public class OpenSprinklerHTTPHandler extends OpenSprinklerHandler {
                     logger.debug("Refreshing state with the OpenSprinkler device.");
 
                     try {
-                        if (openSprinklerDevice.isRainDetected()) {
-                            updateState(new ChannelUID(getThing().getUID(), SENSOR_RAIN), OnOffType.ON);
-                        } else {
-                            updateState(new ChannelUID(getThing().getUID(), SENSOR_RAIN), OnOffType.OFF);
-                        }
+                        /* One request for the controller status and one for the state of all stations. */
+                        boolean rainDetected = openSprinklerDevice.isRainDetected();
+                        boolean[] stationStates = openSprinklerDevice.getStationStates();
+
+                        updateChangedState(new ChannelUID(getThing().getUID(), SENSOR_RAIN),
+                                rainDetected ? OnOffType.ON : OnOffType.OFF);
 
-                        for (int i = 0; i < openSprinklerDevice.getNumberOfStations(); i++) {
+                        for (int i = 0; i < stationStates.length; i++) {
                             ChannelUID channel = new ChannelUID(getThing().getUID(), Station.get(i).channelID());
-                            State command = getStationState(i);
-                            updateState(channel, command);
+                            updateChangedState(channel, stationStates[i] ? OnOffType.ON : OnOffType.OFF);
                         }
 
                         updateStatus(ThingStatus.ONLINE);
                     } catch (Exception exp) {
+                        clearChannelStates();
                         updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.OFFLINE.COMMUNICATION_ERROR,
                                 "Could not refresh current state from the OpenSprinkler.");
                         logger.debug(
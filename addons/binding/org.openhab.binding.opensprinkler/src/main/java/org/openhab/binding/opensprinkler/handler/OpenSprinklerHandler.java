@@ -10,6 +10,8 @@ package org.openhab.binding.opensprinkler.handler;
 
 import static org.openhab.binding.opensprinkler.OpenSprinklerBindingConstants.DEFAULT_REFRESH_RATE;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 
 import org.eclipse.smarthome.core.library.types.OnOffType;
@@ -41,6 +43,9 @@ public abstract class OpenSprinklerHandler extends BaseThingHandler {
 
     protected int refreshInterval = DEFAULT_REFRESH_RATE;
 
+    /** Last state sent for each channel, so a refresh only pushes the changes. */
+    private final Map<ChannelUID, State> channelStates = new ConcurrentHashMap<>();
+
     public OpenSprinklerHandler(Thing thing) {
         super(thing);
     }
@@ -57,12 +62,17 @@ public abstract class OpenSprinklerHandler extends BaseThingHandler {
                 if (stationId == -1) {
                     /* A station ID number of -1 means the rain sensor is being refreshed. */
                     State currentDeviceState = getRainSensorState();
+                    channelStates.put(channelUID, currentDeviceState);
                     updateState(channelUID, currentDeviceState);
                 } else {
                     State currentDeviceState = getStationState(stationId);
+                    channelStates.put(channelUID, currentDeviceState);
                     updateState(channelUID, currentDeviceState);
                 }
             } else {
+                /* The item shows the commanded state now, the next polled state must be published even if unchanged. */
+                channelStates.remove(channelUID);
+
                 /* Other command types control the OpenSprinkler. Pass off handling. */
                 if (stationId == -1) {
                     /* A station ID number of -1 means the rain sensor is attempting to be manipulated. */
@@ -89,6 +99,7 @@ public abstract class OpenSprinklerHandler extends BaseThingHandler {
             }
 
             openSprinklerDevice = null;
+            channelStates.clear();
 
             if (pollingJob != null && !pollingJob.isCancelled()) {
                 pollingJob.cancel(true);
@@ -99,6 +110,25 @@ public abstract class OpenSprinklerHandler extends BaseThingHandler {
         }
     }
 
+    /**
+     * Updates the state of a channel if it differs from the state last sent.
+     *
+     * @param channelUID Channel to update.
+     * @param state Current state of the channel.
+     */
+    protected void updateChangedState(ChannelUID channelUID, State state) {
+        if (!state.equals(channelStates.put(channelUID, state))) {
+            updateState(channelUID, state);
+        }
+    }
+
+    /**
+     * Forgets the states last sent, so the next refresh pushes all channels again.
+     */
+    protected void clearChannelStates() {
+        channelStates.clear();
+    }
+
     /**
      * Handles control of an OpenSprnkler station based on commanded
      * received by a channel call.
@@ -12,11 +12,11 @@ import static org.openhab.binding.opensprinkler.OpenSprinklerBindingConstants.DE
 
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
 import org.eclipse.smarthome.core.thing.ThingStatusDetail;
-import org.eclipse.smarthome.core.types.State;
 import org.openhab.binding.opensprinkler.OpenSprinklerBindingConstants.Station;
 import org.openhab.binding.opensprinkler.config.OpenSprinklerPiConfig;
 import org.openhab.binding.opensprinkler.internal.api.OpenSprinklerApiFactory;
@@ -116,14 +116,16 @@ public class OpenSprinklerPiHandler extends OpenSprinklerHandler {
                     logger.debug("Refreshing state with the OpenSprinkler device.");
 
                     try {
-                        for (int i = 0; i < openSprinklerDevice.getNumberOfStations(); i++) {
+                        boolean[] stationStates = openSprinklerDevice.getStationStates();
+
+                        for (int i = 0; i < stationStates.length; i++) {
                             ChannelUID channel = new ChannelUID(getThing().getUID(), Station.get(i).toString());
-                            State command = getStationState(i);
-                            updateState(channel, command);
+                            updateChangedState(channel, stationStates[i] ? OnOffType.ON : OnOffType.OFF);
                         }
 
                         updateStatus(ThingStatus.ONLINE);
                     } catch (Exception exp) {
+                        clearChannelStates();
                         updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.OFFLINE.COMMUNICATION_ERROR,
                                 "Could not refresh current state from the OpenSprinkler.");
                         logger.debug(
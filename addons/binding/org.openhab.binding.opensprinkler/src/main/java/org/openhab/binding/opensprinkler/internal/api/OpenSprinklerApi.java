@@ -61,6 +61,15 @@ public interface OpenSprinklerApi {
      */
     public abstract boolean isStationOpen(int station) throws Exception;
 
+    /**
+     * Returns the state of all stations on the OpenSprinkler device, fetched with as few
+     * requests as the API allows. This also updates the cached number of stations.
+     *
+     * @return Array with the state of each station, indexed starting at 0. True if the station is open.
+     * @throws Exception
+     */
+    public abstract boolean[] getStationStates() throws Exception;
+
     /**
      * Returns the state of rain detection on the OpenSprinkler device.
      *
@@ -115,6 +115,13 @@ public class OpenSprinklerGpioApi implements OpenSprinklerApi {
         return stationState[station];
     }
 
+    @Override
+    public boolean[] getStationStates() {
+        pullStationState();
+
+        return stationState.clone();
+    }
+
     @Override
     public boolean isRainDetected() {
         throw new UnsupportedOperationException("Rain sensor access not supported in GPIO mode.");
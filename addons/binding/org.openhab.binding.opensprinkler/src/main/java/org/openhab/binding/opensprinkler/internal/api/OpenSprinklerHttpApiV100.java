@@ -146,6 +146,22 @@ public class OpenSprinklerHttpApiV100 implements OpenSprinklerApi {
         return returnContent != null && returnContent.equals("1");
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * Firmware versions less than 2.1.0 have no bulk request, so each station is requested on its own.
+     */
+    @Override
+    public boolean[] getStationStates() throws Exception {
+        boolean[] stationStates = new boolean[numberOfStations];
+
+        for (int i = 0; i < stationStates.length; i++) {
+            stationStates[i] = isStationOpen(i);
+        }
+
+        return stationStates;
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean isRainDetected() throws Exception {
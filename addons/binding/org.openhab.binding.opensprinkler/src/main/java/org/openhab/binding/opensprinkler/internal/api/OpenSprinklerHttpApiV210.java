@@ -10,6 +10,8 @@ package org.openhab.binding.opensprinkler.internal.api;
 
 import static org.openhab.binding.opensprinkler.internal.api.OpenSprinklerApiConstants.*;
 
+import java.util.List;
+
 import org.openhab.binding.opensprinkler.internal.api.exception.CommunicationApiException;
 import org.openhab.binding.opensprinkler.internal.api.exception.DataFormatErrorApiException;
 import org.openhab.binding.opensprinkler.internal.api.exception.DataMissingApiException;
@@ -74,6 +76,35 @@ public class OpenSprinklerHttpApiV210 extends OpenSprinklerHttpApiV100 {
         }
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public boolean[] getStationStates() throws Exception {
+        String returnContent;
+        List<Integer> stationStatus;
+
+        try {
+            returnContent = Http.sendHttpGet(getBaseUrl() + CMD_STATION_INFO, getRequestRequiredOptions());
+        } catch (Exception exp) {
+            throw new CommunicationApiException(
+                    "There was a problem in the HTTP communication with the OpenSprinkler API: " + exp.getMessage());
+        }
+
+        try {
+            stationStatus = Parse.jsonIntArray(returnContent, JSON_OPTION_STATION);
+            this.numberOfStations = Parse.jsonInt(returnContent, JSON_OPTION_STATION_COUNT);
+        } catch (Exception exp) {
+            throw new GeneralApiException(
+                    "There was a problem parsing the station status. Got the error: " + exp.getMessage());
+        }
+
+        boolean[] stationStates = new boolean[Math.min(numberOfStations, stationStatus.size())];
+        for (int i = 0; i < stationStates.length; i++) {
+            stationStates[i] = stationStatus.get(i) == 1;
+        }
+
+        return stationStates;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void openStation(int station) throws Exception {
@@ -10,9 +10,12 @@ package org.openhab.binding.opensprinkler.internal.util;
 
 import java.io.BufferedReader;
 import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 
 import javax.net.ssl.HttpsURLConnection;
 
@@ -27,6 +30,7 @@ public class Http {
     private static final String HTTP_POST = "POST";
     private static final int HTTP_OK_CODE = 200;
     private static final String USER_AGENT = "Mozilla/5.0";
+    private static final int TIMEOUT_MS = 10000;
 
     /**
      * Given a URL and a set parameters, send a HTTP GET request to the URL location created by the URL and parameters.
@@ -49,26 +53,51 @@ public class Http {
 
         connection.setRequestMethod(HTTP_GET);
         connection.setRequestProperty("User-Agent", USER_AGENT);
+        connection.setConnectTimeout(TIMEOUT_MS);
+        connection.setReadTimeout(TIMEOUT_MS);
 
         int responseCode = connection.getResponseCode();
 
         if (responseCode != HTTP_OK_CODE) {
+            drain(connection.getErrorStream());
             throw new Exception("Error sending HTTP GET request to " + url + ". Got response code: " + responseCode);
         }
 
-        BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream()));
-        String inputLine;
+        /* Reading the response completely and closing the stream keeps the connection alive for the next request. */
         StringBuilder response = new StringBuilder();
 
-        while ((inputLine = in.readLine()) != null) {
-            response.append(inputLine);
-        }
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8))) {
+            String inputLine;
 
-        in.close();
+            while ((inputLine = in.readLine()) != null) {
+                response.append(inputLine);
+            }
+        }
 
         return response.toString();
     }
 
+    /**
+     * Reads and closes the error stream of a failed request, so its connection can be reused.
+     *
+     * @param errorStream The error stream of the connection. May be null.
+     */
+    private static void drain(InputStream errorStream) {
+        if (errorStream == null) {
+            return;
+        }
+
+        try (InputStream in = errorStream) {
+            byte[] buffer = new byte[1024];
+            while (in.read(buffer) != -1) {
+                /* discard */
+            }
+        } catch (IOException exp) {
+            /* the connection is not reused */
+        }
+    }
+
     /**
      * Given a URL and a set parameters, send a HTTP POST request to the URL location created by the URL and parameters.
      *
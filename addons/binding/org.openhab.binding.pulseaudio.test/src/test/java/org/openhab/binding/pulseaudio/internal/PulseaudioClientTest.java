@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.pulseaudio.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.pulseaudio.internal.items.Sink;
+import org.openhab.binding.pulseaudio.internal.items.SinkInput;
+
+/**
+ * Tests which lists the {@link PulseaudioClient} requests and parses, using a {@link PulseaudioStandIn}.
+ *
+ * @author agent - Initial contribution
+ */
+public class PulseaudioClientTest {
+
+    private PulseaudioStandIn server;
+    private PulseaudioClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new PulseaudioStandIn();
+        client = new PulseaudioClient(server.getHost(), server.getPort());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.disconnect();
+        server.close();
+    }
+
+    @Test
+    public void updateRequestsAllLists() {
+        assertThat(server.getCommands(), is(Arrays.asList(PulseaudioStandIn.LIST_COMMANDS)));
+        assertThat(client.getItems().size(), is(8));
+        assertThat(client.getSink("combined").getId(), is(2));
+        assertThat(client.getSinkInput(7).getSink(), is(sameInstance(client.getSink(1))));
+    }
+
+    @Test
+    public void unchangedListsAreNotParsedAgain() {
+        Sink sink = client.getSink(0);
+        SinkInput sinkInput = client.getSinkInput(5);
+
+        client.update();
+
+        assertThat(client.getSink(0), is(sameInstance(sink)));
+        assertThat(client.getSinkInput(5), is(sameInstance(sinkInput)));
+    }
+
+    @Test
+    public void changedListIsParsedAgainWithTheListsReferringToIt() throws IOException {
+        Sink sink = client.getSink(0);
+        server.setAnswer("list-sinks", PulseaudioStandIn.readCapturedAnswer("list-sinks").replaceFirst("muted: no",
+                "muted: yes"));
+
+        client.update();
+
+        assertThat(client.getSink(0), is(not(sameInstance(sink))));
+        assertThat(client.getSink(0).isMuted(), is(true));
+        // the sink inputs refer to the new sinks
+        assertThat(client.getSinkInput(5).getSink(), is(sameInstance(client.getSink(0))));
+    }
+
+    @Test
+    public void unchangedLargeListIsSkippedQuickly() throws IOException {
+        server.setAnswer("list-sinks", PulseaudioStandIn.generateSinkList(500));
+        client.update();
+        assertThat(client.getSink("alsa_output.pci-0000_00_1b.0.analog-stereo-499").getId(), is(499));
+        Sink sink = client.getSink(499);
+        // warm up the JIT
+        for (int i = 0; i < 10; i++) {
+            client.update();
+        }
+
+        int rounds = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            client.update();
+        }
+        long averageMillis = (System.nanoTime() - start) / rounds / 1000000;
+
+        assertThat(client.getSink(499), is(sameInstance(sink)));
+        // all five lists are still requested, but none of them is parsed
+        assertThat("Average update of 500 sinks " + averageMillis + " ms", averageMillis < 100, is(true));
+    }
+
+    @Test
+    public void updateOfAnItemOnlyRequestsItsListIfUnchanged() {
+        server.clearCommands();
+
+        client.update(client.getSink(0));
+
+        assertThat(server.getCommands(), is(Arrays.asList("list-sinks")));
+    }
+
+    @Test
+    public void locallyChangedItemIsParsedAgain() {
+        Sink sink = client.getSink(0);
+
+        client.setMute(sink, true);
+        assertThat(sink.isMuted(), is(true));
+
+        // the server has not changed the sink, so the list answer is the same as before
+        client.update();
+
+        assertThat(server.getCommands().contains("set-sink-mute 0 1"), is(true));
+        assertThat(client.getSink(0).isMuted(), is(false));
+    }
+}
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.pulseaudio.internal;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A local stand-in of the command line interface of a pulseaudio server (module-cli-protocol-tcp). It answers the
+ * list commands with the captured answers in <code>input/&lt;command&gt;.txt</code>, records all commands and closes
+ * the connection after each answer.
+ *
+ * @author agent - Initial contribution
+ */
+public class PulseaudioStandIn implements Runnable {
+
+    public static final String[] LIST_COMMANDS = { "list-modules", "list-sinks", "list-sources",
+            "list-sink-inputs", "list-source-outputs" };
+
+    private final ServerSocket serverSocket;
+    private final Map<String, String> answers = new ConcurrentHashMap<String, String>();
+    private final List<String> commands = Collections.synchronizedList(new ArrayList<String>());
+
+    public PulseaudioStandIn() throws IOException {
+        for (String command : LIST_COMMANDS) {
+            answers.put(command, readCapturedAnswer(command));
+        }
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread thread = new Thread(this, "Pulseaudio stand-in");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return the captured answer of a pulseaudio 10.0 server to the given list command
+     */
+    public static String readCapturedAnswer(String command) throws IOException {
+        InputStream in = PulseaudioStandIn.class.getClassLoader().getResourceAsStream("input/" + command + ".txt");
+        if (in == null) {
+            throw new IOException("No captured answer to " + command);
+        }
+        try {
+            ByteArrayOutputStream answer = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                answer.write(buffer, 0, read);
+            }
+            return new String(answer.toByteArray(), StandardCharsets.UTF_8);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * @return an answer to list-sinks with the given number of copies of the first captured sink, which differ in
+     *         index, name and volume
+     */
+    public static String generateSinkList(int count) throws IOException {
+        String captured = readCapturedAnswer("list-sinks");
+        String block = captured.substring(captured.indexOf("  * index: 0"), captured.indexOf("    index: 1"))
+                .replace("  * index: 0", "    index: 0");
+        StringBuilder answer = new StringBuilder(count * block.length());
+        answer.append(count).append(" sink(s) available.\n");
+        for (int i = 0; i < count; i++) {
+            answer.append(block.replace("index: 0", "index: " + i).replace("analog-stereo>", "analog-stereo-" + i + ">")
+                    .replace("volume: front-left: 45875 /  70%", "volume: front-left: 45875 /  " + i % 100 + "%")
+                    .replace("front-right: 45875 /  70%", "front-right: 45875 /  " + i % 100 + "%"));
+        }
+        return answer.toString();
+    }
+
+    public String getHost() {
+        return serverSocket.getInetAddress().getHostAddress();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Changes the answer to a list command.
+     */
+    public void setAnswer(String command, String answer) {
+        answers.put(command, answer);
+    }
+
+    /**
+     * @return the commands received so far, in the order of their arrival
+     */
+    public List<String> getCommands() {
+        synchronized (commands) {
+            return new ArrayList<String>(commands);
+        }
+    }
+
+    public void clearCommands() {
+        commands.clear();
+    }
+
+    public void close() throws IOException {
+        serverSocket.close();
+    }
+
+    @Override
+    public void run() {
+        while (!serverSocket.isClosed()) {
+            try (Socket socket = serverSocket.accept()) {
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                String command = in.readLine();
+                if (command == null) {
+                    continue;
+                }
+                commands.add(command);
+                String answer = answers.get(command);
+                if (answer != null) {
+                    OutputStream out = socket.getOutputStream();
+                    out.write(answer.getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // the stand-in has been closed or the client has closed the connection
+            }
+        }
+    }
+}
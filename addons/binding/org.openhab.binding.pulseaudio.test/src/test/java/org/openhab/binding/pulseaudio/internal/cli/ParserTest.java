@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.pulseaudio.internal.cli;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.pulseaudio.internal.PulseaudioClient;
+import org.openhab.binding.pulseaudio.internal.PulseaudioStandIn;
+import org.openhab.binding.pulseaudio.internal.items.AbstractAudioDeviceConfig.State;
+import org.openhab.binding.pulseaudio.internal.items.AbstractDeviceConfig;
+import org.openhab.binding.pulseaudio.internal.items.Module;
+import org.openhab.binding.pulseaudio.internal.items.Sink;
+import org.openhab.binding.pulseaudio.internal.items.SinkInput;
+import org.openhab.binding.pulseaudio.internal.items.Source;
+import org.openhab.binding.pulseaudio.internal.items.SourceOutput;
+
+/**
+ * Tests the {@link Parser} with the answers of a pulseaudio 10.0 server to the list commands. The client, which
+ * resolves the modules, sinks and sources the items refer to, is connected to a {@link PulseaudioStandIn} serving the
+ * same answers.
+ *
+ * @author agent - Initial contribution
+ */
+public class ParserTest {
+
+    private PulseaudioStandIn server;
+    private PulseaudioClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new PulseaudioStandIn();
+        client = new PulseaudioClient(server.getHost(), server.getPort());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.disconnect();
+        server.close();
+    }
+
+    @Test
+    public void parseModules() throws IOException {
+        List<Module> modules = Parser.parseModules(PulseaudioStandIn.readCapturedAnswer("list-modules"));
+
+        assertThat(modules.size(), is(4));
+        assertThat(modules.get(0).getId(), is(0));
+        assertThat(modules.get(0).getPaName(), is("module-device-restore"));
+        assertThat(modules.get(2).getPaName(), is("module-cli-protocol-tcp"));
+        assertThat(modules.get(2).getArgument(), is("port=4712"));
+        assertThat(modules.get(3).getId(), is(12));
+        assertThat(modules.get(3).getPaName(), is("module-combine-sink"));
+    }
+
+    @Test
+    public void parseSinks() throws IOException {
+        Map<Integer, Sink> sinks = byId(
+                Parser.parseSinks(PulseaudioStandIn.readCapturedAnswer("list-sinks"), client));
+
+        assertThat(sinks.size(), is(3));
+
+        Sink builtIn = sinks.get(0);
+        assertThat(builtIn.getPaName(), is("alsa_output.pci-0000_00_1b.0.analog-stereo"));
+        assertThat(builtIn.getState(), is(State.RUNNING));
+        assertThat(builtIn.getVolume(), is(70));
+        assertThat(builtIn.isMuted(), is(false));
+        assertThat(builtIn.getModule().getPaName(), is("module-alsa-card"));
+        assertThat(builtIn.isCombinedSink(), is(false));
+
+        Sink usb = sinks.get(1);
+        assertThat(usb.getState(), is(State.SUSPENDED));
+        assertThat(usb.getVolume(), is(50));
+        assertThat(usb.isMuted(), is(true));
+
+        Sink combined = sinks.get(2);
+        assertThat(combined.getPaName(), is("combined"));
+        assertThat(combined.getState(), is(State.IDLE));
+        assertThat(combined.getModule().getId(), is(12));
+        assertThat(combined.isCombinedSink(), is(true));
+        assertThat(combined.getCombinedSinkNames().size(), is(2));
+        assertThat(combined.getCombinedSinkNames().get(0), is("alsa_output.pci-0000_00_1b.0.analog-stereo"));
+        assertThat(combined.getCombinedSinkNames().get(1), is("alsa_output.usb-Generic_USB_Audio-00.analog-stereo"));
+    }
+
+    @Test
+    public void parseSources() throws IOException {
+        Map<Integer, Source> sources = byId(
+                Parser.parseSources(PulseaudioStandIn.readCapturedAnswer("list-sources"), client));
+
+        assertThat(sources.size(), is(2));
+
+        Source monitor = sources.get(0);
+        assertThat(monitor.getPaName(), is("alsa_output.pci-0000_00_1b.0.analog-stereo.monitor"));
+        assertThat(monitor.getVolume(), is(100));
+        assertThat(monitor.getMonitorOf(), is(sameInstance(client.getSink(0))));
+
+        Source microphone = sources.get(1);
+        assertThat(microphone.getPaName(), is("alsa_input.pci-0000_00_1b.0.analog-stereo"));
+        assertThat(microphone.getState(), is(State.SUSPENDED));
+        // the average of the channels 35% and 40%
+        assertThat(microphone.getVolume(), is(37));
+        assertThat(microphone.isMuted(), is(true));
+        assertThat(microphone.getMonitorOf(), is(nullValue()));
+    }
+
+    @Test
+    public void parseSinkInputs() throws IOException {
+        Map<Integer, SinkInput> sinkInputs = byId(
+                Parser.parseSinkInputs(PulseaudioStandIn.readCapturedAnswer("list-sink-inputs"), client));
+
+        assertThat(sinkInputs.size(), is(2));
+
+        SinkInput firefox = sinkInputs.get(5);
+        assertThat(firefox.getPaName(), is("AudioStream"));
+        assertThat(firefox.getState(), is(State.RUNNING));
+        assertThat(firefox.getVolume(), is(100));
+        assertThat(firefox.getSink(), is(sameInstance(client.getSink(0))));
+        assertThat(firefox.getModule().getPaName(), is("module-cli-protocol-tcp"));
+
+        SinkInput mpd = sinkInputs.get(7);
+        assertThat(mpd.getPaName(), is("Music Player Daemon"));
+        assertThat(mpd.getState(), is(State.CORKED));
+        assertThat(mpd.getVolume(), is(60));
+        assertThat(mpd.isMuted(), is(true));
+        assertThat(mpd.getSink(), is(sameInstance(client.getSink(1))));
+    }
+
+    @Test
+    public void parseSourceOutputs() throws IOException {
+        List<SourceOutput> sourceOutputs = Parser
+                .parseSourceOutputs(PulseaudioStandIn.readCapturedAnswer("list-source-outputs"), client);
+
+        assertThat(sourceOutputs.size(), is(1));
+
+        SourceOutput skype = sourceOutputs.get(0);
+        assertThat(skype.getId(), is(2));
+        assertThat(skype.getState(), is(State.RUNNING));
+        assertThat(skype.getVolume(), is(80));
+        assertThat(skype.getSource(), is(sameInstance(client.getSource(1))));
+    }
+
+    @Test
+    public void parseLinesWithCarriageReturns() throws IOException {
+        String answer = PulseaudioStandIn.readCapturedAnswer("list-sinks").replace("\n", "\r\n");
+
+        Map<Integer, Sink> sinks = byId(Parser.parseSinks(answer, client));
+
+        assertThat(sinks.size(), is(3));
+        assertThat(sinks.get(0).getPaName(), is("alsa_output.pci-0000_00_1b.0.analog-stereo"));
+        assertThat(sinks.get(0).getState(), is(State.RUNNING));
+        assertThat(sinks.get(2).getCombinedSinkNames().size(), is(2));
+    }
+
+    @Test
+    public void parseLargeSinkList() throws IOException {
+        int count = 500;
+
+        Map<Integer, Sink> sinks = byId(Parser.parseSinks(PulseaudioStandIn.generateSinkList(count), client));
+
+        assertThat(sinks.size(), is(count));
+        for (int i = 0; i < count; i++) {
+            Sink sink = sinks.get(i);
+            assertThat(sink.getPaName(), is("alsa_output.pci-0000_00_1b.0.analog-stereo-" + i));
+            assertThat(sink.getVolume(), is(i % 100));
+            assertThat(sink.getState(), is(State.RUNNING));
+        }
+    }
+
+    @Test
+    public void largeSinkListIsParsedQuickly() throws IOException {
+        String answer = PulseaudioStandIn.generateSinkList(500);
+        // warm up the JIT
+        for (int i = 0; i < 10; i++) {
+            Parser.parseSinks(answer, client);
+        }
+
+        int rounds = 20;
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            Parser.parseSinks(answer, client);
+        }
+        long averageMillis = (System.nanoTime() - start) / rounds / 1000000;
+
+        // the list is parsed on the thread refreshing all pulseaudio things
+        assertThat("Average time to parse 500 sinks " + averageMillis + " ms", averageMillis < 250, is(true));
+    }
+
+    private static <T extends AbstractDeviceConfig> Map<Integer, T> byId(Collection<T> items) {
+        Map<Integer, T> itemsById = new HashMap<Integer, T>();
+        for (T item : items) {
+            itemsById.put(item.getId(), item);
+        }
+        return itemsById;
+    }
+}
@@ -171,7 +171,7 @@ public class PulseaudioHandler extends BaseThingHandler implements DeviceStatusL
             if (channelUID.getId().equals(PulseaudioBindingConstants.VOLUME_CHANNEL)) {
                 if (command instanceof IncreaseDecreaseType) {
                     // refresh to get the current volume level
-                    bridge.getClient().update();
+                    bridge.getClient().update(device);
                     device = bridge.getDevice(name);
                     int volume = device.getVolume();
                     if (command.equals(IncreaseDecreaseType.INCREASE)) {
@@ -8,6 +8,7 @@
  */
 package org.openhab.binding.pulseaudio.internal;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.PrintStream;
@@ -15,8 +16,15 @@ import java.net.Socket;
 import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.pulseaudio.internal.cli.Parser;
@@ -37,6 +45,9 @@ import org.slf4j.LoggerFactory;
  *
  * On the pulseaudio server the module-cli-protocol-tcp has to be loaded.
  *
+ * The items are indexed by id and name. The CLI protocol has no change notifications, so an update requests the
+ * lists and only parses those whose answer has changed, together with the lists referring to them.
+ *
  * @author Tobias Bräutigam
  * @since 1.2.0
  */
@@ -48,8 +59,11 @@ public class PulseaudioClient {
     private int port;
     private Socket client;
 
-    private List<AbstractAudioDeviceConfig> items;
-    private List<Module> modules;
+    private volatile Map<Integer, Module> modules = Collections.emptyMap();
+    private final ItemIndex<Sink> sinks = new ItemIndex<Sink>();
+    private final ItemIndex<Source> sources = new ItemIndex<Source>();
+    private final ItemIndex<SinkInput> sinkInputs = new ItemIndex<SinkInput>();
+    private final ItemIndex<SourceOutput> sourceOutputs = new ItemIndex<SourceOutput>();
 
     /**
      * corresponding name to execute actions on sink items
@@ -96,6 +110,28 @@ public class PulseaudioClient {
      */
     private static String CMD_LIST_SOURCE_OUTPUTS = "list-source-outputs";
 
+    /**
+     * the list commands in the order they have to be parsed, as later lists refer to items of earlier ones
+     */
+    private static final String[] LIST_COMMANDS = { CMD_LIST_MODULES, CMD_LIST_SINKS, CMD_LIST_SOURCES,
+            CMD_LIST_SINK_INPUTS, CMD_LIST_SOURCE_OUTPUTS };
+
+    private static final int LIST_MODULES = 0;
+    private static final int LIST_SINKS = 1;
+    private static final int LIST_SOURCES = 2;
+    private static final int LIST_SINK_INPUTS = 3;
+    private static final int LIST_SOURCE_OUTPUTS = 4;
+
+    /**
+     * the list whose items are referred to by the items of each list
+     */
+    private static final int[] LIST_DEPENDENCIES = { -1, LIST_MODULES, LIST_SINKS, LIST_SINKS, LIST_SOURCES };
+
+    /**
+     * the last answer to each list command, to skip parsing unchanged lists
+     */
+    private final String[] lastListAnswers = new String[LIST_COMMANDS.length];
+
     /**
      * command to load a module
      */
@@ -106,6 +142,11 @@ public class PulseaudioClient {
      */
     private static String CMD_UNLOAD_MODULE = "unload-module";
 
+    /**
+     * prompt of the pulseaudio cli, sent by older versions after each answer
+     */
+    private static final String PROMPT = ">>> ";
+
     /**
      * name of the module-combine-sink
      */
@@ -119,9 +160,6 @@ public class PulseaudioClient {
         this.host = host;
         this.port = port;
 
-        items = new ArrayList<AbstractAudioDeviceConfig>();
-        modules = new ArrayList<Module>();
-
         connect();
         update();
     }
@@ -133,37 +171,102 @@ public class PulseaudioClient {
     /**
      * updates the item states and their relationships
      */
-    public void update() {
-        modules.clear();
-        modules.addAll(Parser.parseModules(listModules()));
-
-        items.clear();
-        items.addAll(Parser.parseSinks(listSinks(), this));
-        items.addAll(Parser.parseSources(listSources(), this));
-        items.addAll(Parser.parseSinkInputs(listSinkInputs(), this));
-        items.addAll(Parser.parseSourceOutputs(listSourceOutputs(), this));
-
-        logger.debug("Pulseaudio server {}: {} modules and {} items updated", host, modules.size(), items.size());
+    public synchronized void update() {
+        update(LIST_MODULES, true);
+        logger.debug("Pulseaudio server {}: {} modules and {} items updated", host, modules.size(),
+                sinks.size() + sources.size() + sinkInputs.size() + sourceOutputs.size());
     }
 
-    private String listModules() {
-        return this._sendRawRequest(CMD_LIST_MODULES);
+    /**
+     * updates the items of the same type as the given <code>item</code> and the items referring to them
+     *
+     * @param item
+     */
+    public synchronized void update(AbstractAudioDeviceConfig item) {
+        int list = getList(item);
+        if (list >= 0) {
+            update(list, false);
+        }
     }
 
-    private String listSinks() {
-        return this._sendRawRequest(CMD_LIST_SINKS);
+    /**
+     * forgets the last answer to the list of the given <code>item</code> after the item has been changed locally, so
+     * that the list is parsed again on the next update even if the server answers the same as before
+     *
+     * @param item
+     */
+    private synchronized void invalidate(AbstractAudioDeviceConfig item) {
+        int list = getList(item);
+        if (list >= 0) {
+            lastListAnswers[list] = null;
+        }
     }
 
-    private String listSources() {
-        return this._sendRawRequest(CMD_LIST_SOURCES);
+    /**
+     * returns the list containing items of the same type as the given <code>item</code>
+     *
+     * @param item
+     * @return the list or -1 for unknown item types
+     */
+    private int getList(AbstractAudioDeviceConfig item) {
+        if (item instanceof Sink) {
+            return LIST_SINKS;
+        } else if (item instanceof Source) {
+            return LIST_SOURCES;
+        } else if (item instanceof SinkInput) {
+            return LIST_SINK_INPUTS;
+        } else if (item instanceof SourceOutput) {
+            return LIST_SOURCE_OUTPUTS;
+        }
+        return -1;
     }
 
-    private String listSinkInputs() {
-        return this._sendRawRequest(CMD_LIST_SINK_INPUTS);
+    /**
+     * requests the list <code>first</code> and parses it if it has changed. The following lists are requested if
+     * <code>all</code> is set or if the list they refer to has been parsed, and parsed if they have changed or the
+     * list they refer to has been parsed.
+     */
+    private void update(int first, boolean all) {
+        boolean[] parsed = new boolean[LIST_COMMANDS.length];
+        for (int list = first; list < LIST_COMMANDS.length; list++) {
+            int dependency = LIST_DEPENDENCIES[list];
+            boolean dependencyParsed = dependency >= 0 && parsed[dependency];
+            if (list != first && !all && !dependencyParsed) {
+                continue;
+            }
+            String answer = _sendRawRequest(LIST_COMMANDS[list]);
+            if (dependencyParsed || !answer.equals(lastListAnswers[list])) {
+                lastListAnswers[list] = answer;
+                parseList(list, answer);
+                parsed[list] = true;
+            }
+        }
     }
 
-    private String listSourceOutputs() {
-        return this._sendRawRequest(CMD_LIST_SOURCE_OUTPUTS);
+    private void parseList(int list, String answer) {
+        switch (list) {
+            case LIST_MODULES:
+                Map<Integer, Module> newModules = new HashMap<Integer, Module>();
+                for (Module module : Parser.parseModules(answer)) {
+                    newModules.put(module.getId(), module);
+                }
+                modules = newModules;
+                break;
+            case LIST_SINKS:
+                sinks.replace(Parser.parseSinks(answer, this));
+                break;
+            case LIST_SOURCES:
+                sources.replace(Parser.parseSources(answer, this));
+                break;
+            case LIST_SINK_INPUTS:
+                sinkInputs.replace(Parser.parseSinkInputs(answer, this));
+                break;
+            case LIST_SOURCE_OUTPUTS:
+                sourceOutputs.replace(Parser.parseSourceOutputs(answer, this));
+                break;
+            default:
+                break;
+        }
     }
 
     /**
@@ -173,12 +276,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link Module} to the given <code>id</code>
      */
     public Module getModule(int id) {
-        for (Module module : modules) {
-            if (module.getId() == id) {
-                return module;
-            }
-        }
-        return null;
+        return modules.get(id);
     }
 
     /**
@@ -198,12 +296,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link Sink} to the given <code>name</code>
      */
     public Sink getSink(String name) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getPaName().equalsIgnoreCase(name) && item instanceof Sink) {
-                return (Sink) item;
-            }
-        }
-        return null;
+        return sinks.get(name);
     }
 
     /**
@@ -212,12 +305,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link Sink} to the given <code>id</code>
      */
     public Sink getSink(int id) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getId() == id && item instanceof Sink) {
-                return (Sink) item;
-            }
-        }
-        return null;
+        return sinks.get(id);
     }
 
     /**
@@ -226,12 +314,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link SinkInput} to the given <code>name</code>
      */
     public SinkInput getSinkInput(String name) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getPaName().equalsIgnoreCase(name) && item instanceof SinkInput) {
-                return (SinkInput) item;
-            }
-        }
-        return null;
+        return sinkInputs.get(name);
     }
 
     /**
@@ -240,12 +323,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link SinkInput} to the given <code>id</code>
      */
     public SinkInput getSinkInput(int id) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getId() == id && item instanceof SinkInput) {
-                return (SinkInput) item;
-            }
-        }
-        return null;
+        return sinkInputs.get(id);
     }
 
     /**
@@ -254,12 +332,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link Source} to the given <code>name</code>
      */
     public Source getSource(String name) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getPaName().equalsIgnoreCase(name) && item instanceof Source) {
-                return (Source) item;
-            }
-        }
-        return null;
+        return sources.get(name);
     }
 
     /**
@@ -268,12 +341,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link Source} to the given <code>id</code>
      */
     public Source getSource(int id) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getId() == id && item instanceof Source) {
-                return (Source) item;
-            }
-        }
-        return null;
+        return sources.get(id);
     }
 
     /**
@@ -282,12 +350,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link SourceOutput} to the given <code>name</code>
      */
     public SourceOutput getSourceOutput(String name) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getPaName().equalsIgnoreCase(name) && item instanceof SourceOutput) {
-                return (SourceOutput) item;
-            }
-        }
-        return null;
+        return sourceOutputs.get(name);
     }
 
     /**
@@ -296,12 +359,7 @@ public class PulseaudioClient {
      * @return the corresponding {@link SourceOutput} to the given <code>id</code>
      */
     public SourceOutput getSourceOutput(int id) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getId() == id && item instanceof SourceOutput) {
-                return (SourceOutput) item;
-            }
-        }
-        return null;
+        return sourceOutputs.get(id);
     }
 
     /**
@@ -310,15 +368,25 @@ public class PulseaudioClient {
      * @return the corresponding {@link AbstractAudioDeviceConfig} to the given <code>name</code>
      */
     public AbstractAudioDeviceConfig getGenericAudioItem(String name) {
-        for (AbstractAudioDeviceConfig item : items) {
-            if (item.getPaName().equalsIgnoreCase(name)) {
-                return item;
-            }
+        AbstractAudioDeviceConfig item = sinks.get(name);
+        if (item == null) {
+            item = sources.get(name);
         }
-        return null;
+        if (item == null) {
+            item = sinkInputs.get(name);
+        }
+        if (item == null) {
+            item = sourceOutputs.get(name);
+        }
+        return item;
     }
 
     public List<AbstractAudioDeviceConfig> getItems() {
+        List<AbstractAudioDeviceConfig> items = new ArrayList<AbstractAudioDeviceConfig>();
+        items.addAll(sinks.values());
+        items.addAll(sources.values());
+        items.addAll(sinkInputs.values());
+        items.addAll(sourceOutputs.values());
         return items;
     }
 
@@ -340,6 +408,7 @@ public class PulseaudioClient {
         _sendRawCommand("set-" + itemCommandName + "-mute " + item.getId() + " " + muteString);
         // update internal data
         item.setMuted(mute);
+        invalidate(item);
     }
 
     /**
@@ -359,6 +428,7 @@ public class PulseaudioClient {
         }
         _sendRawCommand("set-" + itemCommandName + "-volume " + item.getId() + " " + vol);
         item.setVolume(Math.round(100f / 65536f * vol));
+        invalidate(item);
     }
 
     /**
@@ -442,6 +512,7 @@ public class PulseaudioClient {
         }
         _sendRawCommand("move-sink-input " + sinkInput.getId() + " " + sink.getId());
         sinkInput.setSink(sink);
+        invalidate(sinkInput);
     }
 
     /**
@@ -456,6 +527,7 @@ public class PulseaudioClient {
         }
         _sendRawCommand("move-sink-input " + sourceOutput.getId() + " " + source.getId());
         sourceOutput.setSource(source);
+        invalidate(sourceOutput);
     }
 
     /**
@@ -471,11 +543,12 @@ public class PulseaudioClient {
         if (suspend) {
             _sendRawCommand("suspend-source " + source.getId() + " 1");
             source.setState(State.SUSPENDED);
+            invalidate(source);
         } else {
             _sendRawCommand("suspend-source " + source.getId() + " 0");
             // unsuspending the source could result in different states (RUNNING,IDLE,...)
             // update to get the new state
-            update();
+            update(source);
         }
     }
 
@@ -492,11 +565,12 @@ public class PulseaudioClient {
         if (suspend) {
             _sendRawCommand("suspend-sink " + sink.getId() + " 1");
             sink.setState(State.SUSPENDED);
+            invalidate(sink);
         } else {
             _sendRawCommand("suspend-sink " + sink.getId() + " 0");
             // unsuspending the sink could result in different states (RUNNING,IDLE,...)
             // update to get the new state
-            update();
+            update(sink);
         }
     }
 
@@ -543,6 +617,7 @@ public class PulseaudioClient {
             out.print(command + "\r\n");
 
             InputStream instr = client.getInputStream();
+            ByteArrayOutputStream answer = new ByteArrayOutputStream();
 
             try {
                 byte[] buff = new byte[1024];
@@ -552,20 +627,22 @@ public class PulseaudioClient {
                     ret_read = instr.read(buff);
                     lc++;
                     if (ret_read > 0) {
-                        String line = new String(buff, 0, ret_read);
-                        // System.out.println("'"+line+"'");
-                        if (line.endsWith(">>> ") && lc > 1) {
-                            result += line.substring(0, line.length() - 4);
+                        answer.write(buff, 0, ret_read);
+                        if (lc > 1 && endsWithPrompt(buff, ret_read)) {
                             break;
                         }
-                        result += line.trim();
                     }
                 } while (ret_read > 0);
             } catch (SocketTimeoutException e) {
                 // Timeout -> as newer PA versions (>=5.0) do not send the >>> we have no chance
                 // to detect the end of the answer, except by this timeout
             } catch (IOException e) {
-                System.err.println("Exception while reading socket:" + e.getMessage());
+                logger.debug("Exception while reading socket: {}", e.getMessage());
+            }
+            // the answer is decoded at once, so multi-byte characters and line feeds split between reads are kept
+            result = new String(answer.toByteArray(), StandardCharsets.UTF_8);
+            if (result.endsWith(PROMPT)) {
+                result = result.substring(0, result.length() - PROMPT.length());
             }
             instr.close();
             out.close();
@@ -577,6 +654,18 @@ public class PulseaudioClient {
         return result;
     }
 
+    private static boolean endsWithPrompt(byte[] buff, int length) {
+        if (length < PROMPT.length()) {
+            return false;
+        }
+        for (int i = 0; i < PROMPT.length(); i++) {
+            if (buff[length - PROMPT.length() + i] != PROMPT.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void checkConnection() {
         if (client == null || client.isClosed() || !client.isConnected()) {
             try {
@@ -614,4 +703,44 @@ public class PulseaudioClient {
         }
     }
 
+    /**
+     * items of one type, indexed by id and by name
+     */
+    private static class ItemIndex<T extends AbstractAudioDeviceConfig> {
+        private volatile Map<Integer, T> byId = Collections.emptyMap();
+        private volatile Map<String, T> byName = Collections.emptyMap();
+
+        private void replace(Collection<T> items) {
+            Map<Integer, T> newById = new LinkedHashMap<Integer, T>();
+            Map<String, T> newByName = new HashMap<String, T>();
+            for (T item : items) {
+                newById.put(item.getId(), item);
+                if (item.getPaName() != null) {
+                    String key = item.getPaName().toLowerCase(Locale.ENGLISH);
+                    if (!newByName.containsKey(key)) {
+                        newByName.put(key, item);
+                    }
+                }
+            }
+            byId = newById;
+            byName = newByName;
+        }
+
+        private T get(int id) {
+            return byId.get(id);
+        }
+
+        private T get(String name) {
+            return name == null ? null : byName.get(name.toLowerCase(Locale.ENGLISH));
+        }
+
+        private Collection<T> values() {
+            return byId.values();
+        }
+
+        private int size() {
+            return byId.size();
+        }
+    }
+
 }
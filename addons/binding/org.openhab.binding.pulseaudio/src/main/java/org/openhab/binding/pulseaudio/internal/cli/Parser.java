@@ -10,10 +10,10 @@ package org.openhab.binding.pulseaudio.internal.cli;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Map;
 
 import org.openhab.binding.pulseaudio.internal.PulseaudioClient;
 import org.openhab.binding.pulseaudio.internal.items.AbstractAudioDeviceConfig;
@@ -28,17 +28,16 @@ import org.slf4j.LoggerFactory;
 /**
  * Parsers for the pulseaudio return strings
  *
+ * The answers to the list commands are scanned in a single pass: each <code>index:</code> starts a new item, and
+ * each following line of the form <code>key: value</code> or <code>key = "value"</code> is a property of that item.
+ *
  * @author Tobias Bräutigam
  * @since 1.2.0
  */
 public class Parser {
     private static final Logger logger = LoggerFactory.getLogger(Parser.class);
 
-    private static final Pattern pattern = Pattern.compile("^\\s+([a-z\\s._]+)[:=]\\s*<?\"?([^>\"]+)\"?>?$");
-    private static final Pattern volumePattern = Pattern.compile("^([\\w\\-]+):( *[\\d]+ \\/)? *([\\d]+)% *\\/? *([\\d\\-., dB]+)?$");
-    private static final Pattern fallBackPattern = Pattern
-            .compile("^([0-9]+)([a-z\\s._]+)[:=]\\s*<?\"?([^>\"]+)\"?>?$");
-    private static final Pattern numberValuePattern = Pattern.compile("^([0-9]+).*$");
+    private static final String INDEX = "index: ";
 
     /**
      * parses the pulseaudio servers answer to the list-modules command and returns a list of
@@ -49,33 +48,10 @@ public class Parser {
      */
     public static List<Module> parseModules(String raw) {
         List<Module> modules = new ArrayList<Module>();
-        String[] parts = raw.split("index: ");
-        if (parts.length <= 1) {
-            return modules;
-        }
-        // skip first part
-        for (int i = 1; i < parts.length; i++) {
-            String[] lines = parts[i].split("\n");
-            Hashtable<String, String> properties = new Hashtable<String, String>();
-            int id = 0;
-            try {
-                id = Integer.valueOf(lines[0].trim());
-            } catch (NumberFormatException e) {
-                // sometime the line feed is missing here
-                Matcher matcher = fallBackPattern.matcher(lines[0].trim());
-                if (matcher.find()) {
-                    id = Integer.valueOf(matcher.group(1));
-                    properties.put(matcher.group(2).trim(), matcher.group(3).trim());
-                }
-            }
-            for (int j = 1; j < lines.length; j++) {
-                Matcher matcher = pattern.matcher(lines[j]);
-                if (matcher.find()) {
-                    properties.put(matcher.group(1).trim(), matcher.group(2).trim());
-                }
-            }
+        for (Block block : parseBlocks(raw)) {
+            Map<String, String> properties = block.properties;
             if (properties.containsKey("name")) {
-                Module module = new Module(id, properties.get("name"));
+                Module module = new Module(block.id, properties.get("name"));
                 if (properties.containsKey("argument")) {
                     module.setArgument(properties.get("argument"));
                 }
@@ -94,32 +70,10 @@ public class Parser {
      */
     public static Collection<Sink> parseSinks(String raw, PulseaudioClient client) {
         Hashtable<String, Sink> sinks = new Hashtable<String, Sink>();
-        String[] parts = raw.split("index: ");
-        if (parts.length <= 1) {
-            return sinks.values();
-        }
-        // skip first part
         List<Sink> combinedSinks = new ArrayList<Sink>();
-        for (int i = 1; i < parts.length; i++) {
-            String[] lines = parts[i].split("\n");
-            Hashtable<String, String> properties = new Hashtable<String, String>();
-            int id = 0;
-            try {
-                id = Integer.valueOf(lines[0].trim());
-            } catch (NumberFormatException e) {
-                // sometime the line feed is missing here
-                Matcher matcher = fallBackPattern.matcher(lines[0].trim());
-                if (matcher.find()) {
-                    id = Integer.valueOf(matcher.group(1));
-                    properties.put(matcher.group(2).trim(), matcher.group(3).trim());
-                }
-            }
-            for (int j = 1; j < lines.length; j++) {
-                Matcher matcher = pattern.matcher(lines[j]);
-                if (matcher.find()) {
-                    properties.put(matcher.group(1).trim(), matcher.group(2).trim());
-                }
-            }
+        for (Block block : parseBlocks(raw)) {
+            Map<String, String> properties = block.properties;
+            int id = block.id;
             if (properties.containsKey("name")) {
                 Sink sink = new Sink(id, properties.get("name"),
                         client.getModule(getNumberValue(properties.get("module"))));
@@ -134,7 +88,7 @@ public class Parser {
                     sink.setMuted(properties.get("muted").equalsIgnoreCase("yes"));
                 }
                 if (properties.containsKey("volume")) {
-                    sink.setVolume(Integer.valueOf(parseVolume(properties.get("volume"))));
+                    sink.setVolume(parseVolume(properties.get("volume")));
                 }
                 if (properties.containsKey("combine.slaves")) {
                     // this is a combined sink, the combined sink object should be
@@ -163,30 +117,9 @@ public class Parser {
      */
     public static List<SinkInput> parseSinkInputs(String raw, PulseaudioClient client) {
         List<SinkInput> items = new ArrayList<SinkInput>();
-        String[] parts = raw.split("index: ");
-        if (parts.length <= 1) {
-            return items;
-        }
-        for (int i = 1; i < parts.length; i++) {
-            String[] lines = parts[i].split("\n");
-            Hashtable<String, String> properties = new Hashtable<String, String>();
-            int id = 0;
-            try {
-                id = Integer.valueOf(lines[0].trim());
-            } catch (NumberFormatException e) {
-                // sometime the line feed is missing here
-                Matcher matcher = fallBackPattern.matcher(lines[0].trim());
-                if (matcher.find()) {
-                    id = Integer.valueOf(matcher.group(1));
-                    properties.put(matcher.group(2).trim(), matcher.group(3).trim());
-                }
-            }
-            for (int j = 1; j < lines.length; j++) {
-                Matcher matcher = pattern.matcher(lines[j]);
-                if (matcher.find()) {
-                    properties.put(matcher.group(1).trim(), matcher.group(2).trim());
-                }
-            }
+        for (Block block : parseBlocks(raw)) {
+            Map<String, String> properties = block.properties;
+            int id = block.id;
             if (properties.containsKey("sink")) {
                 String name = properties.containsKey("media.name") ? properties.get("media.name")
                         : properties.get("sink");
@@ -202,11 +135,9 @@ public class Parser {
                     item.setMuted(properties.get("muted").equalsIgnoreCase("yes"));
                 }
                 if (properties.containsKey("volume")) {
-                    item.setVolume(Integer.valueOf(parseVolume(properties.get("volume"))));
-                }
-                if (properties.containsKey("sink")) {
-                    item.setSink(client.getSink(Integer.valueOf(getNumberValue(properties.get("sink")))));
+                    item.setVolume(parseVolume(properties.get("volume")));
                 }
+                item.setSink(client.getSink(getNumberValue(properties.get("sink"))));
                 items.add(item);
             }
         }
@@ -222,31 +153,9 @@ public class Parser {
      */
     public static List<Source> parseSources(String raw, PulseaudioClient client) {
         List<Source> sources = new ArrayList<Source>();
-        String[] parts = raw.split("index: ");
-        if (parts.length <= 1) {
-            return sources;
-        }
-        // skip first part
-        for (int i = 1; i < parts.length; i++) {
-            String[] lines = parts[i].split("\n");
-            Hashtable<String, String> properties = new Hashtable<String, String>();
-            int id = 0;
-            try {
-                id = Integer.valueOf(lines[0].trim());
-            } catch (NumberFormatException e) {
-                // sometime the line feed is missing here
-                Matcher matcher = fallBackPattern.matcher(lines[0].trim());
-                if (matcher.find()) {
-                    id = Integer.valueOf(matcher.group(1));
-                    properties.put(matcher.group(2).trim(), matcher.group(3).trim());
-                }
-            }
-            for (int j = 1; j < lines.length; j++) {
-                Matcher matcher = pattern.matcher(lines[j]);
-                if (matcher.find()) {
-                    properties.put(matcher.group(1).trim(), matcher.group(2).trim());
-                }
-            }
+        for (Block block : parseBlocks(raw)) {
+            Map<String, String> properties = block.properties;
+            int id = block.id;
             if (properties.containsKey("name")) {
                 Source source = new Source(id, properties.get("name"),
                         client.getModule(getNumberValue(properties.get("module"))));
@@ -261,10 +170,10 @@ public class Parser {
                     source.setMuted(properties.get("muted").equalsIgnoreCase("yes"));
                 }
                 if (properties.containsKey("volume")) {
-                    source.setVolume(Integer.valueOf(parseVolume(properties.get("volume"))));
+                    source.setVolume(parseVolume(properties.get("volume")));
                 }
                 if (properties.containsKey("monitor_of")) {
-                    source.setMonitorOf(client.getSink(Integer.valueOf(properties.get("monitor_of"))));
+                    source.setMonitorOf(client.getSink(getNumberValue(properties.get("monitor_of"))));
                 }
                 sources.add(source);
             }
@@ -281,31 +190,9 @@ public class Parser {
      */
     public static List<SourceOutput> parseSourceOutputs(String raw, PulseaudioClient client) {
         List<SourceOutput> items = new ArrayList<SourceOutput>();
-        String[] parts = raw.split("index: ");
-        if (parts.length <= 1) {
-            return items;
-        }
-        // skip first part
-        for (int i = 1; i < parts.length; i++) {
-            String[] lines = parts[i].split("\n");
-            Hashtable<String, String> properties = new Hashtable<String, String>();
-            int id = 0;
-            try {
-                id = Integer.valueOf(lines[0].trim());
-            } catch (NumberFormatException e) {
-                // sometime the line feed is missing here
-                Matcher matcher = fallBackPattern.matcher(lines[0].trim());
-                if (matcher.find()) {
-                    id = Integer.valueOf(matcher.group(1));
-                    properties.put(matcher.group(2).trim(), matcher.group(3).trim());
-                }
-            }
-            for (int j = 1; j < lines.length; j++) {
-                Matcher matcher = pattern.matcher(lines[j]);
-                if (matcher.find()) {
-                    properties.put(matcher.group(1).trim(), matcher.group(2).trim());
-                }
-            }
+        for (Block block : parseBlocks(raw)) {
+            Map<String, String> properties = block.properties;
+            int id = block.id;
             if (properties.containsKey("source")) {
                 SourceOutput item = new SourceOutput(id, properties.get("source"),
                         client.getModule(getNumberValue(properties.get("module"))));
@@ -320,17 +207,149 @@ public class Parser {
                     item.setMuted(properties.get("muted").equalsIgnoreCase("yes"));
                 }
                 if (properties.containsKey("volume")) {
-                    item.setVolume(Integer.valueOf(parseVolume(properties.get("volume"))));
-                }
-                if (properties.containsKey("source")) {
-                    item.setSource(client.getSource(Integer.valueOf(getNumberValue(properties.get("source")))));
+                    item.setVolume(parseVolume(properties.get("volume")));
                 }
+                item.setSource(client.getSource(getNumberValue(properties.get("source"))));
                 items.add(item);
             }
         }
         return items;
     }
 
+    /**
+     * An item of a list answer: its index and its properties
+     */
+    private static class Block {
+        private final int id;
+        private final Map<String, String> properties = new HashMap<String, String>();
+
+        private Block(int id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * splits a list answer into its items. Everything before the first <code>index:</code> is skipped.
+     *
+     * @param raw the given string from the pulseaudio server
+     * @return the items in the order of the answer
+     */
+    private static List<Block> parseBlocks(String raw) {
+        List<Block> blocks = new ArrayList<Block>();
+        int start = raw.indexOf(INDEX);
+        while (start >= 0) {
+            int position = start + INDEX.length();
+            int next = raw.indexOf(INDEX, position);
+            int end = next < 0 ? raw.length() : next;
+
+            int lineEnd = lineEnd(raw, position, end);
+            int digitsEnd = skipDigits(raw, skipWhitespace(raw, position, lineEnd), lineEnd);
+            Block block = new Block(parseInt(raw, skipWhitespace(raw, position, lineEnd), digitsEnd));
+            if (skipWhitespace(raw, digitsEnd, lineEnd) < lineEnd) {
+                // sometime the line feed is missing here, the rest of the line is the first property
+                parseProperty(raw, digitsEnd, lineEnd, false, block.properties);
+            }
+
+            position = lineEnd + 1;
+            while (position < end) {
+                lineEnd = lineEnd(raw, position, end);
+                parseProperty(raw, position, lineEnd, true, block.properties);
+                position = lineEnd + 1;
+            }
+            blocks.add(block);
+            start = next;
+        }
+        return blocks;
+    }
+
+    /**
+     * parses a property line of the form <code>key: value</code> or <code>key = "value"</code>. Keys consist of
+     * lower case letters, blanks, dots and underscores. Values may be enclosed in &lt;&gt; or quotes and must not
+     * contain them otherwise. Lines which do not match are ignored.
+     */
+    private static void parseProperty(String raw, int start, int end, boolean indented,
+            Map<String, String> properties) {
+        int position = start;
+        if (indented) {
+            if (position >= end || !Character.isWhitespace(raw.charAt(position))) {
+                return;
+            }
+            position = skipWhitespace(raw, position, end);
+        }
+        int keyStart = position;
+        while (position < end && isKeyChar(raw.charAt(position))) {
+            position++;
+        }
+        if (position == keyStart || position >= end) {
+            return;
+        }
+        char separator = raw.charAt(position);
+        if (separator != ':' && separator != '=') {
+            return;
+        }
+        String key = raw.substring(keyStart, position).trim();
+
+        position = skipWhitespace(raw, position + 1, end);
+        if (position < end && raw.charAt(position) == '<') {
+            position++;
+        }
+        if (position < end && raw.charAt(position) == '"') {
+            position++;
+        }
+        int valueEnd = end;
+        if (valueEnd > position && raw.charAt(valueEnd - 1) == '>') {
+            valueEnd--;
+        }
+        if (valueEnd > position && raw.charAt(valueEnd - 1) == '"') {
+            valueEnd--;
+        }
+        if (valueEnd <= position) {
+            return;
+        }
+        for (int i = position; i < valueEnd; i++) {
+            char c = raw.charAt(i);
+            if (c == '>' || c == '"') {
+                return;
+            }
+        }
+        properties.put(key, raw.substring(position, valueEnd).trim());
+    }
+
+    private static boolean isKeyChar(char c) {
+        return (c >= 'a' && c <= 'z') || c == '.' || c == '_' || Character.isWhitespace(c);
+    }
+
+    private static int lineEnd(String raw, int position, int end) {
+        int lineEnd = raw.indexOf('\n', position);
+        if (lineEnd < 0 || lineEnd > end) {
+            lineEnd = end;
+        }
+        // ignore the carriage return of \r\n line ends
+        return lineEnd > position && raw.charAt(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+    }
+
+    private static int skipWhitespace(String raw, int position, int end) {
+        while (position < end && Character.isWhitespace(raw.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int skipDigits(String raw, int position, int end) {
+        while (position < end && Character.isDigit(raw.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int parseInt(String raw, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (raw.charAt(i) - '0');
+        }
+        return value;
+    }
+
     /**
      * converts the volume value given by the pulseaudio server
      * to a percentage value. The pulseaudio server sends 2 values for left and right channel volume
@@ -342,14 +361,24 @@ public class Parser {
     private static int parseVolume(String vol) {
         int volumeTotal = 0;
         int nChannels = 0;
-        for (String channel : vol.split(", ")) {
-            Matcher matcher = volumePattern.matcher(channel.trim());
-            if (matcher.find()) {
-                volumeTotal += Integer.valueOf(matcher.group(3));
+        int position = vol.indexOf(':');
+        while (position >= 0) {
+            // the percentage of a channel follows the channel name, e.g. front-left: 65536 / 100% / 0.00 dB
+            int percent = vol.indexOf('%', position);
+            if (percent < 0) {
+                break;
+            }
+            int digitsStart = percent;
+            while (digitsStart > position && Character.isDigit(vol.charAt(digitsStart - 1))) {
+                digitsStart--;
+            }
+            if (digitsStart < percent) {
+                volumeTotal += parseInt(vol, digitsStart, percent);
                 nChannels++;
             } else {
-                logger.debug("Unable to parse channel volume '{}'", channel);
+                logger.debug("Unable to parse channel volume '{}'", vol);
             }
+            position = vol.indexOf(':', percent);
         }
         if (nChannels > 0) {
             return Math.round(volumeTotal / nChannels);
@@ -366,18 +395,14 @@ public class Parser {
      * @return
      */
     private static int getNumberValue(String raw) {
-        int id = -1;
         if (raw == null) {
             return 0;
         }
-        try {
-            id = Integer.valueOf(raw.trim());
-        } catch (NumberFormatException e) {
-            Matcher matcher = numberValuePattern.matcher(raw.trim());
-            if (matcher.find()) {
-                id = Integer.valueOf(matcher.group(1));
-            }
+        String value = raw.trim();
+        int digitsEnd = skipDigits(value, 0, value.length());
+        if (digitsEnd == 0) {
+            return -1;
         }
-        return id;
+        return parseInt(value, 0, digitsEnd);
     }
 }
@@ -33,5 +33,14 @@ public class SMAEnergyMeterBindingConstants {
     public static final String CHANNEL_POWER_OUT = "powerOut";
     public static final String CHANNEL_ENERGY_IN = "energyIn";
     public static final String CHANNEL_ENERGY_OUT = "energyOut";
+    public static final String CHANNEL_POWER_FACTOR = "powerFactor";
+
+    // Prefixes of the per phase channel IDs, followed by the phase number 1 to 3
+    public static final String CHANNEL_POWER_IN_PHASE = "powerInL";
+    public static final String CHANNEL_POWER_OUT_PHASE = "powerOutL";
+    public static final String CHANNEL_CURRENT_PHASE = "currentL";
+    public static final String CHANNEL_VOLTAGE_PHASE = "voltageL";
+    public static final String CHANNEL_POWER_FACTOR_PHASE = "powerFactorL";
+    public static final int PHASES = 3;
 
 }
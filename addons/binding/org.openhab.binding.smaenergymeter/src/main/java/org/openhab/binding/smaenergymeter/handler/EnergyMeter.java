@@ -13,7 +13,6 @@ import java.net.DatagramPacket;
 import java.net.InetAddress;
 import java.net.MulticastSocket;
 import java.nio.ByteBuffer;
-import java.util.Arrays;
 import java.util.Date;
 
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -22,6 +21,10 @@ import org.eclipse.smarthome.core.library.types.DecimalType;
  * The {@link EnergyMeter} class is responsible for communication with the SMA device
  * and extracting the data fields out of the received telegrams.
  *
+ * A telegram holds a list of OBIS records, each consisting of a 4 byte header (channel, index, type, tariff) and
+ * a 4 byte current value (type 4) or an 8 byte counter (type 8). The records are decoded in one pass and stored
+ * by their OBIS index.
+ *
  * @author Osman Basha - Initial contribution
  */
 public class EnergyMeter {
@@ -32,51 +35,110 @@ public class EnergyMeter {
     private String serialNumber;
     private Date lastUpdate;
 
-    private final FieldDTO powerIn;
-    private final FieldDTO energyIn;
-    private final FieldDTO powerOut;
-    private final FieldDTO energyOut;
+    private final long[] currentValues = new long[256];
+    private final long[] counterValues = new long[256];
 
     public static final String DEFAULT_MCAST_GRP = "239.12.255.254";
     public static final int DEFAULT_MCAST_PORT = 9522;
 
+    /** Maximum length of a telegram */
+    public static final int MAX_TELEGRAM_LENGTH = 1024;
+
+    // OBIS indexes of the totals
+    public static final int OBIS_POWER_IN = 1;
+    public static final int OBIS_POWER_OUT = 2;
+    public static final int OBIS_POWER_FACTOR = 13;
+
+    // OBIS indexes of phase L1, add PHASE_OFFSET for each further phase
+    public static final int OBIS_POWER_IN_L1 = 21;
+    public static final int OBIS_POWER_OUT_L1 = 22;
+    public static final int OBIS_CURRENT_L1 = 31;
+    public static final int OBIS_VOLTAGE_L1 = 32;
+    public static final int OBIS_POWER_FACTOR_L1 = 33;
+    public static final int PHASE_OFFSET = 20;
+
+    // Units of the values: 0.1 W, Ws, mA, mV and 0.001 for the power factor
+    public static final int POWER_DIVISOR = 10;
+    public static final int ENERGY_DIVISOR = 3600000;
+    public static final int CURRENT_DIVISOR = 1000;
+    public static final int VOLTAGE_DIVISOR = 1000;
+    public static final int POWER_FACTOR_DIVISOR = 1000;
+
+    private static final int PROTOCOL_ID_EMETER = 0x6069;
+    private static final int HEADER_LENGTH = 0x1C;
+    private static final int OBIS_TYPE_CURRENT = 4;
+    private static final int OBIS_TYPE_COUNTER = 8;
+    private static final int OBIS_CHANNEL_VERSION = 0x90;
+
     public EnergyMeter(String multicastGroup, int port) {
         this.multicastGroup = multicastGroup;
         this.port = port;
-
-        powerIn = new FieldDTO(0x20, 4, 10);
-        energyIn = new FieldDTO(0x28, 8, 3600000);
-        powerOut = new FieldDTO(0x34, 4, 10);
-        energyOut = new FieldDTO(0x3C, 8, 3600000);
     }
 
+    /**
+     * Receives a single telegram on a socket of its own.
+     */
     public void update() throws IOException {
-        byte[] bytes = new byte[600];
+        byte[] bytes = new byte[MAX_TELEGRAM_LENGTH];
         try (MulticastSocket socket = new MulticastSocket(port)) {
             socket.setSoTimeout(5000);
             InetAddress address = InetAddress.getByName(multicastGroup);
             socket.joinGroup(address);
 
             DatagramPacket msgPacket = new DatagramPacket(bytes, bytes.length);
-            socket.receive(msgPacket);
+            do {
+                socket.receive(msgPacket);
+            } while (!isEnergyMeterTelegram(bytes, msgPacket.getLength()));
 
-            String sma = new String(Arrays.copyOfRange(bytes, 0x00, 0x03));
-            if (!sma.equals("SMA")) {
-                throw new IOException("Not a SMA telegram." + sma);
-            }
+            parse(bytes, msgPacket.getLength());
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
 
-            ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOfRange(bytes, 0x14, 0x18));
-            serialNumber = String.valueOf(buffer.getInt());
+    /**
+     * Checks if the datagram is an energy meter telegram, SMA inverters send other telegrams to the same group.
+     */
+    public static boolean isEnergyMeterTelegram(byte[] bytes, int length) {
+        return length >= HEADER_LENGTH && bytes[0] == 'S' && bytes[1] == 'M' && bytes[2] == 'A'
+                && ByteBuffer.wrap(bytes, 0x10, 2).getShort() == PROTOCOL_ID_EMETER;
+    }
 
-            powerIn.updateValue(bytes);
-            energyIn.updateValue(bytes);
-            powerOut.updateValue(bytes);
-            energyOut.updateValue(bytes);
+    /**
+     * Decodes all OBIS records of a telegram.
+     */
+    public void parse(byte[] bytes, int length) throws IOException {
+        if (!isEnergyMeterTelegram(bytes, length)) {
+            throw new IOException("Not a SMA Energy Meter telegram.");
+        }
 
-            lastUpdate = new Date(System.currentTimeMillis());
-        } catch (Exception e) {
-            throw new IOException(e);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length);
+        serialNumber = String.valueOf(buffer.getInt(0x14));
+
+        // the data length counts from the protocol id on
+        int end = Math.min(length, 0x10 + (buffer.getShort(0x0C) & 0xFFFF));
+        int position = HEADER_LENGTH;
+        while (position + 4 <= end) {
+            int channel = bytes[position] & 0xFF;
+            int index = bytes[position + 1] & 0xFF;
+            int type = bytes[position + 2] & 0xFF;
+            position += 4;
+
+            if (channel == OBIS_CHANNEL_VERSION) {
+                position += 4;
+            } else if (type == OBIS_TYPE_CURRENT && position + 4 <= end) {
+                currentValues[index] = buffer.getInt(position) & 0xFFFFFFFFL;
+                position += 4;
+            } else if (type == OBIS_TYPE_COUNTER && position + 8 <= end) {
+                counterValues[index] = buffer.getLong(position);
+                position += 8;
+            } else {
+                // end of data or unknown record type
+                break;
+            }
         }
+
+        lastUpdate = new Date(System.currentTimeMillis());
     }
 
     public String getSerialNumber() {
@@ -87,20 +149,34 @@ public class EnergyMeter {
         return lastUpdate;
     }
 
+    /**
+     * Returns the current value of an OBIS index, divided by the divisor of its unit.
+     */
+    public float getCurrentValue(int obisIndex, int divisor) {
+        return (float) currentValues[obisIndex] / divisor;
+    }
+
+    /**
+     * Returns the counter of an OBIS index, divided by the divisor of its unit.
+     */
+    public float getCounterValue(int obisIndex, int divisor) {
+        return (float) counterValues[obisIndex] / divisor;
+    }
+
     public DecimalType getPowerIn() {
-        return new DecimalType(powerIn.getValue());
+        return new DecimalType(getCurrentValue(OBIS_POWER_IN, POWER_DIVISOR));
     }
 
     public DecimalType getPowerOut() {
-        return new DecimalType(powerOut.getValue());
+        return new DecimalType(getCurrentValue(OBIS_POWER_OUT, POWER_DIVISOR));
     }
 
     public DecimalType getEnergyIn() {
-        return new DecimalType(energyIn.getValue());
+        return new DecimalType(getCounterValue(OBIS_POWER_IN, ENERGY_DIVISOR));
     }
 
     public DecimalType getEnergyOut() {
-        return new DecimalType(energyOut.getValue());
+        return new DecimalType(getCounterValue(OBIS_POWER_OUT, ENERGY_DIVISOR));
     }
 
 }
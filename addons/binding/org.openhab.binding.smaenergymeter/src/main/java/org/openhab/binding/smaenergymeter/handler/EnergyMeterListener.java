@@ -0,0 +1,25 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.smaenergymeter.handler;
+
+/**
+ * The {@link EnergyMeterListener} is notified by the {@link EnergyMeterReceiver} about received telegrams.
+ *
+ * @author agent - Initial contribution
+ */
+public interface EnergyMeterListener {
+
+    /**
+     * Called from the receiver thread for every telegram of the energy meter.
+     *
+     * @param energyMeter The decoded telegram
+     */
+    void telegramReceived(EnergyMeter energyMeter);
+
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.smaenergymeter.handler;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.MulticastSocket;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The {@link EnergyMeterReceiver} keeps a multicast socket joined to a group and passes the received telegrams to
+ * the listeners of the sending energy meter. There is one receiver per multicast group and port, shared by all
+ * energy meter things.
+ *
+ * @author agent - Initial contribution
+ */
+public class EnergyMeterReceiver {
+
+    private static final Map<String, EnergyMeterReceiver> RECEIVERS = new HashMap<>();
+
+    /** Listeners for the telegrams of all energy meters */
+    public static final String ANY_SERIAL_NUMBER = "";
+
+    private static final int RECONNECT_DELAY = 10000;
+
+    private final Logger logger = LoggerFactory.getLogger(EnergyMeterReceiver.class);
+
+    private final String key;
+    private final String multicastGroup;
+    private final int port;
+    private final Map<String, List<EnergyMeterListener>> listeners = new ConcurrentHashMap<>();
+
+    private int references;
+    private volatile boolean running;
+    private volatile MulticastSocket socket;
+    private Thread thread;
+
+    private EnergyMeterReceiver(String key, String multicastGroup, int port) {
+        this.key = key;
+        this.multicastGroup = multicastGroup;
+        this.port = port;
+    }
+
+    /**
+     * Returns the receiver of a multicast group and port, which is started if it is not yet running.
+     * Every call has to be paired with a call of {@link #release()}.
+     */
+    public static EnergyMeterReceiver acquire(String multicastGroup, int port) throws IOException {
+        String key = multicastGroup + ":" + port;
+        synchronized (RECEIVERS) {
+            EnergyMeterReceiver receiver = RECEIVERS.get(key);
+            if (receiver == null) {
+                receiver = new EnergyMeterReceiver(key, multicastGroup, port);
+                receiver.start();
+                RECEIVERS.put(key, receiver);
+            }
+            receiver.references++;
+            return receiver;
+        }
+    }
+
+    /**
+     * Stops the receiver when it is no longer used.
+     */
+    public void release() {
+        synchronized (RECEIVERS) {
+            if (--references == 0) {
+                RECEIVERS.remove(key);
+                stop();
+            }
+        }
+    }
+
+    /**
+     * @param serialNumber The serial number of the energy meter or {@link #ANY_SERIAL_NUMBER}
+     * @param listener The listener for the telegrams of the energy meter
+     */
+    public void addListener(String serialNumber, EnergyMeterListener listener) {
+        listeners.computeIfAbsent(serialNumber, k -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    public void removeListener(EnergyMeterListener listener) {
+        for (List<EnergyMeterListener> serialNumberListeners : listeners.values()) {
+            serialNumberListeners.remove(listener);
+        }
+    }
+
+    private void start() throws IOException {
+        socket = openSocket();
+        running = true;
+        thread = new Thread(this::receive, "ESH-smaenergymeter-" + key);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void stop() {
+        running = false;
+        socket.close();
+        thread.interrupt();
+    }
+
+    private MulticastSocket openSocket() throws IOException {
+        MulticastSocket multicastSocket = new MulticastSocket(port);
+        try {
+            multicastSocket.joinGroup(InetAddress.getByName(multicastGroup));
+        } catch (IOException e) {
+            multicastSocket.close();
+            throw e;
+        }
+        logger.debug("Joined multicast group {}", key);
+        return multicastSocket;
+    }
+
+    private void receive() {
+        byte[] bytes = new byte[EnergyMeter.MAX_TELEGRAM_LENGTH];
+        DatagramPacket packet = new DatagramPacket(bytes, bytes.length);
+        while (running) {
+            try {
+                packet.setLength(bytes.length);
+                socket.receive(packet);
+                if (EnergyMeter.isEnergyMeterTelegram(bytes, packet.getLength())) {
+                    EnergyMeter energyMeter = new EnergyMeter(multicastGroup, port);
+                    energyMeter.parse(bytes, packet.getLength());
+                    notifyListeners(energyMeter.getSerialNumber(), energyMeter);
+                    notifyListeners(ANY_SERIAL_NUMBER, energyMeter);
+                }
+            } catch (IOException e) {
+                if (running) {
+                    logger.debug("Receiving from multicast group {} failed: {}", key, e.getMessage());
+                    reopenSocket();
+                }
+            }
+        }
+        logger.debug("Left multicast group {}", key);
+    }
+
+    private void reopenSocket() {
+        socket.close();
+        while (running) {
+            try {
+                Thread.sleep(RECONNECT_DELAY);
+                socket = openSocket();
+                if (!running) {
+                    socket.close();
+                }
+                return;
+            } catch (IOException e) {
+                logger.debug("Joining multicast group {} failed: {}", key, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void notifyListeners(String serialNumber, EnergyMeter energyMeter) {
+        List<EnergyMeterListener> serialNumberListeners = listeners.get(serialNumber);
+        if (serialNumberListeners != null) {
+            for (EnergyMeterListener listener : serialNumberListeners) {
+                try {
+                    listener.telegramReceived(energyMeter);
+                } catch (RuntimeException e) {
+                    logger.warn("Energy meter listener failed: {}", e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+}
@@ -11,9 +11,13 @@ package org.openhab.binding.smaenergymeter.handler;
 import static org.openhab.binding.smaenergymeter.SMAEnergyMeterBindingConstants.*;
 
 import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
 import org.eclipse.smarthome.core.thing.ThingStatus;
@@ -22,6 +26,7 @@ import org.eclipse.smarthome.core.thing.binding.BaseThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.openhab.binding.smaenergymeter.configuration.EnergyMeterConfig;
+import org.openhab.binding.smaenergymeter.handler.ValueAggregator.Aggregation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -29,23 +34,64 @@ import org.slf4j.LoggerFactory;
  * The {@link SMAEnergyMeterHandler} is responsible for handling commands, which are
  * sent to one of the channels.
  *
+ * The telegrams are pushed by a shared {@link EnergyMeterReceiver}, the values are collected between two
+ * publications and published every polling period.
+ *
  * @author Osman Basha - Initial contribution
  */
-public class SMAEnergyMeterHandler extends BaseThingHandler {
+public class SMAEnergyMeterHandler extends BaseThingHandler implements EnergyMeterListener {
+
+    /** The energy meter sends a telegram every second */
+    private static final long TELEGRAM_TIMEOUT = TimeUnit.SECONDS.toMillis(10);
 
     private Logger logger = LoggerFactory.getLogger(SMAEnergyMeterHandler.class);
-    private EnergyMeter energyMeter;
+    private final Map<String, Field> currentValueChannels = new LinkedHashMap<>();
+    private final Map<String, Field> counterChannels = new LinkedHashMap<>();
+    private final Map<String, ValueAggregator> aggregators = new LinkedHashMap<>();
+
+    private EnergyMeterReceiver receiver;
+    private Aggregation aggregation;
+    private volatile String serialNumber;
+    private volatile EnergyMeter lastEnergyMeter;
+    private volatile long lastTelegramTime;
     private ScheduledFuture<?> pollingJob;
 
     public SMAEnergyMeterHandler(Thing thing) {
         super(thing);
+
+        currentValueChannels.put(CHANNEL_POWER_IN, new Field(EnergyMeter.OBIS_POWER_IN, EnergyMeter.POWER_DIVISOR));
+        currentValueChannels.put(CHANNEL_POWER_OUT, new Field(EnergyMeter.OBIS_POWER_OUT, EnergyMeter.POWER_DIVISOR));
+        currentValueChannels.put(CHANNEL_POWER_FACTOR,
+                new Field(EnergyMeter.OBIS_POWER_FACTOR, EnergyMeter.POWER_FACTOR_DIVISOR));
+        for (int phase = 1; phase <= PHASES; phase++) {
+            int offset = EnergyMeter.PHASE_OFFSET * (phase - 1);
+            currentValueChannels.put(CHANNEL_POWER_IN_PHASE + phase,
+                    new Field(EnergyMeter.OBIS_POWER_IN_L1 + offset, EnergyMeter.POWER_DIVISOR));
+            currentValueChannels.put(CHANNEL_POWER_OUT_PHASE + phase,
+                    new Field(EnergyMeter.OBIS_POWER_OUT_L1 + offset, EnergyMeter.POWER_DIVISOR));
+            currentValueChannels.put(CHANNEL_CURRENT_PHASE + phase,
+                    new Field(EnergyMeter.OBIS_CURRENT_L1 + offset, EnergyMeter.CURRENT_DIVISOR));
+            currentValueChannels.put(CHANNEL_VOLTAGE_PHASE + phase,
+                    new Field(EnergyMeter.OBIS_VOLTAGE_L1 + offset, EnergyMeter.VOLTAGE_DIVISOR));
+            currentValueChannels.put(CHANNEL_POWER_FACTOR_PHASE + phase,
+                    new Field(EnergyMeter.OBIS_POWER_FACTOR_L1 + offset, EnergyMeter.POWER_FACTOR_DIVISOR));
+        }
+        counterChannels.put(CHANNEL_ENERGY_IN, new Field(EnergyMeter.OBIS_POWER_IN, EnergyMeter.ENERGY_DIVISOR));
+        counterChannels.put(CHANNEL_ENERGY_OUT, new Field(EnergyMeter.OBIS_POWER_OUT, EnergyMeter.ENERGY_DIVISOR));
+
+        for (String channelId : currentValueChannels.keySet()) {
+            aggregators.put(channelId, new ValueAggregator());
+        }
     }
 
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
         if (command == RefreshType.REFRESH) {
             logger.debug("Refreshing {}", channelUID);
-            updateData();
+            EnergyMeter energyMeter = lastEnergyMeter;
+            if (energyMeter != null) {
+                publishLatest(channelUID.getId(), energyMeter);
+            }
         } else {
             logger.warn("This binding is a read-only binding and cannot handle commands");
         }
@@ -57,29 +103,41 @@ public class SMAEnergyMeterHandler extends BaseThingHandler {
 
         EnergyMeterConfig config = getConfigAs(EnergyMeterConfig.class);
 
+        String multicastGroup = (config.getMcastGroup() == null) ? EnergyMeter.DEFAULT_MCAST_GRP
+                : config.getMcastGroup();
         int port = (config.getPort() == null) ? EnergyMeter.DEFAULT_MCAST_PORT : config.getPort();
-        energyMeter = new EnergyMeter(config.getMcastGroup(), port);
         try {
-            energyMeter.update();
+            aggregation = (config.getAggregation() == null) ? Aggregation.LATEST
+                    : Aggregation.valueOf(config.getAggregation().toUpperCase(Locale.ENGLISH));
+        } catch (IllegalArgumentException e) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.CONFIGURATION_ERROR,
+                    "Unknown aggregation '" + config.getAggregation() + "'");
+            return;
+        }
 
-            updateProperty(Thing.PROPERTY_VENDOR, "SMA");
-            updateProperty(Thing.PROPERTY_SERIAL_NUMBER, energyMeter.getSerialNumber());
-            logger.debug("Found a SMA Energy Meter with S/N '{}'", energyMeter.getSerialNumber());
+        lastEnergyMeter = null;
+        lastTelegramTime = 0;
+        serialNumber = getThing().getProperties().get(Thing.PROPERTY_SERIAL_NUMBER);
+        try {
+            receiver = EnergyMeterReceiver.acquire(multicastGroup, port);
         } catch (IOException e) {
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.OFFLINE.CONFIGURATION_ERROR, e.getMessage());
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getMessage());
             return;
         }
+        // without a known serial number the first energy meter heard is adopted
+        receiver.addListener(serialNumber == null ? EnergyMeterReceiver.ANY_SERIAL_NUMBER : serialNumber, this);
+        updateProperty(Thing.PROPERTY_VENDOR, "SMA");
 
         int pollingPeriod = (config.getPollingPeriod() == null) ? 30 : config.getPollingPeriod();
         pollingJob = scheduler.scheduleWithFixedDelay(new Runnable() {
             @Override
             public void run() {
-                updateData();
+                publishData();
             }
-        }, 0, pollingPeriod, TimeUnit.SECONDS);
-        logger.debug("Polling job scheduled to run every {} sec. for '{}'", pollingPeriod, getThing().getUID());
+        }, pollingPeriod, pollingPeriod, TimeUnit.SECONDS);
+        logger.debug("Publishing job scheduled to run every {} sec. for '{}'", pollingPeriod, getThing().getUID());
 
-        updateStatus(ThingStatus.ONLINE);
+        updateStatus(ThingStatus.UNKNOWN);
     }
 
     @Override
@@ -90,25 +148,84 @@ public class SMAEnergyMeterHandler extends BaseThingHandler {
             pollingJob.cancel(true);
             pollingJob = null;
         }
-        energyMeter = null;
+        if (receiver != null) {
+            receiver.removeListener(this);
+            receiver.release();
+            receiver = null;
+        }
+        lastEnergyMeter = null;
     }
 
-    private synchronized void updateData() {
-        logger.debug("Update SMAEnergyMeter data '{}'", getThing().getUID());
+    @Override
+    public void telegramReceived(EnergyMeter energyMeter) {
+        if (serialNumber == null) {
+            serialNumber = energyMeter.getSerialNumber();
+            updateProperty(Thing.PROPERTY_SERIAL_NUMBER, serialNumber);
+            logger.debug("Found a SMA Energy Meter with S/N '{}'", serialNumber);
+        } else if (!serialNumber.equals(energyMeter.getSerialNumber())) {
+            return;
+        }
 
-        try {
-            energyMeter.update();
+        for (Map.Entry<String, Field> entry : currentValueChannels.entrySet()) {
+            Field field = entry.getValue();
+            aggregators.get(entry.getKey()).add(energyMeter.getCurrentValue(field.obisIndex, field.divisor));
+        }
 
-            updateState(CHANNEL_POWER_IN, energyMeter.getPowerIn());
-            updateState(CHANNEL_POWER_OUT, energyMeter.getPowerOut());
-            updateState(CHANNEL_ENERGY_IN, energyMeter.getEnergyIn());
-            updateState(CHANNEL_ENERGY_OUT, energyMeter.getEnergyOut());
+        boolean first = lastEnergyMeter == null;
+        lastEnergyMeter = energyMeter;
+        lastTelegramTime = System.currentTimeMillis();
 
-            if (getThing().getStatus().equals(ThingStatus.OFFLINE)) {
-                updateStatus(ThingStatus.ONLINE);
+        if (first || getThing().getStatus() != ThingStatus.ONLINE) {
+            updateStatus(ThingStatus.ONLINE);
+            for (String channelId : currentValueChannels.keySet()) {
+                publishLatest(channelId, energyMeter);
             }
-        } catch (IOException e) {
-            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.OFFLINE.COMMUNICATION_ERROR, e.getMessage());
+            for (String channelId : counterChannels.keySet()) {
+                publishLatest(channelId, energyMeter);
+            }
+        }
+    }
+
+    private synchronized void publishData() {
+        logger.debug("Update SMAEnergyMeter data '{}'", getThing().getUID());
+
+        EnergyMeter energyMeter = lastEnergyMeter;
+        if (energyMeter == null || System.currentTimeMillis() - lastTelegramTime > TELEGRAM_TIMEOUT) {
+            updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR,
+                    "No telegram received from the energy meter");
+            return;
+        }
+
+        for (Map.Entry<String, ValueAggregator> entry : aggregators.entrySet()) {
+            Float value = entry.getValue().getAndReset(aggregation);
+            if (value != null) {
+                updateState(entry.getKey(), new DecimalType(value));
+            }
+        }
+        for (String channelId : counterChannels.keySet()) {
+            publishLatest(channelId, energyMeter);
+        }
+    }
+
+    private void publishLatest(String channelId, EnergyMeter energyMeter) {
+        Field field = currentValueChannels.get(channelId);
+        if (field != null) {
+            updateState(channelId, new DecimalType(energyMeter.getCurrentValue(field.obisIndex, field.divisor)));
+            return;
+        }
+        field = counterChannels.get(channelId);
+        if (field != null) {
+            updateState(channelId, new DecimalType(energyMeter.getCounterValue(field.obisIndex, field.divisor)));
+        }
+    }
+
+    private static class Field {
+        private final int obisIndex;
+        private final int divisor;
+
+        private Field(int obisIndex, int divisor) {
+            this.obisIndex = obisIndex;
+            this.divisor = divisor;
         }
     }
 
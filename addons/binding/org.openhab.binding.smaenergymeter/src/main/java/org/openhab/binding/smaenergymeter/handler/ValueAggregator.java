@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.smaenergymeter.handler;
+
+/**
+ * The {@link ValueAggregator} class collects the values of a field received between two publications.
+ *
+ * @author agent - Initial contribution
+ */
+public class ValueAggregator {
+
+    public enum Aggregation {
+        LATEST,
+        AVERAGE,
+        MINIMUM,
+        MAXIMUM
+    }
+
+    private float latest;
+    private float minimum;
+    private float maximum;
+    private double sum;
+    private int count;
+
+    public synchronized void add(float value) {
+        latest = value;
+        if (count == 0 || value < minimum) {
+            minimum = value;
+        }
+        if (count == 0 || value > maximum) {
+            maximum = value;
+        }
+        sum += value;
+        count++;
+    }
+
+    /**
+     * Returns the aggregated value and starts a new interval.
+     *
+     * @return The aggregated value, null if no value has been received since the last call
+     */
+    public synchronized Float getAndReset(Aggregation aggregation) {
+        if (count == 0) {
+            return null;
+        }
+
+        float value;
+        switch (aggregation) {
+            case AVERAGE:
+                value = (float) (sum / count);
+                break;
+            case MINIMUM:
+                value = minimum;
+                break;
+            case MAXIMUM:
+                value = maximum;
+                break;
+            case LATEST:
+            default:
+                value = latest;
+                break;
+        }
+
+        sum = 0;
+        count = 0;
+        return value;
+    }
+
+}
@@ -53,4 +53,15 @@ public interface SqueezeBoxPlayerEventListener {
     void remoteTitleChangeEvent(String mac, String title);
 
     void irCodeChangeEvent(String mac, String ircode);
+
+    /**
+     * Called once for every status message of a player. By default the contained fields are passed to the single
+     * event methods above.
+     *
+     * @param mac the MAC address of the player
+     * @param status the fields contained in the status message
+     */
+    default void statusEvent(String mac, SqueezeBoxPlayerStatus status) {
+        status.notifyListener(mac, this);
+    }
 }
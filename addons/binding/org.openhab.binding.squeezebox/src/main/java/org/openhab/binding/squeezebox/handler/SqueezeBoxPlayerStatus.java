@@ -0,0 +1,273 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.squeezebox.handler;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The fields of a single player status message from the Squeeze Server CLI. Only fields contained in the message are
+ * set. Text fields are kept URL encoded as received and are only decoded when they are read.
+ *
+ * @author agent - Initial contribution
+ */
+public class SqueezeBoxPlayerStatus {
+    private static final Logger logger = LoggerFactory.getLogger(SqueezeBoxPlayerStatus.class);
+
+    /** Encoded separator between the name and the value of a status field */
+    private static final String FIELD_SEPARATOR = "%3A";
+
+    private Boolean power;
+    private Integer volume;
+    private String mode;
+    private Integer time;
+    private Integer duration;
+    private Integer playlistIndex;
+    private Integer playlistTracks;
+    private Integer repeat;
+    private Integer shuffle;
+    private String title;
+    private String remoteTitle;
+    private String artist;
+    private String album;
+    private String genre;
+    private String year;
+    private String coverArtUrl;
+
+    /**
+     * Parses the fields of a status message in a single pass.
+     *
+     * @param message the complete CLI line
+     * @param start the index of the first field, after player id and message type
+     * @param coverArtBaseUrl the base URL for cover art, e.g. "http://host:9000/music/"
+     * @return the parsed status
+     */
+    static SqueezeBoxPlayerStatus parse(String message, int start, String coverArtBaseUrl) {
+        SqueezeBoxPlayerStatus status = new SqueezeBoxPlayerStatus();
+        int length = message.length();
+        while (start < length) {
+            int end = message.indexOf(' ', start);
+            if (end < 0) {
+                end = length;
+            }
+            int separator = message.indexOf(FIELD_SEPARATOR, start);
+            if (separator > start && separator < end) {
+                String name = message.substring(start, separator);
+                String value = message.substring(separator + FIELD_SEPARATOR.length(), end);
+                try {
+                    status.setField(name, value, coverArtBaseUrl);
+                } catch (NumberFormatException e) {
+                    logger.debug("Invalid value for status field '{}': {}", name, value);
+                }
+            }
+            start = end + 1;
+        }
+        return status;
+    }
+
+    private void setField(String name, String value, String coverArtBaseUrl) {
+        switch (name) {
+            case "power":
+                power = "1".equals(value);
+                break;
+            case "mixer%20volume":
+                volume = parseInt(value);
+                break;
+            case "mode":
+                mode = value;
+                break;
+            case "time":
+                time = parseInt(value);
+                break;
+            case "duration":
+                duration = parseInt(value);
+                break;
+            case "playlist_cur_index":
+                playlistIndex = parseInt(value);
+                break;
+            case "playlist_tracks":
+                playlistTracks = parseInt(value);
+                break;
+            case "playlist%20repeat":
+                repeat = parseInt(value);
+                break;
+            case "playlist%20shuffle":
+                shuffle = parseInt(value);
+                break;
+            case "title":
+                title = value;
+                break;
+            case "remote_title":
+                remoteTitle = value;
+                break;
+            case "artist":
+                artist = value;
+                break;
+            case "album":
+                album = value;
+                break;
+            case "genre":
+                genre = value;
+                break;
+            case "year":
+                year = value;
+                break;
+            case "artwork_track_id":
+                coverArtUrl = coverArtBaseUrl + value + "/cover.jpg";
+                break;
+            default:
+                // Added to be able to see additional status message types
+                logger.trace("Unhandled status message type '{}'", name);
+                break;
+        }
+    }
+
+    /**
+     * Passes all fields of this status to the event methods of the given listener.
+     */
+    void notifyListener(String mac, SqueezeBoxPlayerEventListener listener) {
+        if (power != null) {
+            listener.powerChangeEvent(mac, power);
+        }
+        if (volume != null) {
+            listener.volumeChangeEvent(mac, volume);
+        }
+        if (mode != null) {
+            listener.modeChangeEvent(mac, mode);
+        }
+        if (time != null) {
+            listener.currentPlayingTimeEvent(mac, time);
+        }
+        if (duration != null) {
+            listener.durationEvent(mac, duration);
+        }
+        if (playlistIndex != null) {
+            listener.currentPlaylistIndexEvent(mac, playlistIndex);
+        }
+        if (playlistTracks != null) {
+            listener.numberPlaylistTracksEvent(mac, playlistTracks);
+        }
+        if (repeat != null) {
+            listener.currentPlaylistRepeatEvent(mac, repeat);
+        }
+        if (shuffle != null) {
+            listener.currentPlaylistShuffleEvent(mac, shuffle);
+        }
+        if (title != null) {
+            listener.titleChangeEvent(mac, getTitle());
+        }
+        if (remoteTitle != null) {
+            listener.remoteTitleChangeEvent(mac, getRemoteTitle());
+        }
+        if (artist != null) {
+            listener.artistChangeEvent(mac, getArtist());
+        }
+        if (album != null) {
+            listener.albumChangeEvent(mac, getAlbum());
+        }
+        if (genre != null) {
+            listener.genreChangeEvent(mac, getGenre());
+        }
+        if (year != null) {
+            listener.yearChangeEvent(mac, getYear());
+        }
+        if (coverArtUrl != null) {
+            listener.coverArtChangeEvent(mac, getCoverArtUrl());
+        }
+    }
+
+    public Boolean getPower() {
+        return power;
+    }
+
+    public Integer getVolume() {
+        return volume;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public Integer getTime() {
+        return time;
+    }
+
+    public Integer getDuration() {
+        return duration;
+    }
+
+    public Integer getPlaylistIndex() {
+        return playlistIndex;
+    }
+
+    public Integer getPlaylistTracks() {
+        return playlistTracks;
+    }
+
+    public Integer getRepeat() {
+        return repeat;
+    }
+
+    public Integer getShuffle() {
+        return shuffle;
+    }
+
+    public String getTitle() {
+        return decode(title);
+    }
+
+    public String getRemoteTitle() {
+        return decode(remoteTitle);
+    }
+
+    public String getArtist() {
+        return decode(artist);
+    }
+
+    public String getAlbum() {
+        return decode(album);
+    }
+
+    public String getGenre() {
+        return decode(genre);
+    }
+
+    public String getYear() {
+        return decode(year);
+    }
+
+    public String getCoverArtUrl() {
+        return decode(coverArtUrl);
+    }
+
+    /**
+     * Numeric values may be sent with decimals, e.g. the playing time
+     */
+    private static int parseInt(String value) {
+        return (int) Double.parseDouble(value);
+    }
+
+    /**
+     * Decodes a URL encoded value. Values without any encoded characters are returned as they are.
+     */
+    static String decode(String raw) {
+        if (raw == null || (raw.indexOf('%') < 0 && raw.indexOf('+') < 0)) {
+            return raw;
+        }
+        try {
+            return URLDecoder.decode(raw, "UTF-8");
+        } catch (UnsupportedEncodingException | IllegalArgumentException e) {
+            logger.debug("Failed to decode '{}' ", raw, e);
+            return raw;
+        }
+    }
+}
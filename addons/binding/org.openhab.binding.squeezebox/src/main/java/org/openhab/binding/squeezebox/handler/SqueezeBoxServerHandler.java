@@ -15,16 +15,14 @@ import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
 import java.net.Socket;
-import java.net.URLDecoder;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -53,6 +51,7 @@ import org.slf4j.LoggerFactory;
  * @author Mark Hilbush - Implement AudioSink and notifications
  * @author Mark Hilbush - Added duration channel
  * @author Mark Hilbush - Added login/password authentication for LMS
+ * @author agent - Route player events by MAC address, parse status messages in a single pass
  */
 public class SqueezeBoxServerHandler extends BaseBridgeHandler {
     private Logger logger = LoggerFactory.getLogger(SqueezeBoxServerHandler.class);
@@ -68,10 +67,10 @@ public class SqueezeBoxServerHandler extends BaseBridgeHandler {
     private static final int VOLUME_CHANGE_SIZE = 5;
     private static final String NEW_LINE = System.getProperty("line.separator");
 
-    private List<SqueezeBoxPlayerEventListener> squeezeBoxPlayerListeners = Collections
-            .synchronizedList(new ArrayList<SqueezeBoxPlayerEventListener>());
-    private Map<String, SqueezeBoxPlayer> players = Collections
-            .synchronizedMap(new HashMap<String, SqueezeBoxPlayer>());
+    private List<SqueezeBoxPlayerEventListener> squeezeBoxPlayerListeners = new CopyOnWriteArrayList<>();
+    private Map<String, SqueezeBoxPlayer> players = new ConcurrentHashMap<>();
+    // player handlers by MAC address, status messages are only passed to the player they belong to
+    private Map<String, SqueezeBoxPlayerEventListener> playerHandlers = new ConcurrentHashMap<>();
     // client socket and listener thread
     private Socket clientSocket;
     private SqueezeServerListener listener;
@@ -435,301 +434,104 @@ public class SqueezeBoxServerHandler extends BaseBridgeHandler {
             logger.debug("Squeeze Server listener exiting.");
         }
 
-        private String decode(String raw) {
-            try {
-                return URLDecoder.decode(raw, "UTF-8");
-            } catch (UnsupportedEncodingException e) {
-                logger.debug("Failed to decode '{}' ", raw, e);
-                return null;
-            }
-        }
-
         private void handlePlayersList(String message) {
-            // Split out players
-            String[] playersList = message.split("playerindex\\S*\\s");
-            for (String playerParams : playersList) {
-
-                // For each player, split out parameters and decode parameter
-                String[] parameterList = playerParams.split("\\s");
-                for (int i = 0; i < parameterList.length; i++) {
-                    parameterList[i] = decode(parameterList[i]);
-                }
-
-                // parse out the MAC address first
-                String macAddress = null;
-                for (String parameter : parameterList) {
-                    if (parameter.contains("playerid")) {
-                        macAddress = parameter.substring(parameter.indexOf(":") + 1);
-                        break;
-                    }
-                }
-
-                // if none found then ignore this set of params
-                if (macAddress == null) {
+            // Split out players, each one starting with its playerindex parameter
+            SqueezeBoxPlayer player = null;
+            for (String parameter : StringUtils.split(message, ' ')) {
+                int separator = parameter.indexOf("%3A");
+                if (separator < 0) {
                     continue;
                 }
-
-                final SqueezeBoxPlayer player = new SqueezeBoxPlayer();
-                player.setMacAddress(macAddress);
-                // populate the player state
-                for (String parameter : parameterList) {
-                    if (parameter.contains("ip")) {
-                        player.setIpAddr(parameter.substring(parameter.indexOf(":") + 1));
-                    } else if (parameter.contains("uuid")) {
-                        player.setUuid(parameter.substring(parameter.indexOf(":") + 1));
-                    } else if (parameter.contains("name")) {
-                        player.setName(parameter.substring(parameter.indexOf(":") + 1));
-                    } else if (parameter.contains("model")) {
-                        player.setModel(parameter.substring(parameter.indexOf(":") + 1));
-                    }
+                String name = parameter.substring(0, separator);
+                String value = SqueezeBoxPlayerStatus.decode(parameter.substring(separator + 3));
+                if (name.equals("playerindex")) {
+                    addPlayer(player);
+                    player = new SqueezeBoxPlayer();
+                } else if (player == null) {
+                    continue;
+                } else if (name.equals("playerid")) {
+                    player.setMacAddress(value);
+                } else if (name.equals("ip")) {
+                    player.setIpAddr(value);
+                } else if (name.equals("uuid")) {
+                    player.setUuid(value);
+                } else if (name.equals("name")) {
+                    player.setName(value);
+                } else if (name.equals("model")) {
+                    player.setModel(value);
                 }
+            }
+            addPlayer(player);
+        }
 
-                // Save player if we haven't seen it yet
-                if (!players.containsKey(macAddress)) {
-                    players.put(macAddress, player);
-
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.playerAdded(player);
-                        }
-                    });
+        private void addPlayer(final SqueezeBoxPlayer player) {
+            // if no MAC address was found then ignore this player
+            if (player == null || player.getMacAddress() == null) {
+                return;
+            }
 
-                    // tell the server we want to subscribe to player updates
-                    sendCommand(player.getMacAddress() + " status - 1 subscribe:10 tags:yagJlN");
+            // Save player if we haven't seen it yet
+            if (players.putIfAbsent(player.getMacAddress(), player) == null) {
+                for (SqueezeBoxPlayerEventListener listener : squeezeBoxPlayerListeners) {
+                    listener.playerAdded(player);
                 }
+
+                // tell the server we want to subscribe to player updates
+                sendCommand(player.getMacAddress() + " status - 1 subscribe:10 tags:yagJlN");
             }
         }
 
         private void handlePlayerUpdate(String message) {
-            String[] messageParts = message.split("\\s");
-            if (messageParts.length < 2) {
+            int macEnd = message.indexOf(' ');
+            if (macEnd < 0) {
                 logger.warn("Invalid message - expecting at least 2 parts. Ignoring.");
                 return;
             }
+            int typeEnd = message.indexOf(' ', macEnd + 1);
+            if (typeEnd < 0) {
+                typeEnd = message.length();
+            }
 
-            final String mac = decode(messageParts[0]);
+            final String mac = SqueezeBoxPlayerStatus.decode(message.substring(0, macEnd));
 
             // get the message type
-            String messageType = messageParts[1];
+            String messageType = message.substring(macEnd + 1, typeEnd);
 
             if (messageType.equals("status")) {
-                handleStatusMessage(mac, messageParts);
-            } else if (messageType.equals("playlist")) {
+                // status messages are frequent and long, parse them in a single pass into one event
+                final SqueezeBoxPlayerStatus status = SqueezeBoxPlayerStatus.parse(message, typeEnd + 1,
+                        "http://" + host + ":" + webport + "/music/");
+                updatePlayer(mac, listener -> listener.statusEvent(mac, status));
+                return;
+            }
+
+            String[] messageParts = StringUtils.split(message, ' ');
+            if (messageType.equals("playlist")) {
                 handlePlaylistMessage(mac, messageParts);
             } else if (messageType.equals("prefset")) {
                 handlePrefsetMessage(mac, messageParts);
             } else if (messageType.equals("ir")) {
+                if (messageParts.length < 3) {
+                    return;
+                }
                 final String ircode = messageParts[2];
-                updatePlayer(new PlayerUpdateEvent() {
-                    @Override
-                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                        listener.irCodeChangeEvent(mac, ircode);
-                    }
-                });
+                updatePlayer(mac, listener -> listener.irCodeChangeEvent(mac, ircode));
             } else {
                 logger.trace("Unhandled player update message type '{}'.", messageType);
             }
         }
 
-        private void handleStatusMessage(final String mac, String[] messageParts) {
-            for (String messagePart : messageParts) {
-                // Parameter Power
-                if (messagePart.startsWith("power%3A")) {
-                    String value = messagePart.substring("power%3A".length());
-                    final boolean power = value.matches("1");
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.powerChangeEvent(mac, power);
-                        }
-                    });
-                }
-                // Parameter Volume
-                else if (messagePart.startsWith("mixer%20volume%3A")) {
-                    String value = messagePart.substring("mixer%20volume%3A".length());
-                    final int volume = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.volumeChangeEvent(mac, volume);
-                        }
-                    });
-                }
-                // Parameter Mode
-                else if (messagePart.startsWith("mode%3A")) {
-                    final String mode = messagePart.substring("mode%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.modeChangeEvent(mac, mode);
-                        }
-                    });
-                }
-                // Parameter Playing Time
-                else if (messagePart.startsWith("time%3A")) {
-                    String value = messagePart.substring("time%3A".length());
-                    final int time = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.currentPlayingTimeEvent(mac, time);
-                        }
-                    });
-                }
-                // Parameter duration
-                else if (messagePart.startsWith("duration%3A")) {
-                    String value = messagePart.substring("duration%3A".length());
-                    final int duration = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.durationEvent(mac, duration);
-                        }
-                    });
-                }
-                // Parameter Playing Playlist Index
-                else if (messagePart.startsWith("playlist_cur_index%3A")) {
-                    String value = messagePart.substring("playlist_cur_index%3A".length());
-                    // player.setCurrentPlaylistIndex((int)
-                    // Integer.parseInt(value));
-                    final int index = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.currentPlaylistIndexEvent(mac, index);
-                        }
-                    });
-                }
-                // Parameter Playlist Number Tracks
-                else if (messagePart.startsWith("playlist_tracks%3A")) {
-                    String value = messagePart.substring("playlist_tracks%3A".length());
-                    final int track = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.numberPlaylistTracksEvent(mac, track);
-                        }
-                    });
-                }
-                // Parameter Playlist Repeat Mode
-                else if (messagePart.startsWith("playlist%20repeat%3A")) {
-                    String value = messagePart.substring("playlist%20repeat%3A".length());
-                    final int repeat = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.currentPlaylistRepeatEvent(mac, repeat);
-                        }
-                    });
-                }
-                // Parameter Playlist Shuffle Mode
-                else if (messagePart.startsWith("playlist%20shuffle%3A")) {
-                    String value = messagePart.substring("playlist%20shuffle%3A".length());
-                    final int shuffle = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.currentPlaylistShuffleEvent(mac, shuffle);
-                        }
-                    });
-                }
-                // Parameter Title
-                else if (messagePart.startsWith("title%3A")) {
-                    final String value = messagePart.substring("title%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.titleChangeEvent(mac, decode(value));
-                        }
-                    });
-
-                }
-                // Parameter Remote Title (radio)
-                else if (messagePart.startsWith("remote_title%3A")) {
-                    final String value = messagePart.substring("remote_title%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.remoteTitleChangeEvent(mac, decode(value));
-                        }
-                    });
-                }
-                // Parameter Artist
-                else if (messagePart.startsWith("artist%3A")) {
-                    final String value = messagePart.substring("artist%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.artistChangeEvent(mac, decode(value));
-                        }
-                    });
-                }
-                // Parameter Album
-                else if (messagePart.startsWith("album%3A")) {
-                    final String value = messagePart.substring("album%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.albumChangeEvent(mac, decode(value));
-                        }
-                    });
-                }
-                // Parameter Genre
-                else if (messagePart.startsWith("genre%3A")) {
-                    final String value = messagePart.substring("genre%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.genreChangeEvent(mac, decode(value));
-                        }
-                    });
-                }
-                // Parameter Year
-                else if (messagePart.startsWith("year%3A")) {
-                    final String value = messagePart.substring("year%3A".length());
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.yearChangeEvent(mac, decode(value));
-                        }
-                    });
-                }
-                // Parameter Artwork
-                else if (messagePart.startsWith("artwork_track_id%3A")) {
-                    String url = messagePart.substring("artwork_track_id%3A".length());
-                    // NOTE: what is returned if not an artwork id? i.e. if a
-                    // space?
-                    if (!url.startsWith(" ")) {
-                        url = "http://" + host + ":" + webport + "/music/" + url + "/cover.jpg";
-                    }
-                    final String value = url;
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.coverArtChangeEvent(mac, decode(value));
-                        }
-                    });
-                } else {
-                    // Added to be able to see additional status message types
-                    logger.trace("Unhandled status message type '{}'", messagePart);
-                }
-            }
-        }
-
         private void handlePlaylistMessage(final String mac, String[] messageParts) {
+            if (messageParts.length < 3) {
+                return;
+            }
             String action = messageParts[2];
             String mode;
             if (action.equals("newsong")) {
                 mode = "play";
                 // Set the track duration to 0
-                updatePlayer(new PlayerUpdateEvent() {
-                    @Override
-                    public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                        listener.durationEvent(mac, 0);
-                    }
-                });
-            } else if (action.equals("pause")) {
+                updatePlayer(mac, listener -> listener.durationEvent(mac, 0));
+            } else if (action.equals("pause") && messageParts.length > 3) {
                 mode = messageParts[3].equals("0") ? "play" : "pause";
             } else if (action.equals("stop")) {
                 mode = "stop";
@@ -739,12 +541,7 @@ public class SqueezeBoxServerHandler extends BaseBridgeHandler {
                 return;
             }
             final String value = mode;
-            updatePlayer(new PlayerUpdateEvent() {
-                @Override
-                public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                    listener.modeChangeEvent(mac, value);
-                }
-            });
+            updatePlayer(mac, listener -> listener.modeChangeEvent(mac, value));
         }
 
         private void handlePrefsetMessage(final String mac, String[] messageParts) {
@@ -757,22 +554,16 @@ public class SqueezeBoxServerHandler extends BaseBridgeHandler {
                 String function = messageParts[3];
                 String value = messageParts[4];
 
-                if (function.equals("power")) {
-                    final boolean power = value.equals("1");
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.powerChangeEvent(mac, power);
-                        }
-                    });
-                } else if (function.equals("volume")) {
-                    final int volume = (int) Double.parseDouble(value);
-                    updatePlayer(new PlayerUpdateEvent() {
-                        @Override
-                        public void updateListener(SqueezeBoxPlayerEventListener listener) {
-                            listener.volumeChangeEvent(mac, volume);
-                        }
-                    });
+                try {
+                    if (function.equals("power")) {
+                        final boolean power = value.equals("1");
+                        updatePlayer(mac, listener -> listener.powerChangeEvent(mac, power));
+                    } else if (function.equals("volume")) {
+                        final int volume = (int) Double.parseDouble(value);
+                        updatePlayer(mac, listener -> listener.volumeChangeEvent(mac, volume));
+                    }
+                } catch (NumberFormatException e) {
+                    logger.debug("Invalid value for prefset {}: {}", function, value);
                 }
             }
         }
@@ -790,31 +581,41 @@ public class SqueezeBoxServerHandler extends BaseBridgeHandler {
     }
 
     /**
-     * Update Listeners and child Squeeze Player Things
+     * Update Listeners and the child Squeeze Player Thing with the given MAC address
      *
+     * @param mac
      * @param event
      */
-    private void updatePlayer(PlayerUpdateEvent event) {
+    private void updatePlayer(String mac, PlayerUpdateEvent event) {
         // update listeners like disco services
         for (SqueezeBoxPlayerEventListener listener : squeezeBoxPlayerListeners) {
             event.updateListener(listener);
         }
-        // update our children
-        Bridge bridge = getThing();
-
-        if (bridge == null) {
-            return;
+        // update our child, if there is one for this player
+        SqueezeBoxPlayerEventListener playerHandler = playerHandlers.get(mac);
+        if (playerHandler != null && !squeezeBoxPlayerListeners.contains(playerHandler)) {
+            event.updateListener(playerHandler);
         }
+    }
 
-        List<Thing> things = bridge.getThings();
-        for (Thing thing : things) {
-            ThingHandler handler = thing.getHandler();
-            if (handler instanceof SqueezeBoxPlayerEventListener && !squeezeBoxPlayerListeners.contains(handler)) {
-                event.updateListener((SqueezeBoxPlayerEventListener) handler);
+    @Override
+    public void childHandlerInitialized(ThingHandler childHandler, Thing childThing) {
+        if (childHandler instanceof SqueezeBoxPlayerHandler) {
+            String mac = ((SqueezeBoxPlayerHandler) childHandler).getMac();
+            if (mac != null) {
+                logger.trace("Registering player handler for {}", mac);
+                playerHandlers.put(mac, (SqueezeBoxPlayerHandler) childHandler);
             }
         }
     }
 
+    @Override
+    public void childHandlerDisposed(ThingHandler childHandler, Thing childThing) {
+        if (childHandler instanceof SqueezeBoxPlayerHandler) {
+            playerHandlers.values().remove(childHandler);
+        }
+    }
+
     /**
      * Adds a listener for player events
      *
@@ -654,6 +654,28 @@ class SysteminfoOSGiTest extends OSGiTest{
         assertItemState(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
     }
 
+    @Test
+    public void 'assert channel diagnostics#samplingTime is updated' () {
+        String channnelID = SysteminfoBindingConstants.CHANNEL_DIAGNOSTICS_SAMPLING_TIME
+        String acceptedItemType = "Number";
+
+        initializeThingWithChannel(channnelID,acceptedItemType);
+        assertItemState(acceptedItemType,DEFAULT_TEST_ITEM_NAME,DEFAULT_CHANNEL_TEST_PRIORITY);
+    }
+
+    @Test
+    public void 'assert invalid deadband is handled'() {
+        Configuration configuration = new Configuration()
+        configuration.put(SysteminfoBindingConstants.HIGH_PRIORITY_REFRESH_TIME, new BigDecimal(DEFAULT_TEST_INTERVAL_HIGH))
+        configuration.put(SysteminfoBindingConstants.MEDIUM_PRIORITY_REFRESH_TIME, new BigDecimal(DEFAULT_TEST_INTERVAL_MEDIUM))
+
+        //invalid value - must not be negative
+        configuration.put(SysteminfoBindingConstants.DEADBAND, new BigDecimal(-1))
+        initializeThingWithConfiguration(configuration)
+
+        testInvalidConfiguration()
+    }
+
     class SysteminfoDiscoveryServiceMock extends SysteminfoDiscoveryService {
         String hostname;
         SysteminfoDiscoveryServiceMock(String hostname) {
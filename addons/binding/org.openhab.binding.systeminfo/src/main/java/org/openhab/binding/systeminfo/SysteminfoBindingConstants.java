@@ -301,6 +301,11 @@ public class SysteminfoBindingConstants {
      */
     public static final String CHANNEL_PROCESS_PATH = "process#path";
 
+    /**
+     * Time in milliseconds needed for the last sampling of the system information
+     */
+    public static final String CHANNEL_DIAGNOSTICS_SAMPLING_TIME = "diagnostics#samplingTime";
+
     // Thing configuraion
     /**
      * Name of the configuration parameter of the thing that defines refresh time for High priority channels
@@ -312,6 +317,12 @@ public class SysteminfoBindingConstants {
      */
     public static final String MEDIUM_PRIORITY_REFRESH_TIME = "interval_medium";
 
+    /**
+     * Name of the configuration parameter of the thing that defines the minimal change of a numeric channel value,
+     * before the new value is published
+     */
+    public static final String DEADBAND = "deadband";
+
     // Channel configuration
 
     /**
@@ -16,10 +16,12 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.smarthome.config.core.Configuration;
+import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.thing.Channel;
 import org.eclipse.smarthome.core.thing.ChannelUID;
 import org.eclipse.smarthome.core.thing.Thing;
@@ -54,6 +56,21 @@ public class SysteminfoHandler extends BaseThingHandler {
      */
     private BigDecimal refreshIntervalMediumPriority;
 
+    /**
+     * Minimal change of a numeric channel value, before it is published again.
+     */
+    private BigDecimal deadband = BigDecimal.ZERO;
+
+    /**
+     * The states last published for each channel. Channels are only updated, when their state changes.
+     */
+    private final Map<ChannelUID, State> publishedStates = new ConcurrentHashMap<>();
+
+    /**
+     * Time in milliseconds needed for the last refresh of a group of channels.
+     */
+    private volatile BigDecimal lastSamplingTime;
+
     /**
      * Channels with priority configuration parameter set to High. They usually need frequent update of the state like
      * CPU load, or information about the free and used memory.
@@ -129,8 +146,15 @@ public class SysteminfoHandler extends BaseThingHandler {
             if (refreshIntervalHighPriority.intValue() <= 0 || refreshIntervalMediumPriority.intValue() <= 0) {
                 throw new IllegalArgumentException("Refresh time must be positive number!");
             }
+
+            BigDecimal deadbandValue = (BigDecimal) this.thing.getConfiguration().get(DEADBAND);
+            deadband = deadbandValue != null ? deadbandValue : BigDecimal.ZERO;
+            if (deadband.signum() < 0) {
+                throw new IllegalArgumentException("Deadband must not be negative number!");
+            }
             logger.debug("Refresh time for medium priority channels set to {} s", refreshIntervalMediumPriority);
             logger.debug("Refresh time for high priority channels set to {} s", refreshIntervalHighPriority);
+            logger.debug("Deadband for numeric channels set to {}", deadband);
             return true;
         } catch (IllegalArgumentException e) {
             logger.error("Refresh time value is invalid! Please change the thing configuration!", e);
@@ -237,29 +261,78 @@ public class SysteminfoHandler extends BaseThingHandler {
 
     }
 
-    private void publishData(Set<ChannelUID> channels) {
+    /**
+     * Publishes the states of the given channels. All states are taken from one snapshot of the system information
+     * and only published, if they have changed. The sampling time channel is published last, as it reports the time
+     * needed for this refresh.
+     */
+    private synchronized void publishData(Set<ChannelUID> channels) {
         if (channels != null) {
+            long startTime = System.nanoTime();
+            systeminfo.takeSnapshot();
+            ChannelUID samplingTimeChannelUID = null;
             Iterator<ChannelUID> iter = channels.iterator();
             while (iter.hasNext()) {
                 ChannelUID channeUID = iter.next();
-                if (isLinked(channeUID.getId())) {
-                    publishDataForChannel(channeUID);
+                if (CHANNEL_DIAGNOSTICS_SAMPLING_TIME.equals(channeUID.getId())) {
+                    samplingTimeChannelUID = channeUID;
+                } else if (isLinked(channeUID.getId())) {
+                    publishDataForChannel(channeUID, false);
                 }
             }
+            updateSamplingTime(startTime);
+            if (samplingTimeChannelUID != null && isLinked(samplingTimeChannelUID.getId())) {
+                publishDataForChannel(samplingTimeChannelUID, false);
+            }
         }
     }
 
-    private void publishDataForChannel(ChannelUID channelUID) {
+    /**
+     * Publishes the state of a single channel from a new snapshot, even if it has not changed. The values of the
+     * snapshot are read lazily, so the time of this call is not a sampling time. The sampling time channel publishes
+     * the time measured at the last refresh of all channels.
+     */
+    private synchronized void publishDataForChannel(ChannelUID channelUID) {
+        systeminfo.takeSnapshot();
+        publishDataForChannel(channelUID, true);
+    }
+
+    private void updateSamplingTime(long startTime) {
+        lastSamplingTime = new BigDecimal((System.nanoTime() - startTime) / 1000000.0)
+                .setScale(OshiSysteminfo.PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
+    }
+
+    private void publishDataForChannel(ChannelUID channelUID, boolean force) {
         State state = getInfoForChannel(channelUID);
         String channelID = channelUID.getId();
         if (state != null) {
-            updateState(channelID, state);
+            if (force || isStateChanged(channelUID, state)) {
+                publishedStates.put(channelUID, state);
+                updateState(channelID, state);
+            }
         } else {
             logger.warn("Channel with ID {} can not be updated! No information available for the selected device.",
                     channelID);
         }
     }
 
+    /**
+     * Checks if the state differs from the state last published for the channel. Numeric states have to differ by
+     * more than the configured {@link #deadband}.
+     */
+    private boolean isStateChanged(ChannelUID channelUID, State state) {
+        State publishedState = publishedStates.get(channelUID);
+        if (publishedState == null) {
+            return true;
+        }
+        if (deadband.signum() > 0 && state instanceof DecimalType && publishedState instanceof DecimalType) {
+            BigDecimal difference = ((DecimalType) state).toBigDecimal()
+                    .subtract(((DecimalType) publishedState).toBigDecimal());
+            return difference.abs().compareTo(deadband) > 0;
+        }
+        return !state.equals(publishedState);
+    }
+
     /**
      * This method gets the information for specific channel through the {@link SysteminfoInterface}. It uses the
      * channel ID to call the correct method from the {@link SysteminfoInterface} with deviceIndex parameter (in case of
@@ -430,6 +503,10 @@ public class SysteminfoHandler extends BaseThingHandler {
                 case CHANNEL_PROCESS_THREADS:
                     state = systeminfo.getProcessThreads(deviceIndex);
                     break;
+                case CHANNEL_DIAGNOSTICS_SAMPLING_TIME:
+                    BigDecimal samplingTime = lastSamplingTime;
+                    state = samplingTime != null ? new DecimalType(samplingTime) : null;
+                    break;
                 default:
                     logger.error("Channel with unknown ID: {} !", channelID);
             }
@@ -510,6 +587,13 @@ public class SysteminfoHandler extends BaseThingHandler {
         }
     }
 
+    @Override
+    public void channelLinked(ChannelUID channelUID) {
+        // make sure the newly linked item gets the current state
+        publishedStates.remove(channelUID);
+        super.channelLinked(channelUID);
+    }
+
     private boolean isConfigurationKeyChanged(Configuration currentConfig, Configuration newConfig, String key) {
         if (currentConfig != null && newConfig != null) {
             Object currentValue = currentConfig.get(key);
@@ -588,6 +672,7 @@ public class SysteminfoHandler extends BaseThingHandler {
     @Override
     public void dispose() {
         stopScheduledUpdates();
+        publishedStates.clear();
     }
 
 }
@@ -9,6 +9,10 @@
 package org.openhab.binding.systeminfo.model;
 
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.ArrayUtils;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -54,6 +58,21 @@ public class OshiSysteminfo implements SysteminfoInterface {
     private PowerSource[] powerSources;
     private HWDiskStore[] drives;
 
+    // Values of the current sample, read lazily at most once after each call of takeSnapshot()
+    private boolean memorySampled;
+    private long memoryTotal;
+    private long memoryAvailable;
+    private long swapTotal;
+    private long swapUsed;
+    private Double cpuLoad;
+    private double[] cpuLoadAverages;
+    private Double cpuTemperature;
+    private Double cpuVoltage;
+    private int[] fanSpeeds;
+    private final Set<NetworkIF> sampledNetworks = new HashSet<>();
+    private final Map<Integer, OSProcess> sampledProcesses = new HashMap<>();
+    private final Map<OSFileStore, long[]> sampledFileStores = new HashMap<>();
+
     public static final int PRECISION_AFTER_DECIMAl_SIGN = 1;
 
     /**
@@ -83,6 +102,85 @@ public class OshiSysteminfo implements SysteminfoInterface {
         drives = hal.getDiskStores();
     }
 
+    @Override
+    public synchronized void takeSnapshot() {
+        memorySampled = false;
+        cpuLoad = null;
+        cpuLoadAverages = null;
+        cpuTemperature = null;
+        cpuVoltage = null;
+        fanSpeeds = null;
+        sampledNetworks.clear();
+        sampledProcesses.clear();
+        sampledFileStores.clear();
+    }
+
+    private synchronized void sampleMemory() {
+        if (!memorySampled) {
+            memoryTotal = memory.getTotal();
+            memoryAvailable = memory.getAvailable();
+            swapTotal = memory.getSwapTotal();
+            swapUsed = memory.getSwapUsed();
+            memorySampled = true;
+        }
+    }
+
+    private synchronized NetworkIF sampleNetwork(int index) throws DeviceNotFoundException {
+        NetworkIF network = (NetworkIF) getDevice(networks, index);
+        if (sampledNetworks.add(network)) {
+            network.updateNetworkStats();
+        }
+        return network;
+    }
+
+    /**
+     * @return the total and the usable space of the file store
+     */
+    private synchronized long[] sampleFileStore(int index) throws DeviceNotFoundException {
+        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
+        long[] space = sampledFileStores.get(fileStore);
+        if (space == null) {
+            space = new long[] { fileStore.getTotalSpace(), fileStore.getUsableSpace() };
+            sampledFileStores.put(fileStore, space);
+        }
+        return space;
+    }
+
+    private synchronized double sampleCpuLoad() {
+        if (cpuLoad == null) {
+            cpuLoad = cpu.getSystemCpuLoad();
+        }
+        return cpuLoad;
+    }
+
+    private synchronized double[] sampleCpuLoadAverages() {
+        if (cpuLoadAverages == null) {
+            cpuLoadAverages = cpu.getSystemLoadAverage(3);
+        }
+        return cpuLoadAverages;
+    }
+
+    private synchronized double sampleCpuTemperature() {
+        if (cpuTemperature == null) {
+            cpuTemperature = sensors.getCpuTemperature();
+        }
+        return cpuTemperature;
+    }
+
+    private synchronized double sampleCpuVoltage() {
+        if (cpuVoltage == null) {
+            cpuVoltage = sensors.getCpuVoltage();
+        }
+        return cpuVoltage;
+    }
+
+    private synchronized int[] sampleFanSpeeds() {
+        if (fanSpeeds == null) {
+            fanSpeeds = sensors.getFanSpeeds();
+        }
+        return fanSpeeds;
+    }
+
     @SuppressWarnings("null")
     private Object getDevice(Object[] devices, int index) throws DeviceNotFoundException {
         if ((devices != null) && (devices.length <= index)) {
@@ -91,10 +189,14 @@ public class OshiSysteminfo implements SysteminfoInterface {
         return devices[index];
     }
 
-    private OSProcess getProcess(int pid) throws DeviceNotFoundException {
-        OSProcess process = operatingSystem.getProcess(pid);
+    private synchronized OSProcess getProcess(int pid) throws DeviceNotFoundException {
+        OSProcess process = sampledProcesses.get(pid);
         if (process == null) {
-            throw new DeviceNotFoundException("Error while getting information for process with PID " + pid);
+            process = operatingSystem.getProcess(pid);
+            if (process == null) {
+                throw new DeviceNotFoundException("Error while getting information for process with PID " + pid);
+            }
+            sampledProcesses.put(pid, process);
         }
         return process;
     }
@@ -152,29 +254,32 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getCpuLoad() {
-        double processorLoad = cpu.getSystemCpuLoad();
+        double processorLoad = sampleCpuLoad();
         BigDecimal processorLoadPercent = getPercentsValue(processorLoad);
         return new DecimalType(processorLoadPercent);
     }
 
     @Override
     public DecimalType getMemoryTotal() {
-        long totalMemory = memory.getTotal();
+        sampleMemory();
+        long totalMemory = memoryTotal;
         totalMemory = getSizeInMB(totalMemory);
         return new DecimalType(totalMemory);
     }
 
     @Override
     public DecimalType getMemoryAvailable() {
-        long availableMemory = memory.getAvailable();
+        sampleMemory();
+        long availableMemory = memoryAvailable;
         availableMemory = getSizeInMB(availableMemory);
         return new DecimalType(availableMemory);
     }
 
     @Override
     public DecimalType getMemoryUsed() {
-        long totalMemory = memory.getTotal();
-        long availableMemory = memory.getAvailable();
+        sampleMemory();
+        long totalMemory = memoryTotal;
+        long availableMemory = memoryAvailable;
         long usedMemory = totalMemory - availableMemory;
         usedMemory = getSizeInMB(usedMemory);
         return new DecimalType(usedMemory);
@@ -182,25 +287,23 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageTotal(int index) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
-        long totalSpace = fileStore.getTotalSpace();
+        long totalSpace = sampleFileStore(index)[0];
         totalSpace = getSizeInMB(totalSpace);
         return new DecimalType(totalSpace);
     }
 
     @Override
     public DecimalType getStorageAvailable(int index) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
-        long freeSpace = fileStore.getUsableSpace();
+        long freeSpace = sampleFileStore(index)[1];
         freeSpace = getSizeInMB(freeSpace);
         return new DecimalType(freeSpace);
     }
 
     @Override
     public DecimalType getStorageUsed(int index) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, index);
-        long totalSpace = fileStore.getTotalSpace();
-        long freeSpace = fileStore.getUsableSpace();
+        long[] space = sampleFileStore(index);
+        long totalSpace = space[0];
+        long freeSpace = space[1];
         long usedSpace = totalSpace - freeSpace;
         usedSpace = getSizeInMB(usedSpace);
         return new DecimalType(usedSpace);
@@ -208,9 +311,9 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageAvailablePercent(int deviceIndex) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
-        long totalSpace = fileStore.getTotalSpace();
-        long freeSpace = fileStore.getUsableSpace();
+        long[] space = sampleFileStore(deviceIndex);
+        long totalSpace = space[0];
+        long freeSpace = space[1];
         if (totalSpace > 0) {
             double freePercentDecimal = (double) freeSpace / (double) totalSpace;
             BigDecimal freePercent = getPercentsValue(freePercentDecimal);
@@ -222,9 +325,9 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getStorageUsedPercent(int deviceIndex) throws DeviceNotFoundException {
-        OSFileStore fileStore = (OSFileStore) getDevice(fileStores, deviceIndex);
-        long totalSpace = fileStore.getTotalSpace();
-        long freeSpace = fileStore.getUsableSpace();
+        long[] space = sampleFileStore(deviceIndex);
+        long totalSpace = space[0];
+        long freeSpace = space[1];
         long usedSpace = totalSpace - freeSpace;
         if (totalSpace > 0) {
             double usedPercentDecimal = (double) usedSpace / (double) totalSpace;
@@ -296,22 +399,21 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSensorsCpuTemperature() {
-        BigDecimal cpuTemp = new BigDecimal(sensors.getCpuTemperature());
+        BigDecimal cpuTemp = new BigDecimal(sampleCpuTemperature());
         cpuTemp = cpuTemp.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
         return cpuTemp.signum() == 1 ? new DecimalType(cpuTemp) : null;
     }
 
     @Override
     public DecimalType getSensorsCpuVoltage() {
-        BigDecimal cpuVoltage = new BigDecimal(sensors.getCpuVoltage());
+        BigDecimal cpuVoltage = new BigDecimal(sampleCpuVoltage());
         cpuVoltage = cpuVoltage.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
         return cpuVoltage.signum() == 1 ? new DecimalType(cpuVoltage) : null;
     }
 
     @Override
     public DecimalType getSensorsFanSpeed(int index) throws DeviceNotFoundException {
-        int[] fanSpeeds = sensors.getFanSpeeds();
-        int speed = (int) getDevice(ArrayUtils.toObject(fanSpeeds), index);
+        int speed = (int) getDevice(ArrayUtils.toObject(sampleFanSpeeds()), index);
         return speed > 0 ? new DecimalType(speed) : null;
     }
 
@@ -341,8 +443,9 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getMemoryAvailablePercent() {
-        long availableMemory = memory.getAvailable();
-        long totalMemory = memory.getTotal();
+        sampleMemory();
+        long availableMemory = memoryAvailable;
+        long totalMemory = memoryTotal;
         if (totalMemory > 0) {
             double freePercentDecimal = (double) availableMemory / (double) totalMemory;
             BigDecimal freePercent = getPercentsValue(freePercentDecimal);
@@ -354,8 +457,9 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getMemoryUsedPercent() {
-        long availableMemory = memory.getAvailable();
-        long totalMemory = memory.getTotal();
+        sampleMemory();
+        long availableMemory = memoryAvailable;
+        long totalMemory = memoryTotal;
         long usedMemory = totalMemory - availableMemory;
         if (totalMemory > 0) {
             double usedPercentDecimal = (double) usedMemory / (double) totalMemory;
@@ -389,15 +493,14 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSwapTotal() {
-        long swapTotal = memory.getSwapTotal();
-        swapTotal = getSizeInMB(swapTotal);
-        return swapTotal > 0 ? new DecimalType(swapTotal) : null;
+        sampleMemory();
+        long swapTotalInMB = getSizeInMB(swapTotal);
+        return swapTotalInMB > 0 ? new DecimalType(swapTotalInMB) : null;
     }
 
     @Override
     public DecimalType getSwapAvailable() {
-        long swapTotal = memory.getSwapTotal();
-        long swapUsed = memory.getSwapUsed();
+        sampleMemory();
         long swapAvaialble = swapTotal - swapUsed;
         swapAvaialble = getSizeInMB(swapAvaialble);
         return swapAvaialble > 0 ? new DecimalType(swapAvaialble) : null;
@@ -405,15 +508,16 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSwapUsed() {
-        long swapTotal = memory.getSwapUsed();
-        swapTotal = getSizeInMB(swapTotal);
-        return swapTotal > 0 ? new DecimalType(swapTotal) : null;
+        sampleMemory();
+        long swapUsedInMB = getSizeInMB(swapUsed);
+        return swapUsedInMB > 0 ? new DecimalType(swapUsedInMB) : null;
     }
 
     @Override
     public DecimalType getSwapAvailablePercent() {
-        long usedSwap = memory.getSwapUsed();
-        long totalSwap = memory.getSwapTotal();
+        sampleMemory();
+        long usedSwap = swapUsed;
+        long totalSwap = swapTotal;
         long freeSwap = totalSwap - usedSwap;
         if (totalSwap > 0) {
             double freePercentDecimal = (double) freeSwap / (double) totalSwap;
@@ -426,8 +530,9 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getSwapUsedPercent() {
-        long usedSwap = memory.getSwapUsed();
-        long totalSwap = memory.getSwapTotal();
+        sampleMemory();
+        long usedSwap = swapUsed;
+        long totalSwap = swapTotal;
         if (totalSwap > 0) {
             double usedPercentDecimal = (double) usedSwap / (double) totalSwap;
             BigDecimal usedPercent = getPercentsValue(usedPercentDecimal);
@@ -502,7 +607,7 @@ public class OshiSysteminfo implements SysteminfoInterface {
             default:
                 index = 2;
         }
-        double processorLoads[] = cpu.getSystemLoadAverage(index + 1);
+        double processorLoads[] = sampleCpuLoadAverages();
         BigDecimal result = new BigDecimal(processorLoads[index]);
         result = result.setScale(PRECISION_AFTER_DECIMAl_SIGN, BigDecimal.ROUND_HALF_UP);
         return result;
@@ -529,32 +634,28 @@ public class OshiSysteminfo implements SysteminfoInterface {
 
     @Override
     public DecimalType getNetworkPacketsReceived(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
+        NetworkIF network = sampleNetwork(networkIndex);
         long packRecv = network.getPacketsRecv();
         return new DecimalType(packRecv);
     }
 
     @Override
     public DecimalType getNetworkPacketsSent(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
+        NetworkIF network = sampleNetwork(networkIndex);
         long packSent = network.getPacketsSent();
         return new DecimalType(packSent);
     }
 
     @Override
     public DecimalType getNetworkDataSent(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
+        NetworkIF network = sampleNetwork(networkIndex);
         long bytesSent = network.getBytesSent();
         return new DecimalType(getSizeInMB(bytesSent));
     }
 
     @Override
     public DecimalType getNetworkDataReceived(int networkIndex) throws DeviceNotFoundException {
-        NetworkIF network = (NetworkIF) getDevice(networks, networkIndex);
-        network.updateNetworkStats();
+        NetworkIF network = sampleNetwork(networkIndex);
         long bytesRecv = network.getBytesRecv();
         return new DecimalType(getSizeInMB(bytesRecv));
     }
@@ -19,6 +19,13 @@ import org.eclipse.smarthome.core.library.types.StringType;
  */
 public interface SysteminfoInterface {
 
+    /**
+     * Starts a new sample of the dynamic system information. Until the next call, all methods return values from
+     * the same sample, so each underlying source (e.g. a file in /proc) is read at most once per sample, no matter how
+     * many channels are served from it.
+     */
+    public void takeSnapshot();
+
     // Operating system info
     /**
      * Get the Family of the operating system /e.g. Windows,Unix,.../
@@ -155,6 +155,15 @@ public class TelldusDevicesHandler extends BaseThingHandler implements DeviceSta
         }
     }
 
+    @Override
+    public void dispose() {
+        if (bridgeHandler != null) {
+            bridgeHandler.unregisterDeviceStatusListener(this);
+            bridgeHandler = null;
+        }
+        super.dispose();
+    }
+
     @Override
     public void bridgeStatusChanged(ThingStatusInfo bridgeStatusInfo) {
         logger.debug("device: {} bridgeStatusChanged: {}", deviceId, bridgeStatusInfo);
@@ -207,7 +216,11 @@ public class TelldusDevicesHandler extends BaseThingHandler implements DeviceSta
         return dev;
     }
 
-    private boolean isSensor() {
+    public String getDeviceId() {
+        return deviceId;
+    }
+
+    public boolean isSensor() {
         return (getThing().getThingTypeUID().equals(TellstickBindingConstants.SENSOR_THING_TYPE)
                 || getThing().getThingTypeUID().equals(TellstickBindingConstants.RAINSENSOR_THING_TYPE)
                 || getThing().getThingTypeUID().equals(TellstickBindingConstants.WINDSENSOR_THING_TYPE));
@@ -8,8 +8,12 @@
  */
 package org.openhab.binding.tellstick.handler.live;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Vector;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
@@ -38,12 +42,17 @@ import org.tellstick.device.TellstickDeviceEvent;
 import org.tellstick.device.TellstickException;
 import org.tellstick.device.TellstickSensorEvent;
 import org.tellstick.device.iface.Device;
+import org.tellstick.device.iface.TellstickEvent;
 
 /**
  * {@link TelldusLiveBridgeHandler} is the handler for Telldus Live service (Tellstick.NET and ZNET) and connects it
  * to the framework. All {@link TelldusDevicesHandler}s use the
  * {@link TelldusLiveDeviceController} to execute the actual commands.
  *
+ * The device and sensor lists are indexed by id, each refresh is compared against them and only the changes are
+ * passed to the handlers of the changed ids. The sensor list is only requested while sensor things exist or a scan
+ * is running.
+ *
  * @author Jarle Hjortland
  *
  */
@@ -51,31 +60,49 @@ public class TelldusLiveBridgeHandler extends BaseBridgeHandler implements Telld
 
     private final Logger logger = LoggerFactory.getLogger(TelldusLiveBridgeHandler.class);
 
-    private TellstickNetDevices deviceList = null;
-    private TellstickNetSensors sensorList = null;
+    private Map<Integer, TellstickNetDevice> deviceList = null;
+    private Map<Integer, TellstickNetSensor> sensorList = null;
     private TelldusLiveDeviceController controller = new TelldusLiveDeviceController();
-    private List<DeviceStatusListener> deviceStatusListeners = new Vector<DeviceStatusListener>();
+    /** Listeners for all devices, e.g. the discovery service */
+    private CopyOnWriteArrayList<DeviceStatusListener> deviceStatusListeners = new CopyOnWriteArrayList<>();
+    /** Thing handlers by the id of their device or sensor */
+    private Map<String, CopyOnWriteArrayList<DeviceStatusListener>> deviceListeners = new ConcurrentHashMap<>();
+    private Map<String, CopyOnWriteArrayList<DeviceStatusListener>> sensorListeners = new ConcurrentHashMap<>();
+    private boolean sensorScanRequested;
 
     private static final int REFRESH_DELAY = 10;
+    /** Period after a command or refresh during which the list is polled every {@link #REFRESH_DELAY} s */
+    private static final long ACTIVE_PERIOD = TimeUnit.MINUTES.toMillis(1);
+    private static final long DEFAULT_REFRESH_INTERVAL = 60000;
 
     public TelldusLiveBridgeHandler(Bridge bridge) {
         super(bridge);
     }
 
+    private long refreshInterval = DEFAULT_REFRESH_INTERVAL;
+    private volatile long lastActivity;
+    private final Object pollingLock = new Object();
     private ScheduledFuture<?> pollingJob;
-    private ScheduledFuture<?> immediateRefreshJob;
     private Runnable pollingRunnable = new Runnable() {
         @Override
         public void run() {
             refreshDeviceList();
+            synchronized (pollingLock) {
+                if (pollingJob != null) {
+                    scheduleRefresh(getRefreshDelay());
+                }
+            }
         }
     };
 
     @Override
     public void dispose() {
         logger.debug("Live Handler disposed.");
-        if (pollingJob != null) {
-            pollingJob.cancel(true);
+        synchronized (pollingLock) {
+            if (pollingJob != null) {
+                pollingJob.cancel(true);
+                pollingJob = null;
+            }
         }
         deviceList = null;
         sensorList = null;
@@ -92,32 +119,51 @@ public class TelldusLiveBridgeHandler extends BaseBridgeHandler implements Telld
         this.controller = new TelldusLiveDeviceController();
         this.controller.connectHttpClient(configuration.publicKey, configuration.privateKey, configuration.token,
                 configuration.tokenSecret);
-        startAutomaticRefresh(configuration.refreshInterval);
-        refreshDeviceList();
+        this.controller.setCommandListener(this::scheduleImmediateRefresh);
+        refreshInterval = configuration.refreshInterval > 0 ? configuration.refreshInterval
+                : DEFAULT_REFRESH_INTERVAL;
+        scheduleRefresh(0);
         updateStatus(ThingStatus.ONLINE);
     }
 
-    private synchronized void startAutomaticRefresh(long refreshInterval) {
-        if (pollingJob != null && !pollingJob.isCancelled()) {
-            pollingJob.cancel(true);
+    private void scheduleRefresh(long delay) {
+        synchronized (pollingLock) {
+            if (pollingJob != null) {
+                pollingJob.cancel(false);
+            }
+            pollingJob = scheduler.schedule(pollingRunnable, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Polls every {@link #REFRESH_DELAY} s while commands are sent, otherwise with the configured interval.
+     */
+    private long getRefreshDelay() {
+        long activeDelay = TimeUnit.SECONDS.toMillis(REFRESH_DELAY);
+        if (System.currentTimeMillis() - lastActivity < ACTIVE_PERIOD) {
+            return Math.min(activeDelay, refreshInterval);
         }
-        pollingJob = scheduler.scheduleAtFixedRate(pollingRunnable, 0, refreshInterval, TimeUnit.MILLISECONDS);
+        return refreshInterval;
     }
 
     private void scheduleImmediateRefresh() {
-        // We schedule in 10 sec, to avoid multiple updates
-        logger.debug("Current remaining delay {}", pollingJob.getDelay(TimeUnit.SECONDS));
-        if (pollingJob.getDelay(TimeUnit.SECONDS) > REFRESH_DELAY) {
-            if (immediateRefreshJob == null || immediateRefreshJob.isDone()) {
-                immediateRefreshJob = scheduler.schedule(pollingRunnable, REFRESH_DELAY, TimeUnit.SECONDS);
+        lastActivity = System.currentTimeMillis();
+        // We schedule in 10 sec, to collect the changes of multiple commands in one update
+        synchronized (pollingLock) {
+            if (pollingJob != null && pollingJob.getDelay(TimeUnit.SECONDS) > REFRESH_DELAY) {
+                logger.debug("Current remaining delay {}", pollingJob.getDelay(TimeUnit.SECONDS));
+                scheduleRefresh(TimeUnit.SECONDS.toMillis(REFRESH_DELAY));
             }
         }
     }
 
     synchronized void refreshDeviceList() {
         try {
-            updateDevices(deviceList);
-            updateSensors(sensorList);
+            updateDevices();
+            if (isSensorRequested() || sensorScanRequested) {
+                updateSensors();
+                sensorScanRequested = false;
+            }
             updateStatus(ThingStatus.ONLINE);
         } catch (TellstickException e) {
             updateStatus(ThingStatus.OFFLINE, ThingStatusDetail.COMMUNICATION_ERROR, e.getMessage());
@@ -128,108 +174,126 @@ public class TelldusLiveBridgeHandler extends BaseBridgeHandler implements Telld
         }
     }
 
-    private synchronized void updateDevices(TellstickNetDevices previouslist) throws TellstickException {
+    private boolean isSensorRequested() {
+        return !sensorListeners.isEmpty();
+    }
+
+    private synchronized void updateDevices() throws TellstickException {
         TellstickNetDevices newList = controller.callRestMethod(TelldusLiveDeviceController.HTTP_TELLDUS_DEVICES,
                 TellstickNetDevices.class);
         logger.debug("Device list {}", newList.getDevices());
-        if (previouslist == null) {
-            logger.debug("updateDevices, Creating devices.");
-            for (TellstickNetDevice device : newList.getDevices()) {
-                device.setUpdated(true);
-                for (DeviceStatusListener listener : deviceStatusListeners) {
+        Map<Integer, TellstickNetDevice> previousList = deviceList;
+        Map<Integer, TellstickNetDevice> devices = new ConcurrentHashMap<>();
+        for (TellstickNetDevice device : newList.getDevices()) {
+            TellstickNetDevice orgDevice = previousList == null ? null : previousList.remove(device.getId());
+            if (orgDevice == null) {
+                logger.debug("New Device - Adding:{}", device);
+                devices.put(device.getId(), device);
+                for (DeviceStatusListener listener : getListeners(deviceListeners, device)) {
                     listener.onDeviceAdded(getThing(), device);
                 }
+                device.setUpdated(true);
+            } else {
+                devices.put(device.getId(), orgDevice);
+                if (device.getState() != orgDevice.getState()
+                        || !Objects.equals(device.getStatevalue(), orgDevice.getStatevalue())) {
+                    orgDevice.setState(device.getState());
+                    orgDevice.setStatevalue(device.getStatevalue());
+                    orgDevice.setUpdated(true);
+                }
             }
-            this.deviceList = newList;
-        } else {
-            logger.debug("updateDevices, Updating devices.");
-            for (TellstickNetDevice device : newList.getDevices()) {
-                int index = previouslist.getDevices().indexOf(device);
-                logger.debug("Device:{} found at {}", device, index);
-                if (index >= 0) {
-                    TellstickNetDevice orgDevice = previouslist.getDevices().get(index);
-                    if (device.getState() != orgDevice.getState()) {
-                        orgDevice.setState(device.getState());
-                        orgDevice.setStatevalue(device.getStatevalue());
-                        orgDevice.setUpdated(true);
-                    }
-                } else {
-                    logger.debug("New Device - Adding:{}", device);
-                    previouslist.getDevices().add(device);
-                    device.setUpdated(true);
-                    for (DeviceStatusListener listener : deviceStatusListeners) {
-                        listener.onDeviceAdded(getThing(), device);
-                    }
+        }
+        deviceList = devices;
+
+        if (previousList != null) {
+            for (TellstickNetDevice device : previousList.values()) {
+                logger.debug("Removed device:{}", device);
+                for (DeviceStatusListener listener : getListeners(deviceListeners, device)) {
+                    listener.onDeviceRemoved(getThing(), device);
                 }
             }
         }
 
-        for (TellstickNetDevice device : deviceList.getDevices()) {
+        for (TellstickNetDevice device : devices.values()) {
             if (device.isUpdated()) {
                 logger.debug("Updated device:{}", device);
-                for (DeviceStatusListener listener : deviceStatusListeners) {
-                    listener.onDeviceStateChanged(getThing(), device,
-                            new TellstickDeviceEvent(device, null, null, null, System.currentTimeMillis()));
+                TellstickEvent event = new TellstickDeviceEvent(device, null, null, null, System.currentTimeMillis());
+                for (DeviceStatusListener listener : getListeners(deviceListeners, device)) {
+                    listener.onDeviceStateChanged(getThing(), device, event);
                 }
                 device.setUpdated(false);
             }
         }
     }
 
-    private synchronized void updateSensors(TellstickNetSensors previouslist) throws TellstickException {
+    private synchronized void updateSensors() throws TellstickException {
         TellstickNetSensors newList = controller.callRestMethod(TelldusLiveDeviceController.HTTP_TELLDUS_SENSORS,
                 TellstickNetSensors.class);
         logger.debug("Updated sensors:{}", newList.getSensors());
-        if (previouslist == null) {
-            logger.debug("First update of sensors");
-            this.sensorList = newList;
-            for (TellstickNetSensor sensor : sensorList.getSensors()) {
-                sensor.setUpdated(true);
-                for (DeviceStatusListener listener : deviceStatusListeners) {
+        Map<Integer, TellstickNetSensor> previousList = sensorList;
+        Map<Integer, TellstickNetSensor> sensors = new ConcurrentHashMap<>();
+        for (TellstickNetSensor sensor : newList.getSensors()) {
+            TellstickNetSensor orgSensor = previousList == null ? null : previousList.remove(sensor.getId());
+            if (orgSensor == null) {
+                logger.debug("Adding sensor {}, new update {}", sensor.getId(), sensor.getLastUpdated());
+                sensors.put(sensor.getId(), sensor);
+                for (DeviceStatusListener listener : getListeners(sensorListeners, sensor)) {
                     listener.onDeviceAdded(getThing(), sensor);
                 }
-            }
-        } else {
-            logger.debug("Update sensors, reset updated flag");
-            for (TellstickNetSensor sensor : previouslist.getSensors()) {
-                sensor.setUpdated(false);
-            }
-            for (TellstickNetSensor sensor : newList.getSensors()) {
-                int index = this.sensorList.getSensors().indexOf(sensor);
-                if (index >= 0) {
-                    TellstickNetSensor orgSensor = this.sensorList.getSensors().get(index);
-                    logger.debug("Update sensor {}, prev update {}, new update {}", sensor.getId(),
-                            orgSensor.getLastUpdated(), sensor.getLastUpdated());
-                    if (sensor.getLastUpdated() > orgSensor.getLastUpdated()) {
-                        logger.debug("Update for sensor:{}", sensor);
-                        orgSensor.setData(sensor.getData());
-                        orgSensor.setLastUpdated(sensor.getLastUpdated());
-                        orgSensor.setUpdated(true);
-                        sensor.setUpdated(true);
-                    }
-                } else {
-                    logger.debug("Adding sensor {}, new update {}", sensor.getId(), sensor.getLastUpdated());
-                    this.sensorList.getSensors().add(sensor);
-                    sensor.setUpdated(true);
-                    for (DeviceStatusListener listener : deviceStatusListeners) {
-                        listener.onDeviceAdded(getThing(), sensor);
-                    }
+                sensor.setUpdated(true);
+            } else {
+                sensors.put(sensor.getId(), orgSensor);
+                logger.debug("Update sensor {}, prev update {}, new update {}", sensor.getId(),
+                        orgSensor.getLastUpdated(), sensor.getLastUpdated());
+                if (isNewer(sensor.getLastUpdated(), orgSensor.getLastUpdated())) {
+                    logger.debug("Update for sensor:{}", sensor);
+                    orgSensor.setData(sensor.getData());
+                    orgSensor.setLastUpdated(sensor.getLastUpdated());
+                    orgSensor.setUpdated(true);
                 }
+            }
+        }
+        sensorList = sensors;
 
+        if (previousList != null) {
+            for (TellstickNetSensor sensor : previousList.values()) {
+                logger.debug("Removed sensor:{}", sensor);
+                for (DeviceStatusListener listener : getListeners(sensorListeners, sensor)) {
+                    listener.onDeviceRemoved(getThing(), sensor);
+                }
             }
         }
-        for (TellstickNetSensor sensor : sensorList.getSensors()) {
+
+        for (TellstickNetSensor sensor : sensors.values()) {
             if (sensor.getData() != null && sensor.isUpdated()) {
-                for (DeviceStatusListener listener : deviceStatusListeners) {
+                for (DeviceStatusListener listener : getListeners(sensorListeners, sensor)) {
                     for (DataTypeValue type : sensor.getData()) {
                         listener.onDeviceStateChanged(getThing(), sensor,
                                 new TellstickSensorEvent(sensor.getId(), type.getValue(), type.getName(),
                                         sensor.getProtocol(), sensor.getModel(), System.currentTimeMillis()));
                     }
                 }
-                sensor.setUpdated(false);
             }
+            sensor.setUpdated(false);
+        }
+    }
+
+    private static boolean isNewer(Long lastUpdated, Long previousLastUpdated) {
+        return lastUpdated != null && (previousLastUpdated == null || lastUpdated > previousLastUpdated);
+    }
+
+    /**
+     * Returns the handlers of the device followed by the listeners for all devices.
+     */
+    private List<DeviceStatusListener> getListeners(
+            Map<String, CopyOnWriteArrayList<DeviceStatusListener>> listenersById, Device device) {
+        List<DeviceStatusListener> listeners = listenersById.get(device.getUUId());
+        if (listeners == null || listeners.isEmpty()) {
+            return deviceStatusListeners;
         }
+        List<DeviceStatusListener> result = new ArrayList<>(listeners);
+        result.addAll(deviceStatusListeners);
+        return result;
     }
 
     @Override
@@ -259,65 +323,70 @@ public class TelldusLiveBridgeHandler extends BaseBridgeHandler implements Telld
         if (deviceStatusListener == null) {
             throw new IllegalArgumentException("It's not allowed to pass a null deviceStatusListener.");
         }
-        boolean result = deviceStatusListeners.add(deviceStatusListener);
-        if (result) {
-            // onUpdate();
+        if (deviceStatusListener instanceof TelldusDevicesHandler) {
+            TelldusDevicesHandler handler = (TelldusDevicesHandler) deviceStatusListener;
+            if (handler.getDeviceId() != null) {
+                Map<String, CopyOnWriteArrayList<DeviceStatusListener>> listeners = handler.isSensor()
+                        ? sensorListeners : deviceListeners;
+                return listeners.computeIfAbsent(handler.getDeviceId(), k -> new CopyOnWriteArrayList<>())
+                        .addIfAbsent(deviceStatusListener);
+            }
         }
-        return result;
+        return deviceStatusListeners.addIfAbsent(deviceStatusListener);
     }
 
     @Override
     public boolean unregisterDeviceStatusListener(DeviceStatusListener deviceStatusListener) {
         boolean result = deviceStatusListeners.remove(deviceStatusListener);
-        if (result) {
-            // onUpdate();
-        }
+        result |= removeListener(deviceListeners, deviceStatusListener);
+        result |= removeListener(sensorListeners, deviceStatusListener);
         return result;
     }
 
-    private Device getDevice(String id, List<TellstickNetDevice> devices) {
-        for (Device device : devices) {
-            if (device.getId() == Integer.valueOf(id)) {
-                return device;
-            }
+    private boolean removeListener(Map<String, CopyOnWriteArrayList<DeviceStatusListener>> listenersById,
+            DeviceStatusListener deviceStatusListener) {
+        boolean result = false;
+        for (CopyOnWriteArrayList<DeviceStatusListener> listeners : listenersById.values()) {
+            result |= listeners.remove(deviceStatusListener);
         }
-        return null;
-    }
-
-    private Device getSensor(String id, List<TellstickNetSensor> sensors) {
-        for (Device sensor : sensors) {
-            if (sensor.getId() == Integer.valueOf(id)) {
-                return sensor;
-            }
-        }
-        return null;
+        listenersById.values().removeIf(List::isEmpty);
+        return result;
     }
 
     @Override
     public Device getDevice(String serialNumber) {
-        return getDevice(serialNumber, getDevices());
-    }
-
-    private List<TellstickNetDevice> getDevices() {
         if (deviceList == null) {
             refreshDeviceList();
         }
-        return deviceList.getDevices();
+        return getById(serialNumber, deviceList);
     }
 
     @Override
     public Device getSensor(String deviceUUId) {
-        Device result = null;
-        if (sensorList != null) {
-            result = getSensor(deviceUUId, sensorList.getSensors());
+        if (sensorList == null && isSensorRequested()) {
+            refreshDeviceList();
+        }
+        return getById(deviceUUId, sensorList);
+    }
+
+    private static Device getById(String id, Map<Integer, ? extends Device> devices) {
+        if (devices == null || id == null) {
+            return null;
+        }
+        try {
+            return devices.get(Integer.valueOf(id));
+        } catch (NumberFormatException e) {
+            return null;
         }
-        return result;
     }
 
     @Override
     public void rescanTelldusDevices() {
-        this.deviceList = null;
-        this.sensorList = null;
+        synchronized (this) {
+            this.deviceList = null;
+            this.sensorList = null;
+            this.sensorScanRequested = true;
+        }
         refreshDeviceList();
     }
 
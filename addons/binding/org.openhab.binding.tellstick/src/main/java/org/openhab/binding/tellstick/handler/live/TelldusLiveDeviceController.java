@@ -63,6 +63,7 @@ public class TelldusLiveDeviceController implements DeviceChangeListener, Sensor
     public static final long DEFAULT_INTERVAL_BETWEEN_SEND = 250;
     static final int REQUEST_TIMEOUT_MS = 5000;
     private AsyncHttpClient client;
+    private Runnable commandListener;
     static final String HTTP_API_TELLDUS_COM_XML = "http://api.telldus.com/xml/";
     static final String HTTP_TELLDUS_CLIENTS = HTTP_API_TELLDUS_COM_XML + "clients/list";
     static final String HTTP_TELLDUS_DEVICES = HTTP_API_TELLDUS_COM_XML + "devices/list?supportedMethods=19";
@@ -112,30 +113,42 @@ public class TelldusLiveDeviceController implements DeviceChangeListener, Sensor
             throws TellstickException {
 
         logger.info("Send {} to {}", command, device);
-        if (device instanceof TellstickNetDevice) {
-            if (command == OnOffType.ON) {
-                turnOn(device);
-            } else if (command == OnOffType.OFF) {
-                turnOff(device);
-            } else if (command instanceof PercentType) {
-                dim(device, (PercentType) command);
-            } else if (command instanceof IncreaseDecreaseType) {
-                increaseDecrease(device, ((IncreaseDecreaseType) command));
-            }
-        } else if (device instanceof SwitchableDevice) {
-            if (command == OnOffType.ON) {
-                if (isdimmer) {
-                    logger.debug("Turn off first in case it is allready on");
+        try {
+            if (device instanceof TellstickNetDevice) {
+                if (command == OnOffType.ON) {
+                    turnOn(device);
+                } else if (command == OnOffType.OFF) {
+                    turnOff(device);
+                } else if (command instanceof PercentType) {
+                    dim(device, (PercentType) command);
+                } else if (command instanceof IncreaseDecreaseType) {
+                    increaseDecrease(device, ((IncreaseDecreaseType) command));
+                }
+            } else if (device instanceof SwitchableDevice) {
+                if (command == OnOffType.ON) {
+                    if (isdimmer) {
+                        logger.debug("Turn off first in case it is allready on");
+                        turnOff(device);
+                    }
+                    turnOn(device);
+                } else if (command == OnOffType.OFF) {
                     turnOff(device);
                 }
-                turnOn(device);
-            } else if (command == OnOffType.OFF) {
-                turnOff(device);
+            } else {
+                logger.warn("Cannot send to {}", device);
+            }
+        } finally {
+            if (commandListener != null) {
+                commandListener.run();
             }
-        } else {
-            logger.warn("Cannot send to {}", device);
         }
+    }
 
+    /**
+     * Sets the listener which is run after each command, used by the bridge to poll for the resulting state.
+     */
+    void setCommandListener(Runnable commandListener) {
+        this.commandListener = commandListener;
     }
 
     private void increaseDecrease(Device dev, IncreaseDecreaseType increaseDecreaseType) throws TellstickException {
@@ -0,0 +1,120 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.handler;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+import static org.openhab.binding.tesla.TeslaBindingConstants.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.thing.ChannelUID;
+import org.eclipse.smarthome.core.thing.Thing;
+import org.eclipse.smarthome.core.thing.ThingUID;
+import org.eclipse.smarthome.core.thing.binding.ThingHandlerCallback;
+import org.eclipse.smarthome.core.types.State;
+import org.eclipse.smarthome.core.types.UnDefType;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests which states the {@link TeslaHandler} publishes for recorded <b>charge_state</b> responses.
+ *
+ * @author agent - Initial contribution
+ */
+public class TeslaHandlerTest {
+
+    private static final ThingUID THING_UID = new ThingUID(THING_TYPE_MODELS, "5YJSA1H16EFP12345");
+
+    private TeslaHandler handler;
+    private ThingHandlerCallback callback;
+    private String chargeState;
+
+    @Before
+    public void setUp() throws IOException {
+        Thing thing = mock(Thing.class);
+        when(thing.getUID()).thenReturn(THING_UID);
+        callback = mock(ThingHandlerCallback.class);
+
+        handler = new TeslaHandler(thing, null);
+        handler.setCallback(callback);
+        handler.lock = new ReentrantLock();
+
+        chargeState = readResponse("charge_state");
+    }
+
+    @Test
+    public void chargeStateUpdatesTheChannels() {
+        handler.parseAndUpdate(TESLA_CHARGE_STATE, null, chargeState);
+
+        verify(callback).stateUpdated(channel(CHANNEL_CHARGE), OnOffType.ON);
+        verify(callback).stateUpdated(channel("chargelimit"), new PercentType(90));
+        verify(callback).stateUpdated(channel("batterylevel"), new DecimalType(78));
+        verify(callback).stateUpdated(channel("chargeport"), OnOffType.ON);
+        verify(callback).stateUpdated(channel("scheduledchargingstart"), UnDefType.UNDEF);
+    }
+
+    @Test
+    public void unchangedChargeStateIsNotPublishedAgain() {
+        handler.parseAndUpdate(TESLA_CHARGE_STATE, null, chargeState);
+        reset(callback);
+
+        handler.parseAndUpdate(TESLA_CHARGE_STATE, null, chargeState);
+
+        verify(callback, never()).stateUpdated(any(ChannelUID.class), any(State.class));
+    }
+
+    @Test
+    public void onlyTheChangedValuesArePublished() {
+        handler.parseAndUpdate(TESLA_CHARGE_STATE, null, chargeState);
+        reset(callback);
+
+        handler.parseAndUpdate(TESLA_CHARGE_STATE, null,
+                chargeState.replace("\"battery_level\":78", "\"battery_level\":79"));
+
+        verify(callback).stateUpdated(channel("batterylevel"), new DecimalType(79));
+        verify(callback, times(1)).stateUpdated(any(ChannelUID.class), any(State.class));
+    }
+
+    @Test
+    public void commandedChannelIsPublishedAgain() {
+        handler.parseAndUpdate(TESLA_CHARGE_STATE, null, chargeState);
+        reset(callback);
+
+        // the vehicle did not take the new charge limit, the item must show the limit of the vehicle again
+        handler.handleCommand(channel("chargelimit"), new PercentType(50));
+        handler.parseAndUpdate(TESLA_CHARGE_STATE, null, chargeState);
+
+        verify(callback).stateUpdated(channel("chargelimit"), new PercentType(90));
+        verify(callback, times(1)).stateUpdated(any(ChannelUID.class), any(State.class));
+    }
+
+    private static ChannelUID channel(String channelId) {
+        return new ChannelUID(THING_UID, channelId);
+    }
+
+    private String readResponse(String name) throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("input/" + name + ".json")) {
+            ByteArrayOutputStream response = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                response.write(buffer, 0, read);
+            }
+            return new String(response.toByteArray(), StandardCharsets.UTF_8).trim();
+        }
+    }
+}
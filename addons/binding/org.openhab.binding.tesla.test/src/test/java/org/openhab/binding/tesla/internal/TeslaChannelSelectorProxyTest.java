@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+
+import org.eclipse.smarthome.core.library.types.DecimalType;
+import org.eclipse.smarthome.core.library.types.OnOffType;
+import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.StringType;
+import org.eclipse.smarthome.core.types.State;
+import org.junit.Test;
+import org.openhab.binding.tesla.internal.TeslaChannelSelectorProxy.TeslaChannelSelector;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Tests the lookup of the {@link TeslaChannelSelector}s and the conversion of the values of recorded
+ * <b>charge_state</b> and <b>drive_state</b> responses.
+ *
+ * @author agent - Initial contribution
+ */
+public class TeslaChannelSelectorProxyTest {
+
+    private final TeslaChannelSelectorProxy proxy = new TeslaChannelSelectorProxy();
+    private final Map<String, String> properties = Collections.emptyMap();
+
+    @Test
+    public void everyRestIdFindsItsFirstSelector() {
+        for (TeslaChannelSelector selector : TeslaChannelSelector.values()) {
+            if (selector.toString() != null) {
+                assertThat(TeslaChannelSelector.getValueSelectorFromRESTID(selector.toString()),
+                        is(findFirst(selector.toString(), true)));
+            }
+        }
+    }
+
+    @Test
+    public void everyChannelIdFindsItsFirstSelector() {
+        for (TeslaChannelSelector selector : TeslaChannelSelector.values()) {
+            assertThat(TeslaChannelSelector.getValueSelectorFromChannelID(selector.getChannelID()),
+                    is(findFirst(selector.getChannelID(), false)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownRestIdIsRejected() {
+        TeslaChannelSelector.getValueSelectorFromRESTID("conn_charge_cable");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownChannelIdIsRejected() {
+        TeslaChannelSelector.getValueSelectorFromChannelID("chargecable");
+    }
+
+    @Test
+    public void recordedValuesAreConvertedLikeValueOf() throws Exception {
+        for (String response : new String[] { "charge_state", "drive_state" }) {
+            for (Map.Entry<String, JsonElement> entry : readResponse(response).entrySet()) {
+                if (entry.getValue().isJsonNull()) {
+                    continue;
+                }
+                TeslaChannelSelector selector;
+                try {
+                    selector = TeslaChannelSelector.getValueSelectorFromRESTID(entry.getKey());
+                } catch (IllegalArgumentException e) {
+                    // not every field of a response has a channel
+                    continue;
+                }
+                String value = entry.getValue().getAsString();
+                assertThat(entry.getKey(), selector.getState(value), is(valueOf(selector, value)));
+            }
+        }
+    }
+
+    @Test
+    public void convertChargeState() throws Exception {
+        JsonObject chargeState = readResponse("charge_state");
+
+        assertThat(getState(chargeState, "charging_state"), is((State) new StringType("Charging")));
+        assertThat(getState(chargeState, "charge_limit_soc"), is((State) new PercentType(90)));
+        assertThat(getState(chargeState, "battery_level"), is((State) new DecimalType(78)));
+        assertThat(getState(chargeState, "battery_range"), is((State) new DecimalType("201.28")));
+        assertThat(getState(chargeState, "charge_port_door_open"), is((State) OnOffType.ON));
+        assertThat(getState(chargeState, "trip_charging"), is((State) OnOffType.OFF));
+    }
+
+    @Test
+    public void convertDriveState() throws Exception {
+        JsonObject driveState = readResponse("drive_state");
+
+        assertThat(getState(driveState, "heading"), is((State) new DecimalType(177)));
+        assertThat(getState(driveState, "power"), is((State) new DecimalType(0)));
+    }
+
+    @Test
+    public void unconvertibleValueGivesNoState() {
+        assertThat(TeslaChannelSelector.BATTERY_LEVEL.getState("unknown"), is(nullValue()));
+        assertThat(TeslaChannelSelector.CHARGE_LIMIT_SOC.getState("120"), is(nullValue()));
+    }
+
+    private State getState(JsonObject response, String restId) {
+        return proxy.getState(response.get(restId).getAsString(),
+                TeslaChannelSelector.getValueSelectorFromRESTID(restId), properties);
+    }
+
+    /**
+     * Looks up a selector like the selectors were looked up before they were indexed.
+     */
+    private static TeslaChannelSelector findFirst(String id, boolean restId) {
+        for (TeslaChannelSelector selector : TeslaChannelSelector.values()) {
+            if (id.equals(restId ? selector.toString() : selector.getChannelID())) {
+                return selector;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Converts a value like the selectors did before their converters were resolved in advance.
+     */
+    private static State valueOf(TeslaChannelSelector selector, String value) throws Exception {
+        try {
+            Method valueOf = selector.getTypeClass().getMethod("valueOf", String.class);
+            return (State) valueOf.invoke(selector.getTypeClass(), value);
+        } catch (InvocationTargetException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private JsonObject readResponse(String name) throws IOException {
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("input/" + name + ".json");
+                Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return new JsonParser().parse(reader).getAsJsonObject();
+        }
+    }
+}
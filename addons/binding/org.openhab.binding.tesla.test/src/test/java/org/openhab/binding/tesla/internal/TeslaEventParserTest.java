@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.tesla.TeslaBindingConstants.EventKeys;
+import org.openhab.binding.tesla.internal.TeslaChannelSelectorProxy.TeslaChannelSelector;
+
+/**
+ * Tests the {@link TeslaEventParser} with lines recorded from the Tesla event stream.
+ *
+ * @author agent - Initial contribution
+ */
+public class TeslaEventParserTest {
+
+    private static final int SPEED = EventKeys.speed.ordinal();
+    private static final int SOC = EventKeys.soc.ordinal();
+    private static final int EST_LAT = EventKeys.est_lat.ordinal();
+
+    private final TeslaEventParser parser = new TeslaEventParser(EventKeys.values());
+    private List<String> stream;
+
+    @Before
+    public void setUp() throws IOException {
+        stream = new ArrayList<>();
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream("input/stream.txt");
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                stream.add(line);
+            }
+        }
+    }
+
+    @Test
+    public void columnsHaveTheSelectorsOfTheEventKeys() {
+        assertThat(parser.getColumnCount(), is(EventKeys.values().length));
+        assertThat(parser.getSelector(SPEED), is(TeslaChannelSelector.SPEED));
+        assertThat(parser.getSelector(EST_LAT), is(TeslaChannelSelector.LATITUDE_EVENT));
+    }
+
+    @Test
+    public void firstEventChangesEveryValue() {
+        assertThat(parser.parse(stream.get(0)), is(true));
+        parser.commit();
+
+        assertThat(parser.getTimestamp(), is(1508426542000L));
+        for (int i = 0; i < parser.getColumnCount(); i++) {
+            assertThat(parser.isChanged(i), is(true));
+        }
+        assertThat(parser.getValue(SOC), is("78"));
+        assertThat(parser.getValue(SPEED), is(""));
+    }
+
+    @Test
+    public void onlyTheChangedValuesOfAnEventAreReported() {
+        parseAndCommit(stream.get(0));
+        parseAndCommit(stream.get(1));
+
+        for (int i = 1; i < parser.getColumnCount(); i++) {
+            assertThat(parser.isChanged(i), is(false));
+        }
+
+        parseAndCommit(stream.get(2));
+
+        assertThat(parser.isChanged(SPEED), is(true));
+        assertThat(parser.getValue(SPEED), is("12"));
+        assertThat(parser.isChanged(EST_LAT), is(true));
+        assertThat(parser.getValue(EST_LAT), is("50.846540"));
+        assertThat(parser.isChanged(SOC), is(false));
+    }
+
+    @Test
+    public void discardedEventIsNotTheBaselineOfTheNextOne() {
+        parseAndCommit(stream.get(0));
+
+        // the event is parsed, but discarded by the handler
+        assertThat(parser.parse(stream.get(2)), is(true));
+        assertThat(parser.getTimestamp(), is(1508426544000L));
+
+        parseAndCommit(stream.get(2).replace("1508426544000", "1508426544500"));
+
+        assertThat(parser.isChanged(SPEED), is(true));
+        assertThat(parser.getValue(SPEED), is("12"));
+    }
+
+    @Test
+    public void resetReportsEveryValueOfTheNextEventAsChanged() {
+        parseAndCommit(stream.get(0));
+        parser.reset();
+        parseAndCommit(stream.get(1));
+
+        for (int i = 0; i < parser.getColumnCount(); i++) {
+            assertThat(parser.isChanged(i), is(true));
+        }
+    }
+
+    @Test
+    public void incompleteEventIsRejected() {
+        assertThat(parser.parse("1508426542000,21352.6,,78"), is(false));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void eventWithoutTimestampFails() {
+        parser.parse(stream.get(0).substring(stream.get(0).indexOf(',')));
+    }
+
+    private void parseAndCommit(String line) {
+        assertThat(parser.parse(line), is(true));
+        parser.commit();
+    }
+}
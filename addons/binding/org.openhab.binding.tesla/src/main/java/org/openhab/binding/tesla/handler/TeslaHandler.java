@@ -15,6 +15,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.UnsupportedEncodingException;
+import java.math.BigDecimal;
 import java.security.GeneralSecurityException;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
@@ -22,6 +23,7 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
@@ -42,6 +44,7 @@ import org.eclipse.smarthome.core.library.types.DecimalType;
 import org.eclipse.smarthome.core.library.types.IncreaseDecreaseType;
 import org.eclipse.smarthome.core.library.types.OnOffType;
 import org.eclipse.smarthome.core.library.types.PercentType;
+import org.eclipse.smarthome.core.library.types.PointType;
 import org.eclipse.smarthome.core.library.types.StringType;
 import org.eclipse.smarthome.core.storage.Storage;
 import org.eclipse.smarthome.core.storage.StorageService;
@@ -59,6 +62,8 @@ import org.openhab.binding.tesla.TeslaBindingConstants;
 import org.openhab.binding.tesla.TeslaBindingConstants.EventKeys;
 import org.openhab.binding.tesla.internal.TeslaChannelSelectorProxy;
 import org.openhab.binding.tesla.internal.TeslaChannelSelectorProxy.TeslaChannelSelector;
+import org.openhab.binding.tesla.internal.TeslaEventParser;
+import org.openhab.binding.tesla.internal.TeslaPositionSampler;
 import org.openhab.binding.tesla.internal.protocol.ChargeState;
 import org.openhab.binding.tesla.internal.protocol.ClimateState;
 import org.openhab.binding.tesla.internal.protocol.DriveState;
@@ -137,6 +142,13 @@ public class TeslaHandler extends BaseThingHandler {
     protected TeslaChannelSelectorProxy teslaChannelSelectorProxy = new TeslaChannelSelectorProxy();
     private TokenResponse logonToken;
 
+    // The last state published for each channel, so that unchanged values are not published again
+    private final Map<String, State> channelStates = new ConcurrentHashMap<String, State>();
+
+    // Only used by the event stream thread
+    private final TeslaEventParser eventParser = new TeslaEventParser(EventKeys.values());
+    protected TeslaPositionSampler positionSampler = new TeslaPositionSampler(0, 0);
+
     public TeslaHandler(Thing thing, StorageService storageService) {
         super(thing);
         this.storageService = storageService;
@@ -149,6 +161,9 @@ public class TeslaHandler extends BaseThingHandler {
 
         updateStatus(ThingStatus.UNKNOWN);
 
+        channelStates.clear();
+        positionSampler = new TeslaPositionSampler(getConfigValue(POSITION_DISTANCE),
+                getConfigValue(POSITION_INTERVAL) * 1000);
         lock = new ReentrantLock();
 
         lock.lock();
@@ -216,12 +231,59 @@ public class TeslaHandler extends BaseThingHandler {
 
     }
 
+    /**
+     * Updates the state of a channel, unless the state is the same as the one published last.
+     */
+    protected void updateChangedState(String channelID, State state) {
+        if (state == null) {
+            state = UnDefType.UNDEF;
+        }
+        State previousState = channelStates.put(channelID, state);
+        if (!state.equals(previousState)) {
+            updateState(channelID, state);
+        }
+    }
+
+    /**
+     * Publishes a location received from the event stream, unless the position sampler drops it
+     */
+    protected void updateLocation(State location, long timestamp) {
+        if (location instanceof PointType) {
+            PointType point = (PointType) location;
+            if (!positionSampler.accept(point.getLatitude().doubleValue(), point.getLongitude().doubleValue(),
+                    timestamp)) {
+                return;
+            }
+        }
+        updateChangedState("location", location);
+    }
+
+    private long getConfigValue(String name) {
+        Object value = getConfig().get(name);
+        return value instanceof BigDecimal ? ((BigDecimal) value).longValue() : 0;
+    }
+
+    /**
+     * Updates a property of the thing, unless it already has the given value.
+     */
+    protected void updateChangedProperty(String name, String value) {
+        if (!value.equals(getThing().getProperties().get(name))) {
+            Map<String, String> properties = editProperties();
+            properties.put(name, value);
+            updateProperties(properties);
+        }
+    }
+
     @Override
     public void handleCommand(ChannelUID channelUID, Command command) {
 
         String channelID = channelUID.getId();
         TeslaChannelSelector selector = TeslaChannelSelector.getValueSelectorFromChannelID(channelID);
 
+        // publish the next value of the channel, even if it did not change: a refresh asks for it, and after any
+        // other command the item shows the commanded state, which the vehicle may not have taken
+        channelStates.remove(channelID);
+
         if (command instanceof RefreshType) {
             if (isAwake()) {
                 // Request the state of all known variables. This is sub-optimal, but the requests get scheduled and
@@ -497,9 +559,9 @@ public class TeslaHandler extends BaseThingHandler {
                     case TESLA_CHARGE_STATE: {
                         chargeState = gson.fromJson(result, ChargeState.class);
                         if (chargeState.charging_state != null && "Charging".equals(chargeState.charging_state)) {
-                            updateState(CHANNEL_CHARGE, OnOffType.ON);
+                            updateChangedState(CHANNEL_CHARGE, OnOffType.ON);
                         } else {
-                            updateState(CHANNEL_CHARGE, OnOffType.OFF);
+                            updateChangedState(CHANNEL_CHARGE, OnOffType.OFF);
                         }
 
                         break;
@@ -565,16 +627,16 @@ public class TeslaHandler extends BaseThingHandler {
                                             .getValueSelectorFromRESTID(entry.getKey());
                                     if (!selector.isProperty()) {
                                         if (!entry.getValue().isJsonNull()) {
-                                            updateState(selector.getChannelID(), teslaChannelSelectorProxy.getState(
-                                                    entry.getValue().getAsString(), selector, editProperties()));
+                                            updateChangedState(selector.getChannelID(),
+                                                    teslaChannelSelectorProxy.getState(entry.getValue().getAsString(),
+                                                            selector, getThing().getProperties()));
                                         } else {
-                                            updateState(selector.getChannelID(), UnDefType.UNDEF);
+                                            updateChangedState(selector.getChannelID(), UnDefType.UNDEF);
                                         }
                                     } else {
                                         if (!entry.getValue().isJsonNull()) {
-                                            Map<String, String> properties = editProperties();
-                                            properties.put(selector.getChannelID(), entry.getValue().getAsString());
-                                            updateProperties(properties);
+                                            updateChangedProperty(selector.getChannelID(),
+                                                    entry.getValue().getAsString());
                                         }
                                     }
                                 } catch (IllegalArgumentException e) {
@@ -954,6 +1016,8 @@ public class TeslaHandler extends BaseThingHandler {
                         InputStream dummy = (InputStream) eventResponse.getEntity();
                         eventInputStreamReader = new InputStreamReader(dummy);
                         eventBufferedReader = new BufferedReader(eventInputStreamReader);
+                        eventParser.reset();
+                        positionSampler.reset();
                         isEstablished = true;
                     } else if (eventResponse.getStatus() == 401) {
                         updateStatus(ThingStatus.OFFLINE);
@@ -983,8 +1047,12 @@ public class TeslaHandler extends BaseThingHandler {
 
                                 while (line != null) {
                                     logger.debug("Event Stream : Received an event: '{}'", line);
-                                    String vals[] = line.split(",");
-                                    long currentTimeStamp = Long.valueOf(vals[0]);
+                                    if (!eventParser.parse(line)) {
+                                        logger.debug("Event Stream : Discarding an incomplete event: '{}'", line);
+                                        line = eventBufferedReader.readLine();
+                                        continue;
+                                    }
+                                    long currentTimeStamp = eventParser.getTimestamp();
                                     long systemTimeStamp = System.currentTimeMillis();
                                     if (logger.isDebugEnabled()) {
                                         SimpleDateFormat dateFormatter = new SimpleDateFormat(
@@ -996,31 +1064,42 @@ public class TeslaHandler extends BaseThingHandler {
                                     }
                                     if (systemTimeStamp - currentTimeStamp < EVENT_TIMESTAMP_AGE_LIMIT) {
                                         if (currentTimeStamp > lastTimeStamp) {
-                                            lastTimeStamp = Long.valueOf(vals[0]);
+                                            lastTimeStamp = currentTimeStamp;
+                                            eventParser.commit();
                                             if (logger.isDebugEnabled()) {
                                                 SimpleDateFormat dateFormatter = new SimpleDateFormat(
                                                         "yyyy-MM-dd'T'HH:mm:ss.SSS");
                                                 logger.debug("Event Stream : Event stamp is {}",
                                                         dateFormatter.format(new Date(lastTimeStamp)));
                                             }
-                                            for (int i = 0; i < EventKeys.values().length; i++) {
-                                                TeslaChannelSelector selector = TeslaChannelSelector
-                                                        .getValueSelectorFromRESTID((EventKeys.values()[i]).toString());
+                                            State location = null;
+                                            for (int i = 0; i < eventParser.getColumnCount(); i++) {
+                                                if (!eventParser.isChanged(i)) {
+                                                    continue;
+                                                }
+                                                TeslaChannelSelector selector = eventParser.getSelector(i);
+                                                String value = eventParser.getValue(i);
                                                 if (!selector.isProperty()) {
-                                                    State newState = teslaChannelSelectorProxy.getState(vals[i],
-                                                            selector, editProperties());
-                                                    if (newState != null && !"".equals(vals[i])) {
-                                                        updateState(selector.getChannelID(), newState);
+                                                    State newState = teslaChannelSelectorProxy.getState(value,
+                                                            selector, getThing().getProperties());
+                                                    if (newState == null || "".equals(value)) {
+                                                        newState = UnDefType.UNDEF;
+                                                    }
+                                                    if (selector == TeslaChannelSelector.ELEVATION
+                                                            || selector == TeslaChannelSelector.LATITUDE_EVENT
+                                                            || selector == TeslaChannelSelector.LONGITUDE_EVENT) {
+                                                        location = newState;
                                                     } else {
-                                                        updateState(selector.getChannelID(), UnDefType.UNDEF);
+                                                        updateChangedState(selector.getChannelID(), newState);
                                                     }
                                                 } else {
-                                                    Map<String, String> properties = editProperties();
-                                                    properties.put(selector.getChannelID(),
-                                                            (selector.getState(vals[i])).toString());
-                                                    updateProperties(properties);
+                                                    updateChangedProperty(selector.getChannelID(),
+                                                            (selector.getState(value)).toString());
                                                 }
                                             }
+                                            if (location != null) {
+                                                updateLocation(location, currentTimeStamp);
+                                            }
                                         } else {
                                             if (logger.isDebugEnabled()) {
                                                 SimpleDateFormat dateFormatter = new SimpleDateFormat(
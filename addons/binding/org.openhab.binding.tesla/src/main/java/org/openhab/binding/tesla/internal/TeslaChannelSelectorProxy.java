@@ -12,7 +12,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 import org.eclipse.smarthome.core.library.types.DateTimeType;
 import org.eclipse.smarthome.core.library.types.DecimalType;
@@ -933,9 +935,22 @@ public class TeslaChannelSelectorProxy {
         },
         WHEEL_TYPE("wheel_type", "wheeltype", StringType.class, true);
 
+        private static final Map<String, TeslaChannelSelector> SELECTORS_BY_REST_ID = new HashMap<>();
+        private static final Map<String, TeslaChannelSelector> SELECTORS_BY_CHANNEL_ID = new HashMap<>();
+
+        static {
+            for (TeslaChannelSelector c : TeslaChannelSelector.values()) {
+                if (c.RESTID != null) {
+                    SELECTORS_BY_REST_ID.putIfAbsent(c.RESTID, c);
+                }
+                SELECTORS_BY_CHANNEL_ID.putIfAbsent(c.channelID, c);
+            }
+        }
+
         private final String RESTID;
         private final String channelID;
         private Class<? extends Type> typeClass;
+        private final Function<String, State> converter;
         private final boolean isProperty;
 
         private TeslaChannelSelector(String RESTID, String channelID, Class<? extends Type> typeClass,
@@ -943,9 +958,43 @@ public class TeslaChannelSelectorProxy {
             this.RESTID = RESTID;
             this.channelID = channelID;
             this.typeClass = typeClass;
+            this.converter = getConverter(typeClass);
             this.isProperty = isProperty;
         }
 
+        /**
+         * Returns the function converting a value to a state of the given type, so the conversion does not have to
+         * look up the valueOf method for every value.
+         */
+        private static Function<String, State> getConverter(Class<? extends Type> typeClass) {
+            if (typeClass == DecimalType.class) {
+                return DecimalType::valueOf;
+            } else if (typeClass == OnOffType.class) {
+                return OnOffType::valueOf;
+            } else if (typeClass == StringType.class) {
+                return StringType::valueOf;
+            } else if (typeClass == PercentType.class) {
+                return PercentType::valueOf;
+            } else if (typeClass == OpenClosedType.class) {
+                return OpenClosedType::valueOf;
+            } else if (typeClass == DateTimeType.class) {
+                return DateTimeType::valueOf;
+            }
+
+            try {
+                Method valueOf = typeClass.getMethod("valueOf", String.class);
+                return s -> {
+                    try {
+                        return (State) valueOf.invoke(typeClass, s);
+                    } catch (IllegalAccessException | InvocationTargetException e) {
+                        return null;
+                    }
+                };
+            } catch (NoSuchMethodException e) {
+                return s -> null;
+            }
+        }
+
         @Override
         public String toString() {
             return RESTID;
@@ -969,42 +1018,31 @@ public class TeslaChannelSelectorProxy {
 
         public State getState(String s) {
             try {
-                Method valueOf = typeClass.getMethod("valueOf", String.class);
-                State state = (State) valueOf.invoke(typeClass, s);
-                if (state != null) {
-                    return state;
-                }
-            } catch (NoSuchMethodException e) {
-            } catch (IllegalArgumentException e) {
-            } catch (IllegalAccessException e) {
-            } catch (InvocationTargetException e) {
+                return converter.apply(s);
+            } catch (RuntimeException e) {
+                // the value can not be converted to the type of this channel
+                return null;
             }
-
-            return null;
         }
 
         public static TeslaChannelSelector getValueSelectorFromChannelID(String valueSelectorText)
                 throws IllegalArgumentException {
 
-            for (TeslaChannelSelector c : TeslaChannelSelector.values()) {
-                if (c.channelID.equals(valueSelectorText)) {
-                    return c;
-                }
+            TeslaChannelSelector c = SELECTORS_BY_CHANNEL_ID.get(valueSelectorText);
+            if (c == null) {
+                throw new IllegalArgumentException("Not valid value selector");
             }
-
-            throw new IllegalArgumentException("Not valid value selector");
+            return c;
         }
 
         public static TeslaChannelSelector getValueSelectorFromRESTID(String valueSelectorText)
                 throws IllegalArgumentException {
 
-            for (TeslaChannelSelector c : TeslaChannelSelector.values()) {
-                if (c.RESTID != null && c.RESTID.equals(valueSelectorText)) {
-                    return c;
-                }
+            TeslaChannelSelector c = SELECTORS_BY_REST_ID.get(valueSelectorText);
+            if (c == null) {
+                throw new IllegalArgumentException("Not valid value selector");
             }
-
-            throw new IllegalArgumentException("Not valid value selector");
+            return c;
         }
     }
 
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.internal;
+
+import org.openhab.binding.tesla.TeslaBindingConstants.EventKeys;
+import org.openhab.binding.tesla.internal.TeslaChannelSelectorProxy.TeslaChannelSelector;
+
+/**
+ * The {@link TeslaEventParser} parses the comma separated lines of the Tesla
+ * event stream. The columns are located within the line without splitting it,
+ * and a column value is only extracted when it differs from the value in the
+ * previous accepted line. The selector of each column is looked up once, when
+ * the parser is created.
+ *
+ * A line is parsed in two steps: {@link #parse(String)} locates the columns
+ * and reads the timestamp, so that the event can be checked, and
+ * {@link #commit()} takes over the values of an accepted event. The values of
+ * a discarded event are not compared with the next line.
+ *
+ * A parser keeps the values of the last accepted line and is not thread safe.
+ *
+ * @author agent - Initial contribution
+ */
+public class TeslaEventParser {
+
+    private final TeslaChannelSelector[] selectors;
+    private final int[] starts;
+    private final int[] ends;
+    private final String[] values;
+    private final boolean[] changed;
+
+    private String line;
+    private long timestamp;
+
+    public TeslaEventParser(EventKeys[] keys) {
+        selectors = new TeslaChannelSelector[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            selectors[i] = TeslaChannelSelector.getValueSelectorFromRESTID(keys[i].toString());
+        }
+        starts = new int[keys.length];
+        ends = new int[keys.length];
+        values = new String[keys.length];
+        changed = new boolean[keys.length];
+    }
+
+    /**
+     * Parses an event without changing the values of the last accepted line. The first column of an event is its
+     * timestamp.
+     *
+     * @param line the event as received
+     * @return false if the line does not contain a value for each column
+     * @throws NumberFormatException if the timestamp is not a number
+     */
+    public boolean parse(String line) {
+        int column = 0;
+        int start = 0;
+        int length = line.length();
+        while (column < starts.length) {
+            int end = line.indexOf(',', start);
+            if (end < 0) {
+                end = length;
+            }
+            starts[column] = start;
+            ends[column] = end;
+            column++;
+            if (end == length) {
+                break;
+            }
+            start = end + 1;
+        }
+        if (column < starts.length) {
+            return false;
+        }
+
+        timestamp = parseLong(line, starts[0], ends[0]);
+        this.line = line;
+        return true;
+    }
+
+    /**
+     * Takes over the values of the last parsed event and compares them with the values of the last accepted one.
+     */
+    public void commit() {
+        for (int i = 0; i < values.length; i++) {
+            int valueLength = ends[i] - starts[i];
+            String last = values[i];
+            if (last != null && last.length() == valueLength && line.regionMatches(starts[i], last, 0, valueLength)) {
+                changed[i] = false;
+            } else {
+                values[i] = line.substring(starts[i], ends[i]);
+                changed[i] = true;
+            }
+        }
+    }
+
+    /**
+     * Forgets the values of the last accepted line, so all values of the next one are reported as changed.
+     */
+    public void reset() {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = null;
+            changed[i] = false;
+        }
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getColumnCount() {
+        return values.length;
+    }
+
+    public TeslaChannelSelector getSelector(int column) {
+        return selectors[column];
+    }
+
+    public String getValue(int column) {
+        return values[column];
+    }
+
+    /**
+     * @return true if the value of the column differs from the one in the previous accepted line
+     */
+    public boolean isChanged(int column) {
+        return changed[column];
+    }
+
+    private static long parseLong(String line, int start, int end) {
+        if (start == end) {
+            throw new NumberFormatException("The event has no timestamp");
+        }
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = line.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("Invalid timestamp '" + line.substring(start, end) + "'");
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+}
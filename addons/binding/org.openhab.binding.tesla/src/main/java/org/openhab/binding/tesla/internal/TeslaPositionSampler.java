@@ -0,0 +1,78 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tesla.internal;
+
+/**
+ * The {@link TeslaPositionSampler} decides which positions of the event
+ * stream are published. A position is accepted once the vehicle moved the
+ * minimum distance since the last accepted position, or once the minimum
+ * interval has passed. Without a minimum distance and interval every
+ * position is accepted.
+ *
+ * @author agent - Initial contribution
+ */
+public class TeslaPositionSampler {
+
+    private static final double EARTH_RADIUS = 6371000;
+
+    private final double minimumDistance;
+    private final long minimumInterval;
+
+    private boolean hasPosition = false;
+    private double lastLatitude;
+    private double lastLongitude;
+    private long lastTimestamp;
+
+    /**
+     * @param minimumDistance the minimum distance between published positions in metres, 0 to disable
+     * @param minimumInterval the minimum time between published positions in milliseconds, 0 to disable
+     */
+    public TeslaPositionSampler(double minimumDistance, long minimumInterval) {
+        this.minimumDistance = minimumDistance;
+        this.minimumInterval = minimumInterval;
+    }
+
+    /**
+     * @return true if the position should be published
+     */
+    public boolean accept(double latitude, double longitude, long timestamp) {
+        if (hasPosition && (minimumDistance > 0 || minimumInterval > 0)) {
+            boolean moved = minimumDistance > 0
+                    && distance(lastLatitude, lastLongitude, latitude, longitude) >= minimumDistance;
+            boolean expired = minimumInterval > 0 && timestamp - lastTimestamp >= minimumInterval;
+            if (!moved && !expired) {
+                return false;
+            }
+        }
+
+        hasPosition = true;
+        lastLatitude = latitude;
+        lastLongitude = longitude;
+        lastTimestamp = timestamp;
+        return true;
+    }
+
+    /**
+     * Forgets the last accepted position, so the next position is accepted.
+     */
+    public void reset() {
+        hasPosition = false;
+    }
+
+    /**
+     * @return the equirectangular approximation of the distance in metres, which is accurate enough for the short
+     *         distances between two events
+     */
+    private static double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double x = Math.toRadians(longitude2 - longitude1)
+                * Math.cos(Math.toRadians((latitude1 + latitude2) / 2));
+        double y = Math.toRadians(latitude2 - latitude1);
+        return Math.sqrt(x * x + y * y) * EARTH_RADIUS;
+    }
+}
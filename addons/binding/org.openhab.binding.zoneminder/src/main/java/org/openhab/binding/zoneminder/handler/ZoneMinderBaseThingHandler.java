@@ -69,7 +69,7 @@ public abstract class ZoneMinderBaseThingHandler extends BaseThingHandler implem
     /** Configuration from openHAB */
     protected ZoneMinderThingConfig configuration;
 
-    private DataRefreshPriorityEnum _refreshPriority = DataRefreshPriorityEnum.SCHEDULED;
+    private volatile DataRefreshPriorityEnum _refreshPriority = DataRefreshPriorityEnum.SCHEDULED;
 
     protected boolean isOnline() {
 
@@ -135,6 +135,12 @@ public abstract class ZoneMinderBaseThingHandler extends BaseThingHandler implem
 
         logger.info("[MONITOR-{}]: Starting High Priority Refresh", getZoneMinderId());
         _refreshPriority = DataRefreshPriorityEnum.HIGH_PRIORITY;
+
+        // Let the bridge refresh this thing right away instead of waiting for the next scheduled refresh
+        ZoneMinderServerBridgeHandler bridgeHandler = getZoneMinderBridgeHandler();
+        if (bridgeHandler != null) {
+            bridgeHandler.requestPriorityRefresh();
+        }
         return true;
     }
 
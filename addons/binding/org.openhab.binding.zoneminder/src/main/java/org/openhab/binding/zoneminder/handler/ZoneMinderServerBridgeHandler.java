@@ -12,6 +12,7 @@ import java.io.IOException;
 import java.math.BigDecimal;
 import java.security.GeneralSecurityException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +36,7 @@ import org.eclipse.smarthome.core.thing.ThingStatusInfo;
 import org.eclipse.smarthome.core.thing.ThingTypeUID;
 import org.eclipse.smarthome.core.thing.ThingUID;
 import org.eclipse.smarthome.core.thing.binding.BaseBridgeHandler;
+import org.eclipse.smarthome.core.thing.binding.ThingHandler;
 import org.eclipse.smarthome.core.types.Command;
 import org.eclipse.smarthome.core.types.RefreshType;
 import org.eclipse.smarthome.core.types.State;
@@ -73,6 +75,9 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
 
     public static final int TELNET_TIMEOUT = 5000;
 
+    /** Interval for requesting daemon and detailed status of unchanged monitors. */
+    private static final long MONITOR_FULL_REFRESH_INTERVAL_MS = TimeUnit.MINUTES.toMillis(5);
+
     public static final Set<ThingTypeUID> SUPPORTED_THING_TYPES = Sets
             .newHashSet(ZoneMinderConstants.THING_TYPE_BRIDGE_ZONEMINDER_SERVER);
 
@@ -130,6 +135,8 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
 
     private ScheduledFuture<?> taskRefreshData = null;
     private ScheduledFuture<?> taskPriorityRefreshData = null;
+    private final Object priorityRefreshLock = new Object();
+    private long lastFullMonitorRefresh = 0;
 
     private Runnable refreshDataRunnable = new Runnable() {
         @Override
@@ -186,46 +193,46 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
         }
     };
 
+    /**
+     * Refreshes the monitors which have been triggered. The task is started by a trigger event and stops itself once
+     * no monitor needs a high priority refresh anymore.
+     */
     private Runnable refreshPriorityDataRunnable = new Runnable() {
 
         @Override
         public void run() {
             try {
-
-                // Make sure priority updates is done
-                for (Thing thing : getThing().getThings()) {
-                    try {
-
-                        if (thing.getThingTypeUID().equals(ZoneMinderConstants.THING_TYPE_THING_ZONEMINDER_MONITOR)) {
-                            Thing thingMonitor = thing;
-
-                            ZoneMinderBaseThingHandler thingHandler = (ZoneMinderBaseThingHandler) thing.getHandler();
-                            if (thingHandler != null) {
-
-                                if (thingHandler.getRefreshPriority() == DataRefreshPriorityEnum.HIGH_PRIORITY) {
-                                    logger.debug("[MONITOR-{}]: RefreshPriority is High Priority",
-                                            thingHandler.getZoneMinderId());
-                                    thingHandler.refreshThing(zoneMinderSession, DataRefreshPriorityEnum.HIGH_PRIORITY);
-                                }
-                            } else {
-                                logger.debug(
-                                        "[MONITOR]: refreshThing not called for monitor, since thingHandler is 'null'");
-
-                            }
+                List<ZoneMinderThingMonitorHandler> priorityHandlers = new ArrayList<ZoneMinderThingMonitorHandler>();
+                synchronized (priorityRefreshLock) {
+                    for (Thing thing : getThing().getThings()) {
+                        ThingHandler thingHandler = thing.getHandler();
+                        if ((thingHandler instanceof ZoneMinderThingMonitorHandler)
+                                && (((ZoneMinderThingMonitorHandler) thingHandler)
+                                        .getRefreshPriority() == DataRefreshPriorityEnum.HIGH_PRIORITY)) {
+                            priorityHandlers.add((ZoneMinderThingMonitorHandler) thingHandler);
                         }
+                    }
 
-                    } catch (NullPointerException ex) {
-                        // This isn't critical (unless it comes over and over). There seems to be a bug so that a
-                        // null
-                        // pointer exception is coming every now and then.
-                        // HAve to find the reason for that. Until thenm, don't Spamm
-                        logger.error(
-                                "[MONITOR]: Method 'refreshThing()' for Bridge failed for thing='{}' - Exception='{}'",
-                                thing.getUID(), ex);
+                    if (priorityHandlers.isEmpty()) {
+                        logger.debug("{}: No monitor needs a priority refresh, stopping task", getLogIdentifier());
+                        stopTask(taskPriorityRefreshData);
+                        taskPriorityRefreshData = null;
+                        return;
+                    }
+                }
+
+                // Fetch data for all monitors in one request and pass it on to the triggered monitors
+                Map<String, IZoneMinderMonitorData> monitors = getMonitorSnapshot(zoneMinderSession);
+                for (ZoneMinderThingMonitorHandler thingHandler : priorityHandlers) {
+                    try {
+                        logger.debug("[MONITOR-{}]: RefreshPriority is High Priority",
+                                thingHandler.getZoneMinderId());
+                        thingHandler.setMonitorSnapshot(monitors.get(thingHandler.getZoneMinderId()), false);
+                        thingHandler.refreshThing(zoneMinderSession, DataRefreshPriorityEnum.HIGH_PRIORITY);
                     } catch (Exception ex) {
                         logger.error(
                                 "[MONITOR]: Method 'refreshThing()' for Bridge failed for thing='{}' - Exception='{}'",
-                                thing.getUID(), ex);
+                                thingHandler.getThing().getUID(), ex);
                     }
                 }
 
@@ -344,6 +351,10 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
 
             logger.info("{}: Stopping refresh data task", getLogIdentifier());
             stopTask(taskRefreshData);
+            synchronized (priorityRefreshLock) {
+                stopTask(taskPriorityRefreshData);
+                taskPriorityRefreshData = null;
+            }
         } catch (Exception ex) {
         }
     }
@@ -384,6 +395,45 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
 
     }
 
+    /**
+     * Fetches the data of all monitors with a single request.
+     *
+     * @return the monitor data by ZoneMinder monitor id, empty if the data could not be obtained
+     */
+    protected Map<String, IZoneMinderMonitorData> getMonitorSnapshot(IZoneMinderSession session) {
+        Map<String, IZoneMinderMonitorData> snapshot = new HashMap<String, IZoneMinderMonitorData>();
+        if ((session == null) || !isConnected()) {
+            return snapshot;
+        }
+
+        IZoneMinderServer serverProxy = ZoneMinderFactory.getServerProxy(session);
+        if (serverProxy == null) {
+            return snapshot;
+        }
+
+        ArrayList<IZoneMinderMonitorData> monitors = serverProxy.getMonitors();
+        logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
+                serverProxy.getHttpUrl(), serverProxy.getHttpResponseCode(), serverProxy.getHttpResponseMessage());
+        if (monitors != null) {
+            for (IZoneMinderMonitorData monitor : monitors) {
+                snapshot.put(monitor.getId(), monitor);
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Starts the high priority refresh, unless it is already running. Called when a monitor has been triggered.
+     */
+    public void requestPriorityRefresh() {
+        synchronized (priorityRefreshLock) {
+            // Not needed if the ordinary refresh already runs every second
+            if ((taskPriorityRefreshData == null) && isConnected() && (refreshFrequency > 1)) {
+                taskPriorityRefreshData = startTask(refreshPriorityDataRunnable, 0, 1, TimeUnit.SECONDS);
+            }
+        }
+    }
+
     protected ZoneMinderBridgeServerConfig getBridgeConfig() {
         return this.getConfigAs(ZoneMinderBridgeServerConfig.class);
     }
@@ -493,26 +543,24 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
         }
 
         /*
-         * Request Things attached to Bridge to refresh
+         * Request Things attached to Bridge to refresh, using the data of all monitors fetched in one request
          */
+        Map<String, IZoneMinderMonitorData> monitors = getMonitorSnapshot(session);
+        boolean refreshAllMonitorData = false;
+        if ((System.currentTimeMillis() - lastFullMonitorRefresh) >= MONITOR_FULL_REFRESH_INTERVAL_MS) {
+            refreshAllMonitorData = true;
+            lastFullMonitorRefresh = System.currentTimeMillis();
+        }
+
         for (Thing thing : things) {
             try {
-
-                if (thing.getThingTypeUID().equals(ZoneMinderConstants.THING_TYPE_THING_ZONEMINDER_MONITOR)) {
-                    Thing thingMonitor = thing;
-                    ZoneMinderBaseThingHandler thingHandler = (ZoneMinderBaseThingHandler) thing.getHandler();
-
-                    thingHandler.refreshThing(session, DataRefreshPriorityEnum.SCHEDULED);
+                ThingHandler thingHandler = thing.getHandler();
+                if (thingHandler instanceof ZoneMinderThingMonitorHandler) {
+                    ZoneMinderThingMonitorHandler monitorHandler = (ZoneMinderThingMonitorHandler) thingHandler;
+                    monitorHandler.setMonitorSnapshot(monitors.get(monitorHandler.getZoneMinderId()),
+                            refreshAllMonitorData);
+                    monitorHandler.refreshThing(session, DataRefreshPriorityEnum.SCHEDULED);
                 }
-
-            } catch (NullPointerException ex) {
-                // This isn't critical (unless it comes over and over). There seems to be a bug so that a null
-                // pointer exception is coming every now and then.
-                // HAve to find the reason for that. Until thenm, don't Spamm
-                logger.debug("{}: Method 'refreshThing()' for Bridge {} failed for thing='{}' - Exception='{}'",
-                        getLogIdentifier(), this.getZoneMinderId(), thing.getUID(), ex.getMessage());
-
-                // Other exceptions has to be shown as errors
             } catch (Exception ex) {
                 logger.error("{}: Method 'refreshThing()' for Bridge {} failed for thing='{}' - Exception='{}'",
                         getLogIdentifier(), this.getZoneMinderId(), thing.getUID(), ex.getMessage());
@@ -1045,14 +1093,12 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
             // Start job to handle next updates
             taskRefreshData = startTask(refreshDataRunnable, refreshFrequency, refreshFrequency, TimeUnit.SECONDS);
 
-            if (taskPriorityRefreshData != null) {
-                taskPriorityRefreshData.cancel(true);
-                taskPriorityRefreshData = null;
-            }
-
-            // Only start if Priority Frequency is higher than ordinary
-            if (refreshFrequency > 1) {
-                taskPriorityRefreshData = startTask(refreshPriorityDataRunnable, 0, 1, TimeUnit.SECONDS);
+            // The priority refresh is started by trigger events, see requestPriorityRefresh()
+            synchronized (priorityRefreshLock) {
+                if (taskPriorityRefreshData != null) {
+                    taskPriorityRefreshData.cancel(true);
+                    taskPriorityRefreshData = null;
+                }
             }
         }
 
@@ -1075,10 +1121,12 @@ public class ZoneMinderServerBridgeHandler extends BaseBridgeHandler implements
         }
 
         // Stopping High priority thread while OFFLINE
-        if (taskPriorityRefreshData != null) {
-            taskPriorityRefreshData.cancel(true);
-            taskPriorityRefreshData = null;
-            logger.debug("{}: Stopping Priority DataRefresh task", getLogIdentifier());
+        synchronized (priorityRefreshLock) {
+            if (taskPriorityRefreshData != null) {
+                taskPriorityRefreshData.cancel(true);
+                taskPriorityRefreshData = null;
+                logger.debug("{}: Stopping Priority DataRefresh task", getLogIdentifier());
+            }
         }
 
         // Make sure everything gets refreshed
@@ -95,6 +95,12 @@ public class ZoneMinderThingMonitorHandler extends ZoneMinderBaseThingHandler im
 
     private int forceAlarmManualState = -1;
 
+    /** Monitor data fetched by the bridge for all monitors at once, used by the next refresh. */
+    private IZoneMinderMonitorData monitorSnapshot = null;
+
+    /** Daemon status and detailed status are requested on the next refresh even if nothing has changed. */
+    private boolean refreshAllData = true;
+
     public ZoneMinderThingMonitorHandler(Thing thing) {
         super(thing);
 
@@ -721,6 +727,20 @@ public class ZoneMinderThingMonitorHandler extends ZoneMinderBaseThingHandler im
 
     }
 
+    /**
+     * Hands over the monitor data the bridge fetched for all monitors in a single request.
+     *
+     * @param data the data of this monitor, null if it was not part of the snapshot
+     * @param refreshAll request daemon status and detailed status on the next refresh, even if the monitor is
+     *            unchanged
+     */
+    synchronized void setMonitorSnapshot(IZoneMinderMonitorData data, boolean refreshAll) {
+        monitorSnapshot = data;
+        if (refreshAll) {
+            refreshAllData = true;
+        }
+    }
+
     @Override
     protected void onFetchData() {
 
@@ -730,89 +750,63 @@ public class ZoneMinderThingMonitorHandler extends ZoneMinderBaseThingHandler im
         try {
             IZoneMinderMonitor monitorProxy = ZoneMinderFactory.getMonitorProxy(session, getZoneMinderId());
 
-            IZoneMinderMonitorData data = null;
-            IZoneMinderDaemonStatus captureDaemon = null;
-            IZoneMinderDaemonStatus analysisDaemon = null;
-            IZoneMinderDaemonStatus frameDaemon = null;
-
-            data = monitorProxy.getMonitorData();
-            logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
-                    monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(),
-                    monitorProxy.getHttpResponseMessage());
-
-            captureDaemon = monitorProxy.getCaptureDaemonStatus();
-            logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
-                    monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(),
-                    monitorProxy.getHttpResponseMessage());
-
-            analysisDaemon = monitorProxy.getAnalysisDaemonStatus();
-            logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
-                    monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(),
-                    monitorProxy.getHttpResponseMessage());
-
-            frameDaemon = monitorProxy.getFrameDaemonStatus();
-            logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
-                    monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(),
-                    monitorProxy.getHttpResponseMessage());
-
-            if ((data.getHttpResponseCode() != 200) || (captureDaemon.getHttpResponseCode() != 200)
-                    || (analysisDaemon.getHttpResponseCode() != 200) || (frameDaemon.getHttpResponseCode() != 200)) {
+            // Prefer the data the bridge fetched for all monitors, only request it if there is none
+            IZoneMinderMonitorData data = monitorSnapshot;
+            monitorSnapshot = null;
+            if (data == null) {
+                data = monitorProxy.getMonitorData();
+                logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
+                        monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(),
+                        monitorProxy.getHttpResponseMessage());
 
                 if (data.getHttpResponseCode() != 200) {
                     logger.warn("{}: HTTP Response MonitorData: Code='{}', Message'{}'", getLogIdentifier(),
                             data.getHttpResponseCode(), data.getHttpResponseMessage());
-
-                    channelMonitorStatus = ZoneMinderMonitorStatusEnum.UNKNOWN;
-                    channelFunction = ZoneMinderMonitorFunctionEnum.NONE;
-                    channelEnabled = false;
-                    channelEventCause = "";
+                    data = null;
                 }
-                if (captureDaemon.getHttpResponseCode() != 200) {
-                    channelDaemonCapture = false;
-                    logger.warn("{}: HTTP Response CaptureDaemon: Code='{}', Message'{}'", getLogIdentifier(),
-                            captureDaemon.getHttpResponseCode(), captureDaemon.getHttpResponseMessage());
+            }
 
-                }
-                if (analysisDaemon.getHttpResponseCode() != 200) {
-                    channelDaemonAnalysis = false;
+            if (data == null) {
+                channelMonitorStatus = ZoneMinderMonitorStatusEnum.UNKNOWN;
+                channelFunction = ZoneMinderMonitorFunctionEnum.NONE;
+                channelEnabled = false;
+                channelEventCause = "";
+                refreshAllData = true;
+            } else if (isConnected()) {
+                // Only ask for details if the monitor has changed or has been triggered
+                boolean changed = !isThingRefreshed() || (data.getFunction() != channelFunction)
+                        || (data.getEnabled() != channelEnabled);
 
-                    logger.warn("{}: HTTP Response AnalysisDaemon: Code='{}', Message='{}'", getLogIdentifier(),
-                            analysisDaemon.getHttpResponseCode(), analysisDaemon.getHttpResponseMessage());
-                }
-                if (frameDaemon.getHttpResponseCode() != 200) {
-                    channelDaemonFrame = false;
-                    logger.warn("{}: HTTP Response MonitorData: Code='{}', Message'{}'", getLogIdentifier(),
-                            frameDaemon.getHttpResponseCode(), frameDaemon.getHttpResponseMessage());
+                channelFunction = data.getFunction();
+                channelEnabled = data.getEnabled();
+
+                if (changed || refreshAllData) {
+                    fetchDaemonStatus(monitorProxy);
                 }
 
-            } else {
-                if (isConnected()) {
+                if (changed || refreshAllData || (DataRefreshPriorityEnum.HIGH_PRIORITY == getRefreshPriority())) {
                     channelMonitorStatus = monitorProxy.getMonitorDetailedStatus();
                     logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
                             monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(),
                             monitorProxy.getHttpResponseMessage());
 
-                    channelFunction = data.getFunction();
-                    channelEnabled = data.getEnabled();
                     IZoneMinderEventData event = monitorProxy.getLastEvent();
                     if (event != null) {
                         channelEventCause = event.getCause();
                     } else {
                         channelEventCause = "";
                     }
-
-                    channelDaemonCapture = captureDaemon.getStatus();
-                    channelDaemonAnalysis = analysisDaemon.getStatus();
-                    channelDaemonFrame = frameDaemon.getStatus();
-                } else {
-                    channelMonitorStatus = ZoneMinderMonitorStatusEnum.UNKNOWN;
-                    channelFunction = ZoneMinderMonitorFunctionEnum.NONE;
-                    channelEnabled = false;
-                    channelEventCause = "";
-                    channelDaemonCapture = false;
-                    channelDaemonAnalysis = false;
-                    channelDaemonFrame = false;
                 }
+                refreshAllData = false;
+            } else {
+                channelMonitorStatus = ZoneMinderMonitorStatusEnum.UNKNOWN;
+                channelFunction = ZoneMinderMonitorFunctionEnum.NONE;
+                channelEnabled = false;
+                channelEventCause = "";
+                channelDaemonCapture = false;
+                channelDaemonAnalysis = false;
+                channelDaemonFrame = false;
+                refreshAllData = true;
             }
         } finally {
             releaseSession();
@@ -827,6 +821,41 @@ public class ZoneMinderThingMonitorHandler extends ZoneMinderBaseThingHandler im
 
     }
 
+    private void fetchDaemonStatus(IZoneMinderMonitor monitorProxy) {
+        IZoneMinderDaemonStatus captureDaemon = monitorProxy.getCaptureDaemonStatus();
+        logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
+                monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(), monitorProxy.getHttpResponseMessage());
+        if (captureDaemon.getHttpResponseCode() != 200) {
+            channelDaemonCapture = false;
+            logger.warn("{}: HTTP Response CaptureDaemon: Code='{}', Message'{}'", getLogIdentifier(),
+                    captureDaemon.getHttpResponseCode(), captureDaemon.getHttpResponseMessage());
+        } else {
+            channelDaemonCapture = captureDaemon.getStatus();
+        }
+
+        IZoneMinderDaemonStatus analysisDaemon = monitorProxy.getAnalysisDaemonStatus();
+        logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
+                monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(), monitorProxy.getHttpResponseMessage());
+        if (analysisDaemon.getHttpResponseCode() != 200) {
+            channelDaemonAnalysis = false;
+            logger.warn("{}: HTTP Response AnalysisDaemon: Code='{}', Message='{}'", getLogIdentifier(),
+                    analysisDaemon.getHttpResponseCode(), analysisDaemon.getHttpResponseMessage());
+        } else {
+            channelDaemonAnalysis = analysisDaemon.getStatus();
+        }
+
+        IZoneMinderDaemonStatus frameDaemon = monitorProxy.getFrameDaemonStatus();
+        logger.debug("{}: URL='{}' ResponseCode='{}' ResponseMessage='{}'", getLogIdentifier(),
+                monitorProxy.getHttpUrl(), monitorProxy.getHttpResponseCode(), monitorProxy.getHttpResponseMessage());
+        if (frameDaemon.getHttpResponseCode() != 200) {
+            channelDaemonFrame = false;
+            logger.warn("{}: HTTP Response FrameDaemon: Code='{}', Message'{}'", getLogIdentifier(),
+                    frameDaemon.getHttpResponseCode(), frameDaemon.getHttpResponseMessage());
+        } else {
+            channelDaemonFrame = frameDaemon.getStatus();
+        }
+    }
+
     protected State getDetailedStatus() {
         State state = UnDefType.UNDEF;
 
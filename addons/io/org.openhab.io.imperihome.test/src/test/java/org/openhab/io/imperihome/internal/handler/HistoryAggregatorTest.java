@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.imperihome.internal.handler;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+import org.openhab.io.imperihome.internal.model.HistoryItem;
+
+/**
+ * Tests the bucket boundaries of the {@link HistoryAggregator}.
+ *
+ * @author agent - Initial contribution
+ */
+public class HistoryAggregatorTest {
+
+    private static final long START = 1500000000000L;
+
+    @Test
+    public void bucketStartsWithItsFirstMillisecond() {
+        HistoryAggregator aggregator = new HistoryAggregator(START, START + 1000, 10);
+        aggregator.add(START, 1);
+        aggregator.add(START + 99, 3);
+        aggregator.add(START + 100, 10);
+
+        List<HistoryItem> items = aggregator.getItems();
+
+        assertThat(items.size(), is(2));
+        assertItem(items.get(0), START + 50, 2, 1.0, 3.0);
+        assertItem(items.get(1), START + 100, 10, null, null);
+    }
+
+    @Test
+    public void endOfTheRangeBelongsToTheLastBucket() {
+        HistoryAggregator aggregator = new HistoryAggregator(START, START + 1000, 10);
+        aggregator.add(START + 900, 4);
+        aggregator.add(START + 1000, 6);
+
+        List<HistoryItem> items = aggregator.getItems();
+
+        assertThat(items.size(), is(1));
+        assertItem(items.get(0), START + 950, 5, 4.0, 6.0);
+    }
+
+    @Test
+    public void valuesOutsideOfTheRangeAreIgnored() {
+        HistoryAggregator aggregator = new HistoryAggregator(START, START + 1000, 10);
+        aggregator.add(START - 1, 1);
+        aggregator.add(START + 1001, 1);
+        aggregator.add(START + 500, Double.NaN);
+
+        assertThat(aggregator.isEmpty(), is(true));
+        assertThat(aggregator.getItems().size(), is(0));
+    }
+
+    @Test
+    public void unevenRangeGivesNoMoreThanTheMaximumNumberOfBuckets() {
+        // 1001 ms in 10 buckets of 101 ms, the last one is 92 ms long
+        HistoryAggregator aggregator = new HistoryAggregator(START, START + 1001, 10);
+        for (long time = START; time <= START + 1001; time++) {
+            aggregator.add(time, 1);
+        }
+
+        List<HistoryItem> items = aggregator.getItems();
+
+        assertThat(items.size(), is(10));
+        assertItem(items.get(0), START + 50, 1, 1.0, 1.0);
+        assertItem(items.get(9), START + 955, 1, 1.0, 1.0);
+    }
+
+    @Test
+    public void shortRangeGivesFewerBuckets() {
+        // 9 ms in buckets of 3 ms, there is no use for a fourth bucket
+        HistoryAggregator aggregator = new HistoryAggregator(START, START + 9, 4);
+        for (long time = START; time <= START + 9; time++) {
+            aggregator.add(time, time - START);
+        }
+
+        List<HistoryItem> items = aggregator.getItems();
+
+        assertThat(items.size(), is(3));
+        assertItem(items.get(0), START + 1, 1, 0.0, 2.0);
+        assertItem(items.get(1), START + 4, 4, 3.0, 5.0);
+        assertItem(items.get(2), START + 8, 7.5, 6.0, 9.0);
+    }
+
+    @Test
+    public void emptyRangeHasASingleBucket() {
+        HistoryAggregator aggregator = new HistoryAggregator(START, START, 10);
+        aggregator.add(START, 2);
+        aggregator.add(START, 4);
+
+        List<HistoryItem> items = aggregator.getItems();
+
+        assertThat(items.size(), is(1));
+        assertItem(items.get(0), START, 3, 2.0, 4.0);
+    }
+
+    private void assertItem(HistoryItem item, long date, double value, Double min, Double max) {
+        assertThat(item.getDate(), is(date));
+        assertThat(item.getValue().doubleValue(), is(value));
+        assertThat(item.getMin(), is((Number) min));
+        assertThat(item.getMax(), is((Number) max));
+    }
+}
@@ -11,9 +11,8 @@ package org.openhab.io.imperihome.internal.handler;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.util.Date;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 
 import javax.servlet.http.HttpServletRequest;
@@ -25,7 +24,6 @@ import org.eclipse.smarthome.core.persistence.PersistenceService;
 import org.eclipse.smarthome.core.persistence.PersistenceServiceRegistry;
 import org.eclipse.smarthome.core.persistence.QueryablePersistenceService;
 import org.eclipse.smarthome.core.types.State;
-import org.openhab.io.imperihome.internal.model.HistoryItem;
 import org.openhab.io.imperihome.internal.model.HistoryList;
 import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
 import org.openhab.io.imperihome.internal.processor.DeviceRegistry;
@@ -33,7 +31,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Device history request handler.
+ * Device history request handler. Persistence results are downsampled to a bounded number of buckets while they are
+ * read, and the results are cached for a short time, as tablets request the same history for many devices at once.
  *
  * @author Pepijn de Geus - Initial contribution
  */
@@ -41,11 +40,30 @@ public class DeviceHistoryHandler {
 
     private static final String CHARSET = "UTF-8";
 
+    /** Maximum number of values returned for a history request. */
+    private static final int MAX_HISTORY_VALUES = 200;
+
+    /** Requested ranges are rounded to this granularity, which is also the time results stay cached. */
+    private static final long RANGE_ROUNDING_MILLIS = 60 * 1000;
+
+    private static final int MAX_CACHE_ENTRIES = 128;
+
     private final Logger logger = LoggerFactory.getLogger(DeviceHistoryHandler.class);
 
     private final DeviceRegistry deviceRegistry;
     private final PersistenceServiceRegistry persistenceServiceRegistry;
 
+    /** Cached results by device, field and rounded range, in access order. Guarded by itself. */
+    private final Map<String, CachedHistory> historyCache = new LinkedHashMap<String, CachedHistory>(16, 0.75f,
+            true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedHistory> eldest) {
+            return size() > MAX_CACHE_ENTRIES;
+        }
+    };
+
     public DeviceHistoryHandler(DeviceRegistry deviceRegistry, PersistenceServiceRegistry persistenceServiceRegistry) {
         this.deviceRegistry = deviceRegistry;
         this.persistenceServiceRegistry = persistenceServiceRegistry;
@@ -81,7 +99,26 @@ public class DeviceHistoryHandler {
             return null;
         }
 
-        return serveHistory(device, (QueryablePersistenceService) persistence, start, end);
+        // round the range, so repeated requests for the last days hit the same cache entry
+        long roundedStart = Math.floorDiv(start, RANGE_ROUNDING_MILLIS) * RANGE_ROUNDING_MILLIS;
+        long roundedEnd = Math.floorDiv(end + RANGE_ROUNDING_MILLIS - 1, RANGE_ROUNDING_MILLIS) * RANGE_ROUNDING_MILLIS;
+        String cacheKey = persistence.getId() + '/' + deviceId + '/' + field + '/' + roundedStart + '/' + roundedEnd;
+
+        long now = System.currentTimeMillis();
+        synchronized (historyCache) {
+            CachedHistory cached = historyCache.get(cacheKey);
+            if (cached != null && now - cached.timestamp < RANGE_ROUNDING_MILLIS) {
+                logger.debug("Serving history for device {} from cache", deviceId);
+                return cached.historyList;
+            }
+        }
+
+        HistoryList historyList = serveHistory(device, (QueryablePersistenceService) persistence, roundedStart,
+                roundedEnd);
+        synchronized (historyCache) {
+            historyCache.put(cacheKey, new CachedHistory(historyList, now));
+        }
+        return historyList;
     }
 
     private HistoryList serveHistory(AbstractDevice device, QueryablePersistenceService persistence, long start,
@@ -91,29 +128,33 @@ public class DeviceHistoryHandler {
         FilterCriteria criteria = new FilterCriteria().setItemName(device.getItemName()).setBeginDate(new Date(start))
                 .setEndDate(new Date(end));
 
-        List<HistoryItem> resultItems = new LinkedList<>();
-        Iterable<HistoricItem> historicItems = persistence.query(criteria);
-
-        Iterator<HistoricItem> iterator = historicItems.iterator();
-        if (!iterator.hasNext()) {
-            logger.info("Persistence returned no results for history query");
-        } else {
-            while (iterator.hasNext()) {
-                HistoricItem historicItem = iterator.next();
-                State state = historicItem.getState();
-                if (state instanceof DecimalType) {
-                    Number value = ((DecimalType) state).toBigDecimal();
-                    resultItems.add(new HistoryItem(historicItem.getTimestamp(), value));
-                }
+        HistoryAggregator aggregator = new HistoryAggregator(start, end, MAX_HISTORY_VALUES);
+        boolean hasResults = false;
+        for (HistoricItem historicItem : persistence.query(criteria)) {
+            hasResults = true;
+            State state = historicItem.getState();
+            if (state instanceof DecimalType) {
+                aggregator.add(historicItem.getTimestamp().getTime(), ((DecimalType) state).doubleValue());
             }
+        }
 
-            if (resultItems.isEmpty()) {
-                logger.warn(
-                        "Persistence returned results for history query, but could not be interpreted as DecimalTypes");
-            }
+        if (!hasResults) {
+            logger.info("Persistence returned no results for history query");
+        } else if (aggregator.isEmpty()) {
+            logger.warn("Persistence returned results for history query, but could not be interpreted as DecimalTypes");
         }
 
-        return new HistoryList(resultItems);
+        return new HistoryList(aggregator.getItems());
+    }
+
+    private static class CachedHistory {
+        private final HistoryList historyList;
+        private final long timestamp;
+
+        CachedHistory(HistoryList historyList, long timestamp) {
+            this.historyList = historyList;
+            this.timestamp = timestamp;
+        }
     }
 
 }
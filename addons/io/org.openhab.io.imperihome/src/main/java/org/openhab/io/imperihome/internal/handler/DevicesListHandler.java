@@ -8,43 +8,114 @@
  */
 package org.openhab.io.imperihome.internal.handler;
 
-import java.util.Collection;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
-import org.openhab.io.imperihome.internal.model.device.DeviceList;
 import org.openhab.io.imperihome.internal.processor.DeviceRegistry;
+import org.openhab.io.imperihome.internal.util.DigestUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.Gson;
+
 /**
- * Device list request handler.
+ * Device list request handler. Keeps a serialized snapshot of the device list, which is only updated for devices that
+ * changed since the last request. Clients that send the ETag of the current snapshot get an empty 304 response.
  *
  * @author Pepijn de Geus - Initial contribution
  */
 public class DevicesListHandler {
 
+    private static final byte[] LIST_START = "{\"devices\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] LIST_END = "]}".getBytes(StandardCharsets.UTF_8);
+
     private final Logger logger = LoggerFactory.getLogger(DevicesListHandler.class);
 
     private final DeviceRegistry deviceRegistry;
+    private final Gson gson;
 
-    public DevicesListHandler(DeviceRegistry deviceRegistry) {
+    // Snapshot state, guarded by this
+    private final Map<String, byte[]> deviceJson = new LinkedHashMap<>();
+    private long snapshotVersion = -1;
+    private byte[] snapshot;
+    private String etag;
+
+    public DevicesListHandler(DeviceRegistry deviceRegistry, Gson gson) {
         this.deviceRegistry = deviceRegistry;
+        this.gson = gson;
     }
 
-    public DeviceList handle(HttpServletRequest req) {
-        DeviceList response = new DeviceList();
+    public void handle(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        byte[] body;
+        String currentEtag;
+        synchronized (this) {
+            updateSnapshot();
+            body = snapshot;
+            currentEtag = etag;
+        }
+
+        resp.setHeader("ETag", currentEtag);
+        String ifNoneMatch = req.getHeader("If-None-Match");
+        if (ifNoneMatch != null && ifNoneMatch.contains(currentEtag)) {
+            resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        resp.setContentLength(body.length);
+        resp.getOutputStream().write(body);
+    }
+
+    /**
+     * Brings the snapshot up to date with the device registry. Only changed devices are serialized again, except for
+     * devices with links, as their params are derived from other devices.
+     */
+    private void updateSnapshot() {
+        // read the version before the changes, so changes made during the update lead to another update
+        long version = deviceRegistry.getVersion();
+        if (snapshot != null && version == snapshotVersion) {
+            return;
+        }
+        Set<String> changedIds = deviceRegistry.pollChangedDeviceIds();
+
+        Map<String, AbstractDevice> devices = deviceRegistry.getDevices();
+        deviceJson.keySet().retainAll(devices.keySet());
+
+        int updated = 0;
+        for (AbstractDevice device : devices.values()) {
+            String id = device.getId();
+            if (changedIds.contains(id) || !device.getLinks().isEmpty() || !deviceJson.containsKey(id)) {
+                device.updateParams();
+                deviceJson.put(id, gson.toJson(device).getBytes(StandardCharsets.UTF_8));
+                updated++;
+            }
+        }
 
-        Collection<AbstractDevice> devices = deviceRegistry.getDevices().values();
-        for (AbstractDevice device : devices) {
-            device.updateParams();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(LIST_START, 0, LIST_START.length);
+        boolean first = true;
+        for (byte[] json : deviceJson.values()) {
+            if (!first) {
+                out.write(',');
+            }
+            out.write(json, 0, json.length);
+            first = false;
         }
+        out.write(LIST_END, 0, LIST_END.length);
 
-        response.setDevices(devices);
+        byte[] newSnapshot = out.toByteArray();
+        snapshot = newSnapshot;
+        snapshotVersion = version;
+        etag = '"' + DigestUtil.sha1(new String(newSnapshot, StandardCharsets.UTF_8)) + '"';
 
-        logger.debug("Device list response: {}", response);
-        return response;
+        logger.debug("Device list snapshot updated, {} of {} devices serialized", updated, devices.size());
     }
 
 }
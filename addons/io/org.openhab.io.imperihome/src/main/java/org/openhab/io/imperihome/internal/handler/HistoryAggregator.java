@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.imperihome.internal.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openhab.io.imperihome.internal.model.HistoryItem;
+
+/**
+ * Downsamples history values into a bounded number of equally sized time buckets, keeping the minimum, average and
+ * maximum value per bucket. Values are aggregated as they are added, so memory usage only depends on the number of
+ * buckets and not on the number of values.
+ *
+ * @author agent - Initial contribution
+ */
+class HistoryAggregator {
+
+    private final long start;
+    private final long range;
+    private final long bucketWidth;
+
+    private final int[] counts;
+    private final double[] sums;
+    private final double[] mins;
+    private final double[] maxs;
+    private final double[] timeOffsetSums;
+
+    HistoryAggregator(long start, long end, int maxBuckets) {
+        this.start = start;
+        this.range = Math.max(1, end - start);
+        this.bucketWidth = (range + maxBuckets - 1) / maxBuckets;
+
+        int bucketCount = (int) ((range + bucketWidth - 1) / bucketWidth);
+        counts = new int[bucketCount];
+        sums = new double[bucketCount];
+        mins = new double[bucketCount];
+        maxs = new double[bucketCount];
+        timeOffsetSums = new double[bucketCount];
+    }
+
+    /**
+     * Adds a value to its bucket. Values outside of the range are ignored.
+     */
+    void add(long timestamp, double value) {
+        long offset = timestamp - start;
+        if (offset < 0 || offset > range || Double.isNaN(value)) {
+            return;
+        }
+        // the end of the range belongs to the last bucket
+        int i = (int) Math.min(offset / bucketWidth, counts.length - 1);
+        if (counts[i] == 0) {
+            mins[i] = value;
+            maxs[i] = value;
+        } else {
+            mins[i] = Math.min(mins[i], value);
+            maxs[i] = Math.max(maxs[i], value);
+        }
+        counts[i]++;
+        sums[i] += value;
+        timeOffsetSums[i] += offset;
+    }
+
+    boolean isEmpty() {
+        for (int count : counts) {
+            if (count > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return One item per non-empty bucket in chronological order, dated at the mean time of its values.
+     */
+    List<HistoryItem> getItems() {
+        List<HistoryItem> items = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            int count = counts[i];
+            if (count == 0) {
+                continue;
+            }
+            long date = start + Math.round(timeOffsetSums[i] / count);
+            HistoryItem item = new HistoryItem(date, sums[i] / count);
+            if (count > 1) {
+                item.setMin(mins[i]);
+                item.setMax(maxs[i]);
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+}
@@ -19,6 +19,8 @@ public class HistoryItem {
 
     private long date;
     private Number value;
+    private Number min;
+    private Number max;
 
     public HistoryItem(Date date, Number value) {
         this(date.getTime(), value);
@@ -45,4 +47,26 @@ public class HistoryItem {
         this.value = value;
     }
 
+    /**
+     * @return Minimum value, if this item aggregates several values.
+     */
+    public Number getMin() {
+        return min;
+    }
+
+    public void setMin(Number min) {
+        this.min = min;
+    }
+
+    /**
+     * @return Maximum value, if this item aggregates several values.
+     */
+    public Number getMax() {
+        return max;
+    }
+
+    public void setMax(Number max) {
+        this.max = max;
+    }
+
 }
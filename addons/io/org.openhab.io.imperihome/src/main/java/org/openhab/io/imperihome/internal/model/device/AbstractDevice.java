@@ -53,6 +53,27 @@ public abstract class AbstractDevice implements StateChangeListener {
     private transient DeviceRegistry deviceRegistry;
     private transient ActionRegistry actionRegistry;
 
+    /**
+     * Forwards state events to this device and reports the device as changed afterwards, so the device list
+     * snapshot is only rebuilt once the params are up to date.
+     */
+    private final transient StateChangeListener stateChangeListener = new StateChangeListener() {
+        @Override
+        public void stateChanged(Item item, State oldState, State newState) {
+            AbstractDevice.this.stateChanged(item, oldState, newState);
+        }
+
+        @Override
+        public void stateUpdated(Item item, State newState) {
+            AbstractDevice.this.stateUpdated(item, newState);
+
+            DeviceRegistry registry = deviceRegistry;
+            if (registry != null) {
+                registry.deviceChanged(AbstractDevice.this);
+            }
+        }
+    };
+
     public AbstractDevice(DeviceType type, Item item) {
         this.type = type;
         this.item = item;
@@ -60,13 +81,13 @@ public abstract class AbstractDevice implements StateChangeListener {
         links = new HashMap<>();
 
         if (item instanceof GenericItem) {
-            ((GenericItem) item).addStateChangeListener(this);
+            ((GenericItem) item).addStateChangeListener(stateChangeListener);
         }
     }
 
     public void destroy() {
         if (item instanceof GenericItem) {
-            ((GenericItem) item).removeStateChangeListener(this);
+            ((GenericItem) item).removeStateChangeListener(stateChangeListener);
         }
 
         deviceRegistry = null;
@@ -15,6 +15,7 @@ import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.openhab.io.imperihome.internal.model.Room;
 import org.openhab.io.imperihome.internal.model.device.AbstractDevice;
@@ -22,7 +23,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * The device registry stores created devices by ID.
+ * The device registry stores created devices by ID. It keeps a version number and the IDs of changed devices, which
+ * allows to update the device list response incrementally.
  *
  * @author Pepijn de Geus - Initial contribution
  */
@@ -33,6 +35,9 @@ public class DeviceRegistry implements Iterable<AbstractDevice> {
     private final Map<String, AbstractDevice> devices;
     private Set<Room> rooms;
 
+    private final AtomicLong version = new AtomicLong();
+    private final Set<String> changedDeviceIds = ConcurrentHashMap.newKeySet();
+
     public DeviceRegistry() {
         devices = new ConcurrentHashMap<>();
     }
@@ -65,8 +70,10 @@ public class DeviceRegistry implements Iterable<AbstractDevice> {
             return;
         }
 
+        device.setDeviceRegistry(this);
         devices.put(device.getId(), device);
         updateRooms();
+        deviceChanged(device);
 
         logger.debug("Device {} added, registry now contains {} total", device.getName(), devices.size());
     }
@@ -75,11 +82,40 @@ public class DeviceRegistry implements Iterable<AbstractDevice> {
         AbstractDevice removed = devices.remove(deviceId);
         if (removed != null) {
             updateRooms();
+            deviceChanged(removed);
             logger.debug("Device {} removed, registry now contains {} total", removed.getName(), devices.size());
         }
         return removed;
     }
 
+    /**
+     * Marks a device as changed, after its params were updated or it was added or removed.
+     */
+    public void deviceChanged(AbstractDevice device) {
+        changedDeviceIds.add(device.getId());
+        version.incrementAndGet();
+    }
+
+    /**
+     * @return Version of the registry content, which increases with every change.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Returns the IDs of all devices that changed since the last call.
+     */
+    public Set<String> pollChangedDeviceIds() {
+        Set<String> changed = new HashSet<>();
+        Iterator<String> iterator = changedDeviceIds.iterator();
+        while (iterator.hasNext()) {
+            changed.add(iterator.next());
+            iterator.remove();
+        }
+        return changed;
+    }
+
     @Override
     public Iterator<AbstractDevice> iterator() {
         return devices.values().iterator();
@@ -94,6 +130,7 @@ public class DeviceRegistry implements Iterable<AbstractDevice> {
         if (rooms != null) {
             rooms.clear();
         }
+        version.incrementAndGet();
 
         logger.debug("Device registry cleared");
     }
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.voice.marytts.internal;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import org.eclipse.smarthome.core.audio.AudioFormat;
+import org.eclipse.smarthome.core.audio.AudioStream;
+import org.junit.Test;
+
+/**
+ * Reads a {@link MaryTTSStreamingAudioStream} while a stand-in for MaryTTS synthesizes the sentences of a text, and
+ * measures the time until the first audio can be played, compared with a {@link MaryTTSAudioStream} of the whole
+ * utterance.
+ *
+ * @author agent - Initial contribution
+ */
+public class MaryTTSStreamingAudioStreamTest {
+
+    private static final AudioFormat AUDIO_FORMAT = new AudioFormat(AudioFormat.CONTAINER_WAVE,
+            AudioFormat.CODEC_PCM_SIGNED, false, 16, 256000, 16000L);
+
+    private static final int WAV_HEADER_LENGTH = 44;
+
+    /** Time the stand-in takes to synthesize a sentence. */
+    private static final long SENTENCE_MILLIS = 50;
+
+    /** Half a second of 16 kHz audio per sentence. */
+    private static final int SENTENCE_LENGTH = 16000;
+
+    @Test
+    public void headerAnnouncesAStreamOfUnknownLength() throws IOException {
+        MaryTTSStreamingAudioStream stream = new MaryTTSStreamingAudioStream(AUDIO_FORMAT);
+        stream.finish();
+
+        byte[] header = readAll(stream);
+
+        assertThat(header.length, is(WAV_HEADER_LENGTH));
+        assertThat(new String(header, 0, 4, "US-ASCII"), is("RIFF"));
+        for (int i = 4; i < 8; i++) {
+            assertThat(header[i], is((byte) 0xff));
+        }
+    }
+
+    @Test
+    public void sentencesAreReadInTheOrderOfSynthesis() throws IOException {
+        MaryTTSStreamingAudioStream stream = new MaryTTSStreamingAudioStream(AUDIO_FORMAT);
+        stream.addChunk(sentence(1));
+        stream.addChunk(new byte[0]);
+        stream.addChunk(sentence(2));
+        stream.finish();
+
+        byte[] audio = readAll(stream);
+
+        assertThat(audio.length, is(WAV_HEADER_LENGTH + 2 * SENTENCE_LENGTH));
+        assertThat(audio[WAV_HEADER_LENGTH], is((byte) 1));
+        assertThat(audio[WAV_HEADER_LENGTH + SENTENCE_LENGTH], is((byte) 2));
+    }
+
+    @Test
+    public void failureIsReportedAfterTheSynthesizedAudio() throws IOException {
+        MaryTTSStreamingAudioStream stream = new MaryTTSStreamingAudioStream(AUDIO_FORMAT);
+        stream.addChunk(sentence(1));
+        stream.fail(new IOException("Error generating audio"));
+
+        byte[] buffer = new byte[WAV_HEADER_LENGTH + SENTENCE_LENGTH];
+        int read = 0;
+        while (read < buffer.length) {
+            read += stream.read(buffer, read, buffer.length - read);
+        }
+        try {
+            stream.read();
+            fail("The failure of the synthesis was not reported");
+        } catch (IOException e) {
+            assertThat(e.getMessage(), is("Error generating audio"));
+        }
+    }
+
+    @Test
+    public void closedStreamStopsTheSynthesis() throws Exception {
+        MaryTTSStreamingAudioStream stream = new MaryTTSStreamingAudioStream(AUDIO_FORMAT);
+        Thread synthesizer = synthesize(stream, 100);
+
+        readFirstAudio(stream);
+        stream.close();
+        synthesizer.join(10 * SENTENCE_MILLIS);
+
+        assertThat(synthesizer.isAlive(), is(false));
+    }
+
+    @Test
+    public void timeToFirstAudioDoesNotDependOnTheLengthOfTheText() throws Exception {
+        long shortText = timeToFirstStreamedAudio(1);
+        long longText = timeToFirstStreamedAudio(20);
+        long longTextBuffered = timeToFirstBufferedAudio(20);
+
+        // the first sentence is available after SENTENCE_MILLIS, whatever follows it
+        assertThat("First audio of a short text after " + shortText + " ms", shortText < 4 * SENTENCE_MILLIS,
+                is(true));
+        assertThat("First audio of a long text after " + longText + " ms", longText < 4 * SENTENCE_MILLIS, is(true));
+        // the whole utterance has to be synthesized before a buffered stream can be read
+        assertThat("First buffered audio of a long text after " + longTextBuffered + " ms",
+                longTextBuffered >= 20 * SENTENCE_MILLIS, is(true));
+    }
+
+    /**
+     * @return the milliseconds until the first audio of the given number of sentences can be read from a streaming
+     *         stream, the synthesis is started at the same time as the stream like in
+     *         {@link MaryTTSService#synthesize}
+     */
+    private long timeToFirstStreamedAudio(int sentences) throws Exception {
+        long start = System.nanoTime();
+        MaryTTSStreamingAudioStream stream = new MaryTTSStreamingAudioStream(AUDIO_FORMAT);
+        Thread synthesizer = synthesize(stream, sentences);
+
+        readFirstAudio(stream);
+        long millis = (System.nanoTime() - start) / 1000000;
+
+        stream.close();
+        synthesizer.join();
+        return millis;
+    }
+
+    /**
+     * @return the milliseconds until the first audio of the given number of sentences can be read from a stream of
+     *         the whole utterance
+     */
+    private long timeToFirstBufferedAudio(int sentences) throws Exception {
+        long start = System.nanoTime();
+        ByteArrayOutputStream rawAudio = new ByteArrayOutputStream();
+        for (int i = 1; i <= sentences; i++) {
+            Thread.sleep(SENTENCE_MILLIS);
+            rawAudio.write(sentence(i));
+        }
+        AudioStream stream = new MaryTTSAudioStream(rawAudio.toByteArray(), AUDIO_FORMAT);
+
+        readFirstAudio(stream);
+        long millis = (System.nanoTime() - start) / 1000000;
+
+        stream.close();
+        return millis;
+    }
+
+    /**
+     * Stands in for the synthesizing thread of {@link MaryTTSService}, which takes {@link #SENTENCE_MILLIS} for
+     * each sentence.
+     */
+    private Thread synthesize(MaryTTSStreamingAudioStream stream, int sentences) {
+        Thread synthesizer = new Thread(() -> {
+            try {
+                for (int i = 1; i <= sentences && !stream.isClosed(); i++) {
+                    Thread.sleep(SENTENCE_MILLIS);
+                    stream.addChunk(sentence(i));
+                }
+                stream.finish();
+            } catch (InterruptedException e) {
+                stream.fail(new IOException(e));
+            }
+        }, "MaryTTS stand-in");
+        synthesizer.start();
+        return synthesizer;
+    }
+
+    private void readFirstAudio(InputStream stream) throws IOException {
+        byte[] header = new byte[WAV_HEADER_LENGTH];
+        int read = 0;
+        while (read < header.length) {
+            read += stream.read(header, read, header.length - read);
+        }
+        assertThat(stream.read(), is(not(-1)));
+    }
+
+    private static byte[] sentence(int number) {
+        byte[] pcm = new byte[SENTENCE_LENGTH];
+        Arrays.fill(pcm, (byte) number);
+        return pcm;
+    }
+
+    private static byte[] readAll(InputStream stream) throws IOException {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = stream.read(buffer)) != -1) {
+            data.write(buffer, 0, read);
+        }
+        return data.toByteArray();
+    }
+}
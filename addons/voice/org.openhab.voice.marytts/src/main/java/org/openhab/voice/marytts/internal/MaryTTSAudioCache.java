@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.voice.marytts.internal;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+
+/**
+ * A cache of synthesized PCM audio, addressed by a hash of the voice, the locale and the text. Entries are evicted in
+ * least recently used order once the total size of the cached audio exceeds the configured maximum.
+ *
+ * The cached arrays are shared between all streams created from them and must not be modified.
+ *
+ * @author agent - Initial contribution
+ */
+class MaryTTSAudioCache {
+
+    /** Cached PCM data by cache key, in access order. Guarded by itself. */
+    private final LinkedHashMap<String, byte[]> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private volatile long maxSize;
+    private long size;
+
+    MaryTTSAudioCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Computes the key for a synthesized text.
+     *
+     * @return the hex encoded SHA-256 hash of voice, locale and text
+     */
+    static String getKey(String voiceLabel, Locale locale, String text) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(voiceLabel.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(locale.toLanguageTag().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            byte[] hash = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                key.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform has to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the cached PCM data, or null if the key is not cached
+     */
+    byte[] get(String key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    /**
+     * Adds PCM data to the cache. Data larger than the whole cache is not cached at all.
+     */
+    void put(String key, byte[] pcm) {
+        if (pcm.length > maxSize) {
+            return;
+        }
+        synchronized (entries) {
+            byte[] previous = entries.put(key, pcm);
+            if (previous != null) {
+                size -= previous.length;
+            }
+            size += pcm.length;
+            evict();
+        }
+    }
+
+    /**
+     * Changes the maximum size of the cache in bytes, 0 disables it.
+     */
+    void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+        synchronized (entries) {
+            evict();
+        }
+    }
+
+    private void evict() {
+        Iterator<byte[]> iterator = entries.values().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            size -= iterator.next().length;
+            iterator.remove();
+        }
+    }
+}
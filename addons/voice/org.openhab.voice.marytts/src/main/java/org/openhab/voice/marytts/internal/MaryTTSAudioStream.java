@@ -39,8 +39,9 @@ class MaryTTSAudioStream extends FixedLengthAudioStream {
      */
     private InputStream inputStream;
 
-    private byte[] rawAudio;
-    private int length;
+    private final byte[] rawAudio;
+    private final byte[] wavHeader;
+    private final int length;
 
     /**
      * Constructs an instance with the passed properties
@@ -50,10 +51,21 @@ class MaryTTSAudioStream extends FixedLengthAudioStream {
      * @throws IOException
      */
     public MaryTTSAudioStream(AudioInputStream inputStream, AudioFormat audioFormat) throws IOException {
-        rawAudio = IOUtils.toByteArray(inputStream);
+        this(IOUtils.toByteArray(inputStream), audioFormat);
+    }
+
+    /**
+     * Constructs an instance for already synthesized PCM data, e.g. from the {@link MaryTTSAudioCache}.
+     *
+     * @param rawAudio The PCM data, which is shared and not modified
+     * @param audioFormat The AudioFormat of this instance
+     */
+    public MaryTTSAudioStream(byte[] rawAudio, AudioFormat audioFormat) {
+        this.rawAudio = rawAudio;
         this.length = rawAudio.length + 36;
-        this.inputStream = new SequenceInputStream(getWavHeaderInputStream(length), new ByteArrayInputStream(rawAudio));
         this.audioFormat = audioFormat;
+        this.wavHeader = createWavHeader(length, audioFormat);
+        this.inputStream = createInputStream();
     }
 
     @Override
@@ -81,7 +93,18 @@ class MaryTTSAudioStream extends FixedLengthAudioStream {
         return length;
     }
 
-    private InputStream getWavHeaderInputStream(int length) throws IOException {
+    private InputStream createInputStream() {
+        return new SequenceInputStream(new ByteArrayInputStream(wavHeader), new ByteArrayInputStream(rawAudio));
+    }
+
+    /**
+     * Creates a WAVE header for 16 bit mono PCM data.
+     *
+     * @param length The length of the RIFF chunk, i.e. the PCM data length + 36
+     * @param audioFormat The AudioFormat to take the sample rate from
+     * @return The 44 bytes of the header
+     */
+    static byte[] createWavHeader(long length, AudioFormat audioFormat) {
         // WAVE header
         // see http://www-mmsp.ece.mcgill.ca/Documents/AudioFormats/WAVE/WAVE.html
         byte[] header = new byte[44];
@@ -89,7 +112,8 @@ class MaryTTSAudioStream extends FixedLengthAudioStream {
         byte format = 0x10; // PCM
         byte bits = 16;
         byte channel = 1;
-        long srate = (this.audioFormat != null) ? this.audioFormat.getFrequency() : 48000l;
+        long srate = (audioFormat != null && audioFormat.getFrequency() != null) ? audioFormat.getFrequency()
+                : 48000l;
         long rawLength = length - 36;
         long bitrate = srate * channel * bits;
 
@@ -137,21 +161,17 @@ class MaryTTSAudioStream extends FixedLengthAudioStream {
         header[41] = (byte) ((rawLength >> 8) & 0xff);
         header[42] = (byte) ((rawLength >> 16) & 0xff);
         header[43] = (byte) ((rawLength >> 24) & 0xff);
-        return new ByteArrayInputStream(header);
+        return header;
     }
 
     @Override
     public synchronized void reset() throws IOException {
         IOUtils.closeQuietly(inputStream);
-        this.inputStream = new SequenceInputStream(getWavHeaderInputStream(length), new ByteArrayInputStream(rawAudio));
+        this.inputStream = createInputStream();
     }
 
     @Override
     public InputStream getClonedStream() throws AudioException {
-        try {
-            return new SequenceInputStream(getWavHeaderInputStream(length), new ByteArrayInputStream(rawAudio));
-        } catch (IOException e) {
-            throw new AudioException(e);
-        }
+        return createInputStream();
     }
 }
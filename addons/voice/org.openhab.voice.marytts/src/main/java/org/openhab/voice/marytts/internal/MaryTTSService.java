@@ -15,16 +15,23 @@ package org.openhab.voice.marytts.internal;
  * http://www.eclipse.org/legal/epl-v10.html
  */
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.text.BreakIterator;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
 
+import org.apache.commons.io.IOUtils;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
 import org.slf4j.Logger;
@@ -44,10 +51,29 @@ import marytts.modules.synthesis.Voice;
  */
 public class MaryTTSService implements TTSService {
 
+    private static final String THREADPOOL_NAME = "marytts";
+
+    // Configuration from ConfigAdmin
+    private static final String CONFIG_STREAMING = "streaming";
+    private static final String CONFIG_CACHE_SIZE = "cacheSize";
+
+    /** Default size of the audio cache in kB, which holds about 8 minutes of 16kHz audio. */
+    private static final long DEFAULT_CACHE_SIZE = 16384;
+
     private final Logger logger = LoggerFactory.getLogger(MaryTTSService.class);
 
     private MaryInterface marytts;
 
+    /**
+     * Cache of synthesized audio, shared by all voices
+     */
+    private final MaryTTSAudioCache audioCache = new MaryTTSAudioCache(DEFAULT_CACHE_SIZE * 1024);
+
+    /**
+     * Whether texts with several sentences are streamed while they are synthesized
+     */
+    private volatile boolean streaming;
+
     /**
      * Set of supported voices
      */
@@ -58,8 +84,9 @@ public class MaryTTSService implements TTSService {
      */
     private HashSet<AudioFormat> audioFormats;
 
-    protected void activate() {
+    protected void activate(Map<String, Object> config) {
         try {
+            modified(config);
             marytts = getMaryInterface();
             voices = initVoices();
             audioFormats = initAudioFormats();
@@ -68,6 +95,23 @@ public class MaryTTSService implements TTSService {
         }
     }
 
+    protected void modified(Map<String, Object> config) {
+        long cacheSize = DEFAULT_CACHE_SIZE;
+        streaming = false;
+        if (config != null) {
+            Object value = config.get(CONFIG_CACHE_SIZE);
+            if (value != null) {
+                try {
+                    cacheSize = Math.max(0, Long.parseLong(value.toString().trim()));
+                } catch (NumberFormatException e) {
+                    logger.warn("Invalid cache size '{}', using {} kB", value, DEFAULT_CACHE_SIZE);
+                }
+            }
+            streaming = Boolean.parseBoolean(String.valueOf(config.get(CONFIG_STREAMING)));
+        }
+        audioCache.setMaxSize(cacheSize * 1024);
+    }
+
     @Override
     public Set<org.eclipse.smarthome.core.voice.Voice> getAvailableVoices() {
         return this.voices;
@@ -122,24 +166,92 @@ public class MaryTTSService implements TTSService {
         Voice maryTTSVoice = Voice.getVoice(voice.getLabel());
         AudioFormat maryTTSVoiceAudioFormat = getAudioFormat(maryTTSVoice.dbAudioFormat());
 
+        // Same voice and text give the same audio, so serve it from the cache if possible
+        String cacheKey = MaryTTSAudioCache.getKey(voice.getLabel(), voice.getLocale(), text);
+        byte[] rawAudio = audioCache.get(cacheKey);
+        if (rawAudio != null) {
+            return new MaryTTSAudioStream(rawAudio, maryTTSVoiceAudioFormat);
+        }
+
+        if (streaming) {
+            List<String> sentences = splitSentences(text, voice.getLocale());
+            if (sentences.size() > 1) {
+                return synthesizeStreaming(sentences, voice, maryTTSVoiceAudioFormat, cacheKey);
+            }
+        }
+
+        try {
+            rawAudio = generateAudio(text, voice);
+        } catch (SynthesisException | IOException e) {
+            throw new TTSException("Error generating an AudioStream", e);
+        }
+        audioCache.put(cacheKey, rawAudio);
+        return new MaryTTSAudioStream(rawAudio, maryTTSVoiceAudioFormat);
+    }
+
+    /**
+     * Synthesizes the sentences one by one in the background, so playback can start as soon as the first sentence is
+     * available. The complete audio is added to the cache once all sentences are synthesized.
+     */
+    private AudioStream synthesizeStreaming(List<String> sentences, org.eclipse.smarthome.core.voice.Voice voice,
+            AudioFormat audioFormat, String cacheKey) {
+        MaryTTSStreamingAudioStream audioStream = new MaryTTSStreamingAudioStream(audioFormat);
+        ThreadPoolManager.getPool(THREADPOOL_NAME).submit(() -> {
+            ByteArrayOutputStream rawAudio = new ByteArrayOutputStream();
+            try {
+                for (String sentence : sentences) {
+                    if (audioStream.isClosed()) {
+                        return;
+                    }
+                    byte[] chunk = generateAudio(sentence, voice);
+                    rawAudio.write(chunk);
+                    audioStream.addChunk(chunk);
+                }
+                audioCache.put(cacheKey, rawAudio.toByteArray());
+                audioStream.finish();
+            } catch (SynthesisException | IOException | RuntimeException e) {
+                logger.debug("Error generating audio: {}", e.getMessage(), e);
+                audioStream.fail(new IOException("Error generating audio", e));
+            }
+        });
+        return audioStream;
+    }
+
+    /**
+     * Synthesizes a text into PCM data
+     *
+     * @return The raw audio data without any header
+     */
+    private byte[] generateAudio(String text, org.eclipse.smarthome.core.voice.Voice voice)
+            throws SynthesisException, IOException {
         // Synchronize on marytts
         synchronized (marytts) {
-            // AudioStream to return
-            AudioStream audioStream = null;
-
             // Set voice (Each voice supports onl a single AudioFormat)
             marytts.setLocale(voice.getLocale());
             marytts.setVoice(voice.getLabel());
 
-            try {
-                AudioInputStream audioInputStream = marytts.generateAudio(text);
-                audioStream = new MaryTTSAudioStream(audioInputStream, maryTTSVoiceAudioFormat);
-            } catch (SynthesisException | IOException e) {
-                throw new TTSException("Error generating an AudioStream", e);
-            }
+            AudioInputStream audioInputStream = marytts.generateAudio(text);
+            return IOUtils.toByteArray(audioInputStream);
+        }
+    }
 
-            return audioStream;
+    /**
+     * Splits a text into its sentences
+     *
+     * @return The non-empty sentences of the text
+     */
+    private List<String> splitSentences(String text, Locale locale) {
+        List<String> sentences = new ArrayList<>();
+        BreakIterator iterator = BreakIterator.getSentenceInstance(locale);
+        iterator.setText(text);
+        int start = iterator.first();
+        for (int end = iterator.next(); end != BreakIterator.DONE; start = end, end = iterator.next()) {
+            String sentence = text.substring(start, end).trim();
+            if (!sentence.isEmpty()) {
+                sentences.add(sentence);
+            }
         }
+        return sentences;
     }
 
     /**
@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2010-2017 by the respective copyright holders.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.voice.marytts.internal;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.eclipse.smarthome.core.audio.AudioFormat;
+import org.eclipse.smarthome.core.audio.AudioStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An {@link AudioStream} which emits WAVE data while the utterance is still being synthesized. The synthesizing
+ * thread appends PCM chunks as they become available, the reading thread blocks until the next chunk arrives.
+ *
+ * As the final length is not known in advance, the WAVE header announces the maximum length, as usual for streamed
+ * WAVE data. This stream therefore is not a {@link org.eclipse.smarthome.core.audio.FixedLengthAudioStream}.
+ *
+ * @author agent - Initial contribution
+ */
+class MaryTTSStreamingAudioStream extends AudioStream {
+
+    /** RIFF chunk length announced for a stream of unknown length. */
+    private static final long STREAMING_LENGTH = 0xffffffffL;
+
+    private final Logger logger = LoggerFactory.getLogger(MaryTTSStreamingAudioStream.class);
+
+    private final AudioFormat audioFormat;
+    private final long startTime = System.nanoTime();
+
+    /** Chunks not yet read, the WAVE header first. Guarded by this. */
+    private final Deque<byte[]> chunks = new ArrayDeque<>();
+    private byte[] currentChunk;
+    private int position;
+    private boolean finished;
+    private boolean closed;
+    private boolean firstAudioRead;
+    private IOException failure;
+
+    public MaryTTSStreamingAudioStream(AudioFormat audioFormat) {
+        this.audioFormat = audioFormat;
+        this.currentChunk = MaryTTSAudioStream.createWavHeader(STREAMING_LENGTH, audioFormat);
+    }
+
+    @Override
+    public AudioFormat getFormat() {
+        return audioFormat;
+    }
+
+    /**
+     * Appends synthesized PCM data, called by the synthesizing thread.
+     */
+    synchronized void addChunk(byte[] pcm) {
+        if (pcm.length > 0 && !closed) {
+            chunks.add(pcm);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Marks the end of the utterance, called by the synthesizing thread.
+     */
+    synchronized void finish() {
+        finished = true;
+        notifyAll();
+    }
+
+    /**
+     * Aborts the utterance with an error, which is reported to the reader after all chunks have been read.
+     */
+    synchronized void fail(IOException e) {
+        failure = e;
+        finish();
+    }
+
+    /**
+     * @return true if the reader closed this stream, so synthesis can be stopped
+     */
+    synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+        if (!awaitData()) {
+            return -1;
+        }
+        return currentChunk[position++] & 0xff;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!awaitData()) {
+            return -1;
+        }
+        int count = Math.min(len, currentChunk.length - position);
+        System.arraycopy(currentChunk, position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public synchronized int available() {
+        return currentChunk != null ? currentChunk.length - position : 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        chunks.clear();
+        currentChunk = null;
+        notifyAll();
+        super.close();
+    }
+
+    /**
+     * Waits until there is unread data in the current chunk.
+     *
+     * @return false at the end of the stream
+     */
+    private boolean awaitData() throws IOException {
+        while (!closed && (currentChunk == null || position == currentChunk.length)) {
+            byte[] next = chunks.poll();
+            if (next != null) {
+                if (!firstAudioRead) {
+                    firstAudioRead = true;
+                    logger.debug("First audio available after {} ms",
+                            (System.nanoTime() - startTime) / 1000000);
+                }
+                currentChunk = next;
+                position = 0;
+            } else if (finished) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return false;
+            } else {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for synthesized audio");
+                }
+            }
+        }
+        return !closed;
+    }
+}
@@ -10,7 +10,10 @@ package org.openhab.voice.voicerss.internal;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
@@ -19,6 +22,7 @@ import org.eclipse.smarthome.config.core.ConfigConstants;
 import org.eclipse.smarthome.core.audio.AudioException;
 import org.eclipse.smarthome.core.audio.AudioFormat;
 import org.eclipse.smarthome.core.audio.AudioStream;
+import org.eclipse.smarthome.core.common.ThreadPoolManager;
 import org.eclipse.smarthome.core.voice.TTSException;
 import org.eclipse.smarthome.core.voice.TTSService;
 import org.eclipse.smarthome.core.voice.Voice;
@@ -41,6 +45,23 @@ public class VoiceRSSTTSService implements TTSService {
     private static final String CONFIG_API_KEY = "apiKey";
     private String apiKey = null;
 
+    // Cache limits and pre-warming, also from ConfigAdmin
+    private static final String CONFIG_MAX_CACHE_SIZE = "maxCacheSize";
+    private static final String CONFIG_MAX_MEMORY_CLIP_SIZE = "maxMemoryClipSize";
+    private static final String CONFIG_MAX_MEMORY_SIZE = "maxMemorySize";
+    private static final String CONFIG_PREWARM_FILE = "prewarmFile";
+    private static final String CONFIG_PREWARM_LOCALE = "prewarmLocale";
+
+    private static final long DEFAULT_MAX_CACHE_SIZE_MB = 0;
+    private static final long DEFAULT_MAX_MEMORY_CLIP_SIZE_KB = 64;
+    private static final long DEFAULT_MAX_MEMORY_SIZE_KB = 2048;
+    private static final String DEFAULT_PREWARM_LOCALE = "en-us";
+    private static final String PREWARM_AUDIO_FORMAT = "MP3";
+
+    private long maxCacheSize;
+    private long maxMemoryClipSize;
+    private long maxMemorySize;
+
     private final Logger logger = LoggerFactory.getLogger(VoiceRSSTTSService.class);
 
     /**
@@ -64,7 +85,6 @@ public class VoiceRSSTTSService implements TTSService {
     protected void activate(Map<String, Object> config) {
         try {
             modified(config);
-            voiceRssImpl = initVoiceImplementation();
             voices = initVoices();
             audioFormats = initAudioFormats();
 
@@ -75,11 +95,72 @@ public class VoiceRSSTTSService implements TTSService {
     }
 
     protected void modified(Map<String, Object> config) {
+        long newMaxCacheSize = DEFAULT_MAX_CACHE_SIZE_MB * 1024 * 1024;
+        long newMaxMemoryClipSize = DEFAULT_MAX_MEMORY_CLIP_SIZE_KB * 1024;
+        long newMaxMemorySize = DEFAULT_MAX_MEMORY_SIZE_KB * 1024;
+        String prewarmFile = null;
+        String prewarmLocale = DEFAULT_PREWARM_LOCALE;
         if (config != null) {
             this.apiKey = config.containsKey(CONFIG_API_KEY) ? config.get(CONFIG_API_KEY).toString() : null;
+            newMaxCacheSize = getSize(config, CONFIG_MAX_CACHE_SIZE, DEFAULT_MAX_CACHE_SIZE_MB) * 1024 * 1024;
+            newMaxMemoryClipSize = getSize(config, CONFIG_MAX_MEMORY_CLIP_SIZE, DEFAULT_MAX_MEMORY_CLIP_SIZE_KB)
+                    * 1024;
+            newMaxMemorySize = getSize(config, CONFIG_MAX_MEMORY_SIZE, DEFAULT_MAX_MEMORY_SIZE_KB) * 1024;
+            if (config.get(CONFIG_PREWARM_FILE) != null) {
+                prewarmFile = config.get(CONFIG_PREWARM_FILE).toString().trim();
+            }
+            if (config.get(CONFIG_PREWARM_LOCALE) != null) {
+                prewarmLocale = config.get(CONFIG_PREWARM_LOCALE).toString().trim();
+            }
+        }
+        // the cache index is built once, only recreate it when its limits change
+        if (voiceRssImpl == null || newMaxCacheSize != maxCacheSize || newMaxMemoryClipSize != maxMemoryClipSize
+                || newMaxMemorySize != maxMemorySize) {
+            maxCacheSize = newMaxCacheSize;
+            maxMemoryClipSize = newMaxMemoryClipSize;
+            maxMemorySize = newMaxMemorySize;
+            voiceRssImpl = initVoiceImplementation();
+        }
+        if (apiKey != null && prewarmFile != null && !prewarmFile.isEmpty()) {
+            prewarmCache(voiceRssImpl, apiKey, prewarmFile, prewarmLocale);
         }
     }
 
+    private long getSize(Map<String, Object> config, String key, long defaultValue) {
+        Object value = config.get(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long size = value instanceof Number ? ((Number) value).longValue()
+                    : Long.parseLong(value.toString().trim());
+            if (size >= 0) {
+                return size;
+            }
+        } catch (NumberFormatException ex) {
+            // fall through
+        }
+        logger.warn("Invalid value '{}' for {}, using {}", value, key, defaultValue);
+        return defaultValue;
+    }
+
+    /**
+     * Fills the cache in the background with the phrases of the given file, one phrase per line. This is the
+     * same input as used by the CreateTTSCache tool.
+     */
+    private void prewarmCache(CachedVoiceRSSCloudImplementation cache, String apiKey, String prewarmFile,
+            String locale) {
+        ThreadPoolManager.getPool("voicerss").submit(() -> {
+            try {
+                List<String> phrases = Files.readAllLines(new File(prewarmFile).toPath(), StandardCharsets.UTF_8);
+                int count = cache.prewarm(apiKey, phrases, locale, PREWARM_AUDIO_FORMAT);
+                logger.info("Pre-warmed VoiceRSS cache with {} phrases from {}", count, prewarmFile);
+            } catch (IOException ex) {
+                logger.warn("Could not pre-warm VoiceRSS cache from {}: {}", prewarmFile, ex.getMessage());
+            }
+        });
+    }
+
     @Override
     public Set<Voice> getAvailableVoices() {
         return this.voices;
@@ -125,6 +206,11 @@ public class VoiceRSSTTSService implements TTSService {
             if (cacheAudioFile == null) {
                 throw new TTSException("Could not read from VoiceRSS service");
             }
+            // small and frequently used clips are served from memory
+            byte[] audioData = voiceRssImpl.getAudioData(cacheAudioFile);
+            if (audioData != null) {
+                return new VoiceRSSMemoryAudioStream(audioData, requestedFormat);
+            }
             AudioStream audioStream = new VoiceRSSAudioStream(cacheAudioFile, requestedFormat);
             return audioStream;
         } catch (AudioException ex) {
@@ -205,7 +291,8 @@ public class VoiceRSSTTSService implements TTSService {
     }
 
     private final CachedVoiceRSSCloudImplementation initVoiceImplementation() {
-        CachedVoiceRSSCloudImplementation apiImpl = new CachedVoiceRSSCloudImplementation(getCacheFolderName());
+        CachedVoiceRSSCloudImplementation apiImpl = new CachedVoiceRSSCloudImplementation(getCacheFolderName(),
+                maxCacheSize, maxMemoryClipSize, maxMemorySize);
         return apiImpl;
     }
 
@@ -13,11 +13,24 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,51 +40,158 @@ import org.slf4j.LoggerFactory;
  * them in file system, as audio files with an additional .txt file to indicate
  * what content is in the audio file.
  *
+ * The content of the cache folder is indexed in memory when the cache is
+ * created, so lookups do not need to touch the file system. The index is kept
+ * in least recently used order, which allows to evict the oldest entries when
+ * the configured maximum cache size is exceeded. Concurrent requests for the
+ * same text are downloaded only once. Small audio clips which are requested
+ * more than once can be kept in memory, up to a configured memory budget.
+ *
  * @author Jochen Hiller - Initial contribution
  */
 public class CachedVoiceRSSCloudImplementation extends VoiceRSSCloudImplementation {
 
+    private static final String TEXT_FILE_EXTENSION = ".txt";
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+
     private final Logger logger = LoggerFactory.getLogger(CachedVoiceRSSCloudImplementation.class);
 
     private final File cacheFolder;
 
+    /** Maximum size of all cached audio files in bytes, 0 means unlimited. */
+    private final long maxCacheSize;
+
+    /** Maximum size of a single audio clip kept in memory in bytes, 0 disables the memory cache. */
+    private final long maxMemoryClipSize;
+
+    /** Maximum size of all audio clips kept in memory in bytes. */
+    private final long maxMemorySize;
+
+    /** Index of cached audio files by their file name, in access order. Guarded by itself. */
+    private final LinkedHashMap<String, CacheEntry> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long cacheSize;
+    private long memorySize;
+
+    /** Downloads in progress by their file name. */
+    private final Map<String, CompletableFuture<File>> pendingDownloads = new ConcurrentHashMap<>();
+
     public CachedVoiceRSSCloudImplementation(String cacheFolderName) {
+        this(cacheFolderName, 0, 0, 0);
+    }
+
+    /**
+     * Creates a cache in the given folder.
+     *
+     * @param cacheFolderName the folder for the cached audio files, created if missing
+     * @param maxCacheSize the maximum size of all cached audio files in bytes, 0 for unlimited
+     * @param maxMemoryClipSize the maximum size of an audio clip kept in memory in bytes, 0 to disable
+     * @param maxMemorySize the maximum size of all audio clips kept in memory in bytes
+     */
+    public CachedVoiceRSSCloudImplementation(String cacheFolderName, long maxCacheSize, long maxMemoryClipSize,
+            long maxMemorySize) {
         if (cacheFolderName == null) {
             throw new RuntimeException("Folder for cache must be defined");
         }
+        this.maxCacheSize = Math.max(0, maxCacheSize);
+        this.maxMemoryClipSize = Math.max(0, maxMemoryClipSize);
+        this.maxMemorySize = Math.max(0, maxMemorySize);
         // Lazy create the cache folder
         cacheFolder = new File(cacheFolderName);
         if (!cacheFolder.exists()) {
             cacheFolder.mkdirs();
         }
+        loadIndex();
     }
 
     public File getTextToSpeechAsFile(String apiKey, String text, String locale, String audioFormat)
             throws IOException {
         String fileNameInCache = getUniqeFilenameForText(text, locale);
+        String audioFileName = fileNameInCache + "." + audioFormat.toLowerCase();
         // check if in cache
-        File audioFileInCache = new File(cacheFolder, fileNameInCache + "." + audioFormat.toLowerCase());
-        if (audioFileInCache.exists()) {
-            return audioFileInCache;
+        CacheEntry entry = getEntry(audioFileName);
+        if (entry != null) {
+            return entry.audioFile;
         }
 
-        // if not in cache, get audio data and put to cache
-        try (InputStream is = super.getTextToSpeech(apiKey, text, locale, audioFormat);
-                FileOutputStream fos = new FileOutputStream(audioFileInCache);) {
-            copyStream(is, fos);
-            // write text to file for transparency too
-            // this allows to know which contents is in which audio file
-            File txtFileInCache = new File(cacheFolder, fileNameInCache + ".txt");
-            writeText(txtFileInCache, text);
-            // return from cache
+        // if not in cache, make sure only one caller downloads the audio data
+        CompletableFuture<File> download = new CompletableFuture<>();
+        CompletableFuture<File> runningDownload = pendingDownloads.putIfAbsent(audioFileName, download);
+        if (runningDownload != null) {
+            return awaitDownload(runningDownload);
+        }
+        try {
+            // the download may have completed since the first look into the index
+            entry = getEntry(audioFileName);
+            File audioFileInCache = entry != null ? entry.audioFile
+                    : downloadToCache(apiKey, text, locale, audioFormat, fileNameInCache, audioFileName);
+            download.complete(audioFileInCache);
             return audioFileInCache;
-        } catch (FileNotFoundException ex) {
-            logger.warn("Could not write {} to cache, return null", audioFileInCache, ex);
+        } catch (RuntimeException ex) {
+            download.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            pendingDownloads.remove(audioFileName, download);
+        }
+    }
+
+    /**
+     * Returns the content of a cached audio file from memory, if it is small enough to be kept there.
+     * A clip is loaded into memory on its second use, so that texts spoken only once do not occupy the
+     * memory budget.
+     *
+     * @param audioFile an audio file as returned by {@link #getTextToSpeechAsFile(String, String, String, String)}
+     * @return the audio data, or null if the clip is not (yet) kept in memory
+     */
+    public byte[] getAudioData(File audioFile) {
+        if (maxMemoryClipSize == 0) {
+            return null;
+        }
+        CacheEntry entry = getEntry(audioFile.getName());
+        if (entry == null || entry.size > maxMemoryClipSize || entry.size > maxMemorySize) {
             return null;
+        }
+        synchronized (index) {
+            if (entry.data != null) {
+                return entry.data;
+            }
+            if (!entry.requested) {
+                entry.requested = true;
+                return null;
+            }
+        }
+        byte[] data;
+        try {
+            data = Files.readAllBytes(audioFile.toPath());
         } catch (IOException ex) {
-            logger.error("Could not write {} to cache, return null", audioFileInCache, ex);
+            logger.debug("Could not read {} into memory: {}", audioFile, ex.getMessage());
             return null;
         }
+        synchronized (index) {
+            if (entry.data == null && index.get(audioFile.getName()) == entry) {
+                entry.data = data;
+                memorySize += data.length;
+                trimMemory(entry);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Fills the cache with audio data for all given texts. Texts which are already cached are skipped.
+     *
+     * @return the number of texts which are available in the cache afterwards
+     */
+    public int prewarm(String apiKey, List<String> texts, String locale, String audioFormat) throws IOException {
+        int count = 0;
+        for (String text : texts) {
+            if (text == null || text.trim().isEmpty()) {
+                continue;
+            }
+            if (getTextToSpeechAsFile(apiKey, text.trim(), locale, audioFormat) != null) {
+                count++;
+            }
+        }
+        return count;
     }
 
     /**
@@ -105,6 +225,156 @@ public class CachedVoiceRSSCloudImplementation extends VoiceRSSCloudImplementati
         }
     }
 
+    // cache index
+
+    private void loadIndex() {
+        File[] files = cacheFolder.listFiles();
+        if (files == null) {
+            return;
+        }
+        // oldest files first, so they are the first to be evicted
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        synchronized (index) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(TEMP_FILE_EXTENSION)) {
+                    // left over from an interrupted download
+                    file.delete();
+                } else if (file.isFile() && !name.endsWith(TEXT_FILE_EXTENSION)) {
+                    addEntry(new CacheEntry(file));
+                }
+            }
+            logger.debug("Indexed {} cached audio files with {} bytes in {}", index.size(), cacheSize, cacheFolder);
+            evict(null);
+        }
+    }
+
+    private CacheEntry getEntry(String audioFileName) {
+        synchronized (index) {
+            return index.get(audioFileName);
+        }
+    }
+
+    private void addEntry(CacheEntry entry) {
+        CacheEntry previous = index.put(entry.audioFile.getName(), entry);
+        if (previous != null) {
+            cacheSize -= previous.size;
+            memorySize -= previous.data != null ? previous.data.length : 0;
+        }
+        cacheSize += entry.size;
+    }
+
+    /**
+     * Removes least recently used entries until the cache size fits into the configured maximum.
+     * Must be called while holding the lock on the index.
+     *
+     * @param keep an entry which must not be evicted, e.g. the one just added
+     */
+    private void evict(CacheEntry keep) {
+        if (maxCacheSize == 0 || cacheSize <= maxCacheSize) {
+            return;
+        }
+        List<CacheEntry> evicted = new ArrayList<>();
+        Iterator<CacheEntry> iterator = index.values().iterator();
+        while (cacheSize > maxCacheSize && iterator.hasNext()) {
+            CacheEntry entry = iterator.next();
+            if (entry == keep) {
+                continue;
+            }
+            iterator.remove();
+            cacheSize -= entry.size;
+            memorySize -= entry.data != null ? entry.data.length : 0;
+            evicted.add(entry);
+        }
+        for (CacheEntry entry : evicted) {
+            logger.debug("Evict {} from cache", entry.audioFile);
+            entry.audioFile.delete();
+            String baseName = getBaseName(entry.audioFile.getName());
+            if (!isAudioCached(baseName)) {
+                new File(cacheFolder, baseName + TEXT_FILE_EXTENSION).delete();
+            }
+        }
+    }
+
+    /**
+     * Drops audio data from memory, least recently used first, until it fits into the memory budget.
+     * Must be called while holding the lock on the index.
+     */
+    private void trimMemory(CacheEntry keep) {
+        Iterator<CacheEntry> iterator = index.values().iterator();
+        while (memorySize > maxMemorySize && iterator.hasNext()) {
+            CacheEntry entry = iterator.next();
+            if (entry != keep && entry.data != null) {
+                memorySize -= entry.data.length;
+                entry.data = null;
+            }
+        }
+    }
+
+    private boolean isAudioCached(String baseName) {
+        for (String audioFormat : getAvailableAudioFormats()) {
+            if (index.containsKey(baseName + "." + audioFormat.toLowerCase())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getBaseName(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? fileName : fileName.substring(0, dot);
+    }
+
+    // download handling
+
+    private File downloadToCache(String apiKey, String text, String locale, String audioFormat,
+            String fileNameInCache, String audioFileName) {
+        File audioFileInCache = new File(cacheFolder, audioFileName);
+        // download into a temporary file first, so that an incomplete download is never served from cache
+        File tempFile = new File(cacheFolder, audioFileName + TEMP_FILE_EXTENSION);
+        try {
+            try (InputStream is = super.getTextToSpeech(apiKey, text, locale, audioFormat);
+                    FileOutputStream fos = new FileOutputStream(tempFile);) {
+                copyStream(is, fos);
+            }
+            Files.move(tempFile.toPath(), audioFileInCache.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            // write text to file for transparency too
+            // this allows to know which contents is in which audio file
+            File txtFileInCache = new File(cacheFolder, fileNameInCache + TEXT_FILE_EXTENSION);
+            writeText(txtFileInCache, text);
+            CacheEntry entry = new CacheEntry(audioFileInCache);
+            synchronized (index) {
+                addEntry(entry);
+                evict(entry);
+            }
+            // return from cache
+            return audioFileInCache;
+        } catch (FileNotFoundException ex) {
+            logger.warn("Could not write {} to cache, return null", audioFileInCache, ex);
+            tempFile.delete();
+            return null;
+        } catch (IOException ex) {
+            logger.error("Could not write {} to cache, return null", audioFileInCache, ex);
+            tempFile.delete();
+            return null;
+        }
+    }
+
+    private File awaitDownload(CompletableFuture<File> download) throws IOException {
+        try {
+            return download.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for audio download");
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
     // helper methods
 
     private void copyStream(InputStream inputStream, OutputStream outputStream) throws IOException {
@@ -127,4 +397,19 @@ public class CachedVoiceRSSCloudImplementation extends VoiceRSSCloudImplementati
             }
         }
     }
+
+    /**
+     * An audio file in the cache. The mutable fields are guarded by the lock on the index.
+     */
+    private static class CacheEntry {
+        private final File audioFile;
+        private final long size;
+        private boolean requested;
+        private byte[] data;
+
+        CacheEntry(File audioFile) {
+            this.audioFile = audioFile;
+            this.size = audioFile.length();
+        }
+    }
 }
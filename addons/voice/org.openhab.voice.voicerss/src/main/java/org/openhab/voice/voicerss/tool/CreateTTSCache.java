@@ -53,10 +53,10 @@ public class CreateTTSCache {
                 System.err.println("File " + inputFileName + " not found");
                 return RC_INPUT_FILE_NOT_FOUND;
             }
-            generateCacheForFile(apiKey, cacheDir, locale, inputFileName);
+            generateCacheForFile(apiKey, new CachedVoiceRSSCloudImplementation(cacheDir), locale, inputFileName);
         } else {
             String text = args[4];
-            generateCacheForMessage(apiKey, cacheDir, locale, text);
+            generateCacheForMessage(apiKey, new CachedVoiceRSSCloudImplementation(cacheDir), locale, text);
         }
         return RC_OK;
     }
@@ -76,8 +76,8 @@ public class CreateTTSCache {
         System.out.println();
     }
 
-    private void generateCacheForFile(String apiKey, String cacheDir, String locale, String inputFileName)
-            throws IOException {
+    private void generateCacheForFile(String apiKey, CachedVoiceRSSCloudImplementation impl, String locale,
+            String inputFileName) throws IOException {
         File inputFile = new File(inputFileName);
         BufferedReader br = null;
         try {
@@ -85,7 +85,7 @@ public class CreateTTSCache {
             String line;
             while ((line = br.readLine()) != null) {
                 // process the line.
-                generateCacheForMessage(apiKey, cacheDir, locale, line);
+                generateCacheForMessage(apiKey, impl, locale, line);
             }
         } finally {
             if (br != null) {
@@ -94,7 +94,8 @@ public class CreateTTSCache {
         }
     }
 
-    private void generateCacheForMessage(String apiKey, String cacheDir, String locale, String msg) throws IOException {
+    private void generateCacheForMessage(String apiKey, CachedVoiceRSSCloudImplementation impl, String locale,
+            String msg) throws IOException {
         if (msg == null) {
             System.err.println("Ignore msg=null");
             return;
@@ -104,7 +105,6 @@ public class CreateTTSCache {
             System.err.println("Ignore msg=''");
             return;
         }
-        CachedVoiceRSSCloudImplementation impl = new CachedVoiceRSSCloudImplementation(cacheDir);
         File cachedFile = impl.getTextToSpeechAsFile(apiKey, msg, locale, "MP3");
         System.out.println("Created cached audio for locale='" + locale + "', msg='" + msg + "' to file=" + cachedFile);
     }